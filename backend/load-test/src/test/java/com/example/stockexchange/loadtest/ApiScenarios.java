@@ -0,0 +1,187 @@
+package com.example.stockexchange.loadtest;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.example.stockexchange.loadtest.LoadTestSettings.*;
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * The recorded API journeys. Every virtual user registers its own account and keeps the
+ * {@code jwt} cookie the login sets, just like the frontend does. Requests are grouped
+ * (login, browse, listing, price) so the report and the baselines can be read per workload.
+ */
+final class ApiScenarios {
+
+    private static final Iterator<Map<String, Object>> NEW_ACCOUNTS = Stream.generate(() -> {
+        String id = UUID.randomUUID().toString().substring(0, 12);
+        return Map.<String, Object>of("email", "lt-" + id + "@example.com", "password", "pw-" + id);
+    }).iterator();
+
+    private ApiScenarios() {
+    }
+
+    static final ChainBuilder AUTHENTICATE = feed(NEW_ACCOUNTS)
+            .group("login").on(
+                    exec(http("register")
+                            .post(API + "/auth/register")
+                            .body(StringBody("""
+                                    {"firstName":"Load","lastName":"Test","email":"#{email}","password":"#{password}"}"""))
+                            .check(status().in(200, 201)))
+                    .exec(http("login")
+                            .post(API + "/auth/login")
+                            .body(StringBody("""
+                                    {"email":"#{email}","password":"#{password}"}"""))
+                            .check(status().is(200))));
+
+    static final ChainBuilder BROWSE = exec(session -> session
+            .set("page", ThreadLocalRandom.current().nextInt(3))
+            .set("exchangeId", 1 + ThreadLocalRandom.current().nextInt(SEEDED_EXCHANGES)))
+            .group("browse").on(
+                    exec(http("list exchanges").get(API + "/stockExchange?page=#{page}&size=10")
+                            .check(status().is(200)))
+                    .exec(http("live exchanges").get(API + "/stockExchange/live?page=0&size=10")
+                            .check(status().is(200)))
+                    .exec(http("exchange stocks").get(API + "/stockExchange/#{exchangeId}/stocks?page=0&size=20")
+                            .check(status().is(200))));
+
+    /*
+     * Creates a batch of fresh stocks, bulk-lists them on a seeded exchange and bulk-removes them
+     * again, so the exchanges stay the same size however long the run is.
+     */
+    static final ChainBuilder BULK_LISTING = exec(session -> session
+            .set("exchangeId", 1 + ThreadLocalRandom.current().nextInt(SEEDED_EXCHANGES))
+            .set("stockIds", new ArrayList<Long>()))
+            .group("listing").on(
+                    repeat(LISTING_BATCH_SIZE).on(
+                            exec(http("create stock")
+                                    .post(API + "/stock")
+                                    .body(StringBody(session -> """
+                                            {"name":"LT %s","description":"load test","currentPrice":%d}"""
+                                            .formatted(UUID.randomUUID().toString().substring(0, 20),
+                                                    10 + ThreadLocalRandom.current().nextInt(500))))
+                                    .check(status().is(201))
+                                    .check(jmesPath("data.stockId").ofLong().saveAs("stockId")))
+                            .exec(session -> {
+                                List<Long> stockIds = new ArrayList<>(session.getList("stockIds"));
+                                stockIds.add(session.getLong("stockId"));
+                                return session.set("stockIds", stockIds);
+                            }))
+                    .exec(http("bulk add listings")
+                            .post(API + "/stockExchange/#{exchangeId}/stocks")
+                            .body(StringBody(session -> "{\"stockIds\":" + session.getList("stockIds") + "}"))
+                            .check(status().is(201)))
+                    .exec(http("bulk remove listings")
+                            .delete(API + "/stockExchange/#{exchangeId}/stocks")
+                            .body(StringBody(session -> "{\"stockIds\":" + session.getList("stockIds") + "}"))
+                            .check(status().is(200))));
+
+    /*
+     * The same number of new stocks, once as single creates and once as one batch create, so the
+     * two groups compare per-row inserts with JDBC-batched ones.
+     */
+    static final ChainBuilder INSERT_ONE_BY_ONE = group("insert-single").on(
+            repeat(INSERT_BATCH_SIZE).on(
+                    exec(http("create stock")
+                            .post(API + "/stock")
+                            .body(StringBody(session -> newStockJson()))
+                            .check(status().is(201)))));
+
+    static final ChainBuilder INSERT_BATCH = group("insert-batch").on(
+            exec(http("create stocks")
+                    .post(API + "/stock/batch")
+                    .body(StringBody(session -> Stream.generate(ApiScenarios::newStockJson)
+                            .limit(INSERT_BATCH_SIZE)
+                            .collect(Collectors.joining(",", "{\"stocks\":[", "]}"))))
+                    .check(status().is(201))));
+
+    // tops the catalog up to PAGE_STOCKS new stocks, 500 per batch request
+    static final ChainBuilder SEED_PAGES = group("seed").on(
+            repeat(Math.max(1, PAGE_STOCKS / 500)).on(
+                    exec(http("create stocks")
+                            .post(API + "/stock/batch")
+                            .body(StringBody(session -> Stream.generate(ApiScenarios::newStockJson)
+                                    .limit(500)
+                                    .collect(Collectors.joining(",", "{\"stocks\":[", "]}"))))
+                            .check(status().is(201)))));
+
+    static final ChainBuilder LARGE_PAGES = exec(session -> session
+            .set("page", ThreadLocalRandom.current().nextInt(Math.max(1, PAGE_STOCKS / PAGE_SIZE)))
+            .set("exchangeId", 1 + ThreadLocalRandom.current().nextInt(SEEDED_EXCHANGES)))
+            .group("large-page").on(
+                    exec(http("stocks page").get(API + "/stock?page=#{page}&size=" + PAGE_SIZE + "&sortBy=name")
+                            .check(status().is(200)))
+                    .exec(http("not listed page")
+                            .get(API + "/stockExchange/#{exchangeId}/stocks/not-listed?page=#{page}&size=" + PAGE_SIZE)
+                            .check(status().is(200))));
+
+    static final ChainBuilder PRICE_UPDATE = exec(session -> session
+            .set("stockId", 1 + ThreadLocalRandom.current().nextInt(SEEDED_STOCKS))
+            .set("price", String.format("%.2f", 50 + ThreadLocalRandom.current().nextDouble(500))))
+            .group("price").on(
+                    exec(http("update price")
+                            .put(API + "/stock/#{stockId}/price")
+                            .body(StringBody("""
+                                    {"currentPrice":#{price}}"""))
+                            .check(status().is(200))));
+
+    private static String newStockJson() {
+        return """
+                {"name":"LT %s","description":"load test","currentPrice":%d}"""
+                .formatted(UUID.randomUUID().toString().substring(0, 20),
+                        10 + ThreadLocalRandom.current().nextInt(500));
+    }
+
+    static ScenarioBuilder login() {
+        return scenario("Login").exec(AUTHENTICATE);
+    }
+
+    static ScenarioBuilder browsing() {
+        return workload("Browse exchanges", BROWSE, Duration.ofMillis(200));
+    }
+
+    static ScenarioBuilder bulkListing() {
+        return workload("Bulk listing", BULK_LISTING, Duration.ofMillis(500));
+    }
+
+    static ScenarioBuilder priceUpdates() {
+        return workload("Price updates", PRICE_UPDATE, Duration.ofMillis(100));
+    }
+
+    static ScenarioBuilder singleInserts() {
+        return workload("Single inserts", INSERT_ONE_BY_ONE, Duration.ofMillis(100));
+    }
+
+    static ScenarioBuilder seedPages() {
+        return scenario("Seed large pages").exec(AUTHENTICATE).exitHereIfFailed().exec(SEED_PAGES);
+    }
+
+    static ScenarioBuilder largePages() {
+        return workload("Large pages", LARGE_PAGES, Duration.ofMillis(100));
+    }
+
+    static ScenarioBuilder batchInserts() {
+        return workload("Batch inserts", INSERT_BATCH, Duration.ofMillis(100));
+    }
+
+    // log in once, then loop the workload until the steady phase is over; without a cookie every
+    // request would be a cheap 401 and flatter the numbers, so a failed login ends the user
+    private static ScenarioBuilder workload(String name, ChainBuilder chain, Duration pause) {
+        return scenario(name)
+                .exec(AUTHENTICATE)
+                .exitHereIfFailed()
+                .during(STEADY.plus(RAMP)).on(exec(chain).pause(pause));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.stockexchange.loadtest;
+
+import io.gatling.javaapi.core.Assertion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static io.gatling.javaapi.core.CoreDsl.details;
+import static io.gatling.javaapi.core.CoreDsl.global;
+
+/**
+ * Turns a stored baseline ({@code baselines/<name>.properties}) into Gatling assertions, so a run
+ * fails when it is slower, less productive or more error-prone than the recorded one.
+ * <p>
+ * Keys are {@code <scope>.<metric>} where scope is {@code global} or a request group name and
+ * metric is one of {@code throughput.min} (req/s), {@code p50.max}, {@code p99.max},
+ * {@code p999.max} (ms) and {@code error-rate.max} (percent). Latency limits are stretched by
+ * {@link LoadTestSettings#BASELINE_TOLERANCE} to absorb run-to-run noise.
+ */
+final class Baselines {
+
+    private Baselines() {
+    }
+
+    static List<Assertion> load(String name) {
+        Properties baseline = new Properties();
+        String resource = "baselines/" + name + ".properties";
+        try (InputStream in = Baselines.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing baseline " + resource);
+            }
+            baseline.load(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        Set<String> scopes = new TreeSet<>();
+        baseline.stringPropertyNames().forEach(key -> scopes.add(key.substring(0, key.indexOf('.'))));
+
+        List<Assertion> assertions = new ArrayList<>();
+        for (String scope : scopes) {
+            String throughput = baseline.getProperty(scope + ".throughput.min");
+            if (throughput != null) {
+                assertions.add(path(scope).requestsPerSec().gte(Double.parseDouble(throughput)));
+            }
+            addPercentile(assertions, scope, 50.0, baseline.getProperty(scope + ".p50.max"));
+            addPercentile(assertions, scope, 99.0, baseline.getProperty(scope + ".p99.max"));
+            addPercentile(assertions, scope, 99.9, baseline.getProperty(scope + ".p999.max"));
+            String errorRate = baseline.getProperty(scope + ".error-rate.max");
+            if (errorRate != null) {
+                assertions.add(path(scope).failedRequests().percent().lte(Double.parseDouble(errorRate)));
+            }
+        }
+        return assertions;
+    }
+
+    private static void addPercentile(List<Assertion> assertions, String scope, double percentile, String maxMillis) {
+        if (maxMillis == null) {
+            return;
+        }
+        int limit = (int) Math.ceil(Integer.parseInt(maxMillis) * LoadTestSettings.BASELINE_TOLERANCE);
+        assertions.add(path(scope).responseTime().percentile(percentile).lte(limit));
+    }
+
+    private static Assertion.WithPath path(String scope) {
+        return "global".equals(scope) ? global() : details(scope);
+    }
+}
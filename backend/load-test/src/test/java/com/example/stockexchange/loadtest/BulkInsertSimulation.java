@@ -0,0 +1,35 @@
+package com.example.stockexchange.loadtest;
+
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import static com.example.stockexchange.loadtest.LoadTestSettings.*;
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+
+/**
+ * Insert throughput: one population creates stocks one request at a time, the other creates the
+ * same number per round through the batch endpoint. Compare the {@code insert-single} and
+ * {@code insert-batch} group times; the run is checked against {@code baselines/bulk-insert.properties}.
+ */
+public class BulkInsertSimulation extends Simulation {
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(BASE_URL)
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json")
+            .shareConnections();
+
+    {
+        setUp(
+                ApiScenarios.singleInserts().injectClosed(
+                        rampConcurrentUsers(0).to(INSERT_USERS).during(RAMP),
+                        constantConcurrentUsers(INSERT_USERS).during(STEADY)),
+                ApiScenarios.batchInserts().injectClosed(
+                        rampConcurrentUsers(0).to(INSERT_USERS).during(RAMP),
+                        constantConcurrentUsers(INSERT_USERS).during(STEADY))
+        )
+                .protocols(httpProtocol)
+                .assertions(Baselines.load(System.getProperty("baseline", "bulk-insert")));
+    }
+}
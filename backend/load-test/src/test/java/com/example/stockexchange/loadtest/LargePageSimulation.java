@@ -0,0 +1,34 @@
+package com.example.stockexchange.loadtest;
+
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import static com.example.stockexchange.loadtest.LoadTestSettings.*;
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+
+/**
+ * Read latency on large pages: one user seeds {@code pageStocks} stocks, then {@code pageUsers}
+ * readers page through the catalog and the stocks not listed on an exchange, {@code pageSize} at a
+ * time. Both lists are DTO projections, so compare the {@code large-page} group times and the
+ * server's allocation rate against a run of the entity-mapping version.
+ */
+public class LargePageSimulation extends Simulation {
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(BASE_URL)
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json")
+            .shareConnections();
+
+    {
+        setUp(
+                ApiScenarios.seedPages().injectOpen(atOnceUsers(1)).andThen(
+                        ApiScenarios.largePages().injectClosed(
+                                rampConcurrentUsers(0).to(PAGE_USERS).during(RAMP),
+                                constantConcurrentUsers(PAGE_USERS).during(STEADY)))
+        )
+                .protocols(httpProtocol)
+                .assertions(Baselines.load(System.getProperty("baseline", "large-pages")));
+    }
+}
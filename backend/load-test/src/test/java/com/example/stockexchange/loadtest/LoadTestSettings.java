@@ -0,0 +1,45 @@
+package com.example.stockexchange.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Run parameters, all overridable with {@code -D} on the Maven command line so the same scenarios
+ * serve a quick smoke run and a full capacity run.
+ */
+final class LoadTestSettings {
+
+    static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+    static final String API = "/api/v1";
+
+    // new accounts per second; every one costs two password hashes on the server
+    static final int LOGIN_USERS = Integer.getInteger("loginUsersPerSec", 1);
+
+    // concurrent virtual users per workload
+    static final int BROWSE_USERS = Integer.getInteger("browseUsers", 5);
+    static final int LISTING_USERS = Integer.getInteger("listingUsers", 2);
+    static final int PRICE_USERS = Integer.getInteger("priceUsers", 3);
+
+    static final Duration RAMP = Duration.ofSeconds(Long.getLong("rampSeconds", 10));
+    static final Duration STEADY = Duration.ofSeconds(Long.getLong("durationSeconds", 60));
+
+    // ids seeded by the V3 migration
+    static final int SEEDED_EXCHANGES = 5;
+    static final int SEEDED_STOCKS = 10;
+
+    static final int LISTING_BATCH_SIZE = Integer.getInteger("listingBatchSize", 10);
+
+    // BulkInsertSimulation: users per insert style, stocks per round
+    static final int INSERT_USERS = Integer.getInteger("insertUsers", 2);
+    static final int INSERT_BATCH_SIZE = Integer.getInteger("insertBatchSize", 200);
+
+    // LargePageSimulation: readers, stocks seeded before the run, stocks per page
+    static final int PAGE_USERS = Integer.getInteger("pageUsers", 5);
+    static final int PAGE_STOCKS = Integer.getInteger("pageStocks", 2000);
+    static final int PAGE_SIZE = Integer.getInteger("pageSize", 500);
+
+    // when set, measured latencies may exceed the stored baseline by this factor before failing
+    static final double BASELINE_TOLERANCE = Double.parseDouble(System.getProperty("baselineTolerance", "1.2"));
+
+    private LoadTestSettings() {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.stockexchange.loadtest;
+
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import static com.example.stockexchange.loadtest.LoadTestSettings.*;
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+
+/**
+ * Mixed traffic against a locally running app: a steady trickle of logins next to closed
+ * populations browsing, bulk-listing and updating prices. The run is checked against
+ * {@code baselines/stock-exchange-api.properties}.
+ */
+public class StockExchangeApiSimulation extends Simulation {
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(BASE_URL)
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json")
+            .shareConnections();
+
+    {
+        setUp(
+                ApiScenarios.login().injectOpen(
+                        rampUsersPerSec(1).to(LOGIN_USERS).during(RAMP),
+                        constantUsersPerSec(LOGIN_USERS).during(STEADY)),
+                ApiScenarios.browsing().injectClosed(
+                        rampConcurrentUsers(0).to(BROWSE_USERS).during(RAMP),
+                        constantConcurrentUsers(BROWSE_USERS).during(STEADY)),
+                ApiScenarios.bulkListing().injectClosed(
+                        rampConcurrentUsers(0).to(LISTING_USERS).during(RAMP),
+                        constantConcurrentUsers(LISTING_USERS).during(STEADY)),
+                ApiScenarios.priceUpdates().injectClosed(
+                        rampConcurrentUsers(0).to(PRICE_USERS).during(RAMP),
+                        constantConcurrentUsers(PRICE_USERS).during(STEADY))
+        )
+                .protocols(httpProtocol)
+                .assertions(Baselines.load(System.getProperty("baseline", "stock-exchange-api")));
+    }
+}
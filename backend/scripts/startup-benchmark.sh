@@ -0,0 +1,109 @@
+#!/usr/bin/env bash
+# Startup benchmark: time from launch to the first successful request, and resident memory once up.
+#
+#   scripts/startup-benchmark.sh jvm    [runs]   # target/stock-exchange-0.0.1-SNAPSHOT.jar
+#   scripts/startup-benchmark.sh cds    [runs]   # the same jar, extracted, with a trained class-data archive
+#   scripts/startup-benchmark.sh crac   [runs]   # the same jar restored from a checkpoint (CRaC JDK as java)
+#   scripts/startup-benchmark.sh native [runs]   # target/stock-exchange (./mvnw -Pnative native:compile)
+#
+# Every run starts the prod profile against the same H2 file in a scratch directory; one unmeasured
+# run first applies the migrations, and for cds and crac trains the archive or takes the checkpoint
+# first. Prints each run, then the median. Linux only (reads /proc); crac needs the CRIU privileges
+# of the JDK's documentation.
+set -euo pipefail
+
+MODE=${1:?usage: startup-benchmark.sh <jvm|cds|crac|native> [runs]}
+RUNS=${2:-5}
+PORT=${PORT:-18080}
+JAVA_OPTS=${JAVA_OPTS:--Xms256m -Xmx512m}
+HERE=$(cd "$(dirname "$0")/.." && pwd)
+JAR="$HERE/target/stock-exchange-0.0.1-SNAPSHOT.jar"
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+APP_ARGS=(
+  --spring.profiles.active=prod
+  --server.port="$PORT"
+  --spring.datasource.url="jdbc:h2:file:$WORK/db;MODE=MySQL"
+  --spring.h2.console.enabled=false
+  --app.ticks.directory="$WORK/ticks"
+  --app.snapshots.directory="$WORK/snapshots"
+)
+
+# the class-data archive only takes jars on the class path, not the nested ones of the fat jar
+extract() {
+  java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" > /dev/null
+  EXTRACTED="$WORK/app/$(basename "$JAR")"
+}
+
+case "$MODE" in
+  jvm)
+    COMMAND=(java $JAVA_OPTS -jar "$JAR")
+    ;;
+  cds)
+    extract
+    java $JAVA_OPTS -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.context.exit=onRefresh \
+      -jar "$EXTRACTED" "${APP_ARGS[@]}" > "$WORK/training.log" 2>&1
+    COMMAND=(java $JAVA_OPTS -XX:SharedArchiveFile="$WORK/app.jsa" -jar "$EXTRACTED")
+    ;;
+  crac)
+    mkdir "$WORK/checkpoint"
+    # killed once the image is written
+    java $JAVA_OPTS -XX:CRaCCheckpointTo="$WORK/checkpoint" -Dspring.context.checkpoint=onRefresh \
+      -jar "$JAR" "${APP_ARGS[@]}" > "$WORK/checkpoint.log" 2>&1 || true
+    if ! ls "$WORK/checkpoint"/*.img > /dev/null 2>&1; then
+      echo "no checkpoint was written, see the log:" >&2
+      tail -n 40 "$WORK/checkpoint.log" >&2
+      exit 1
+    fi
+    # a restored JVM runs with the arguments it was checkpointed with
+    COMMAND=(java -XX:CRaCRestoreFrom="$WORK/checkpoint")
+    APP_ARGS=()
+    ;;
+  native)
+    COMMAND=("$HERE/target/stock-exchange")
+    ;;
+  *)
+    echo "unknown mode $MODE" >&2; exit 2
+    ;;
+esac
+
+now_ms() { date +%s%3N; }
+
+# prints "<millis to first 200> <rss kB> <peak rss kB>"
+run_once() {
+  local started pid ready
+  started=$(now_ms)
+  "${COMMAND[@]}" ${APP_ARGS[@]+"${APP_ARGS[@]}"} > "$WORK/app.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "application exited, see the log:" >&2
+      tail -n 40 "$WORK/app.log" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  ready=$(( $(now_ms) - started ))
+  local rss hwm
+  rss=$(awk '/^VmRSS/ {print $2}' "/proc/$pid/status")
+  hwm=$(awk '/^VmHWM/ {print $2}' "/proc/$pid/status")
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$ready $rss $hwm"
+}
+
+median() { sort -n | awk '{v[NR]=$1} END {print (NR % 2) ? v[(NR+1)/2] : int((v[NR/2]+v[NR/2+1])/2)}'; }
+
+run_once > /dev/null
+printf '%-8s %6s %12s %12s\n' mode run ready_ms rss_mb
+: > "$WORK/results"
+for run in $(seq 1 "$RUNS"); do
+  read -r ready rss hwm < <(run_once)
+  echo "$ready $rss $hwm" >> "$WORK/results"
+  printf '%-8s %6s %12s %12s\n' "$MODE" "$run" "$ready" "$(( rss / 1024 ))"
+done
+printf '%-8s %6s %12s %12s\n' "$MODE" median \
+  "$(cut -d' ' -f1 "$WORK/results" | median)" \
+  "$(( $(cut -d' ' -f2 "$WORK/results" | median) / 1024 ))"
+echo "peak rss (MB, median): $(( $(cut -d' ' -f3 "$WORK/results" | median) / 1024 ))"
@@ -14,7 +14,8 @@ public class AuditAwareImpl implements AuditorAware<String> {
     public Optional<String> getCurrentAuditor() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        if (authentication != null || !authentication.isAuthenticated()) {
+        // no authentication at all on background threads (e.g. password rehash during login)
+        if (authentication == null || !authentication.isAuthenticated()) {
             return Optional.of("SYSTEM");
         }
         return Optional.of(authentication.getName());
@@ -3,9 +3,12 @@ package com.example.stockexchange.config;
 import com.example.stockexchange.exception.AuthenticationException;
 import com.example.stockexchange.service.JwtService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -35,10 +38,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
 
+    // stockexchange.security.jwt, one timer per filter stage
+    private final Timer extractTimer;
+    private final Timer parseTimer;
+    private final Timer userLookupTimer;
+    private final Timer validateTimer;
+
     public JwtAuthenticationFilter(JwtService jwtService,
-                                   @Lazy UserDetailsService userDetailsService) {
+                                   @Lazy UserDetailsService userDetailsService,
+                                   MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.extractTimer = stageTimer(meterRegistry, "extract");
+        this.parseTimer = stageTimer(meterRegistry, "parse");
+        this.userLookupTimer = stageTimer(meterRegistry, "user-lookup");
+        this.validateTimer = stageTimer(meterRegistry, "validate");
         log.info("JwtAuthenticationFilter initialized");
     }
 
@@ -49,7 +63,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain) throws ServletException, IOException {
 
 
-        String jwt = extractJwtFromRequest(request);
+        String jwt = extractTimer.record(() -> extractJwtFromRequest(request));
 
         if (jwt == null) {
             log.debug("No JWT token found, continuing filter chain");
@@ -58,12 +72,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            String userEmail = jwtService.extractUsername(jwt);
+            // signature checked once here, the claims serve both the lookup and the validation
+            Claims claims = parseTimer.record(() -> jwtService.extractAllClaims(jwt));
+            String userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                // a verify-only node takes the principal from the signed claims, without a database
+                UserDetails userDetails = jwtService.isVerifyOnly()
+                        ? jwtService.userDetailsFrom(claims)
+                        : userLookupTimer.record(() -> this.userDetailsService.loadUserByUsername(userEmail));
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (Boolean.TRUE.equals(validateTimer.record(() -> jwtService.isTokenValid(claims, userDetails)))) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -113,6 +132,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("stockexchange.security.jwt")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
     private void sendErrorResponse(HttpServletResponse response, String error, String message, HttpStatus status) throws IOException {
         response.setStatus(status.value());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
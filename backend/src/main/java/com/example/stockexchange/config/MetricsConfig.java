@@ -0,0 +1,36 @@
+package com.example.stockexchange.config;
+
+import com.example.stockexchange.metrics.QueryCounter;
+import com.example.stockexchange.metrics.RouteMeterFilter;
+import com.example.stockexchange.metrics.TimedJacksonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+    }
+
+    // replaces Boot's default Jackson converter, same ObjectMapper
+    @Bean
+    public TimedJacksonHttpMessageConverter timedJacksonHttpMessageConverter(ObjectMapper objectMapper,
+                                                                             MeterRegistry meterRegistry) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    // runs after Boot's property-based filter, so it can switch off the histograms that enables
+    @Bean
+    public RouteMeterFilter routeMeterFilter(@Value("${app.metrics.histogram-excluded-uris:}") List<String> excludedUris) {
+        return new RouteMeterFilter(excludedUris);
+    }
+}
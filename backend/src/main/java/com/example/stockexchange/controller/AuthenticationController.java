@@ -6,8 +6,10 @@ import com.example.stockexchange.request.RegisterRequest;
 import com.example.stockexchange.response.ApiRespond;
 import com.example.stockexchange.response.AuthenticationResponse;
 import com.example.stockexchange.service.AuthenticationService;
+import com.example.stockexchange.service.LoginRateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,12 +29,16 @@ public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
 
+    private final LoginRateLimiter loginRateLimiter;
+
     private final long jwtExpirationSeconds;
 
 
     public AuthenticationController(AuthenticationService authenticationService,
+                                    LoginRateLimiter loginRateLimiter,
                                     @Value("${jwt.expiration}") long jwtExpirationSeconds) {
         this.authenticationService = authenticationService;
+        this.loginRateLimiter = loginRateLimiter;
         this.jwtExpirationSeconds = jwtExpirationSeconds;
     }
 
@@ -49,7 +55,11 @@ public class AuthenticationController {
     @Operation(summary = "Login a User", description = "Submit email & password to authenticate a User")
     @ResponseStatus(HttpStatus.OK)
     @PostMapping("/login")
-    public ResponseEntity<ApiRespond> login(@Valid @RequestBody AuthenticationRequest authenticationRequest) throws AuthenticationException {
+    public ResponseEntity<ApiRespond> login(@Valid @RequestBody AuthenticationRequest authenticationRequest,
+                                            HttpServletRequest request) throws AuthenticationException {
+
+        // shape before any hashing happens
+        loginRateLimiter.acquire(authenticationRequest.getEmail(), request.getRemoteAddr());
 
         AuthenticationResponse token = authenticationService.login(authenticationRequest);
 
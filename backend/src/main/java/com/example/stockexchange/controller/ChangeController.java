@@ -0,0 +1,56 @@
+package com.example.stockexchange.controller;
+
+import com.example.stockexchange.dto.ChangeSetDto;
+import com.example.stockexchange.response.ApiRespond;
+import com.example.stockexchange.service.ChangeLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("${app.paths.api-base}${app.paths.api-version}/changes")
+@RequiredArgsConstructor
+@Validated
+@RestController
+@Tag(name = "Change Sync Rest API Endpoints", description = "Incremental sync of stocks, stock exchanges and listings")
+public class ChangeController {
+
+    private final ChangeLogService changeLogService;
+
+    @Operation(summary = "Get changes since a cursor",
+            description = "Returns the latest change per row after the given sequence, pass the returned cursor back as since")
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping
+    public ResponseEntity<ApiRespond> getChangesSince(
+            @RequestParam(defaultValue = "0") @PositiveOrZero long since,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        ChangeSetDto changeSet = changeLogService.getChangesSince(since, limit);
+
+        return ResponseEntity.ok(new ApiRespond(
+                HttpStatus.OK,
+                "Changes retrieved successfully",
+                changeSet
+        ));
+    }
+
+    @Operation(summary = "Get the current change cursor",
+            description = "Read this before a full load, then sync from it with GET /changes")
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/head")
+    public ResponseEntity<ApiRespond> getHeadSequence() {
+        return ResponseEntity.ok(new ApiRespond(
+                HttpStatus.OK,
+                "Current change cursor",
+                changeLogService.getHeadSequence()
+        ));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.stockexchange.controller;
+
+import com.example.stockexchange.service.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+@RestController
+@Tag(name = "JWKS Endpoint", description = "Public keys for verifying JWTs issued by this node")
+public class JwksController {
+
+    private final JwtKeyRing jwtKeyRing;
+
+    // plain JWKS document (not wrapped in ApiRespond) so standard JWT libraries can consume it
+    @Operation(summary = "Get the JSON Web Key Set", description = "Public keys accepted for JWT verification, empty in HS256 mode")
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(jwtKeyRing.publicJwks());
+    }
+}
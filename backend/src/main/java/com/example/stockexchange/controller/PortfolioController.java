@@ -0,0 +1,69 @@
+package com.example.stockexchange.controller;
+
+import com.example.stockexchange.dto.PortfolioDto;
+import com.example.stockexchange.request.HoldingUpdateRequest;
+import com.example.stockexchange.response.ApiRespond;
+import com.example.stockexchange.service.PortfolioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RequestMapping("${app.paths.api-base}${app.paths.api-version}/portfolio")
+@RequiredArgsConstructor
+@Validated
+@RestController
+@Tag(name = "Portfolio Rest API Endpoints", description = "The current user's holdings and their live valuation")
+public class PortfolioController {
+
+    private final PortfolioService portfolioService;
+
+    @Operation(summary = "Get my portfolio", description = "Market value, cost basis and P&L at the latest prices")
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping
+    public ResponseEntity<ApiRespond> getPortfolio(Authentication authentication) {
+        PortfolioDto portfolio = portfolioService.getPortfolio(authentication.getName());
+        return ResponseEntity.ok(new ApiRespond(
+                HttpStatus.OK,
+                "Portfolio retrieved successfully",
+                portfolio
+        ));
+    }
+
+    @Operation(summary = "Stream my portfolio",
+            description = "Server-sent events: the current valuation, then the latest one whenever it changes")
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPortfolio(Authentication authentication) {
+        return portfolioService.streamPortfolio(authentication.getName());
+    }
+
+    @Operation(summary = "Set a holding", description = "Sets my position in a stock, quantity 0 closes it")
+    @ApiResponse(responseCode = "200", description = "Holding set, the updated portfolio is returned")
+    @ApiResponse(responseCode = "404", description = "Stock not found")
+    @PreAuthorize("hasRole('USER')")
+    @PutMapping("/holdings/{stockId}")
+    public ResponseEntity<ApiRespond> setHolding(
+            @PathVariable @Positive long stockId,
+            @Valid @RequestBody HoldingUpdateRequest request,
+            Authentication authentication) {
+
+        portfolioService.setHolding(authentication.getName(), stockId, request);
+
+        return ResponseEntity.ok(new ApiRespond(
+                HttpStatus.OK,
+                "Holding updated successfully",
+                portfolioService.getPortfolio(authentication.getName())
+        ));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.stockexchange.controller;
+
+import com.example.stockexchange.dto.PriceAlertDto;
+import com.example.stockexchange.request.PriceAlertCreationRequest;
+import com.example.stockexchange.response.ApiRespond;
+import com.example.stockexchange.service.PriceAlertService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RequestMapping("${app.paths.api-base}${app.paths.api-version}/alerts")
+@RequiredArgsConstructor
+@Validated
+@RestController
+@Tag(name = "Price Alert Rest API Endpoints", description = "A user's price thresholds on stocks")
+public class PriceAlertController {
+
+    private final PriceAlertService priceAlertService;
+
+    @Operation(summary = "Create a price alert",
+            description = "Fires once when the stock's price reaches the threshold, right away if it already has")
+    @ApiResponse(responseCode = "201", description = "Price alert created")
+    @ApiResponse(responseCode = "404", description = "Stock not found")
+    @ApiResponse(responseCode = "409", description = "Too many active alerts for this user")
+    @ApiResponse(responseCode = "503", description = "Price alerts are at capacity")
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping
+    public ResponseEntity<ApiRespond> createAlert(@Valid @RequestBody PriceAlertCreationRequest request,
+                                                  Authentication authentication) {
+
+        PriceAlertDto alert = priceAlertService.createAlert(authentication.getName(), request);
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(new ApiRespond(
+                        HttpStatus.CREATED,
+                        "Price alert created successfully",
+                        alert
+                ));
+    }
+
+    @Operation(summary = "Get my price alerts", description = "Retrieves the current user's alerts, newest first")
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping
+    public ResponseEntity<ApiRespond> getAlerts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+
+        Page<PriceAlertDto> alerts = priceAlertService.getAlerts(authentication.getName(), page, size);
+
+        return ResponseEntity.ok(new ApiRespond(
+                HttpStatus.OK,
+                "Price alerts retrieved successfully",
+                alerts
+        ));
+    }
+
+    @Operation(summary = "Cancel a price alert", description = "Cancels one of the current user's active alerts")
+    @ApiResponse(responseCode = "204", description = "Price alert cancelled")
+    @ApiResponse(responseCode = "404", description = "Price alert not found")
+    @ApiResponse(responseCode = "409", description = "Price alert already triggered or cancelled")
+    @PreAuthorize("hasRole('USER')")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelAlert(@PathVariable @Positive long id, Authentication authentication) {
+        priceAlertService.cancelAlert(authentication.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.stockexchange.controller;
 
+import com.example.stockexchange.dto.PriceHistoryDto;
 import com.example.stockexchange.dto.StockDto;
 import com.example.stockexchange.dto.StockExchangeDto;
 import com.example.stockexchange.request.StockCreationRequest;
 import com.example.stockexchange.request.StockPriceUpdateRequest;
+import com.example.stockexchange.request.StocksCreationRequest;
 import com.example.stockexchange.response.ApiRespond;
+import com.example.stockexchange.service.ListingHistoryService;
+import com.example.stockexchange.service.PriceHistoryService;
 import com.example.stockexchange.service.StockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,6 +23,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
 @RequestMapping("${app.paths.api-base}${app.paths.api-version}/stock")
 @RequiredArgsConstructor
 @Validated
@@ -27,14 +35,21 @@ import org.springframework.web.bind.annotation.*;
 public class StockController {
 
     private final StockService stockService;
+    private final PriceHistoryService priceHistoryService;
+    private final ListingHistoryService listingHistoryService;
 
-    @Operation(summary = "Get stock by ID", description = "Retrieves a single stock by its ID")
+    @Operation(summary = "Get stock by ID",
+            description = "Retrieves a single stock by its ID; with asOf (ISO-8601), its price at that instant")
     @ApiResponse(responseCode = "200", description = "Stock found and returned")
-    @ApiResponse(responseCode = "404", description = "Stock not found")
+    @ApiResponse(responseCode = "404", description = "Stock not found, or no price known at asOf")
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/{id}")
-    public ResponseEntity<ApiRespond> getStockById(@PathVariable @Positive long id) {
-        StockDto stock = stockService.getStockById(id);
+    public ResponseEntity<ApiRespond> getStockById(
+            @PathVariable @Positive long id,
+            @RequestParam(required = false) Instant asOf) {
+        StockDto stock = asOf == null
+                ? stockService.getStockById(id)
+                : priceHistoryService.getStockAsOf(id, asOf);
         return ResponseEntity.ok(new ApiRespond(
                 HttpStatus.OK,
                 "Stock retrieved successfully",
@@ -42,6 +57,28 @@ public class StockController {
         ));
     }
 
+    @Operation(summary = "Get the price history of a stock",
+            description = "Ticks between from and to (ISO-8601, default the last day), or OHLC bars when a step such as PT1M is given")
+    @ApiResponse(responseCode = "200", description = "History returned")
+    @ApiResponse(responseCode = "400", description = "Invalid range, or too many points for one response")
+    @ApiResponse(responseCode = "404", description = "Stock not found")
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/{id}/history")
+    public ResponseEntity<ApiRespond> getPriceHistory(
+            @PathVariable @Positive long id,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Duration step) {
+
+        PriceHistoryDto history = priceHistoryService.getHistory(id, from, to, step);
+
+        return ResponseEntity.ok(new ApiRespond(
+                HttpStatus.OK,
+                "Price history retrieved successfully",
+                history
+        ));
+    }
+
     @Operation(summary = "Get all Stocks", description = "Retrieves a paginated list of all Stocks")
     @PreAuthorize("hasRole('USER')")
     @GetMapping
@@ -67,9 +104,13 @@ public class StockController {
     public ResponseEntity<ApiRespond> getAllStockExchangesByStock(
             @PathVariable Long stockId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Instant asOf) {
 
-        Page<StockExchangeDto> stockExchanges = stockService.getAllStockExchangesByStock(stockId, page, size);
+        // asOf: the exchanges listing the stock at that instant
+        Page<StockExchangeDto> stockExchanges = asOf == null
+                ? stockService.getAllStockExchangesByStock(stockId, page, size)
+                : listingHistoryService.getStockExchangesByStockAsOf(stockId, asOf, page, size);
 
         return ResponseEntity.ok(new ApiRespond(
                 HttpStatus.OK,
@@ -94,6 +135,25 @@ public class StockController {
                 ));
     }
 
+    @Operation(summary = "Create multiple Stocks", description = "Creates up to 1000 Stocks in a single operation")
+    @ApiResponse(responseCode = "201", description = "Stocks created successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid request data")
+    @ApiResponse(responseCode = "409", description = "One or more stock names already exist")
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping("/batch")
+    public ResponseEntity<ApiRespond> createStocks(@Valid @RequestBody StocksCreationRequest request) {
+
+        List<StockDto> createdStocks = stockService.createStocks(request.getStocks());
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(new ApiRespond(
+                        HttpStatus.CREATED,
+                        String.format("Successfully created %d stocks", createdStocks.size()),
+                        createdStocks
+                ));
+    }
+
     @Operation(summary = "Update stock price", description = "Updates the price of an existing stock")
     @ApiResponse(responseCode = "200", description = "Stock price updated successfully")
     @ApiResponse(responseCode = "400", description = "Invalid request data")
@@ -4,11 +4,16 @@ package com.example.stockexchange.controller;
 import com.example.stockexchange.dto.StockDto;
 import com.example.stockexchange.dto.StockExchangeDto;
 import com.example.stockexchange.dto.StockListingDto;
+import com.example.stockexchange.dto.TradingSessionDto;
 import com.example.stockexchange.request.AddStocksToExchangeRequest;
 import com.example.stockexchange.request.StockExchangeCreationRequest;
 import com.example.stockexchange.request.StockExchangeUpdateRequest;
+import com.example.stockexchange.request.TradingCalendarRequest;
 import com.example.stockexchange.response.ApiRespond;
+import com.example.stockexchange.service.ListingHistoryService;
+import com.example.stockexchange.service.ListingMutationScheduler;
 import com.example.stockexchange.service.StockExchangeService;
+import com.example.stockexchange.service.TradingSessionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,6 +27,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 
 @RequestMapping("${app.paths.api-base}${app.paths.api-version}/stockExchange")
@@ -32,6 +38,9 @@ import java.util.List;
 public class StockExchangeController {
 
     private final StockExchangeService stockExchangeService;
+    private final TradingSessionService tradingSessionService;
+    private final ListingHistoryService listingHistoryService;
+    private final ListingMutationScheduler listingMutationScheduler;
 
     @Operation(summary = "Get all Stock Exchanges", description = "Retrieves a paginated list of all Stock Exchanges")
     @PreAuthorize("hasRole('USER')")
@@ -107,9 +116,13 @@ public class StockExchangeController {
             @PathVariable Long id,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "") String sortBy) {
+            @RequestParam(defaultValue = "") String sortBy,
+            @RequestParam(required = false) Instant asOf) {
 
-        Page<StockDto> stocks = stockExchangeService.getAllStocksByExchange(id, page, size, sortBy);
+        // asOf: the stocks listed at that instant, with their prices then
+        Page<StockDto> stocks = asOf == null
+                ? stockExchangeService.getAllStocksByExchange(id, page, size, sortBy)
+                : listingHistoryService.getStocksByExchangeAsOf(id, asOf, page, size);
         return ResponseEntity.ok(new ApiRespond(HttpStatus.OK, "All Available Stocks In StockExchange", stocks));
     }
 
@@ -153,6 +166,50 @@ public class StockExchangeController {
         ));
     }
 
+    @Operation(summary = "Get the trading session", description = "Current session phase of a stock exchange and its next change")
+    @ApiResponse(responseCode = "200", description = "Session returned")
+    @ApiResponse(responseCode = "404", description = "Stock exchange not found")
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/{id}/session")
+    public ResponseEntity<ApiRespond> getTradingSession(@PathVariable @Positive long id) {
+        TradingSessionDto session = tradingSessionService.getSession(id);
+        return ResponseEntity.ok(new ApiRespond(
+                HttpStatus.OK,
+                "Trading session retrieved successfully",
+                session
+        ));
+    }
+
+    @Operation(summary = "Set the trading calendar",
+            description = "Trading hours, days and holidays of a stock exchange; without one it trades around the clock")
+    @ApiResponse(responseCode = "200", description = "Calendar set, the resulting session is returned")
+    @ApiResponse(responseCode = "400", description = "Invalid calendar")
+    @ApiResponse(responseCode = "404", description = "Stock exchange not found")
+    @PreAuthorize("hasRole('USER')")
+    @PutMapping("/{id}/calendar")
+    public ResponseEntity<ApiRespond> setTradingCalendar(
+            @PathVariable @Positive long id,
+            @Valid @RequestBody TradingCalendarRequest request) {
+
+        TradingSessionDto session = tradingSessionService.setCalendar(id, request);
+
+        return ResponseEntity.ok(new ApiRespond(
+                HttpStatus.OK,
+                "Trading calendar updated successfully",
+                session
+        ));
+    }
+
+    @Operation(summary = "Remove the trading calendar", description = "The stock exchange trades around the clock again")
+    @ApiResponse(responseCode = "204", description = "Calendar removed")
+    @ApiResponse(responseCode = "404", description = "No calendar for this stock exchange")
+    @PreAuthorize("hasRole('USER')")
+    @DeleteMapping("/{id}/calendar")
+    public ResponseEntity<Void> deleteTradingCalendar(@PathVariable @Positive long id) {
+        tradingSessionService.deleteCalendar(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Delete a stock exchange", description = "Deletes a stock exchange from the system")
     @ApiResponse(responseCode = "204", description = "Stock exchange deleted successfully")
     @ApiResponse(responseCode = "404", description = "Stock exchange not found")
@@ -173,7 +230,7 @@ public class StockExchangeController {
             @PathVariable @Positive long stockExchangeId,
             @PathVariable @Positive long stockId) {
 
-        StockListingDto stockListingDto = stockExchangeService.addStockToStockExchange(stockExchangeId, stockId);
+        StockListingDto stockListingDto = listingMutationScheduler.addStocks(stockExchangeId, List.of(stockId)).get(0);
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
@@ -196,7 +253,7 @@ public class StockExchangeController {
             @PathVariable @Positive long stockExchangeId,
             @Valid @RequestBody AddStocksToExchangeRequest request) {
 
-        List<StockListingDto> stockListingDtos = stockExchangeService.addStocksToStockExchange(
+        List<StockListingDto> stockListingDtos = listingMutationScheduler.addStocks(
                 stockExchangeId, request.getStockIds());
 
         return ResponseEntity
@@ -219,7 +276,7 @@ public class StockExchangeController {
             @PathVariable @Positive long stockExchangeId,
             @Valid @RequestBody AddStocksToExchangeRequest request) {
             
-        stockExchangeService.removeStocksFromStockExchange(stockExchangeId, request.getStockIds());
+        listingMutationScheduler.removeStocks(stockExchangeId, request.getStockIds());
         
         return ResponseEntity.ok(new ApiRespond(
                 HttpStatus.OK,
@@ -237,7 +294,7 @@ public class StockExchangeController {
             @PathVariable @Positive long stockExchangeId,
             @PathVariable @Positive long stockId) {
 
-        stockExchangeService.removeStockFromStockExchange(stockExchangeId, stockId);
+        listingMutationScheduler.removeStocks(stockExchangeId, List.of(stockId));
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,143 @@
+package com.example.stockexchange.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The application data source: one pool per {@link Workload} behind a lazy proxy that sends
+ * read-only transactions ({@code @Transactional(readOnly = true)} and Spring Data's read methods) to
+ * the replicas listed in {@code app.datasource.replicas.urls}. Without replicas everything stays on
+ * the primary. Flyway migrates through the same proxy and therefore always reaches the primary.
+ * <p>
+ * Each pool takes the shared {@code spring.datasource.hikari} settings, then its own
+ * {@code app.datasource.pools.<workload>} overrides (size, timeouts). Their {@code hikaricp.*}
+ * metrics are tagged with the workload name.
+ * <p>
+ * The proxy only fetches a physical connection at the first statement, once the transaction is
+ * known to be read-only, so a read never holds a primary connection it does not use.
+ */
+@Slf4j
+@Configuration
+public class DataSourceConfig {
+
+    static final String POOL_SATURATION_GAUGE = "stockexchange.datasource.pool.saturation";
+
+    @Bean
+    public HikariDataSource authPool(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        return pool(Workload.AUTH, properties, environment, meterRegistry);
+    }
+
+    @Bean
+    public HikariDataSource readPool(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        return pool(Workload.READ, properties, environment, meterRegistry);
+    }
+
+    // every listing mutation worker holds a write connection while it drains a lane, so the pool
+    // keeps at least one more for the other writes whatever its configured size
+    @Bean
+    public HikariDataSource writePool(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                      @Value("${app.listing-mutations.parallelism:4}") int listingParallelism) {
+        HikariDataSource pool = pool(Workload.WRITE, properties, environment, meterRegistry);
+        if (pool.getMaximumPoolSize() <= listingParallelism) {
+            log.warn("Write pool size {} leaves no connection next to {} listing mutation workers, raising it to {}",
+                    pool.getMaximumPoolSize(), listingParallelism, listingParallelism + 1);
+            pool.setMaximumPoolSize(listingParallelism + 1);
+        }
+        return pool;
+    }
+
+    @Bean
+    public ReplicaSelector replicaSelector(
+            HikariDataSource authPool,
+            HikariDataSource readPool,
+            HikariDataSource writePool,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.replicas.urls:}") List<String> urls,
+            @Value("${app.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${app.datasource.replicas.lag-query:}") String lagQuery,
+            @Value("${app.datasource.replicas.max-lag-millis:1000}") long maxLagMillis) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        // with no usable replica, a read falls back to the pool of its own workload
+        DataSource primary = new WorkloadRoutingDataSource(pools(authPool, readPool, writePool));
+        return new ReplicaSelector(primary, replicas, lagQuery, maxLagMillis, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource authPool, HikariDataSource readPool, HikariDataSource writePool,
+                                 ReplicaSelector replicaSelector) {
+        LazyConnectionDataSourceProxy proxy =
+                new LazyConnectionDataSourceProxy(new WorkloadRoutingDataSource(pools(authPool, readPool, writePool)));
+        if (replicaSelector.hasReplicas()) {
+            proxy.setReadOnlyDataSource(replicaSelector);
+        }
+        return proxy;
+    }
+
+    private static Map<Workload, DataSource> pools(DataSource authPool, DataSource readPool, DataSource writePool) {
+        Map<Workload, DataSource> pools = new EnumMap<>(Workload.class);
+        pools.put(Workload.AUTH, authPool);
+        pools.put(Workload.READ, readPool);
+        pools.put(Workload.WRITE, writePool);
+        return pools;
+    }
+
+    private static HikariDataSource pool(Workload workload, DataSourceProperties properties, Environment environment,
+                                         MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        binder.bind("app.datasource.pools." + workload.poolName(), Bindable.ofInstance(pool));
+        pool.setPoolName(workload.poolName());
+        // set here rather than by the actuator, which comes too late once Flyway has started the pool
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        // connections in use or waited for, over the pool size: above 1 callers are queueing
+        Gauge.builder(POOL_SATURATION_GAUGE, pool, DataSourceConfig::saturation)
+                .tag("pool", workload.poolName())
+                .register(meterRegistry);
+        return pool;
+    }
+
+    private static double saturation(HikariDataSource pool) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        if (bean == null) {
+            return 0;
+        }
+        return (double) (bean.getActiveConnections() + bean.getThreadsAwaitingConnection()) / pool.getMaximumPoolSize();
+    }
+}
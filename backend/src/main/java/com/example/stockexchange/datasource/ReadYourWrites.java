@@ -0,0 +1,54 @@
+package com.example.stockexchange.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-your-writes for replica routing. A thread can be pinned to the primary for the duration of a
+ * request, and a user who changed something keeps reading from the primary for {@code sticky-millis},
+ * long enough for the replicas to catch up with the change.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final long stickyNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(@Value("${app.datasource.replicas.sticky-millis:5000}") long stickyMillis) {
+        this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(stickyMillis);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    public void recordWrite(String principal) {
+        lastWrites.put(principal, System.nanoTime());
+    }
+
+    public boolean wroteRecently(String principal) {
+        Long writtenAt = lastWrites.get(principal);
+        return writtenAt != null && System.nanoTime() - writtenAt < stickyNanos;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt >= stickyNanos);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.stockexchange.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read-only side of the routing data source: hands out connections from the replicas in turn,
+ * skipping any replica that failed its last probe or lags more than {@code max-lag-millis} behind.
+ * With no usable replica, or when the thread is pinned by {@link ReadYourWrites}, reads go to the primary.
+ * <p>
+ * Lag is measured by a backend-specific query returning milliseconds (on PostgreSQL, the time since
+ * the last replayed transaction). Without a lag query a replica only has to answer.
+ */
+@Slf4j
+public class ReplicaSelector extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+    private final Counter pinnedReads;
+
+    public ReplicaSelector(DataSource primary, List<? extends DataSource> replicas, String lagQuery,
+                           long maxLagMillis, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), replicas.get(i), meterRegistry);
+            this.replicas.add(replica);
+        }
+        this.primaryReads = Counter.builder("stockexchange.datasource.reads")
+                .tag("target", "primary").tag("reason", "no-replica").register(meterRegistry);
+        this.pinnedReads = Counter.builder("stockexchange.datasource.reads")
+                .tag("target", "primary").tag("reason", "read-your-writes").register(meterRegistry);
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadYourWrites.isPinnedToPrimary()) {
+            pinnedReads.increment();
+            return primary.getConnection();
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.usable) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException ex) {
+                // taken out until the next probe succeeds
+                replica.usable = false;
+                log.warn("Replica {} unavailable, reading from the next one: {}", replica.name, ex.getMessage());
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.probe-interval-millis:1000}")
+    public void probe() {
+        replicas.forEach(this::probe);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void probe(Replica replica) {
+        boolean wasUsable = replica.usable;
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (lagQuery == null) {
+                replica.lagMillis = 0;
+            } else {
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    replica.lagMillis = resultSet.next() ? resultSet.getLong(1) : 0;
+                }
+            }
+            replica.usable = replica.lagMillis <= maxLagMillis;
+        } catch (SQLException ex) {
+            replica.lagMillis = Long.MAX_VALUE;
+            replica.usable = false;
+        }
+        if (wasUsable != replica.usable) {
+            log.info("Replica {} is {} (lag {} ms)", replica.name, replica.usable ? "back in rotation" : "out of rotation",
+                    replica.lagMillis == Long.MAX_VALUE ? "unknown" : replica.lagMillis);
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter reads;
+        private volatile boolean usable = true;
+        private volatile long lagMillis;
+
+        private Replica(String name, DataSource dataSource, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = Counter.builder("stockexchange.datasource.reads")
+                    .tag("target", name).tag("reason", "replica").register(meterRegistry);
+            Gauge.builder("stockexchange.datasource.replica.lag", this, replica -> replica.lagMillis == Long.MAX_VALUE
+                            ? Double.NaN
+                            : replica.lagMillis)
+                    .tag("replica", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.stockexchange.datasource;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * The connection pool a piece of work draws from. Each workload has a pool of its own, so a bulk
+ * import exhausting the write pool cannot keep a login from getting a connection. The workload of
+ * the current thread is set by {@link WorkloadPoolAspect}; work outside any annotated method (startup
+ * loads, Flyway, scheduled jobs) uses {@link #READ}, so an unannotated caller can never queue behind
+ * the bulk writes.
+ */
+public enum Workload {
+
+    AUTH,
+    READ,
+    WRITE;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public String poolName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload == null ? READ : workload;
+    }
+
+    static Workload set(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Carries the caller's workload and read-your-writes pin over to a task run on another thread.
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        Workload workload = CURRENT.get();
+        boolean pinned = ReadYourWrites.isPinnedToPrimary();
+        return () -> {
+            Workload previous = set(workload);
+            boolean wasPinned = ReadYourWrites.isPinnedToPrimary();
+            if (pinned) {
+                ReadYourWrites.pinToPrimary();
+            }
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+                if (pinned && !wasPinned) {
+                    ReadYourWrites.unpin();
+                }
+            }
+        };
+    }
+}
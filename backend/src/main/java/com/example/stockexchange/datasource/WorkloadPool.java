@@ -0,0 +1,20 @@
+package com.example.stockexchange.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a service method, or every method of a service, on the connection pool of a {@link Workload}.
+ * A method annotation wins over the class annotation. A call joining a transaction that already
+ * holds a connection keeps using that connection.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WorkloadPool {
+
+    Workload value();
+}
@@ -0,0 +1,46 @@
+package com.example.stockexchange.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@link WorkloadPool}. Runs outside the transaction interceptor, so the workload is set
+ * before the transaction takes its connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+public class WorkloadPoolAspect {
+
+    private final Map<Method, Workload> workloads = new ConcurrentHashMap<>();
+
+    @Around("@annotation(com.example.stockexchange.datasource.WorkloadPool) || " +
+            "@within(com.example.stockexchange.datasource.WorkloadPool)")
+    public Object useWorkloadPool(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Workload previous = Workload.set(workloads.computeIfAbsent(method, m -> workload(m, joinPoint)));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            Workload.restore(previous);
+        }
+    }
+
+    private static Workload workload(Method method, ProceedingJoinPoint joinPoint) {
+        WorkloadPool annotation = AnnotatedElementUtils.findMergedAnnotation(method, WorkloadPool.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), WorkloadPool.class);
+        }
+        return annotation == null ? Workload.READ : annotation.value();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.stockexchange.dto;
+
+import com.example.stockexchange.entity.ChangeEntityType;
+import com.example.stockexchange.entity.ChangeOperation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeDto {
+
+    private long sequence;
+
+    private ChangeEntityType entityType;
+
+    private ChangeOperation operation;
+
+    private Long entityId;
+
+    private Long relatedId;
+
+    // current row for stock / stock exchange upserts, null for deletes and listings
+    private Object data;
+}
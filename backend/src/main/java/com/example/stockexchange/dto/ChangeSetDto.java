@@ -0,0 +1,20 @@
+package com.example.stockexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeSetDto {
+
+    // pass this back as "since" on the next call
+    private long cursor;
+
+    private boolean hasMore;
+
+    private List<ChangeDto> changes;
+}
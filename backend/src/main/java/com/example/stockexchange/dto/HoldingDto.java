@@ -0,0 +1,25 @@
+package com.example.stockexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HoldingDto {
+
+    private Long stockId;
+
+    private long quantity;
+
+    private BigDecimal averageCost;
+
+    private BigDecimal price;
+
+    private BigDecimal marketValue;
+
+    private BigDecimal profitAndLoss;
+}
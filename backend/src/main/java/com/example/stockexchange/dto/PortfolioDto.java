@@ -0,0 +1,25 @@
+package com.example.stockexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PortfolioDto {
+
+    // grows with every change to the valuation, clients drop pushes older than what they have
+    private long revision;
+
+    private BigDecimal marketValue;
+
+    private BigDecimal costBasis;
+
+    private BigDecimal profitAndLoss;
+
+    private List<HoldingDto> holdings;
+}
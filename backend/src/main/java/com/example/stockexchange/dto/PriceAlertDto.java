@@ -0,0 +1,32 @@
+package com.example.stockexchange.dto;
+
+import com.example.stockexchange.entity.AlertDirection;
+import com.example.stockexchange.entity.AlertStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceAlertDto {
+
+    private Long alertId;
+
+    private Long stockId;
+
+    private AlertDirection direction;
+
+    private BigDecimal threshold;
+
+    private AlertStatus status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime triggeredAt;
+
+    private BigDecimal triggeredPrice;
+}
@@ -0,0 +1,27 @@
+package com.example.stockexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceBarDto {
+
+    // the tick's time, or the start of the bucket when downsampled
+    private Instant time;
+
+    private BigDecimal open;
+
+    private BigDecimal high;
+
+    private BigDecimal low;
+
+    private BigDecimal close;
+
+    private int ticks;
+}
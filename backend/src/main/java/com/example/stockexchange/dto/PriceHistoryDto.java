@@ -0,0 +1,26 @@
+package com.example.stockexchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceHistoryDto {
+
+    private Long stockId;
+
+    private Instant from;
+
+    private Instant to;
+
+    // null for raw ticks, one bar each
+    private Duration step;
+
+    private List<PriceBarDto> bars;
+}
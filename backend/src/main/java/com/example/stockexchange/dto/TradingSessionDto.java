@@ -0,0 +1,24 @@
+package com.example.stockexchange.dto;
+
+import com.example.stockexchange.entity.SessionPhase;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TradingSessionDto {
+
+    private Long stockExchangeId;
+
+    private SessionPhase phase;
+
+    // false for an exchange without a calendar, which is always open
+    private boolean scheduled;
+
+    // null when nothing is scheduled
+    private Instant nextTransition;
+}
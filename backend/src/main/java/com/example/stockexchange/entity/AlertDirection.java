@@ -0,0 +1,7 @@
+package com.example.stockexchange.entity;
+
+// ABOVE fires once the price reaches the threshold from below, BELOW once it falls to it
+public enum AlertDirection {
+    ABOVE,
+    BELOW
+}
@@ -0,0 +1,7 @@
+package com.example.stockexchange.entity;
+
+public enum AlertStatus {
+    ACTIVE,
+    TRIGGERED,
+    CANCELLED
+}
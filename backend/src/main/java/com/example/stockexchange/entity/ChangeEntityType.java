@@ -0,0 +1,7 @@
+package com.example.stockexchange.entity;
+
+public enum ChangeEntityType {
+    STOCK,
+    STOCK_EXCHANGE,
+    STOCK_LISTING
+}
@@ -0,0 +1,54 @@
+package com.example.stockexchange.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// one row per committed change; the sequence is the cursor clients sync from, set once the row is committed
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "change_log")
+public class ChangeLogEntry {
+
+    // insert order, drawn without waiting for other appends
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_seq")
+    private Long id;
+
+    // commit order, null until the sequencer has numbered the committed row
+    @Column(name = "commit_seq", unique = true)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type")
+    private ChangeEntityType entityType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation")
+    private ChangeOperation operation;
+
+    // stock id, stock exchange id, or the exchange id for a listing
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    // only used for listings (the stock id)
+    @Column(name = "related_id")
+    private Long relatedId;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt;
+
+    public ChangeLogEntry(ChangeEntityType entityType, ChangeOperation operation, Long entityId, Long relatedId) {
+        this.entityType = entityType;
+        this.operation = operation;
+        this.entityId = entityId;
+        this.relatedId = relatedId;
+        this.changedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.stockexchange.entity;
+
+public enum ChangeOperation {
+    UPSERT,
+    DELETE
+}
@@ -0,0 +1,34 @@
+package com.example.stockexchange.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// owner is the user's email, as on price alerts; the valuation itself lives in memory
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "holding")
+public class Holding {
+
+    @EmbeddedId
+    private HoldingId holdingId;
+
+    @Column(name = "quantity")
+    private long quantity;
+
+    @Column(name = "average_cost")
+    private BigDecimal averageCost;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // null until persisted: with an assigned id, that is how save() knows to insert without a lookup
+    @Version
+    private Integer version;
+}
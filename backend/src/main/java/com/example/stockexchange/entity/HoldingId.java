@@ -0,0 +1,23 @@
+package com.example.stockexchange.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// composite key, one holding per user and stock
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldingId implements Serializable {
+
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "stock_id")
+    private Long stockId;
+}
@@ -0,0 +1,54 @@
+package com.example.stockexchange.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// the stock is kept as a plain id: alerts are matched in memory, the row only records the outcome
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "price_alert")
+public class PriceAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "price_alert_seq")
+    @SequenceGenerator(name = "price_alert_seq", sequenceName = "price_alert_seq", allocationSize = 50)
+    private Long id;
+
+    // the user's email, the same name the audit columns use
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "stock_id")
+    private Long stockId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction")
+    private AlertDirection direction;
+
+    @Column(name = "threshold")
+    private BigDecimal threshold;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private AlertStatus status;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "triggered_at")
+    private LocalDateTime triggeredAt;
+
+    @Column(name = "triggered_price")
+    private BigDecimal triggeredPrice;
+
+    // any status change, what a restart from a snapshot replays
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
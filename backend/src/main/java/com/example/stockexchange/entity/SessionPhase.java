@@ -0,0 +1,8 @@
+package com.example.stockexchange.entity;
+
+// CLOSED covers nights, non-trading days and holidays; only OPEN accepts price updates
+public enum SessionPhase {
+    PRE_OPEN,
+    OPEN,
+    CLOSED
+}
@@ -16,11 +16,15 @@ import java.util.List;
 @NoArgsConstructor
 @Data
 @Entity
+// not in the second-level cache: prices change all the time, and another instance would serve old ones
 @EntityListeners(AuditingEntityListener.class)
 public class Stock {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // ids come from the sequence in blocks of 50, which keeps inserts batchable;
+    // allocationSize must match the sequence's INCREMENT BY
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_seq")
+    @SequenceGenerator(name = "stock_seq", sequenceName = "stock_seq", allocationSize = 50)
     @Column(name = "stock_id")
     private Long stockId;
 
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,11 +14,16 @@ import java.util.List;
 @NoArgsConstructor
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "stock-exchange")
 @Table(name = "stock_exchange")
 public class StockExchange {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // ids come from the sequence in blocks of 50, which keeps inserts batchable;
+    // allocationSize must match the sequence's INCREMENT BY
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_exchange_seq")
+    @SequenceGenerator(name = "stock_exchange_seq", sequenceName = "stock_exchange_seq", allocationSize = 50)
     @Column(name = "stock_exchange_id")
     private Long stockExchangeId;
 
@@ -0,0 +1,24 @@
+package com.example.stockexchange.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// one continuous listing of a stock on an exchange; rows are written by StockListingPeriodRepository
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "stock_listing_period")
+public class StockListingPeriod {
+
+    @EmbeddedId
+    private StockListingPeriodId id;
+
+    // null while the stock is still listed
+    @Column(name = "listed_until")
+    private LocalDateTime listedUntil;
+}
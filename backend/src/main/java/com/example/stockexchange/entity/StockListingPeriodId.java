@@ -0,0 +1,27 @@
+package com.example.stockexchange.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// a stock can be listed, delisted and listed again on the same exchange: the start tells them apart
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockListingPeriodId implements Serializable {
+
+    @Column(name = "stock_exchange_id")
+    private Long stockExchangeId;
+
+    @Column(name = "stock_id")
+    private Long stockId;
+
+    @Column(name = "listed_from")
+    private LocalDateTime listedFrom;
+}
@@ -0,0 +1,34 @@
+package com.example.stockexchange.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// a price of a stock, in force from validFrom until the stock's next period;
+// rows are written by StockPricePeriodRepository
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "stock_price_period")
+public class StockPricePeriod {
+
+    // only breaks ties between periods starting at the same instant
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "price_period_id")
+    private Long id;
+
+    @Column(name = "stock_id")
+    private Long stockId;
+
+    @Column(name = "price")
+    private BigDecimal price;
+
+    @Column(name = "valid_from")
+    private LocalDateTime validFrom;
+}
@@ -0,0 +1,44 @@
+package com.example.stockexchange.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+// one per stock exchange, shares its id; sessions are computed from it in memory
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "trading_calendar")
+public class TradingCalendar {
+
+    @Id
+    @Column(name = "stock_exchange_id")
+    private Long stockExchangeId;
+
+    @Column(name = "time_zone")
+    private String timeZone;
+
+    @Column(name = "pre_open_time")
+    private LocalTime preOpenTime;
+
+    @Column(name = "open_time")
+    private LocalTime openTime;
+
+    @Column(name = "close_time")
+    private LocalTime closeTime;
+
+    @Column(name = "trading_days")
+    private String tradingDays;
+
+    @ElementCollection
+    @CollectionTable(name = "trading_holiday", joinColumns = @JoinColumn(name = "stock_exchange_id"))
+    @Column(name = "holiday")
+    private Set<LocalDate> holidays = new HashSet<>();
+}
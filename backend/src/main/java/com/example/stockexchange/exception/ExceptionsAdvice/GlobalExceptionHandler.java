@@ -7,15 +7,18 @@ package com.example.stockexchange.exception.ExceptionsAdvice;
 import com.example.stockexchange.exception.AuthenticationException;
 import com.example.stockexchange.exception.DuplicateResourceException;
 import com.example.stockexchange.exception.ResourceNotFoundException;
+import com.example.stockexchange.exception.TooManyRequestsException;
 import com.example.stockexchange.response.ApiRespond;
 import jakarta.persistence.OptimisticLockException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.stream.Collectors;
@@ -57,6 +60,15 @@ public class GlobalExceptionHandler {
     }
 
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiRespond> handleTooManyRequestsException(TooManyRequestsException ex) {
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ApiRespond(status, ex.getMessage(), null));
+    }
+
+
     @ExceptionHandler(DuplicateResourceException.class)
     public ResponseEntity<ApiRespond> handleDuplicateResourceException(DuplicateResourceException ex) {
         return buildResponsibility(ex, HttpStatus.BAD_REQUEST);
@@ -81,6 +93,13 @@ public class GlobalExceptionHandler {
     }
 
 
+    // query and path parameters that do not convert, e.g. a malformed timestamp
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiRespond> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return buildResponsibility(ex, "Invalid value for parameter '" + ex.getName() + "'", HttpStatus.BAD_REQUEST);
+    }
+
+
     // Generic exception handler (catch-all)
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiRespond> handleGeneralExceptions(Exception ex) {
@@ -0,0 +1,8 @@
+package com.example.stockexchange.exception;
+
+public class QueryBudgetExceededException extends RuntimeException{
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.stockexchange.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves log output off the request thread once Boot has configured logging.
+ * <p>
+ * Every appender Boot attached to the root logger (console, and the file when
+ * {@code logging.file.name} is set) is wrapped in a bounded {@link AsyncAppender}: callers only
+ * enqueue, a single worker does the formatting and the I/O. When the queue is nearly full, events
+ * below WARN are discarded, and with {@code never-block} a full queue drops rather than stalls the
+ * caller. Chatty loggers are sampled with {@link SamplingTurboFilter} from {@code app.logging.sampling}.
+ * Output format stays Boot's, so {@code logging.structured.format.*} switches it to JSON.
+ */
+public class AsyncLoggingInitializer implements ApplicationListener<ApplicationPreparedEvent> {
+
+    private static final String ASYNC_PREFIX = "ASYNC_";
+
+    @Override
+    public void onApplicationEvent(ApplicationPreparedEvent event) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+            return;
+        }
+        ConfigurableEnvironment environment = event.getApplicationContext().getEnvironment();
+        if (!environment.getProperty("app.logging.async.enabled", Boolean.class, true)) {
+            return;
+        }
+
+        int queueSize = environment.getProperty("app.logging.async.queue-size", Integer.class, 8192);
+        // by default start discarding TRACE..INFO with a fifth of the queue left
+        int discardingThreshold = environment.getProperty(
+                "app.logging.async.discarding-threshold", Integer.class, queueSize / 5);
+        boolean neverBlock = environment.getProperty("app.logging.async.never-block", Boolean.class, true);
+
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            Appender<ILoggingEvent> appender = it.next();
+            if (!(appender instanceof AsyncAppender)) {
+                appenders.add(appender);
+            }
+        }
+        for (Appender<ILoggingEvent> appender : appenders) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setName(ASYNC_PREFIX + appender.getName());
+            async.setQueueSize(queueSize);
+            async.setDiscardingThreshold(discardingThreshold);
+            async.setNeverBlock(neverBlock);
+            async.setIncludeCallerData(false);
+            async.setMaxFlushTime(1000);
+            async.addAppender(appender);
+            async.start();
+
+            root.detachAppender(appender);
+            root.addAppender(async);
+        }
+
+        Map<String, Integer> sampling = Binder.get(environment)
+                .bind("app.logging.sampling", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+        boolean samplingInstalled = loggerContext.getTurboFilterList().stream()
+                .anyMatch(SamplingTurboFilter.class::isInstance);
+        if (!sampling.isEmpty() && !samplingInstalled) {
+            SamplingTurboFilter samplingFilter = new SamplingTurboFilter();
+            samplingFilter.setContext(loggerContext);
+            samplingFilter.setName("sampling");
+            sampling.forEach(samplingFilter::setRate);
+            samplingFilter.start();
+            loggerContext.addTurboFilter(samplingFilter);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.stockexchange.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one event in N for chatty loggers, decided before the event is even created. A rate applies
+ * to a logger and its children (longest prefix wins). ERROR is never sampled, and neither are
+ * {@code isXxxEnabled()} guard checks, so the guards do not eat into the rate.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final Sampler KEEP_ALL = new Sampler(1);
+
+    private final Map<String, Integer> rates = new ConcurrentHashMap<>();
+    private final Map<String, Sampler> samplers = new ConcurrentHashMap<>();
+
+    /**
+     * @param loggerName logger or package the rate applies to
+     * @param oneIn      keep one event in this many, 1 keeps everything
+     */
+    public void setRate(String loggerName, int oneIn) {
+        if (oneIn < 1) {
+            throw new IllegalArgumentException("Sampling rate for " + loggerName + " must be at least 1");
+        }
+        rates.put(loggerName, oneIn);
+        samplers.clear();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level == null || level.isGreaterOrEqual(Level.ERROR)) {
+            return FilterReply.NEUTRAL;
+        }
+        // below the logger's level the event is dropped anyway, do not count it
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Sampler sampler = samplers.computeIfAbsent(logger.getName(), this::resolve);
+        return sampler == KEEP_ALL || sampler.keep() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Sampler resolve(String loggerName) {
+        String match = null;
+        for (String candidate : rates.keySet()) {
+            boolean applies = loggerName.equals(candidate) || loggerName.startsWith(candidate + ".");
+            if (applies && (match == null || candidate.length() > match.length())) {
+                match = candidate;
+            }
+        }
+        return match == null || rates.get(match) == 1 ? KEEP_ALL : new Sampler(rates.get(match));
+    }
+
+    private static final class Sampler {
+
+        private final int oneIn;
+        private final AtomicLong events = new AtomicLong();
+
+        Sampler(int oneIn) {
+            this.oneIn = oneIn;
+        }
+
+        boolean keep() {
+            return events.getAndIncrement() % oneIn == 0;
+        }
+    }
+}
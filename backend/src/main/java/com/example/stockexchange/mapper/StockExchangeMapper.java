@@ -7,6 +7,7 @@ import com.example.stockexchange.request.StockExchangeCreationRequest;
 import com.example.stockexchange.request.StockExchangeUpdateRequest;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
@@ -15,6 +16,12 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface StockExchangeMapper {
 
+    // ids, the live status (kept by the service), listings and the optimistic-locking version are
+    // never set from a request
+    @Mapping(target = "stockExchangeId", ignore = true)
+    @Mapping(target = "liveInMarket", ignore = true)
+    @Mapping(target = "stockListings", ignore = true)
+    @Mapping(target = "version", ignore = true)
     StockExchange map(StockExchangeCreationRequest stockCreationRequest);
 
     StockExchangeDto map(StockExchange stockExchange);
@@ -22,7 +29,15 @@ public interface StockExchangeMapper {
     List<StockExchangeDto> map(List<StockExchange> stockExchanges);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "stockExchangeId", ignore = true)
+    @Mapping(target = "liveInMarket", ignore = true)
+    @Mapping(target = "stockListings", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void map(StockExchangeUpdateRequest stockExchangeUpdateRequest, @MappingTarget StockExchange stockExchange);
 
+    @Mapping(target = "stockExchangeId", ignore = true)
+    @Mapping(target = "liveInMarket", ignore = true)
+    @Mapping(target = "stockListings", ignore = true)
+    @Mapping(target = "version", ignore = true)
     StockExchange map(StockExchangeUpdateRequest stockExchangeDto);
 }
\ No newline at end of file
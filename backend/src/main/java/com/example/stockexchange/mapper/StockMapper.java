@@ -5,16 +5,28 @@ import com.example.stockexchange.entity.Stock;
 import com.example.stockexchange.request.StockCreationRequest;
 import com.example.stockexchange.request.StockPriceUpdateRequest;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import java.util.List;
 
 
 @Mapper(componentModel = "spring")
 public interface StockMapper {
 
+    // ids, audit dates, listings and the optimistic-locking version are never set from a request
+    @Mapping(target = "stockId", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "stockListings", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Stock map(StockCreationRequest stockCreationRequest);
 
     StockDto map(Stock stock);
 
+    @Mapping(target = "stockId", ignore = true)
+    @Mapping(target = "name", ignore = true)
+    @Mapping(target = "description", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "stockListings", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Stock map(StockPriceUpdateRequest stockPriceUpdateRequest);
 
     List<StockDto> map(List<Stock> stocks);
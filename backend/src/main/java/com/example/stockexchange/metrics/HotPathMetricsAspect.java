@@ -0,0 +1,170 @@
+package com.example.stockexchange.metrics;
+
+import com.example.stockexchange.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Timers around the market hot path:
+ * <ul>
+ *     <li>{@code stockexchange.service} - public methods of the stock and stock exchange services, by operation</li>
+ *     <li>{@code stockexchange.repository} - every repository call made while one of those operations runs,
+ *     tagged with the operation, the repository and the method</li>
+ *     <li>{@code stockexchange.mapping} - MapStruct mapper calls, by mapper and method</li>
+ *     <li>{@code stockexchange.queries.operation} - SQL statements per service operation, checked against
+ *     its {@link QueryBudget}</li>
+ * </ul>
+ * The aspect runs outside the transaction interceptor, so statements flushed at commit are counted
+ * against the operation that caused them.
+ * Histograms are switched on by prefix in {@code management.metrics.distribution}, so the code only
+ * decides what is measured, not how it is bucketed.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class HotPathMetricsAspect {
+
+    static final String SERVICE_TIMER = "stockexchange.service";
+    static final String REPOSITORY_TIMER = "stockexchange.repository";
+    static final String MAPPING_TIMER = "stockexchange.mapping";
+    static final String QUERIES_SUMMARY = "stockexchange.queries.operation";
+    static final String QUERY_BUDGET_EXCEEDED_COUNTER = "stockexchange.queries.budget.exceeded";
+
+    // the outermost service operation on this thread, so repository timers can be attributed to it
+    private static final ThreadLocal<String> CURRENT_OPERATION = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enforceQueryBudgets;
+    private final Map<String, DistributionSummary> querySummaries = new ConcurrentHashMap<>();
+    private final Map<Method, String> operationNames = new ConcurrentHashMap<>();
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public HotPathMetricsAspect(MeterRegistry meterRegistry,
+                                @Value("${app.query-budget.enforce:false}") boolean enforceQueryBudgets) {
+        this.meterRegistry = meterRegistry;
+        this.enforceQueryBudgets = enforceQueryBudgets;
+    }
+
+    @Around("execution(public * com.example.stockexchange.service.StockService.*(..)) || " +
+            "execution(public * com.example.stockexchange.service.StockExchangeService.*(..))")
+    public Object timeServiceOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = operationName(joinPoint);
+        String outer = CURRENT_OPERATION.get();
+        if (outer == null) {
+            CURRENT_OPERATION.set(operation);
+        }
+        long queriesBefore = QueryCounter.current();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            Object result = joinPoint.proceed();
+            checkQueryBudget(joinPoint, operation, QueryCounter.current() - queriesBefore);
+            return result;
+        } catch (Throwable ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            timer(SERVICE_TIMER, "operation", operation, "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            querySummary(operation).record(QueryCounter.current() - queriesBefore);
+            if (outer == null) {
+                CURRENT_OPERATION.remove();
+            }
+        }
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = CURRENT_OPERATION.get();
+        if (operation == null) {
+            return joinPoint.proceed();
+        }
+        Timer timer = timer(REPOSITORY_TIMER,
+                "operation", operation,
+                "repository", repositoryName(joinPoint.getThis()),
+                "method", joinPoint.getSignature().getName());
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Around("execution(* com.example.stockexchange.mapper.*.*(..))")
+    public Object timeMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer timer = timer(MAPPING_TIMER, "operation", operationName(joinPoint));
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void checkQueryBudget(ProceedingJoinPoint joinPoint, String operation, long queries) {
+        QueryBudget budget = ((MethodSignature) joinPoint.getSignature()).getMethod().getAnnotation(QueryBudget.class);
+        if (budget == null || queries <= budget.value()) {
+            return;
+        }
+        meterRegistry.counter(QUERY_BUDGET_EXCEEDED_COUNTER, "operation", operation).increment();
+        String message = operation + " issued " + queries + " SQL statements, its budget is " + budget.value();
+        if (enforceQueryBudgets) {
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+
+    private DistributionSummary querySummary(String operation) {
+        return querySummaries.computeIfAbsent(operation, ignored -> DistributionSummary.builder(QUERIES_SUMMARY)
+                .tag("operation", operation)
+                .register(meterRegistry));
+    }
+
+    private Timer timer(String name, String... tags) {
+        String key = name + String.join("|", tags);
+        return timers.computeIfAbsent(key, ignored -> Timer.builder(name).tags(tags).register(meterRegistry));
+    }
+
+    // StockMapper.map(Stock): overloads are common in the mappers, so the parameter types are part of the name
+    private String operationName(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return operationNames.computeIfAbsent(method, m -> {
+            Class<?> type = joinPoint.getSignature().getDeclaringType();
+            String owner = type.getSimpleName().endsWith("Impl") && type.getInterfaces().length > 0
+                    ? type.getInterfaces()[0].getSimpleName()
+                    : type.getSimpleName();
+            String parameters = Arrays.stream(m.getParameterTypes())
+                    .map(Class::getSimpleName)
+                    .collect(Collectors.joining(","));
+            return owner + "." + m.getName() + "(" + parameters + ")";
+        });
+    }
+
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), ignored -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(proxy);
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : proxy.getClass().getSimpleName();
+        });
+    }
+}
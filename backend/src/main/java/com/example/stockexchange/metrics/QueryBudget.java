@@ -0,0 +1,20 @@
+package com.example.stockexchange.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements a service operation may issue, commit included. Going over is logged and
+ * counted in production; with {@code app.query-budget.enforce=true} (tests) it fails the call with
+ * {@link com.example.stockexchange.exception.QueryBudgetExceededException}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value();
+}
@@ -0,0 +1,28 @@
+package com.example.stockexchange.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares on the current thread. The count only grows, so a
+ * scope (a request, a service operation, a test) measures its queries as the difference between
+ * two readings and scopes can nest freely.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        return sql;
+    }
+
+    // for statements sent past Hibernate, such as a plain JDBC batch
+    public static void count() {
+        STATEMENTS.get()[0]++;
+    }
+
+    public static long current() {
+        return STATEMENTS.get()[0];
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.stockexchange.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the per-endpoint meters ({@code http.server.requests} and {@code stockexchange.queries.request})
+ * to one series per route: tagged with the method and the route template only, so status, outcome and
+ * exception no longer multiply every histogram. Routes matching one of the low-value patterns (actuator,
+ * API docs, unmatched requests) keep their count and total but lose the percentile histogram.
+ */
+public class RouteMeterFilter implements MeterFilter {
+
+    static final Set<String> ROUTE_METERS = Set.of("http.server.requests", "stockexchange.queries.request");
+    private static final Set<String> ROUTE_TAGS = Set.of("method", "uri");
+
+    private final List<String> histogramExcludedUris;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RouteMeterFilter(List<String> histogramExcludedUris) {
+        this.histogramExcludedUris = List.copyOf(histogramExcludedUris);
+    }
+
+    @Override
+    public Meter.Id map(Meter.Id id) {
+        if (!ROUTE_METERS.contains(id.getName())) {
+            return id;
+        }
+        List<Tag> routeTags = id.getTags().stream()
+                .filter(tag -> ROUTE_TAGS.contains(tag.getKey()))
+                .toList();
+        return routeTags.size() == id.getTags().size() ? id : id.replaceTags(routeTags);
+    }
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (!ROUTE_METERS.contains(id.getName()) || !isLowValue(id.getTag("uri"))) {
+            return config;
+        }
+        return DistributionStatisticConfig.builder()
+                .percentilesHistogram(false)
+                .build()
+                .merge(config);
+    }
+
+    private boolean isLowValue(String uri) {
+        if (uri == null) {
+            return true;
+        }
+        return histogramExcludedUris.stream().anyMatch(pattern -> pathMatcher.match(pattern, uri));
+    }
+}
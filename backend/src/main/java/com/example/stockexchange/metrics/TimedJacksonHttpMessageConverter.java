@@ -0,0 +1,65 @@
+package com.example.stockexchange.metrics;
+
+import com.example.stockexchange.response.ApiRespond;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The regular Jackson converter, timing every response body it writes as
+ * {@code stockexchange.serialization}. Responses are nearly all {@link ApiRespond}, so the tag is
+ * the type of the payload it carries rather than the envelope.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    static final String SERIALIZATION_TIMER = "stockexchange.serialization";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Timer timer = timers.computeIfAbsent(payloadType(object), payloadType -> Timer.builder(SERIALIZATION_TIMER)
+                .tag("type", payloadType)
+                .register(meterRegistry));
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String payloadType(Object object) {
+        Object payload = object instanceof ApiRespond<?> respond ? respond.getData() : object;
+        if (payload == null) {
+            return "empty";
+        }
+        // keep JDK / Spring implementation classes (ListN, PageImpl) out of the tag values
+        if (payload instanceof Page<?>) {
+            return "Page";
+        }
+        if (payload instanceof Collection<?>) {
+            return "Collection";
+        }
+        return payload.getClass().getSimpleName();
+    }
+}
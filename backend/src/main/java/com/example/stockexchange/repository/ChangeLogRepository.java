@@ -0,0 +1,20 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.entity.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long>, ChangeLogRepositoryCustom {
+
+    @Query("SELECT c FROM ChangeLogEntry c WHERE c.sequence > :since ORDER BY c.sequence ASC")
+    List<ChangeLogEntry> findChangesSince(@Param("since") long since, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.sequence), 0) FROM ChangeLogEntry c")
+    long findHeadSequence();
+}
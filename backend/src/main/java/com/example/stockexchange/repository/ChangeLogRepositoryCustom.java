@@ -0,0 +1,14 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.entity.ChangeLogEntry;
+
+import java.util.Collection;
+
+public interface ChangeLogRepositoryCustom {
+
+    // one JDBC batch; the sequence is left to the database and not read back into the entries
+    void insertAll(Collection<ChangeLogEntry> entries);
+
+    // numbers up to limit committed rows in insert order, returns how many it numbered
+    int sequencePending(int limit);
+}
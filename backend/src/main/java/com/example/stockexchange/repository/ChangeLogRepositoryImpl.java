@@ -0,0 +1,74 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.entity.ChangeLogEntry;
+import com.example.stockexchange.metrics.QueryCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * change_log keeps its IDENTITY column as the insert order. Hibernate cannot batch IDENTITY inserts,
+ * so the rows are written here with a plain JDBC batch instead, inside the caller's transaction.
+ * <p>
+ * Appends take no lock: an IDENTITY value is drawn at insert but becomes visible at commit, so
+ * change_seq can commit out of order and is not what clients sync from. The sequencer numbers
+ * committed rows into commit_seq instead, holding the change_log_lock row while it does so that
+ * two nodes never interleave. It only ever sees committed rows, so each of its commits makes a
+ * higher range visible and a reader's cursor never passes an entry still to come.
+ */
+@RequiredArgsConstructor
+public class ChangeLogRepositoryImpl implements ChangeLogRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO change_log "
+            + "(entity_type, operation, entity_id, related_id, changed_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String LOCK = "SELECT lock_id FROM change_log_lock WHERE lock_id = 1 FOR UPDATE";
+    private static final String HEAD = "SELECT COALESCE(MAX(commit_seq), 0) FROM change_log";
+    private static final String PENDING = "SELECT change_seq FROM change_log WHERE commit_seq IS NULL "
+            + "ORDER BY change_seq FETCH FIRST ? ROWS ONLY";
+    private static final String NUMBER = "UPDATE change_log SET commit_seq = ? WHERE change_seq = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(Collection<ChangeLogEntry> entries) {
+        QueryCounter.count();
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (statement, entry) -> {
+            statement.setString(1, entry.getEntityType().name());
+            statement.setString(2, entry.getOperation().name());
+            statement.setLong(3, entry.getEntityId());
+            if (entry.getRelatedId() == null) {
+                statement.setNull(4, Types.BIGINT);
+            } else {
+                statement.setLong(4, entry.getRelatedId());
+            }
+            statement.setTimestamp(5, Timestamp.valueOf(entry.getChangedAt()));
+        });
+    }
+
+    @Override
+    public int sequencePending(int limit) {
+        jdbcTemplate.queryForObject(LOCK, Integer.class);
+        List<Long> pending = jdbcTemplate.queryForList(PENDING, Long.class, limit);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long head = jdbcTemplate.queryForObject(HEAD, Long.class);
+        List<long[]> numbered = new ArrayList<>(pending.size());
+        for (long changeSeq : pending) {
+            // never below the insert order: a cursor taken from change_seq before commit_seq existed stays valid
+            head = Math.max(head + 1, changeSeq);
+            numbered.add(new long[]{head, changeSeq});
+        }
+        jdbcTemplate.batchUpdate(NUMBER, numbered, numbered.size(), (statement, row) -> {
+            statement.setLong(1, row[0]);
+            statement.setLong(2, row[1]);
+        });
+        return numbered.size();
+    }
+}
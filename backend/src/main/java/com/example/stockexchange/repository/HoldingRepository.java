@@ -0,0 +1,10 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.entity.Holding;
+import com.example.stockexchange.entity.HoldingId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface HoldingRepository extends JpaRepository<Holding, HoldingId> {
+}
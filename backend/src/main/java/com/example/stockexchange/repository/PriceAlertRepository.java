@@ -0,0 +1,23 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.dto.PriceAlertDto;
+import com.example.stockexchange.entity.AlertStatus;
+import com.example.stockexchange.entity.PriceAlert;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long> {
+
+    @Query(value = "SELECT new com.example.stockexchange.dto.PriceAlertDto(" +
+                   "a.id, a.stockId, a.direction, a.threshold, a.status, a.createdAt, a.triggeredAt, a.triggeredPrice) " +
+                   "FROM PriceAlert a WHERE a.owner = :owner",
+           countQuery = "SELECT COUNT(a) FROM PriceAlert a WHERE a.owner = :owner")
+    Page<PriceAlertDto> findByOwnerAsDto(@Param("owner") String owner, Pageable pageable);
+
+    long countByOwnerAndStatus(String owner, AlertStatus status);
+}
@@ -1,5 +1,6 @@
 package com.example.stockexchange.repository;
 
+import com.example.stockexchange.dto.StockExchangeDto;
 import com.example.stockexchange.entity.StockExchange;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,5 +14,21 @@ import java.util.List;
 @Repository
 public interface StockExchangeRepository extends JpaRepository<StockExchange, Long> {
 
-    Page<StockExchange> findByLiveInMarketTrue(Pageable pageable);
+    // a cache hit once the exchange has been loaded, the inherited version always runs a COUNT
+    @Override
+    default boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    // DTO projections, read straight from the columns without managed entities
+    @Query(value = "SELECT new com.example.stockexchange.dto.StockExchangeDto(" +
+                   "se.stockExchangeId, se.name, se.description, se.liveInMarket) FROM StockExchange se",
+           countQuery = "SELECT COUNT(se) FROM StockExchange se")
+    Page<StockExchangeDto> findAllAsDto(Pageable pageable);
+
+    @Query(value = "SELECT new com.example.stockexchange.dto.StockExchangeDto(" +
+                   "se.stockExchangeId, se.name, se.description, se.liveInMarket) FROM StockExchange se " +
+                   "WHERE se.liveInMarket = true",
+           countQuery = "SELECT COUNT(se) FROM StockExchange se WHERE se.liveInMarket = true")
+    Page<StockExchangeDto> findLiveInMarketAsDto(Pageable pageable);
 }
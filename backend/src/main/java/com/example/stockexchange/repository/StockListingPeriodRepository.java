@@ -0,0 +1,56 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.dto.StockDto;
+import com.example.stockexchange.dto.StockExchangeDto;
+import com.example.stockexchange.entity.StockListingPeriod;
+import com.example.stockexchange.entity.StockListingPeriodId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Listing membership over time. A period is in force at {@code at} when it started at or before it
+ * and had not ended yet; the (stock, start) index and the (exchange, stock, start) key turn both
+ * lookups into an index range seek.
+ */
+@Repository
+public interface StockListingPeriodRepository
+        extends JpaRepository<StockListingPeriod, StockListingPeriodId>, StockListingPeriodRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE StockListingPeriod p SET p.listedUntil = :until " +
+           "WHERE p.id.stockExchangeId = :stockExchangeId AND p.id.stockId IN :stockIds AND p.listedUntil IS NULL")
+    int closeAll(@Param("stockExchangeId") Long stockExchangeId,
+                 @Param("stockIds") Collection<Long> stockIds,
+                 @Param("until") LocalDateTime until);
+
+    // the stock's name and description are today's, only membership is as of the instant
+    @Query(value = "SELECT new com.example.stockexchange.dto.StockExchangeDto(" +
+                   "se.stockExchangeId, se.name, se.description, se.liveInMarket) " +
+                   "FROM StockListingPeriod p JOIN StockExchange se ON se.stockExchangeId = p.id.stockExchangeId " +
+                   "WHERE p.id.stockId = :id AND p.id.listedFrom <= :at " +
+                   "AND (p.listedUntil IS NULL OR p.listedUntil > :at)",
+           countQuery = "SELECT COUNT(p) FROM StockListingPeriod p WHERE p.id.stockId = :id " +
+                   "AND p.id.listedFrom <= :at AND (p.listedUntil IS NULL OR p.listedUntil > :at)")
+    Page<StockExchangeDto> findStockExchangesByStockIdAsOf(@Param("id") Long stockId,
+                                                           @Param("at") LocalDateTime at,
+                                                           Pageable pageable);
+
+    @Query(value = "SELECT new com.example.stockexchange.dto.StockDto(" +
+                   "s.stockId, s.name, s.description, s.currentPrice, s.updatedAt) " +
+                   "FROM StockListingPeriod p JOIN Stock s ON s.stockId = p.id.stockId " +
+                   "WHERE p.id.stockExchangeId = :id AND p.id.listedFrom <= :at " +
+                   "AND (p.listedUntil IS NULL OR p.listedUntil > :at)",
+           countQuery = "SELECT COUNT(p) FROM StockListingPeriod p WHERE p.id.stockExchangeId = :id " +
+                   "AND p.id.listedFrom <= :at AND (p.listedUntil IS NULL OR p.listedUntil > :at)")
+    Page<StockDto> findStocksByStockExchangeIdAsOf(@Param("id") Long stockExchangeId,
+                                                   @Param("at") LocalDateTime at,
+                                                   Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package com.example.stockexchange.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface StockListingPeriodRepositoryCustom {
+
+    // one JDBC batch of open periods starting at listedFrom
+    void openAll(Long stockExchangeId, Collection<Long> stockIds, LocalDateTime listedFrom);
+}
@@ -0,0 +1,34 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.metrics.QueryCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Periods have an assigned composite id and no version, so {@code save()} would look each one up
+ * before inserting; new periods never exist yet, they are written here as one plain JDBC batch
+ * inside the caller's transaction.
+ */
+@RequiredArgsConstructor
+public class StockListingPeriodRepositoryImpl implements StockListingPeriodRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO stock_listing_period "
+            + "(stock_exchange_id, stock_id, listed_from) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void openAll(Long stockExchangeId, Collection<Long> stockIds, LocalDateTime listedFrom) {
+        QueryCounter.count();
+        Timestamp from = Timestamp.valueOf(listedFrom);
+        jdbcTemplate.batchUpdate(INSERT, stockIds, stockIds.size(), (statement, stockId) -> {
+            statement.setLong(1, stockExchangeId);
+            statement.setLong(2, stockId);
+            statement.setTimestamp(3, from);
+        });
+    }
+}
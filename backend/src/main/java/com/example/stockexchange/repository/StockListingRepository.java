@@ -1,35 +1,74 @@
 package com.example.stockexchange.repository;
 
-import com.example.stockexchange.entity.Stock;
-import com.example.stockexchange.entity.StockExchange;
+import com.example.stockexchange.dto.StockDto;
+import com.example.stockexchange.dto.StockExchangeDto;
 import com.example.stockexchange.entity.StockListing;
 import com.example.stockexchange.entity.StockListingId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
+/**
+ * Listings are cached per entity ({@code stock-listing}) and the two listing pages per query
+ * ({@code listing-queries}). The bulk deletes here and {@code deleteAllInBatch} skip entity events,
+ * but as JPQL bulk statements Hibernate still evicts the {@code stock-listing} region and marks
+ * {@code stock_exchange_stock} as changed, which drops every cached page over that table.
+ */
 @Repository
 public interface StockListingRepository extends JpaRepository<StockListing, StockListingId> {
 
     @Query("SELECT COUNT(sl) FROM stock_listing sl WHERE sl.stockExchange.stockExchangeId = :id")
     long countByStockExchangeId(@Param("id") Long stockExchangeId);
 
-    @Query("SELECT sl.stock FROM stock_listing sl WHERE sl.stockExchange.stockExchangeId = :id")
-    Page<Stock> findStocksByStockExchangeId(@Param("id") Long stockExchangeId, Pageable pageable);
+    // [stockExchangeId, count] rows, exchanges without listings are absent
+    @Query("SELECT sl.stockExchange.stockExchangeId, COUNT(sl) FROM stock_listing sl " +
+           "WHERE sl.stockExchange.stockExchangeId IN :ids GROUP BY sl.stockExchange.stockExchangeId")
+    List<Object[]> countByStockExchangeIds(@Param("ids") Collection<Long> stockExchangeIds);
 
-    @Query("SELECT sl.stockExchange FROM stock_listing sl WHERE sl.stock.stockId = :id")
-    Page<StockExchange> findStockExchangesByStockId(@Param("id") Long stockId, Pageable pageable);
-    
-    @Query("SELECT s FROM Stock s WHERE s NOT IN " +
-           "(SELECT sl.stock FROM stock_listing sl WHERE sl.stockExchange.stockExchangeId = :exchangeId)")
-    Page<Stock> findStocksNotInExchange(@Param("exchangeId") Long exchangeId, Pageable pageable);
+    // DTO projections, read straight from the columns without managed entities
+    @Query(value = "SELECT new com.example.stockexchange.dto.StockDto(" +
+                   "s.stockId, s.name, s.description, s.currentPrice, s.updatedAt) " +
+                   "FROM stock_listing sl JOIN sl.stock s WHERE sl.stockExchange.stockExchangeId = :id",
+           countQuery = "SELECT COUNT(sl) FROM stock_listing sl WHERE sl.stockExchange.stockExchangeId = :id")
+    // not cached: the page carries prices
+    Page<StockDto> findStocksByStockExchangeId(@Param("id") Long stockExchangeId, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.stockexchange.dto.StockExchangeDto(" +
+                   "se.stockExchangeId, se.name, se.description, se.liveInMarket) " +
+                   "FROM stock_listing sl JOIN sl.stockExchange se WHERE sl.stock.stockId = :id",
+           countQuery = "SELECT COUNT(sl) FROM stock_listing sl WHERE sl.stock.stockId = :id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "listing-queries")
+    })
+    Page<StockExchangeDto> findStockExchangesByStockId(@Param("id") Long stockId, Pageable pageable);
+
+    // ids only, for the trading session check on price updates
+    @Query("SELECT sl.stockListingId.stockExchangeId FROM stock_listing sl WHERE sl.stockListingId.stockId = :id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "listing-queries")
+    })
+    List<Long> findStockExchangeIdsByStockId(@Param("id") Long stockId);
+
+    @Query(value = "SELECT new com.example.stockexchange.dto.StockDto(" +
+                   "s.stockId, s.name, s.description, s.currentPrice, s.updatedAt) FROM Stock s " +
+                   "WHERE s.stockId NOT IN (SELECT sl.stock.stockId FROM stock_listing sl " +
+                   "WHERE sl.stockExchange.stockExchangeId = :exchangeId)",
+           countQuery = "SELECT COUNT(s) FROM Stock s WHERE s.stockId NOT IN " +
+                   "(SELECT sl.stock.stockId FROM stock_listing sl WHERE sl.stockExchange.stockExchangeId = :exchangeId)")
+    Page<StockDto> findStocksNotInExchange(@Param("exchangeId") Long exchangeId, Pageable pageable);
 
     @Query("SELECT sl.stockListingId FROM stock_listing sl " +
            "WHERE sl.stockExchange.stockExchangeId = :stockExchangeId AND sl.stock.stockId IN :stockIds")
@@ -0,0 +1,26 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.entity.StockPricePeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Prices over time. The period in force at {@code at} is the stock's latest one starting at or
+ * before it; the (stock, start) index turns each lookup into one index seek.
+ */
+@Repository
+public interface StockPricePeriodRepository
+        extends JpaRepository<StockPricePeriod, Long>, StockPricePeriodRepositoryCustom {
+
+    // periods starting at the same instant all come back, the caller keeps the highest id
+    @Query("SELECT p FROM StockPricePeriod p WHERE p.stockId IN :stockIds AND p.validFrom = (" +
+           "SELECT MAX(q.validFrom) FROM StockPricePeriod q WHERE q.stockId = p.stockId AND q.validFrom <= :at)")
+    List<StockPricePeriod> findInForceAt(@Param("stockIds") Collection<Long> stockIds,
+                                         @Param("at") LocalDateTime at);
+}
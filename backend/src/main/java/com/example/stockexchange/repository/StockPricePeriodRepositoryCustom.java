@@ -0,0 +1,11 @@
+package com.example.stockexchange.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface StockPricePeriodRepositoryCustom {
+
+    // one JDBC batch of periods starting at validFrom, keyed by stock id
+    void openAll(Map<Long, BigDecimal> prices, LocalDateTime validFrom);
+}
@@ -0,0 +1,34 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.metrics.QueryCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Hibernate cannot batch IDENTITY inserts, and a price change writes a period every time, so the
+ * rows are written here as one plain JDBC batch inside the caller's transaction.
+ */
+@RequiredArgsConstructor
+public class StockPricePeriodRepositoryImpl implements StockPricePeriodRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO stock_price_period "
+            + "(stock_id, price, valid_from) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void openAll(Map<Long, BigDecimal> prices, LocalDateTime validFrom) {
+        QueryCounter.count();
+        Timestamp from = Timestamp.valueOf(validFrom);
+        jdbcTemplate.batchUpdate(INSERT, prices.entrySet(), prices.size(), (statement, price) -> {
+            statement.setLong(1, price.getKey());
+            statement.setBigDecimal(2, price.getValue());
+            statement.setTimestamp(3, from);
+        });
+    }
+}
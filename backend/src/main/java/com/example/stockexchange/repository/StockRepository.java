@@ -1,11 +1,36 @@
 package com.example.stockexchange.repository;
 
+import com.example.stockexchange.dto.StockDto;
 import com.example.stockexchange.entity.Stock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface StockRepository extends JpaRepository<Stock, Long> {
 
     boolean existsByName(String stockName);
+
+    // DTO projection, read straight from the columns without managed entities
+    @Query(value = "SELECT new com.example.stockexchange.dto.StockDto(" +
+                   "s.stockId, s.name, s.description, s.currentPrice, s.updatedAt) FROM Stock s",
+           countQuery = "SELECT COUNT(s) FROM Stock s")
+    Page<StockDto> findAllAsDto(Pageable pageable);
+
+    @Query("SELECT s.name FROM Stock s WHERE s.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    // listings and their exchanges in the same round trip, for flows that walk every listing
+    @Query("SELECT DISTINCT s FROM Stock s " +
+           "LEFT JOIN FETCH s.stockListings sl " +
+           "LEFT JOIN FETCH sl.stockExchange " +
+           "WHERE s.stockId = :id")
+    Optional<Stock> findByIdWithListings(@Param("id") Long stockId);
 }
@@ -0,0 +1,16 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.entity.TradingCalendar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TradingCalendarRepository extends JpaRepository<TradingCalendar, Long> {
+
+    // holidays in the same round trip, all calendars are loaded at startup
+    @Query("SELECT DISTINCT c FROM TradingCalendar c LEFT JOIN FETCH c.holidays")
+    List<TradingCalendar> findAllWithHolidays();
+}
@@ -0,0 +1,26 @@
+package com.example.stockexchange.request;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HoldingUpdateRequest {
+
+    // 0 closes the position
+    @NotNull(message = "Quantity is required")
+    @PositiveOrZero(message = "Quantity cannot be negative")
+    private Long quantity;
+
+    @NotNull(message = "Average cost is required")
+    @PositiveOrZero(message = "Average cost cannot be negative")
+    @Digits(integer = 15, fraction = 4, message = "Average cost allows at most 4 decimal places")
+    private BigDecimal averageCost;
+}
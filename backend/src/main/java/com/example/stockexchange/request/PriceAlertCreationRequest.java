@@ -0,0 +1,30 @@
+package com.example.stockexchange.request;
+
+import com.example.stockexchange.entity.AlertDirection;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceAlertCreationRequest {
+
+    @NotNull(message = "Stock id is required")
+    @Positive(message = "Stock id must be positive")
+    private Long stockId;
+
+    @NotNull(message = "Direction is required")
+    private AlertDirection direction;
+
+    // the stored scale, so the in-memory index compares exactly what the table holds
+    @NotNull(message = "Threshold is required")
+    @Positive(message = "Threshold must be positive")
+    @Digits(integer = 15, fraction = 4, message = "Threshold allows at most 4 decimal places")
+    private BigDecimal threshold;
+}
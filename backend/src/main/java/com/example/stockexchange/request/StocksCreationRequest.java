@@ -0,0 +1,20 @@
+package com.example.stockexchange.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StocksCreationRequest {
+
+    @NotEmpty(message = "At least one stock must be provided")
+    @Size(max = 1000, message = "At most 1000 stocks can be created at once")
+    private List<@Valid StockCreationRequest> stocks;
+}
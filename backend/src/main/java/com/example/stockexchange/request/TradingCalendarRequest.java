@@ -0,0 +1,37 @@
+package com.example.stockexchange.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TradingCalendarRequest {
+
+    // an IANA zone such as America/New_York
+    @NotNull(message = "Time zone is required")
+    private String timeZone;
+
+    // optional, defaults to the open time (no pre-open phase)
+    private LocalTime preOpenTime;
+
+    @NotNull(message = "Open time is required")
+    private LocalTime openTime;
+
+    @NotNull(message = "Close time is required")
+    private LocalTime closeTime;
+
+    @NotEmpty(message = "At least one trading day is required")
+    private Set<DayOfWeek> tradingDays = new HashSet<>();
+
+    private Set<LocalDate> holidays = new HashSet<>();
+}
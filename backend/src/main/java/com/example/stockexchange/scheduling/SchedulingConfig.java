@@ -0,0 +1,21 @@
+package com.example.stockexchange.scheduling;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchedulingConfig {
+
+    // one wheel for every coarse timeout in the application, ticked by a single daemon thread
+    @Bean(destroyMethod = "close")
+    public TimerWheel timerWheel(@Value("${app.scheduling.tick-millis:100}") long tickMillis,
+                                 MeterRegistry meterRegistry) {
+        TimerWheel timerWheel = new TimerWheel(tickMillis, System::currentTimeMillis);
+        Gauge.builder("stockexchange.timer.pending", timerWheel, TimerWheel::pending).register(meterRegistry);
+        timerWheel.start("timer-wheel");
+        return timerWheel;
+    }
+}
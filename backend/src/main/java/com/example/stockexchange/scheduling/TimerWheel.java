@@ -0,0 +1,227 @@
+package com.example.stockexchange.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Hierarchical timer wheel for large numbers of coarse timeouts (session transitions, expiries).
+ * <p>
+ * Four wheels of 256 slots each: the first holds timeouts due within 256 ticks, each next one
+ * covers 256 times the span of the previous, 2^32 ticks in all (about 13 years at 100 ms). A timeout
+ * goes straight into the slot of its due tick, so scheduling and cancelling are O(1) whatever the
+ * number pending. Every tick runs one slot of the first wheel; when that wheel wraps around, the
+ * next slot of the wheel above is cascaded down, spreading its timeouts over the finer slots.
+ * Timeouts fire on the first tick at or after their deadline, never early.
+ * <p>
+ * Tasks run on the ticker thread, one after another, and must be short: hand anything slow to an
+ * executor. Scheduling from inside a task is fine.
+ */
+@Slf4j
+public class TimerWheel implements AutoCloseable {
+
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = (1L << (BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final Slot[][] wheels = new Slot[LEVELS][SLOTS];
+    private long currentTick;
+    private long pending;
+    private Thread ticker;
+
+    public TimerWheel(long tickMillis, LongSupplier clock) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        for (Slot[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Slot();
+            }
+        }
+        this.currentTick = Math.floorDiv(clock.getAsLong(), tickMillis);
+    }
+
+    public Timeout schedule(Runnable task, long delayMillis) {
+        return scheduleAt(task, clock.getAsLong() + Math.max(0, delayMillis));
+    }
+
+    public synchronized Timeout scheduleAt(Runnable task, long deadlineMillis) {
+        Timeout timeout = new Timeout(task, deadlineMillis, -Math.floorDiv(-deadlineMillis, tickMillis));
+        place(timeout);
+        pending++;
+        return timeout;
+    }
+
+    public synchronized long pending() {
+        return pending;
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis} and runs the timeouts they make due.
+     *
+     * @return the number of timeouts run
+     */
+    public int advanceTo(long nowMillis) {
+        List<Timeout> due = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = Math.floorDiv(nowMillis, tickMillis);
+            while (currentTick <= targetTick) {
+                int index = (int) (currentTick & MASK);
+                // wrapped around: bring the next slot of each wheel above down, as far as needed
+                for (int level = 1; index == 0 && level < LEVELS; level++) {
+                    index = (int) ((currentTick >>> (BITS * level)) & MASK);
+                    cascade(wheels[level][index]);
+                }
+                Slot slot = wheels[0][(int) (currentTick & MASK)];
+                currentTick++;
+                for (Timeout timeout = slot.head; timeout != null; timeout = slot.head) {
+                    slot.unlink(timeout);
+                    pending--;
+                    due.add(timeout);
+                }
+            }
+        }
+
+        for (Timeout timeout : due) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException ex) {
+                log.warn("Timer task failed: {}", ex.getMessage(), ex);
+            }
+        }
+        return due.size();
+    }
+
+    /**
+     * Starts a daemon thread that advances the wheel to the clock once per tick.
+     */
+    public synchronized void start(String threadName) {
+        if (ticker != null) {
+            return;
+        }
+        ticker = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(tickMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                advanceTo(clock.getAsLong());
+            }
+        }, threadName);
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.interrupt();
+            ticker = null;
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long expires = timeout.expiresTick;
+        long span = expires - currentTick;
+        Slot slot;
+        if (span < 0) {
+            // already due, runs on the next tick
+            slot = wheels[0][(int) (currentTick & MASK)];
+        } else if (span < 1L << BITS) {
+            slot = wheels[0][(int) (expires & MASK)];
+        } else if (span < 1L << (BITS * 2)) {
+            slot = wheels[1][(int) ((expires >>> BITS) & MASK)];
+        } else if (span < 1L << (BITS * 3)) {
+            slot = wheels[2][(int) ((expires >>> (BITS * 2)) & MASK)];
+        } else {
+            // beyond the top wheel: park it at the far end, it is placed again when cascaded
+            long parked = span > MAX_SPAN ? currentTick + MAX_SPAN : expires;
+            slot = wheels[3][(int) ((parked >>> (BITS * 3)) & MASK)];
+        }
+        slot.link(timeout);
+    }
+
+    private void cascade(Slot slot) {
+        for (Timeout timeout = slot.head; timeout != null; timeout = slot.head) {
+            slot.unlink(timeout);
+            place(timeout);
+        }
+    }
+
+    /**
+     * Handle on a scheduled task.
+     */
+    public final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineMillis;
+        private final long expiresTick;
+        private Slot slot;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadlineMillis, long expiresTick) {
+            this.task = task;
+            this.deadlineMillis = deadlineMillis;
+            this.expiresTick = expiresTick;
+        }
+
+        public long deadlineMillis() {
+            return deadlineMillis;
+        }
+
+        /**
+         * @return false when the task already ran, is running, or was cancelled before
+         */
+        public boolean cancel() {
+            synchronized (TimerWheel.this) {
+                if (slot == null) {
+                    return false;
+                }
+                slot.unlink(this);
+                pending--;
+                return true;
+            }
+        }
+    }
+
+    // intrusive doubly linked list, so a timeout leaves its slot without a search
+    private static final class Slot {
+
+        private Timeout head;
+
+        void link(Timeout timeout) {
+            timeout.slot = this;
+            timeout.previous = null;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            head = timeout;
+        }
+
+        void unlink(Timeout timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.slot = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+    }
+}
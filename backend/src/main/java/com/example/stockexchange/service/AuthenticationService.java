@@ -1,9 +1,12 @@
 package com.example.stockexchange.service;
 
+import com.example.stockexchange.datasource.Workload;
+import com.example.stockexchange.datasource.WorkloadPool;
 import com.example.stockexchange.entity.Authority;
 import com.example.stockexchange.entity.User;
 import com.example.stockexchange.entity.UserCredintials;
 import com.example.stockexchange.exception.InvalidCredentialException;
+import com.example.stockexchange.exception.TooManyRequestsException;
 import com.example.stockexchange.repository.UserRepository;
 import com.example.stockexchange.request.AuthenticationRequest;
 import com.example.stockexchange.request.RegisterRequest;
@@ -19,18 +22,21 @@ import java.util.HashMap;
 import java.util.List;
 
 @Service
+@WorkloadPool(Workload.AUTH)
 public class AuthenticationService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final PasswordVerificationExecutor passwordVerificationExecutor;
 
-    public AuthenticationService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, JwtService jwtService) {
+    public AuthenticationService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, JwtService jwtService, PasswordVerificationExecutor passwordVerificationExecutor) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.passwordVerificationExecutor = passwordVerificationExecutor;
     }
 
     @Transactional
@@ -42,11 +48,12 @@ public class AuthenticationService {
         userRepository.save(user);
     }
 
-    @Transactional(readOnly = true)
+    // no surrounding transaction, it would hold a connection while the password is being hashed
     public AuthenticationResponse login(AuthenticationRequest request) {
         try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+            // hashing runs on the bounded verification pool, which also rehashes outdated passwords
+            passwordVerificationExecutor.verify(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())));
 
             User user = userRepository.findByEmail(request.getEmail())
                     .orElseThrow(() -> new InvalidCredentialException("Invalid email or password"));
@@ -56,6 +63,8 @@ public class AuthenticationService {
             String jwtToken = jwtService.generateToken(new HashMap<>(), userCredintials);
             return new AuthenticationResponse(jwtToken);
 
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             throw new InvalidCredentialException("Invalid email or password");
         }
@@ -0,0 +1,86 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.repository.ChangeLogRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives committed change log rows their sync cursor, off the threads that wrote them.
+ * <p>
+ * Appends are not ordered among each other, so a row only becomes visible to clients once it is
+ * numbered here, in the order the rows were committed as far as this thread can tell. A daemon
+ * thread numbers every pending row in batches, each batch one transaction, when woken after a commit
+ * that appended and otherwise once per sweep interval, which also picks up rows another node
+ * committed. A failed batch is left pending for the next run.
+ */
+@Slf4j
+@Component
+public class ChangeLogSequencer {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sweepMillis;
+    private final Semaphore wakeups = new Semaphore(0);
+    private final Thread worker;
+
+    public ChangeLogSequencer(ChangeLogRepository changeLogRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.change-log.sequence-batch-size:1000}") int batchSize,
+                              @Value("${app.change-log.sweep-millis:1000}") long sweepMillis) {
+        this.changeLogRepository = changeLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sweepMillis = sweepMillis;
+        this.worker = new Thread(this::run, "change-log-sequencer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // called after a commit that appended; wakeups coalesce into one run
+    public void wake() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    // numbers every row committed so far, returns how many
+    public int sequencePending() {
+        int total = 0;
+        int numbered;
+        do {
+            numbered = transactionTemplate.execute(status -> changeLogRepository.sequencePending(batchSize));
+            total += numbered;
+        } while (numbered == batchSize);
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                wakeups.tryAcquire(sweepMillis, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                sequencePending();
+            } catch (RuntimeException ex) {
+                log.warn("Numbering change log entries failed, retrying on the next run: {}", ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.dto.ChangeDto;
+import com.example.stockexchange.dto.ChangeSetDto;
+import com.example.stockexchange.entity.ChangeEntityType;
+import com.example.stockexchange.entity.ChangeLogEntry;
+import com.example.stockexchange.entity.ChangeOperation;
+import com.example.stockexchange.mapper.StockExchangeMapper;
+import com.example.stockexchange.mapper.StockMapper;
+import com.example.stockexchange.repository.ChangeLogRepository;
+import com.example.stockexchange.repository.StockExchangeRepository;
+import com.example.stockexchange.repository.StockRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records a monotonically increasing change sequence over stocks, stock exchanges and listings
+ * and serves "changes since cursor" to clients that keep a local copy of the tables.
+ * <p>
+ * Changes are buffered per transaction and written in one JDBC batch right before commit, so a
+ * transaction touching the same row several times produces a single entry. Appends do not wait for
+ * each other: the {@link ChangeLogSequencer} numbers the rows once they are committed, and only
+ * numbered rows are served, so a client's cursor never passes an entry still to come.
+ * Deleting a stock or a stock exchange implies its listings are gone, those are not logged one by one.
+ */
+@Service
+public class ChangeLogService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final StockRepository stockRepository;
+    private final StockExchangeRepository stockExchangeRepository;
+    private final StockMapper stockMapper;
+    private final StockExchangeMapper stockExchangeMapper;
+    private final ChangeLogSequencer sequencer;
+
+    public ChangeLogService(ChangeLogRepository changeLogRepository,
+                            StockRepository stockRepository,
+                            StockExchangeRepository stockExchangeRepository,
+                            StockMapper stockMapper,
+                            StockExchangeMapper stockExchangeMapper,
+                            ChangeLogSequencer sequencer) {
+        this.changeLogRepository = changeLogRepository;
+        this.stockRepository = stockRepository;
+        this.stockExchangeRepository = stockExchangeRepository;
+        this.stockMapper = stockMapper;
+        this.stockExchangeMapper = stockExchangeMapper;
+        this.sequencer = sequencer;
+    }
+
+    // joins the caller's transaction; without one, the entry is written in a transaction of its own
+    @Transactional
+    public void recordStockChange(Long stockId, ChangeOperation operation) {
+        record(new ChangeLogEntry(ChangeEntityType.STOCK, operation, stockId, null));
+    }
+
+    @Transactional
+    public void recordStockExchangeChange(Long stockExchangeId, ChangeOperation operation) {
+        record(new ChangeLogEntry(ChangeEntityType.STOCK_EXCHANGE, operation, stockExchangeId, null));
+    }
+
+    @Transactional
+    public void recordListingChange(Long stockExchangeId, Long stockId, ChangeOperation operation) {
+        record(new ChangeLogEntry(ChangeEntityType.STOCK_LISTING, operation, stockExchangeId, stockId));
+    }
+
+    @Transactional(readOnly = true)
+    public long getHeadSequence() {
+        return changeLogRepository.findHeadSequence();
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeSetDto getChangesSince(long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ChangeLogEntry> entries = changeLogRepository.findChangesSince(since, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+        long cursor = entries.isEmpty() ? since : entries.get(entries.size() - 1).getSequence();
+
+        // only the latest change per row matters to the client
+        Map<String, ChangeLogEntry> latest = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            String key = keyOf(entry);
+            latest.remove(key);
+            latest.put(key, entry);
+        }
+
+        Map<Long, Object> stocks = loadUpserted(latest.values(), ChangeEntityType.STOCK,
+                ids -> stockRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(stock -> stock.getStockId(), stockMapper::map)));
+        Map<Long, Object> stockExchanges = loadUpserted(latest.values(), ChangeEntityType.STOCK_EXCHANGE,
+                ids -> stockExchangeRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(exchange -> exchange.getStockExchangeId(), stockExchangeMapper::map)));
+
+        List<ChangeDto> changes = latest.values().stream()
+                .map(entry -> new ChangeDto(
+                        entry.getSequence(),
+                        entry.getEntityType(),
+                        entry.getOperation(),
+                        entry.getEntityId(),
+                        entry.getRelatedId(),
+                        switch (entry.getEntityType()) {
+                            case STOCK -> stocks.get(entry.getEntityId());
+                            case STOCK_EXCHANGE -> stockExchanges.get(entry.getEntityId());
+                            case STOCK_LISTING -> null;
+                        }))
+                .toList();
+
+        return new ChangeSetDto(cursor, hasMore, changes);
+    }
+
+    private Map<Long, Object> loadUpserted(Collection<ChangeLogEntry> entries, ChangeEntityType type,
+                                           Function<Set<Long>, Map<Long, Object>> loader) {
+        Set<Long> ids = entries.stream()
+                .filter(entry -> entry.getEntityType() == type && entry.getOperation() == ChangeOperation.UPSERT)
+                .map(ChangeLogEntry::getEntityId)
+                .collect(Collectors.toSet());
+        return ids.isEmpty() ? Map.of() : loader.apply(ids);
+    }
+
+    private void record(ChangeLogEntry entry) {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(entry);
+    }
+
+    private static String keyOf(ChangeLogEntry entry) {
+        return entry.getEntityType() + ":" + entry.getEntityId() + ":" + entry.getRelatedId();
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final Map<String, ChangeLogEntry> entries = new LinkedHashMap<>();
+
+        void add(ChangeLogEntry entry) {
+            String key = keyOf(entry);
+            entries.remove(key);
+            entries.put(key, entry);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            LocalDateTime now = LocalDateTime.now();
+            entries.values().forEach(entry -> entry.setChangedAt(now));
+            changeLogRepository.insertAll(entries.values());
+        }
+
+        @Override
+        public void afterCommit() {
+            sequencer.wake();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(ChangeLogService.this);
+        }
+    }
+}
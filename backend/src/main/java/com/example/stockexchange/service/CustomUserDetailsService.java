@@ -0,0 +1,32 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.datasource.Workload;
+import com.example.stockexchange.datasource.WorkloadPool;
+import com.example.stockexchange.entity.UserCredintials;
+import com.example.stockexchange.repository.UserRepository;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+/**
+ * The user lookup of logins and of every authenticated request, on the auth pool so a saturated
+ * read or write pool cannot keep a request from being authenticated.
+ */
+@Service
+@WorkloadPool(Workload.AUTH)
+public class CustomUserDetailsService implements UserDetailsService {
+
+    private final UserRepository userRepository;
+
+    public CustomUserDetailsService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) {
+        return userRepository.findByEmail(username)
+                .map(UserCredintials::new)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
+    }
+}
@@ -0,0 +1,329 @@
+package com.example.stockexchange.service;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the keys used to sign and verify JWTs, each identified by a {@code kid} header.
+ * <p>
+ * With {@code HS256} keys are derived from {@code jwt.secret} and the rotation epoch, so every node
+ * sharing the secret derives the same key for the same epoch without any coordination.
+ * With {@code ES256} / {@code EdDSA} only the signing node holds a private key and publishes the
+ * public half as a JWKS, under its RFC 7638 thumbprint as {@code kid}, which says nothing about when
+ * it was made. The key pair has to be configured: keys generated per rotation epoch live in one
+ * node's memory only, so a restart would invalidate every token and two signers would publish
+ * different key sets; {@code jwt.generate-keys} allows them for a single development node. Nodes
+ * started with {@code jwt.jwks-uri} hold no key at all, they only verify against the cached remote
+ * key set.
+ * <p>
+ * The ring keeps the keys of the epochs a token can still be alive in, plus the next one, so
+ * crossing an epoch boundary is only a reference swap. Tokens issued before key ids existed carry
+ * no {@code kid} and are verified with the raw secret in {@code HS256} mode.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    private final Algorithm algorithm;
+    private final byte[] secret;
+    private final SecretKey legacyKey;
+    private final KeyPair configuredKeyPair;
+    private final RemoteJwkSet remoteJwkSet;
+    private final long rotationPeriodMillis;
+    private final int retainedEpochs;
+    private final JwtParser parser;
+
+    private volatile KeySet keySet;
+
+    public JwtKeyRing(String secretKey, long jwtExpiration, long rotationPeriodMillis) {
+        this(secretKey, jwtExpiration, rotationPeriodMillis, "HS256", "", "", "", 300000, false);
+    }
+
+    @Autowired
+    public JwtKeyRing(@Value("${jwt.secret:}") String secretKey,
+                      @Value("${jwt.expiration}") long jwtExpiration,
+                      @Value("${jwt.key-rotation-period:86400000}") long rotationPeriodMillis,
+                      @Value("${jwt.algorithm:HS256}") String algorithm,
+                      @Value("${jwt.private-key:}") String privateKey,
+                      @Value("${jwt.public-key:}") String publicKey,
+                      @Value("${jwt.jwks-uri:}") String jwksUri,
+                      @Value("${jwt.jwks-cache-millis:300000}") long jwksCacheMillis,
+                      @Value("${jwt.generate-keys:false}") boolean generateKeys) {
+        if (rotationPeriodMillis <= 0) {
+            throw new IllegalArgumentException("jwt.key-rotation-period must be positive");
+        }
+        this.algorithm = Algorithm.of(algorithm);
+        this.rotationPeriodMillis = rotationPeriodMillis;
+        // a token signed at the very end of an epoch lives on for jwtExpiration
+        this.retainedEpochs = (int) Math.min(1024, (jwtExpiration + rotationPeriodMillis - 1) / rotationPeriodMillis);
+
+        if (this.algorithm == Algorithm.HS256) {
+            if (!StringUtils.hasText(secretKey)) {
+                throw new IllegalArgumentException("jwt.secret is required for HS256");
+            }
+            this.secret = Decoders.BASE64.decode(secretKey);
+            this.legacyKey = Keys.hmacShaKeyFor(secret);
+        } else {
+            this.secret = null;
+            this.legacyKey = null;
+        }
+        this.configuredKeyPair = StringUtils.hasText(privateKey)
+                ? decodeKeyPair(this.algorithm, privateKey, publicKey)
+                : null;
+        this.remoteJwkSet = StringUtils.hasText(jwksUri)
+                ? new RemoteJwkSet(jwksUri, jwksCacheMillis)
+                : null;
+        if (remoteJwkSet != null && this.algorithm == Algorithm.HS256) {
+            throw new IllegalArgumentException("jwt.jwks-uri needs an asymmetric jwt.algorithm (ES256 or EdDSA)");
+        }
+        if (this.algorithm != Algorithm.HS256 && remoteJwkSet == null && configuredKeyPair == null && !generateKeys) {
+            throw new IllegalArgumentException("jwt.private-key and jwt.public-key are required to sign with "
+                    + this.algorithm + " (or jwt.generate-keys=true on a single development node)");
+        }
+
+        this.keySet = remoteJwkSet != null ? null : buildKeySet(epochAt(System.currentTimeMillis()), null);
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Shared parser, {@link JwtParser} is immutable and thread safe.
+     */
+    public JwtParser parser() {
+        return parser;
+    }
+
+    @SuppressWarnings("unchecked")
+    public JwtBuilder signWith(JwtBuilder builder) {
+        SigningKey signingKey = signingKey();
+        return builder
+                .header().keyId(signingKey.kid()).and()
+                .signWith(signingKey.key(), (SecureDigestAlgorithm<Key, ?>) algorithm.digestAlgorithm);
+    }
+
+    // holds no key, tokens are checked against the signing node's JWKS
+    public boolean verifyOnly() {
+        return remoteJwkSet != null;
+    }
+
+    public SigningKey signingKey() {
+        if (remoteJwkSet != null) {
+            throw new IllegalStateException("This node only verifies tokens (jwt.jwks-uri is set)");
+        }
+        KeySet current = keySet;
+        if (current.epoch != epochAt(System.currentTimeMillis())) {
+            current = rotate();
+        }
+        return current.signingKey;
+    }
+
+    /**
+     * Public keys currently accepted for verification, in JWKS format. Empty for {@code HS256}
+     * since symmetric keys must never be published.
+     */
+    public Map<String, Object> publicJwks() {
+        KeySet current = keySet;
+        List<Map<String, Object>> keys = current == null ? List.of() : current.publicJwks;
+        return Map.of("keys", keys);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.key-rotation-check-millis:60000}")
+    public void rotateIfDue() {
+        if (remoteJwkSet != null) {
+            remoteJwkSet.refreshIfStale();
+        } else if (keySet.epoch != epochAt(System.currentTimeMillis())) {
+            rotate();
+        }
+    }
+
+    private synchronized KeySet rotate() {
+        long epoch = epochAt(System.currentTimeMillis());
+        KeySet current = keySet;
+        if (current.epoch != epoch) {
+            current = buildKeySet(epoch, current);
+            keySet = current;
+            log.info("JWT signing key rotated to {}", current.signingKey.kid());
+        }
+        return current;
+    }
+
+    private Key verificationKey(String kid) {
+        if (kid == null && legacyKey != null) {
+            return legacyKey;
+        }
+        Key key = kid == null ? null
+                : remoteJwkSet != null ? remoteJwkSet.get(kid) : keySet.verificationKeys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT signing key id: " + kid);
+        }
+        return key;
+    }
+
+    private KeySet buildKeySet(long epoch, KeySet previous) {
+        if (configuredKeyPair != null) {
+            // a configured key pair is rotated by redeploying, not by the clock
+            String kid = thumbprintId(configuredKeyPair.getPublic());
+            return new KeySet(epoch,
+                    new SigningKey(kid, configuredKeyPair.getPrivate()),
+                    Map.of(kid, configuredKeyPair.getPublic()),
+                    Map.of(),
+                    List.of(publicJwk(kid, configuredKeyPair.getPublic())));
+        }
+
+        Map<String, Key> verificationKeys = new HashMap<>();
+        Map<Long, KeyPair> keyPairs = new HashMap<>();
+        List<Map<String, Object>> publicJwks = new ArrayList<>();
+        SigningKey signingKey = null;
+        for (long e = epoch - retainedEpochs; e <= epoch + 1; e++) {
+            if (algorithm == Algorithm.HS256) {
+                // derived from the shared secret, every node has to name it the same way
+                String kid = algorithm.kidPrefix + e;
+                Key key = previous != null ? previous.verificationKeys.get(kid) : null;
+                verificationKeys.put(kid, key != null ? key : deriveKey(e));
+                if (e == epoch) {
+                    signingKey = new SigningKey(kid, verificationKeys.get(kid));
+                }
+            } else {
+                // keys of past epochs are only known if this node generated them
+                KeyPair keyPair = previous != null ? previous.keyPairs.get(e) : null;
+                if (keyPair == null) {
+                    if (e < epoch) {
+                        continue;
+                    }
+                    keyPair = algorithm.generateKeyPair();
+                }
+                String kid = thumbprintId(keyPair.getPublic());
+                keyPairs.put(e, keyPair);
+                verificationKeys.put(kid, keyPair.getPublic());
+                publicJwks.add(publicJwk(kid, keyPair.getPublic()));
+                if (e == epoch) {
+                    signingKey = new SigningKey(kid, keyPair.getPrivate());
+                }
+            }
+        }
+
+        return new KeySet(epoch, signingKey,
+                Map.copyOf(verificationKeys), Map.copyOf(keyPairs), List.copyOf(publicJwks));
+    }
+
+    private SecretKey deriveKey(long epoch) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] derived = mac.doFinal((algorithm.kidPrefix + epoch).getBytes(StandardCharsets.UTF_8));
+            return Keys.hmacShaKeyFor(derived);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to derive JWT signing key", e);
+        }
+    }
+
+    private long epochAt(long epochMillis) {
+        return Math.floorDiv(epochMillis, rotationPeriodMillis);
+    }
+
+    private static Map<String, Object> publicJwk(String kid, PublicKey publicKey) {
+        PublicJwk<?> jwk = Jwks.builder().key(publicKey).id(kid).build();
+        return new LinkedHashMap<>(jwk);
+    }
+
+    private static String thumbprintId(PublicKey publicKey) {
+        return Jwks.builder().key(publicKey).idFromThumbprint().build().getId();
+    }
+
+    private static KeyPair decodeKeyPair(Algorithm algorithm, String privateKey, String publicKey) {
+        if (algorithm == Algorithm.HS256) {
+            throw new IllegalArgumentException("jwt.private-key is only used with ES256 or EdDSA");
+        }
+        if (!StringUtils.hasText(publicKey)) {
+            throw new IllegalArgumentException("jwt.public-key is required together with jwt.private-key");
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.keyFactoryAlgorithm);
+            return new KeyPair(
+                    keyFactory.generatePublic(new X509EncodedKeySpec(Decoders.BASE64.decode(publicKey))),
+                    keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Decoders.BASE64.decode(privateKey))));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid jwt.private-key / jwt.public-key", e);
+        }
+    }
+
+    public record SigningKey(String kid, Key key) {
+    }
+
+    private record KeySet(long epoch,
+                          SigningKey signingKey,
+                          Map<String, Key> verificationKeys,
+                          Map<Long, KeyPair> keyPairs,
+                          List<Map<String, Object>> publicJwks) {
+    }
+
+    private enum Algorithm {
+        HS256("hs-", Jwts.SIG.HS256, null),
+        ES256("es-", Jwts.SIG.ES256, "EC"),
+        EdDSA("ed-", Jwts.SIG.EdDSA, "Ed25519");
+
+        // names the HS256 keys and salts their derivation; asymmetric keys go by their thumbprint
+        private final String kidPrefix;
+        private final SecureDigestAlgorithm<?, ?> digestAlgorithm;
+        private final String keyFactoryAlgorithm;
+
+        Algorithm(String kidPrefix, SecureDigestAlgorithm<?, ?> digestAlgorithm, String keyFactoryAlgorithm) {
+            this.kidPrefix = kidPrefix;
+            this.digestAlgorithm = digestAlgorithm;
+            this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+        }
+
+        static Algorithm of(String name) {
+            for (Algorithm value : values()) {
+                if (value.name().equalsIgnoreCase(name)) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported jwt.algorithm: " + name + " (HS256, ES256 or EdDSA)");
+        }
+
+        KeyPair generateKeyPair() {
+            return this == EdDSA
+                    ? Jwks.CRV.Ed25519.keyPair().build()
+                    : Jwts.SIG.ES256.keyPair().build();
+        }
+    }
+}
@@ -2,29 +2,28 @@ package com.example.stockexchange.service;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService{
 
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
+    private final JwtKeyRing keyRing;
 
-    @Value("${jwt.expiration}")
-    private long JWT_EXPIRATION;
+    private final long JWT_EXPIRATION;
+
+    public JwtService(JwtKeyRing keyRing, @Value("${jwt.expiration}") long jwtExpiration) {
+        this.keyRing = keyRing;
+        this.JWT_EXPIRATION = jwtExpiration;
+    }
 
     public String extractUsername(String token) {
 
@@ -36,27 +35,39 @@ public class JwtService{
         return claimsResolver.apply(claims); // based on the function we return the needed details
     }
 
-    // ? deprecated but we may update it later when we read the docs
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey()) // get the key we used the first time
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // verifies the signature; callers needing several claims parse once and keep the result
+    public Claims extractAllClaims(String token) {
+        return keyRing.parser() // shared parser, the key is looked up by the kid header
+                .parseSignedClaims(token)
+                .getPayload();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
+    }
+
+    // the claims of a verified token; the parser already rejected it if expired
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return (claims.getSubject().equals(userDetails.getUsername())) && !isTokenExpired(claims);
+    }
+
+    // nodes that only verify have no user store to ask, the token is the whole identity
+    public boolean isVerifyOnly() {
+        return keyRing.verifyOnly();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // the principal a verified token describes: its subject and the authorities it was issued with
+    public UserDetails userDetailsFrom(Claims claims) {
+        List<?> authorities = claims.get("authorities", List.class);
+        return User.withUsername(claims.getSubject())
+                .password("")
+                .authorities(authorities == null ? new String[0]
+                        : authorities.stream().map(String::valueOf).toArray(String[]::new))
+                .build();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public String generateToken(Map<String, Object> s, UserDetails userDetails){
@@ -67,17 +78,13 @@ public class JwtService{
                 .map(GrantedAuthority::getAuthority)
                 .collect(java.util.stream.Collectors.toList()));
 
-        return Jwts.builder()
-                .setClaims(claims) // empty hashmap
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
-    }
+        long now = System.currentTimeMillis();
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return keyRing.signWith(Jwts.builder()
+                        .claims(claims)
+                        .subject(userDetails.getUsername())
+                        .issuedAt(new Date(now))
+                        .expiration(new Date(now + JWT_EXPIRATION)))
+                .compact(); // kid header + key + algorithm come from the ring
     }
-}
\ No newline at end of file
+}
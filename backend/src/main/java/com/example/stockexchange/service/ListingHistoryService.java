@@ -0,0 +1,94 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.datasource.Workload;
+import com.example.stockexchange.datasource.WorkloadPool;
+import com.example.stockexchange.dto.StockDto;
+import com.example.stockexchange.dto.StockExchangeDto;
+import com.example.stockexchange.exception.ResourceNotFoundException;
+import com.example.stockexchange.metrics.QueryBudget;
+import com.example.stockexchange.repository.StockExchangeRepository;
+import com.example.stockexchange.repository.StockListingPeriodRepository;
+import com.example.stockexchange.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Listing membership as of any past instant.
+ * <p>
+ * Every listing change also opens or closes a {@code stock_listing_period}, in the same transaction;
+ * the current-state listing table and its cached queries are left as they were. Listings that
+ * existed before the periods were introduced are known from the migration on.
+ */
+@Service
+@RequiredArgsConstructor
+public class ListingHistoryService {
+
+    private final StockListingPeriodRepository stockListingPeriodRepository;
+    private final StockRepository stockRepository;
+    private final StockExchangeRepository stockExchangeRepository;
+    private final PriceHistoryService priceHistoryService;
+
+    // called inside the listing transaction
+    public void onListed(Long stockExchangeId, Collection<Long> stockIds) {
+        if (!stockIds.isEmpty()) {
+            stockListingPeriodRepository.openAll(stockExchangeId, stockIds, LocalDateTime.now());
+        }
+    }
+
+    // called inside the delisting transaction
+    public void onDelisted(Long stockExchangeId, Collection<Long> stockIds) {
+        if (!stockIds.isEmpty()) {
+            stockListingPeriodRepository.closeAll(stockExchangeId, stockIds, LocalDateTime.now());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @QueryBudget(3)
+    @WorkloadPool(Workload.READ)
+    public Page<StockExchangeDto> getStockExchangesByStockAsOf(Long stockId, Instant asOf, int page, int size) {
+        if (!stockRepository.existsById(stockId)) {
+            throw new ResourceNotFoundException("Stock not found with id: " + stockId);
+        }
+        return stockListingPeriodRepository.findStockExchangesByStockIdAsOf(
+                stockId, toLocal(asOf), PageRequest.of(page, size));
+    }
+
+    /**
+     * The stocks listed at the instant, each with its price as of then (null where none is known).
+     */
+    // one more statement for the prices, when some stock of the page changed since the instant
+    @Transactional(readOnly = true)
+    @QueryBudget(4)
+    @WorkloadPool(Workload.READ)
+    public Page<StockDto> getStocksByExchangeAsOf(Long stockExchangeId, Instant asOf, int page, int size) {
+        if (!stockExchangeRepository.existsById(stockExchangeId)) {
+            throw new ResourceNotFoundException("Stock Exchange not found with id: " + stockExchangeId);
+        }
+        Page<StockDto> stocks = stockListingPeriodRepository.findStocksByStockExchangeIdAsOf(
+                stockExchangeId, toLocal(asOf), PageRequest.of(page, size));
+        Map<Long, StockDto> prices = priceHistoryService.asOf(stocks.getContent(), asOf);
+        return stocks.map(stock -> {
+            StockDto then = prices.get(stock.getStockId());
+            if (then == null) {
+                stock.setCurrentPrice(null);
+                stock.setUpdatedAt(null);
+                return stock;
+            }
+            return then;
+        });
+    }
+
+    // periods are stamped in server-local time, like the change log
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
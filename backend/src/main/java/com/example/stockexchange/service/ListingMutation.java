@@ -0,0 +1,67 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.datasource.ReadYourWrites;
+import com.example.stockexchange.dto.StockListingDto;
+import lombok.Getter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One queued add / remove request against a stock exchange's listings. The outcome is recorded by
+ * {@link StockExchangeService#applyListingMutations} and only published to the caller once the
+ * whole batch committed. Created on the submitting thread, it keeps that thread's principal and
+ * read-your-writes pin for the lane thread that applies it.
+ */
+@Getter
+public class ListingMutation {
+
+    public enum Type {
+        ADD,
+        REMOVE
+    }
+
+    private final Type type;
+    private final List<Long> stockIds;
+    private final CompletableFuture<List<StockListingDto>> result = new CompletableFuture<>();
+    private final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    private final boolean pinnedToPrimary = ReadYourWrites.isPinnedToPrimary();
+
+    private List<StockListingDto> listings;
+    private RuntimeException failure;
+
+    public ListingMutation(Type type, List<Long> stockIds) {
+        this.type = type;
+        this.stockIds = stockIds;
+    }
+
+    void succeed(List<StockListingDto> listings) {
+        this.listings = listings;
+    }
+
+    void fail(RuntimeException failure) {
+        this.failure = failure;
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    // the principal the change is audited as, null when submitted anonymously
+    String submitter() {
+        return authentication == null ? null : authentication.getName();
+    }
+
+    // called after commit (or with the batch error if the commit failed)
+    void complete(Throwable batchFailure) {
+        if (batchFailure != null) {
+            result.completeExceptionally(batchFailure);
+        } else if (failure != null) {
+            result.completeExceptionally(failure);
+        } else {
+            result.complete(listings);
+        }
+    }
+}
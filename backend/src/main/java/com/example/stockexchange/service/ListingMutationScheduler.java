@@ -0,0 +1,231 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.datasource.ReadYourWrites;
+import com.example.stockexchange.dto.StockListingDto;
+import com.example.stockexchange.exception.ResourceNotFoundException;
+import com.example.stockexchange.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-writer lanes for listing mutations, one lane per stock exchange.
+ * <p>
+ * Requests for the same exchange are queued and drained by at most one worker at a time, which
+ * merges everything queued into one transaction with one batched insert and one batched delete,
+ * so concurrent edits of an exchange no longer race on its {@code @Version}. Lanes of different
+ * exchanges drain in parallel on a pool sized below the write connection pool (see DataSourceConfig).
+ * <p>
+ * A batch holds consecutive changes of one submitter only and runs as that principal, pinned to the
+ * primary if any of them was, so auditing and read-your-writes see the caller, not the lane thread.
+ * <p>
+ * A lane exists only while it has work: it is created for an exchange that exists, and removed by
+ * its worker once drained, or when the worker dies, failing what was still queued. Callers wait at
+ * most {@code timeout-millis} for their batch and get a 503 past it; the change stays queued and may
+ * still be applied.
+ */
+@Slf4j
+@Component
+public class ListingMutationScheduler {
+
+    private final StockExchangeService stockExchangeService;
+    private final ExecutorService executor;
+    private final int maxBatchSize;
+    private final int maxQueuedPerExchange;
+    private final long timeoutMillis;
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    public ListingMutationScheduler(StockExchangeService stockExchangeService,
+                                    @Value("${app.listing-mutations.parallelism:4}") int parallelism,
+                                    @Value("${app.listing-mutations.max-batch-size:100}") int maxBatchSize,
+                                    @Value("${app.listing-mutations.max-queued-per-exchange:1000}") int maxQueuedPerExchange,
+                                    @Value("${app.listing-mutations.timeout-millis:10000}") long timeoutMillis) {
+        this.stockExchangeService = stockExchangeService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxQueuedPerExchange = maxQueuedPerExchange;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "listing-lane-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public List<StockListingDto> addStocks(Long stockExchangeId, List<Long> stockIds) {
+        return await(submit(stockExchangeId, new ListingMutation(ListingMutation.Type.ADD, stockIds)));
+    }
+
+    public void removeStocks(Long stockExchangeId, List<Long> stockIds) {
+        await(submit(stockExchangeId, new ListingMutation(ListingMutation.Type.REMOVE, stockIds)));
+    }
+
+    public CompletableFuture<List<StockListingDto>> submit(Long stockExchangeId, ListingMutation mutation) {
+        if (!lanes.containsKey(stockExchangeId) && !stockExchangeService.stockExchangeExists(stockExchangeId)) {
+            throw new ResourceNotFoundException("Stock Exchange not found with id: " + stockExchangeId);
+        }
+        Lane[] created = new Lane[1];
+        // under the map's lock for this exchange, so the worker cannot retire the lane in between
+        lanes.compute(stockExchangeId, (id, lane) -> {
+            if (lane == null) {
+                lane = new Lane(id);
+                created[0] = lane;
+            }
+            if (lane.size.incrementAndGet() > maxQueuedPerExchange) {
+                lane.size.decrementAndGet();
+                throw new TooManyRequestsException("Too many pending listing changes for this stock exchange", 1);
+            }
+            lane.queue.add(mutation);
+            return lane;
+        });
+        // a lane in the map always has a worker, only a new one needs scheduling
+        if (created[0] != null) {
+            executor.execute(() -> drain(created[0]));
+        }
+        return mutation.getResult();
+    }
+
+    private void drain(Lane lane) {
+        boolean drained = false;
+        try {
+            drained = drainUntilEmpty(lane);
+        } finally {
+            if (!drained) {
+                retire(lane);
+            }
+        }
+    }
+
+    // true once the lane ran dry and left the map
+    private boolean drainUntilEmpty(Lane lane) {
+        while (true) {
+            List<ListingMutation> batch = nextBatch(lane);
+            if (batch.isEmpty()) {
+                // retired only if no submit slipped in after the last poll
+                Lane remaining = lanes.computeIfPresent(lane.stockExchangeId,
+                        (id, current) -> current == lane && lane.queue.isEmpty() ? null : current);
+                if (remaining != lane) {
+                    return true;
+                }
+                continue;
+            }
+
+            lane.size.addAndGet(-batch.size());
+            Throwable batchFailure = null;
+            try {
+                applyAsSubmitter(lane.stockExchangeId, batch);
+            } catch (Throwable ex) {
+                log.warn("Listing batch of {} mutations for stock exchange {} failed: {}",
+                        batch.size(), lane.stockExchangeId, ex.toString());
+                batchFailure = ex;
+            } finally {
+                for (ListingMutation mutation : batch) {
+                    mutation.complete(batchFailure);
+                }
+            }
+            // an Error leaves the worker unusable: the lane is retired and its callers released
+            if (batchFailure instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    // consecutive mutations of one submitter, so the whole transaction is audited as the right user
+    private List<ListingMutation> nextBatch(Lane lane) {
+        List<ListingMutation> batch = new ArrayList<>();
+        ListingMutation next;
+        while (batch.size() < maxBatchSize && (next = lane.queue.peek()) != null
+                && (batch.isEmpty() || Objects.equals(batch.get(0).submitter(), next.submitter()))) {
+            batch.add(lane.queue.poll());
+        }
+        return batch;
+    }
+
+    private void applyAsSubmitter(Long stockExchangeId, List<ListingMutation> batch) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(batch.get(0).getAuthentication());
+        SecurityContextHolder.setContext(context);
+        boolean pinned = batch.stream().anyMatch(ListingMutation::isPinnedToPrimary);
+        if (pinned) {
+            ReadYourWrites.pinToPrimary();
+        }
+        try {
+            stockExchangeService.applyListingMutations(stockExchangeId, batch);
+        } finally {
+            if (pinned) {
+                ReadYourWrites.unpin();
+            }
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // once out of the map no submit can reach the lane, so what it still holds is failed here
+    private void retire(Lane lane) {
+        lanes.remove(lane.stockExchangeId, lane);
+        IllegalStateException failure = new IllegalStateException(
+                "Listing changes of stock exchange " + lane.stockExchangeId + " were abandoned, try again");
+        ListingMutation queued;
+        while ((queued = lane.queue.poll()) != null) {
+            queued.complete(failure);
+        }
+        log.error("Listing lane of stock exchange {} stopped, its queued changes were failed", lane.stockExchangeId);
+    }
+
+    private List<StockListingDto> await(CompletableFuture<List<StockListingDto>> result) {
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Listing change is still queued for this stock exchange, try again later");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the listing change");
+        }
+    }
+
+    // exchanges with work queued or in flight
+    int activeLanes() {
+        return lanes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class Lane {
+
+        private final Long stockExchangeId;
+        private final Queue<ListingMutation> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        Lane(Long stockExchangeId) {
+            this.stockExchangeId = stockExchangeId;
+        }
+    }
+}
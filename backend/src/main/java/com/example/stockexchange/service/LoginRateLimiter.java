@@ -0,0 +1,99 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets on {@code /auth/login}, one per client IP and one per account, so neither a single
+ * source nor a distributed attack on one account can queue unbounded password hashing.
+ * <p>
+ * Every key gets a bucket of its own. Buckets are dropped once idle for as long as a full refill
+ * takes, when they would be full anyway. Past {@code max-tracked-keys} the least valuable ones are
+ * evicted, which keeps memory bounded under key-spraying without one sprayer emptying a bucket that
+ * other clients share.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final BucketGroup ipBuckets;
+    private final BucketGroup accountBuckets;
+
+    public LoginRateLimiter(
+            @Value("${app.security.login.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${app.security.login.rate-limit.ip.refill-per-minute:20}") int ipRefillPerMinute,
+            @Value("${app.security.login.rate-limit.account.capacity:5}") int accountCapacity,
+            @Value("${app.security.login.rate-limit.account.refill-per-minute:5}") int accountRefillPerMinute,
+            @Value("${app.security.login.rate-limit.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.ipBuckets = new BucketGroup(ipCapacity, ipRefillPerMinute, maxTrackedKeys);
+        this.accountBuckets = new BucketGroup(accountCapacity, accountRefillPerMinute, maxTrackedKeys);
+    }
+
+    public void acquire(String email, String clientIp) {
+        long waitNanos = ipBuckets.tryConsume(clientIp == null ? "unknown" : clientIp);
+        if (waitNanos == 0 && email != null) {
+            waitNanos = accountBuckets.tryConsume(email.trim().toLowerCase(Locale.ROOT));
+        }
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Too many login attempts, please retry later",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos)));
+        }
+    }
+
+    private static final class BucketGroup {
+
+        private final int capacity;
+        private final double tokensPerNano;
+        private final Cache<String, TokenBucket> buckets;
+
+        BucketGroup(int capacity, int refillPerMinute, int maxTrackedKeys) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxTrackedKeys)
+                    .expireAfterAccess(Duration.ofNanos((long) Math.ceil(capacity / tokensPerNano)))
+                    .build();
+        }
+
+        long tryConsume(String key) {
+            return buckets.get(key, k -> new TokenBucket(capacity, tokensPerNano)).tryConsume();
+        }
+    }
+
+    private static final class TokenBucket {
+
+        private final int capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(int capacity, double tokensPerNano) {
+            this.capacity = capacity;
+            this.tokensPerNano = tokensPerNano;
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        // 0 when a token was taken, otherwise the nanos until the next token
+        synchronized long tryConsume() {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.datasource.Workload;
+import com.example.stockexchange.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password verification (BCrypt / Argon2 hashing) on a small dedicated pool with a bounded
+ * queue, so a login storm keeps at most {@code threads} cores hashing instead of occupying every
+ * request thread with it. The pool size is the bound, not the timeout: hashing never checks for
+ * interrupts, so a verification already running when its caller gives up runs to the end on its pool
+ * thread. One still queued is cancelled and skipped. When every thread is busy and the queue is full
+ * a login is refused at once with a 429 rather than waiting.
+ */
+@Slf4j
+@Component
+public class PasswordVerificationExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public PasswordVerificationExecutor(
+            @Value("${app.security.login.verification-threads:0}") int threads,
+            @Value("${app.security.login.verification-queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.login.verification-timeout-millis:5000}") long timeoutMillis) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> T verify(Callable<T> verification) {
+        Future<T> future;
+        try {
+            // the user lookup inside the verification stays on the caller's pool and primary pin
+            future = executor.submit(Workload.propagate(verification));
+        } catch (RejectedExecutionException ex) {
+            log.warn("Password verification queue is full, rejecting login");
+            throw new TooManyRequestsException("Too many login attempts in progress, please retry shortly", 1);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // skipped if still queued, and its slot freed; if already hashing it cannot be stopped
+            future.cancel(false);
+            executor.purge();
+            throw new TooManyRequestsException("Login is taking too long, please retry shortly", 1);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying password", ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.dto.PortfolioDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes portfolio valuations to subscribed clients as server-sent events.
+ * <p>
+ * Ticks only mark a subscribed owner as changed; a single thread sends each changed owner's latest
+ * valuation once per push interval. A client therefore gets at most one event per interval however
+ * fast prices move, and owners nobody is watching cost nothing.
+ */
+@Slf4j
+@Component
+public class PortfolioPublisher {
+
+    private final PortfolioValuations valuations;
+    private final Map<String, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final long streamTimeoutMillis;
+
+    public PortfolioPublisher(PortfolioValuations valuations,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.portfolio.push-interval-millis:500}") long pushIntervalMillis,
+                              @Value("${app.portfolio.stream-timeout-millis:1800000}") long streamTimeoutMillis) {
+        this.valuations = valuations;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::push, pushIntervalMillis, pushIntervalMillis, TimeUnit.MILLISECONDS);
+        Gauge.builder("stockexchange.portfolio.subscribers", subscribers, Map::size).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String owner) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        subscribers.computeIfAbsent(owner, key -> ConcurrentHashMap.newKeySet()).add(emitter);
+        Runnable unsubscribe = () -> subscribers.computeIfPresent(owner, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(ex -> unsubscribe.run());
+
+        // the current state first, changes follow
+        send(emitter, valuations.valuation(owner));
+        return emitter;
+    }
+
+    public void changed(Collection<String> owners) {
+        for (String owner : owners) {
+            if (subscribers.containsKey(owner)) {
+                changed.add(owner);
+            }
+        }
+    }
+
+    private void push() {
+        try {
+            for (Iterator<String> owners = changed.iterator(); owners.hasNext(); ) {
+                String owner = owners.next();
+                owners.remove();
+                Set<SseEmitter> emitters = subscribers.get(owner);
+                if (emitters != null) {
+                    PortfolioDto valuation = valuations.valuation(owner);
+                    emitters.forEach(emitter -> send(emitter, valuation));
+                }
+            }
+        } catch (RuntimeException ex) {
+            // an exception would cancel the schedule
+            log.warn("Portfolio push failed: {}", ex.getMessage());
+        }
+    }
+
+    private static void send(SseEmitter emitter, PortfolioDto valuation) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("portfolio")
+                    .id(String.valueOf(valuation.getRevision()))
+                    .data(valuation));
+        } catch (IOException ex) {
+            // client gone; completing runs the unsubscribe callback
+            emitter.completeWithError(ex);
+        } catch (IllegalStateException ex) {
+            // completed in the meantime, already unsubscribed
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.datasource.Workload;
+import com.example.stockexchange.datasource.WorkloadPool;
+import com.example.stockexchange.dto.PortfolioDto;
+import com.example.stockexchange.entity.Holding;
+import com.example.stockexchange.entity.HoldingId;
+import com.example.stockexchange.entity.Stock;
+import com.example.stockexchange.exception.ResourceNotFoundException;
+import com.example.stockexchange.repository.HoldingRepository;
+import com.example.stockexchange.repository.StockRepository;
+import com.example.stockexchange.request.HoldingUpdateRequest;
+import com.example.stockexchange.snapshot.RestoreAware;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Users' holdings: the table is the record, {@link PortfolioValuations} keeps them valued.
+ * <p>
+ * Like price alerts, the valuations only see committed state (holding changes, price ticks and
+ * stock deletions are applied after commit) and are streamed in from the table at startup.
+ * Reading a portfolio never touches the database.
+ */
+@Slf4j
+@Service
+public class PortfolioService implements SmartInitializingSingleton, RestoreAware {
+
+    private static final String LOAD_HOLDINGS = "SELECT h.owner, h.stock_id, h.quantity, h.average_cost, s.current_price "
+            + "FROM holding h JOIN stock s ON s.stock_id = h.stock_id";
+
+    private final HoldingRepository holdingRepository;
+    private final StockRepository stockRepository;
+    private final PortfolioValuations valuations;
+    private final PortfolioPublisher publisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary holdersPerTick;
+    private final int loadFetchSize;
+
+    public PortfolioService(HoldingRepository holdingRepository,
+                            StockRepository stockRepository,
+                            PortfolioValuations valuations,
+                            PortfolioPublisher publisher,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.portfolio.load-fetch-size:10000}") int loadFetchSize) {
+        this.holdingRepository = holdingRepository;
+        this.stockRepository = stockRepository;
+        this.valuations = valuations;
+        this.publisher = publisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.loadFetchSize = loadFetchSize;
+        this.holdersPerTick = DistributionSummary.builder("stockexchange.portfolio.tick.holders")
+                .description("Portfolios revalued by one price change")
+                .register(meterRegistry);
+        Gauge.builder("stockexchange.portfolio.count", valuations, PortfolioValuations::size).register(meterRegistry);
+    }
+
+    public PortfolioDto getPortfolio(String owner) {
+        return valuations.valuation(owner);
+    }
+
+    public SseEmitter streamPortfolio(String owner) {
+        return publisher.subscribe(owner);
+    }
+
+    // sets the position outright, quantity 0 closes it
+    @Transactional
+    @WorkloadPool(Workload.WRITE)
+    public void setHolding(String owner, Long stockId, HoldingUpdateRequest request) {
+        Stock stock = stockRepository.findById(stockId)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock not found with id: " + stockId));
+        HoldingId holdingId = new HoldingId(owner, stockId);
+
+        if (request.getQuantity() == 0) {
+            holdingRepository.findById(holdingId).ifPresent(holdingRepository::delete);
+        } else {
+            Holding holding = holdingRepository.findById(holdingId).orElseGet(() -> {
+                Holding created = new Holding();
+                created.setHoldingId(holdingId);
+                return created;
+            });
+            holding.setQuantity(request.getQuantity());
+            holding.setAverageCost(request.getAverageCost());
+            holding.setUpdatedAt(LocalDateTime.now());
+            holdingRepository.save(holding);
+        }
+
+        BigDecimal price = stock.getCurrentPrice();
+        AfterCommit.run(() -> {
+            valuations.put(owner, stockId, request.getQuantity(), request.getAverageCost(), price);
+            publisher.changed(List.of(owner));
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPriceChange(StockPriceChangedEvent event) {
+        List<String> owners = valuations.tick(event.stockId(), event.price());
+        holdersPerTick.record(owners.size());
+        publisher.changed(owners);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockDeleted(StockDeletedEvent event) {
+        publisher.changed(valuations.removeStock(event.stockId()));
+    }
+
+    // see PriceAlertService#load
+    @Override
+    public void afterSingletonsInstantiated() {
+        long loaded = transactionTemplate.execute(status -> {
+            long[] count = {0};
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(LOAD_HOLDINGS);
+                statement.setFetchSize(loadFetchSize);
+                return statement;
+            }, row -> {
+                valuations.put(row.getString(1), row.getLong(2), row.getLong(3), row.getBigDecimal(4),
+                        row.getBigDecimal(5));
+                count[0]++;
+            });
+            return count[0];
+        });
+        log.info("Loaded {} holdings into {} portfolios", loaded, valuations.size());
+    }
+
+    // holdings have no change log to replay, and a few per owner are quick to load again
+    @Override
+    public void afterRestore(long checkpointedAtMillis) {
+        valuations.clear();
+        afterSingletonsInstantiated();
+    }
+}
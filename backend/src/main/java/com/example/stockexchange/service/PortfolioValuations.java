@@ -0,0 +1,192 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.dto.HoldingDto;
+import com.example.stockexchange.dto.PortfolioDto;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live valuation of every portfolio, kept up to date one price tick at a time.
+ * <p>
+ * A reverse index from stock id to the portfolios holding it lets a tick visit only those holders:
+ * each one's market value moves by quantity times the price change, without summing its other
+ * positions again. Totals are maintained as they change, so reading them costs the same for any
+ * portfolio size. Each portfolio is guarded by its own lock; a position joins the reverse index and
+ * reads the last price under it, so a concurrent tick either reprices it or already published the
+ * price it starts from.
+ */
+@Component
+public class PortfolioValuations {
+
+    private final Map<String, Portfolio> portfolios = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Portfolio>> holders = new ConcurrentHashMap<>();
+    private final Map<Long, BigDecimal> lastPrices = new ConcurrentHashMap<>();
+
+    /**
+     * Opens, changes or (with quantity 0) closes a position.
+     *
+     * @param price the stock's price as the caller read it, used until a tick for the stock is seen
+     */
+    public void put(String owner, long stockId, long quantity, BigDecimal averageCost, BigDecimal price) {
+        if (quantity == 0) {
+            remove(owner, stockId);
+            return;
+        }
+        Portfolio portfolio = portfolios.computeIfAbsent(owner, Portfolio::new);
+        synchronized (portfolio) {
+            holders.computeIfAbsent(stockId, id -> ConcurrentHashMap.newKeySet()).add(portfolio);
+            portfolio.remove(stockId);
+            portfolio.add(stockId, new Position(quantity, averageCost, lastPrices.getOrDefault(stockId, price)));
+        }
+    }
+
+    public void remove(String owner, long stockId) {
+        Portfolio portfolio = portfolios.get(owner);
+        if (portfolio == null) {
+            return;
+        }
+        synchronized (portfolio) {
+            portfolio.remove(stockId);
+            Set<Portfolio> stockHolders = holders.get(stockId);
+            if (stockHolders != null) {
+                stockHolders.remove(portfolio);
+            }
+        }
+    }
+
+    /**
+     * Revalues the holders of a stock.
+     *
+     * @return the owners whose valuation changed
+     */
+    public List<String> tick(long stockId, BigDecimal price) {
+        lastPrices.put(stockId, price);
+        Set<Portfolio> stockHolders = holders.get(stockId);
+        if (stockHolders == null) {
+            return List.of();
+        }
+        List<String> changed = new ArrayList<>(stockHolders.size());
+        for (Portfolio portfolio : stockHolders) {
+            synchronized (portfolio) {
+                if (portfolio.reprice(stockId, price)) {
+                    changed.add(portfolio.owner);
+                }
+            }
+        }
+        return changed;
+    }
+
+    // the holding rows go with the stock (ON DELETE CASCADE)
+    public List<String> removeStock(long stockId) {
+        lastPrices.remove(stockId);
+        Set<Portfolio> stockHolders = holders.remove(stockId);
+        if (stockHolders == null) {
+            return List.of();
+        }
+        List<String> changed = new ArrayList<>(stockHolders.size());
+        for (Portfolio portfolio : stockHolders) {
+            synchronized (portfolio) {
+                portfolio.remove(stockId);
+            }
+            changed.add(portfolio.owner);
+        }
+        return changed;
+    }
+
+    public PortfolioDto valuation(String owner) {
+        Portfolio portfolio = portfolios.get(owner);
+        if (portfolio == null) {
+            return new PortfolioDto(0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, List.of());
+        }
+        synchronized (portfolio) {
+            List<HoldingDto> holdings = new ArrayList<>(portfolio.positions.size());
+            portfolio.positions.forEach((stockId, position) -> {
+                BigDecimal marketValue = position.marketValue();
+                holdings.add(new HoldingDto(stockId, position.quantity, position.averageCost, position.price,
+                        marketValue, marketValue.subtract(position.costBasis())));
+            });
+            holdings.sort(Comparator.comparing(HoldingDto::getStockId));
+            return new PortfolioDto(portfolio.revision, portfolio.marketValue, portfolio.costBasis,
+                    portfolio.marketValue.subtract(portfolio.costBasis), holdings);
+        }
+    }
+
+    public void clear() {
+        portfolios.clear();
+        holders.clear();
+        lastPrices.clear();
+    }
+
+    public int size() {
+        return portfolios.size();
+    }
+
+    private static final class Portfolio {
+
+        private final String owner;
+        private final Map<Long, Position> positions = new HashMap<>();
+        private BigDecimal marketValue = BigDecimal.ZERO;
+        private BigDecimal costBasis = BigDecimal.ZERO;
+        private long revision;
+
+        Portfolio(String owner) {
+            this.owner = owner;
+        }
+
+        void add(long stockId, Position position) {
+            positions.put(stockId, position);
+            marketValue = marketValue.add(position.marketValue());
+            costBasis = costBasis.add(position.costBasis());
+            revision++;
+        }
+
+        void remove(long stockId) {
+            Position position = positions.remove(stockId);
+            if (position != null) {
+                marketValue = marketValue.subtract(position.marketValue());
+                costBasis = costBasis.subtract(position.costBasis());
+                revision++;
+            }
+        }
+
+        boolean reprice(long stockId, BigDecimal price) {
+            Position position = positions.get(stockId);
+            if (position == null || position.price.compareTo(price) == 0) {
+                return false;
+            }
+            marketValue = marketValue.add(price.subtract(position.price).multiply(BigDecimal.valueOf(position.quantity)));
+            position.price = price;
+            revision++;
+            return true;
+        }
+    }
+
+    private static final class Position {
+
+        private final long quantity;
+        private final BigDecimal averageCost;
+        private BigDecimal price;
+
+        Position(long quantity, BigDecimal averageCost, BigDecimal price) {
+            this.quantity = quantity;
+            this.averageCost = averageCost;
+            this.price = price;
+        }
+
+        BigDecimal marketValue() {
+            return price.multiply(BigDecimal.valueOf(quantity));
+        }
+
+        BigDecimal costBasis() {
+            return averageCost.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.stockexchange.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records fired alerts and publishes them, off the thread that changed the price.
+ * <p>
+ * A single daemon thread drains a bounded queue and marks everything it took as triggered in one
+ * JDBC batch, in one transaction. The update only matches rows still active, so an alert cancelled in
+ * the meantime is not announced. A failed batch is retried with a doubling backoff while the queue
+ * fills behind it; a full queue holds the caller for a moment before giving up. Alerts that still do
+ * not get through are dropped, counted and logged: their rows stay active and they fire again after
+ * the next restart reloads them, which is why the alert snapshot stops being kept once that happened.
+ */
+@Slf4j
+@Component
+public class PriceAlertDispatcher {
+
+    private static final String MARK_TRIGGERED = "UPDATE price_alert "
+            + "SET status = 'TRIGGERED', triggered_at = ?, triggered_price = ?, updated_at = ? "
+            + "WHERE id = ? AND status = 'ACTIVE'";
+
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<FiredAlerts> queue;
+    private final int maxBatchSize;
+    private final long offerTimeoutMillis;
+    private final int retryAttempts;
+    private final long retryBackoffMillis;
+    private final Counter fired;
+    private final Counter dropped;
+    private final Thread worker;
+    private final AtomicLong lost = new AtomicLong();
+
+    public PriceAlertDispatcher(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.alerts.dispatch-queue-capacity:10000}") int queueCapacity,
+                                @Value("${app.alerts.dispatch-batch-size:500}") int maxBatchSize,
+                                @Value("${app.alerts.dispatch-offer-timeout-millis:50}") long offerTimeoutMillis,
+                                @Value("${app.alerts.dispatch-retry-attempts:5}") int retryAttempts,
+                                @Value("${app.alerts.dispatch-retry-backoff-millis:200}") long retryBackoffMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.retryAttempts = retryAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.fired = Counter.builder("stockexchange.alerts.fired").register(meterRegistry);
+        this.dropped = Counter.builder("stockexchange.alerts.dropped").register(meterRegistry);
+        this.worker = new Thread(this::run, "price-alert-dispatcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public void dispatch(long stockId, BigDecimal price, long[] alertIds) {
+        if (alertIds.length == 0) {
+            return;
+        }
+        FiredAlerts alerts = new FiredAlerts(stockId, price, alertIds, LocalDateTime.now());
+        boolean queued;
+        try {
+            // a full queue means the worker is retrying or behind: wait for it briefly rather than drop at once
+            queued = queue.offer(alerts) || queue.offer(alerts, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            drop(alertIds.length);
+            log.warn("Alert dispatch queue full, dropped {} alerts of stock {} ({} lost since startup)",
+                    alertIds.length, stockId, lost.get());
+        }
+    }
+
+    private void run() {
+        List<FiredAlerts> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            if (!recordWithRetry(batch)) {
+                int alerts = batch.stream().mapToInt(group -> group.alertIds().length).sum();
+                drop(alerts);
+                log.error("Gave up recording {} fired alerts after {} attempts ({} lost since startup)",
+                        alerts, retryAttempts, lost.get());
+            }
+            batch.clear();
+        }
+    }
+
+    // false when every attempt failed or the worker was stopped in between
+    private boolean recordWithRetry(List<FiredAlerts> batch) {
+        long backoffMillis = retryBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // all or nothing, so a retry finds every row of the batch still active
+                List<PriceAlertTriggeredEvent> recorded = transactionTemplate.execute(status -> record(batch));
+                // announced once committed, never twice
+                recorded.forEach(eventPublisher::publishEvent);
+                fired.increment(recorded.size());
+                return true;
+            } catch (RuntimeException ex) {
+                if (attempt >= retryAttempts) {
+                    log.warn("Recording {} fired alert groups failed: {}", batch.size(), ex.getMessage());
+                    return false;
+                }
+                log.warn("Recording {} fired alert groups failed, retrying in {} ms: {}", batch.size(),
+                        backoffMillis, ex.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void drop(int alerts) {
+        dropped.increment(alerts);
+        lost.addAndGet(alerts);
+    }
+
+    // the alerts that were still active, now marked triggered
+    private List<PriceAlertTriggeredEvent> record(List<FiredAlerts> batch) {
+        List<PriceAlertTriggeredEvent> events = new ArrayList<>();
+        for (FiredAlerts alerts : batch) {
+            for (long alertId : alerts.alertIds()) {
+                events.add(new PriceAlertTriggeredEvent(alertId, alerts.stockId(), alerts.price(), alerts.firedAt()));
+            }
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(MARK_TRIGGERED, events, maxBatchSize, (statement, event) -> {
+            statement.setTimestamp(1, Timestamp.valueOf(event.triggeredAt()));
+            statement.setBigDecimal(2, event.price());
+            statement.setTimestamp(3, Timestamp.valueOf(event.triggeredAt()));
+            statement.setLong(4, event.alertId());
+        });
+
+        List<PriceAlertTriggeredEvent> recorded = new ArrayList<>(events.size());
+        int index = 0;
+        for (int[] chunk : updated) {
+            for (int count : chunk) {
+                PriceAlertTriggeredEvent event = events.get(index++);
+                // 0 rows: cancelled after it fired; SUCCESS_NO_INFO: the driver did not say, assume it went through
+                if (count != 0) {
+                    recorded.add(event);
+                }
+            }
+        }
+        return recorded;
+    }
+
+    // fired but never recorded since startup, still active in the table and missing from the index
+    public long lostCount() {
+        return lost.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.interrupt();
+    }
+
+    private record FiredAlerts(long stockId, BigDecimal price, long[] alertIds, LocalDateTime firedAt) {
+    }
+}
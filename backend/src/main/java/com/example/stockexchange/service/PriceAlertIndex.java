@@ -0,0 +1,311 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.entity.AlertDirection;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the active price alerts, one book per stock.
+ * <p>
+ * Each side of a book keeps its thresholds in a sorted primitive array next to a parallel array of
+ * alert ids, 16 bytes per alert and no object per alert. The keys are ordered so that the alerts a
+ * price crosses are always the tail of the array: ABOVE thresholds are stored negated, BELOW ones as
+ * they are. A binary search finds where the tail starts and the tail is cut off by shrinking the
+ * size, so a price change costs O(log n + k) for k fired alerts. Adding or cancelling an alert
+ * shifts the entries behind it. Prices are compared in units of 10^-4, the scale of the table.
+ */
+public class PriceAlertIndex {
+
+    static final int SCALE = 4;
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<Long, Book> books = new ConcurrentHashMap<>();
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Indexes an alert, unless the stock's price already crossed its threshold.
+     *
+     * @param currentPrice the stock's price as the caller read it, used until a price change is seen
+     * @return false when the alert is crossed already and should fire right away
+     */
+    public boolean add(long alertId, long stockId, AlertDirection direction, BigDecimal threshold,
+                       BigDecimal currentPrice) {
+        long units = toUnits(threshold);
+        Book book = books.computeIfAbsent(stockId, id -> new Book(toUnits(currentPrice)));
+        synchronized (book) {
+            Side side = book.side(direction);
+            if (side.crosses(side.key(units), book.lastPrice)) {
+                return false;
+            }
+            side.insert(side.key(units), alertId);
+        }
+        size.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Removes and returns every alert of the stock the new price crosses.
+     */
+    public long[] cross(long stockId, BigDecimal price) {
+        Book book = books.get(stockId);
+        if (book == null) {
+            return EMPTY;
+        }
+        long units = toUnits(price);
+        long[] fired;
+        synchronized (book) {
+            book.lastPrice = units;
+            long[] above = book.above.cutCrossed(units);
+            long[] below = book.below.cutCrossed(units);
+            if (below.length == 0) {
+                fired = above;
+            } else if (above.length == 0) {
+                fired = below;
+            } else {
+                fired = Arrays.copyOf(above, above.length + below.length);
+                System.arraycopy(below, 0, fired, above.length, below.length);
+            }
+        }
+        size.addAndGet(-fired.length);
+        return fired;
+    }
+
+    public boolean remove(long alertId, long stockId, AlertDirection direction, BigDecimal threshold) {
+        Book book = books.get(stockId);
+        if (book == null) {
+            return false;
+        }
+        boolean removed;
+        synchronized (book) {
+            Side side = book.side(direction);
+            removed = side.remove(side.key(toUnits(threshold)), alertId);
+        }
+        if (removed) {
+            size.decrementAndGet();
+        }
+        return removed;
+    }
+
+    // the rows go with the stock (ON DELETE CASCADE), only the book has to be dropped
+    public void removeStock(long stockId) {
+        Book book = books.remove(stockId);
+        if (book != null) {
+            synchronized (book) {
+                size.addAndGet(-(book.above.size + book.below.size));
+            }
+        }
+    }
+
+    public long size() {
+        return size.get();
+    }
+
+    public void clear() {
+        books.clear();
+        size.set(0);
+    }
+
+    /**
+     * Writes every book: stock id, last price, then the keys and ids of each side. Books are copied
+     * one at a time under their own lock, so price changes keep flowing while this runs.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        List<Map.Entry<Long, Book>> entries = new ArrayList<>(books.entrySet());
+        out.writeInt(entries.size());
+        for (Map.Entry<Long, Book> entry : entries) {
+            Book book = entry.getValue();
+            long lastPrice;
+            long[][] above;
+            long[][] below;
+            synchronized (book) {
+                lastPrice = book.lastPrice;
+                above = book.above.copy();
+                below = book.below.copy();
+            }
+            out.writeLong(entry.getKey());
+            out.writeLong(lastPrice);
+            Side.write(out, above);
+            Side.write(out, below);
+        }
+    }
+
+    // into an empty index, before it sees any traffic
+    public void readFrom(DataInputStream in) throws IOException {
+        int bookCount = in.readInt();
+        for (int i = 0; i < bookCount; i++) {
+            long stockId = in.readLong();
+            Book book = new Book(in.readLong());
+            book.above.read(in);
+            book.below.read(in);
+            books.put(stockId, book);
+            size.addAndGet(book.above.size + book.below.size);
+        }
+    }
+
+    // saturates rather than overflows, a price that large crosses every ABOVE threshold anyway
+    static long toUnits(BigDecimal value) {
+        BigDecimal scaled = value.setScale(SCALE, RoundingMode.HALF_UP);
+        return scaled.unscaledValue().bitLength() < Long.SIZE
+                ? scaled.unscaledValue().longValue()
+                : Long.MAX_VALUE;
+    }
+
+    private static final class Book {
+
+        private final Side above = new Side(true);
+        private final Side below = new Side(false);
+        private long lastPrice;
+
+        Book(long lastPrice) {
+            this.lastPrice = lastPrice;
+        }
+
+        Side side(AlertDirection direction) {
+            return direction == AlertDirection.ABOVE ? above : below;
+        }
+    }
+
+    /**
+     * Keys in ascending order; a price crosses every key at or past its own key.
+     */
+    private static final class Side {
+
+        private static final int INITIAL_CAPACITY = 4;
+
+        private final boolean negated;
+        private long[] keys = EMPTY;
+        private long[] ids = EMPTY;
+        private int size;
+
+        Side(boolean negated) {
+            this.negated = negated;
+        }
+
+        long key(long units) {
+            return negated ? -units : units;
+        }
+
+        long[][] copy() {
+            return new long[][]{Arrays.copyOf(keys, size), Arrays.copyOf(ids, size)};
+        }
+
+        static void write(DataOutputStream out, long[][] keysAndIds) throws IOException {
+            long[] copiedKeys = keysAndIds[0];
+            long[] copiedIds = keysAndIds[1];
+            out.writeInt(copiedKeys.length);
+            for (long key : copiedKeys) {
+                out.writeLong(key);
+            }
+            for (long id : copiedIds) {
+                out.writeLong(id);
+            }
+        }
+
+        void read(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Negative side size " + count);
+            }
+            keys = count == 0 ? EMPTY : new long[count];
+            ids = count == 0 ? EMPTY : new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = in.readLong();
+            }
+            for (int i = 0; i < count; i++) {
+                ids[i] = in.readLong();
+            }
+            size = count;
+        }
+
+        boolean crosses(long key, long priceUnits) {
+            return key >= key(priceUnits);
+        }
+
+        void insert(long key, long alertId) {
+            if (size == keys.length) {
+                int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1));
+                keys = Arrays.copyOf(keys, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            // after any equal keys, so same-threshold alerts fire in the order they were added
+            int position = firstIndexAbove(key);
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            keys[position] = key;
+            ids[position] = alertId;
+            size++;
+        }
+
+        long[] cutCrossed(long priceUnits) {
+            int from = firstIndexAtLeast(key(priceUnits));
+            if (from == size) {
+                return EMPTY;
+            }
+            long[] crossed = Arrays.copyOfRange(ids, from, size);
+            size = from;
+            shrinkIfSparse();
+            return crossed;
+        }
+
+        boolean remove(long key, long alertId) {
+            for (int i = firstIndexAtLeast(key); i < size && keys[i] == key; i++) {
+                if (ids[i] == alertId) {
+                    System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    size--;
+                    shrinkIfSparse();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // a burst of fired alerts must not pin the arrays at their peak size
+        private void shrinkIfSparse() {
+            if (keys.length > INITIAL_CAPACITY && size < keys.length >> 2) {
+                int capacity = Math.max(INITIAL_CAPACITY, size << 1);
+                keys = Arrays.copyOf(keys, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+        }
+
+        private int firstIndexAtLeast(long key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle] < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int firstIndexAbove(long key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle] <= key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.datasource.Workload;
+import com.example.stockexchange.datasource.WorkloadPool;
+import com.example.stockexchange.dto.PriceAlertDto;
+import com.example.stockexchange.entity.AlertDirection;
+import com.example.stockexchange.entity.AlertStatus;
+import com.example.stockexchange.entity.PriceAlert;
+import com.example.stockexchange.entity.Stock;
+import com.example.stockexchange.exception.ResourceNotFoundException;
+import com.example.stockexchange.repository.PriceAlertRepository;
+import com.example.stockexchange.repository.StockRepository;
+import com.example.stockexchange.request.PriceAlertCreationRequest;
+import com.example.stockexchange.snapshot.RestoreAware;
+import com.example.stockexchange.snapshot.SnapshotStore;
+import com.example.stockexchange.snapshot.Snapshottable;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Users' price alerts: the table is the record, {@link PriceAlertIndex} decides what fires.
+ * <p>
+ * The index only ever sees committed state: new and cancelled alerts, price changes and stock
+ * deletions reach it after their transaction commits. At startup it is restored from its last
+ * snapshot plus the changes since, or streamed in from the table when there is none.
+ * Memory is bounded by {@code app.alerts.max-active}; past it new alerts are refused until some fire
+ * or are cancelled.
+ */
+@Slf4j
+@Service
+public class PriceAlertService implements SmartInitializingSingleton, Snapshottable, RestoreAware {
+
+    private static final String LOAD_ACTIVE = "SELECT a.id, a.stock_id, a.direction, a.threshold, s.current_price "
+            + "FROM price_alert a JOIN stock s ON s.stock_id = a.stock_id WHERE a.status = 'ACTIVE'";
+    // stocks whose book may differ from the snapshot: the change log has every price change and delete
+    private static final String CHANGED_STOCKS = "SELECT entity_id FROM change_log WHERE entity_type = 'STOCK' "
+            + "AND changed_at > ? UNION SELECT stock_id FROM price_alert WHERE updated_at > ?";
+    private static final String HEAD_SEQUENCE = "SELECT COALESCE(MAX(change_seq), 0) FROM change_log";
+    private static final String SNAPSHOT = "price-alerts";
+
+    private final PriceAlertRepository priceAlertRepository;
+    private final StockRepository stockRepository;
+    private final PriceAlertDispatcher dispatcher;
+    private final SnapshotStore snapshotStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PriceAlertIndex index = new PriceAlertIndex();
+    private final long maxActive;
+    private final long maxActivePerUser;
+    private final int loadFetchSize;
+    private final long replayMarginMillis;
+
+    public PriceAlertService(PriceAlertRepository priceAlertRepository,
+                             StockRepository stockRepository,
+                             PriceAlertDispatcher dispatcher,
+                             SnapshotStore snapshotStore,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.alerts.max-active:2000000}") long maxActive,
+                             @Value("${app.alerts.max-active-per-user:100}") long maxActivePerUser,
+                             @Value("${app.alerts.load-fetch-size:10000}") int loadFetchSize,
+                             @Value("${app.snapshots.replay-margin-millis:60000}") long replayMarginMillis) {
+        this.priceAlertRepository = priceAlertRepository;
+        this.stockRepository = stockRepository;
+        this.dispatcher = dispatcher;
+        this.snapshotStore = snapshotStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxActive = maxActive;
+        this.maxActivePerUser = maxActivePerUser;
+        this.loadFetchSize = loadFetchSize;
+        this.replayMarginMillis = replayMarginMillis;
+        Gauge.builder("stockexchange.alerts.active", index, PriceAlertIndex::size).register(meterRegistry);
+    }
+
+    @Transactional
+    @WorkloadPool(Workload.WRITE)
+    public PriceAlertDto createAlert(String owner, PriceAlertCreationRequest request) {
+        Stock stock = stockRepository.findById(request.getStockId())
+                .orElseThrow(() -> new ResourceNotFoundException("Stock not found with id: " + request.getStockId()));
+        if (index.size() >= maxActive) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Price alerts are at capacity, try again later");
+        }
+        if (priceAlertRepository.countByOwnerAndStatus(owner, AlertStatus.ACTIVE) >= maxActivePerUser) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "At most " + maxActivePerUser + " active price alerts per user");
+        }
+
+        PriceAlert alert = new PriceAlert();
+        alert.setOwner(owner);
+        alert.setStockId(stock.getStockId());
+        alert.setDirection(request.getDirection());
+        alert.setThreshold(request.getThreshold());
+        alert.setStatus(AlertStatus.ACTIVE);
+        alert.setCreatedAt(LocalDateTime.now());
+        alert.setUpdatedAt(alert.getCreatedAt());
+        PriceAlert saved = priceAlertRepository.save(alert);
+
+        BigDecimal currentPrice = stock.getCurrentPrice();
+        AfterCommit.run(() -> {
+            // already crossed at the price it was created against: it fires right away
+            if (!index.add(saved.getId(), saved.getStockId(), saved.getDirection(), saved.getThreshold(), currentPrice)) {
+                dispatcher.dispatch(saved.getStockId(), currentPrice, new long[]{saved.getId()});
+            }
+        });
+        return map(saved);
+    }
+
+    @Transactional(readOnly = true)
+    @WorkloadPool(Workload.READ)
+    public Page<PriceAlertDto> getAlerts(String owner, int page, int size) {
+        return priceAlertRepository.findByOwnerAsDto(owner,
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    @Transactional
+    @WorkloadPool(Workload.WRITE)
+    public void cancelAlert(String owner, Long alertId) {
+        // someone else's alert is reported as missing, not as forbidden
+        PriceAlert alert = priceAlertRepository.findById(alertId)
+                .filter(found -> found.getOwner().equals(owner))
+                .orElseThrow(() -> new ResourceNotFoundException("Price alert not found with id: " + alertId));
+        if (alert.getStatus() != AlertStatus.ACTIVE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Price alert is already " + alert.getStatus());
+        }
+
+        alert.setStatus(AlertStatus.CANCELLED);
+        alert.setUpdatedAt(LocalDateTime.now());
+        AfterCommit.run(() -> index.remove(alert.getId(), alert.getStockId(), alert.getDirection(), alert.getThreshold()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPriceChange(StockPriceChangedEvent event) {
+        dispatcher.dispatch(event.stockId(), event.price(), index.cross(event.stockId(), event.price()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockDeleted(StockDeletedEvent event) {
+        index.removeStock(event.stockId());
+    }
+
+    /**
+     * Fills the index before the web server takes requests, once every singleton, Flyway included,
+     * is up. From the snapshot when there is a usable one: the books of stocks that changed since a
+     * margin before it was taken (prices, deletions, alerts created, cancelled or fired) are dropped
+     * and reloaded from the table, the rest are taken as they are. Otherwise every active alert is
+     * streamed in.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long[] snapshotHead = {-1};
+        OptionalLong takenAt = snapshotStore.load(SNAPSHOT, in -> {
+            snapshotHead[0] = in.readLong();
+            index.readFrom(in);
+        });
+        if (takenAt.isPresent() && snapshotHead[0] <= headSequence()) {
+            replaySince(takenAt.getAsLong());
+            return;
+        }
+        if (takenAt.isPresent()) {
+            log.warn("Price alert snapshot is ahead of the change log, the database was replaced; loading from the table");
+        }
+        index.clear();
+        load(LOAD_ACTIVE);
+    }
+
+    // the frozen index is a snapshot taken at the checkpoint
+    @Override
+    public void afterRestore(long checkpointedAtMillis) {
+        replaySince(checkpointedAtMillis);
+    }
+
+    @Override
+    public String snapshotName() {
+        return SNAPSHOT;
+    }
+
+    // the change-log head first: a database older than the snapshot cannot be replayed onto it
+    @Override
+    public void writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeLong(headSequence());
+        index.writeTo(out);
+    }
+
+    @Override
+    public boolean canSnapshot() {
+        return dispatcher.lostCount() == 0;
+    }
+
+    private void replaySince(long takenAtMillis) {
+        Timestamp since = Timestamp.valueOf(LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(takenAtMillis - replayMarginMillis), ZoneId.systemDefault()));
+        List<Long> changed = transactionTemplate.execute(status ->
+                jdbcTemplate.queryForList(CHANGED_STOCKS, Long.class, since, since));
+        changed.forEach(index::removeStock);
+        log.info("Restored {} active price alerts from a snapshot taken at {}, reloading {} changed stocks",
+                index.size(), Instant.ofEpochMilli(takenAtMillis), changed.size());
+        load(LOAD_ACTIVE + " AND a.stock_id IN (" + CHANGED_STOCKS + ")", since, since);
+    }
+
+    private long headSequence() {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(HEAD_SEQUENCE, Long.class));
+    }
+
+    /**
+     * Streams active alerts into the index; the transaction keeps the read on the primary and lets
+     * the driver fetch in chunks instead of materializing the whole result.
+     */
+    private void load(String query, Timestamp... parameters) {
+        Map<Long, BigDecimal> crossedPrices = new HashMap<>();
+        Map<Long, List<Long>> crossed = new HashMap<>();
+        long loaded = transactionTemplate.execute(status -> {
+            long[] count = {0};
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(query);
+                statement.setFetchSize(loadFetchSize);
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setTimestamp(i + 1, parameters[i]);
+                }
+                return statement;
+            }, row -> {
+                long alertId = row.getLong(1);
+                long stockId = row.getLong(2);
+                BigDecimal currentPrice = row.getBigDecimal(5);
+                if (index.add(alertId, stockId, AlertDirection.valueOf(row.getString(3)), row.getBigDecimal(4), currentPrice)) {
+                    count[0]++;
+                } else {
+                    // the price moved past it while the application was down
+                    crossedPrices.put(stockId, currentPrice);
+                    crossed.computeIfAbsent(stockId, id -> new ArrayList<>()).add(alertId);
+                }
+            });
+            return count[0];
+        });
+
+        crossed.forEach((stockId, alertIds) -> dispatcher.dispatch(stockId, crossedPrices.get(stockId),
+                alertIds.stream().mapToLong(Long::longValue).toArray()));
+        log.info("Loaded {} active price alerts, {} crossed while down", loaded,
+                crossed.values().stream().mapToInt(List::size).sum());
+    }
+
+    private static PriceAlertDto map(PriceAlert alert) {
+        return new PriceAlertDto(alert.getId(), alert.getStockId(), alert.getDirection(), alert.getThreshold(),
+                alert.getStatus(), alert.getCreatedAt(), alert.getTriggeredAt(), alert.getTriggeredPrice());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.stockexchange.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published once a fired alert is recorded as triggered. Notification channels listen for it,
+ * the publishing thread is the dispatcher's, never a request thread.
+ */
+public record PriceAlertTriggeredEvent(long alertId, long stockId, BigDecimal price, LocalDateTime triggeredAt) {
+}
@@ -0,0 +1,245 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.datasource.Workload;
+import com.example.stockexchange.datasource.WorkloadPool;
+import com.example.stockexchange.dto.PriceBarDto;
+import com.example.stockexchange.dto.PriceHistoryDto;
+import com.example.stockexchange.dto.StockDto;
+import com.example.stockexchange.entity.StockPricePeriod;
+import com.example.stockexchange.exception.ResourceNotFoundException;
+import com.example.stockexchange.mapper.StockMapper;
+import com.example.stockexchange.metrics.QueryBudget;
+import com.example.stockexchange.repository.StockPricePeriodRepository;
+import com.example.stockexchange.repository.StockRepository;
+import com.example.stockexchange.tickstore.TickStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Price history per stock, kept in the {@link TickStore} rather than the database.
+ * <p>
+ * Every committed price (creation and each update) is appended as a tick, in units of the price
+ * column's scale so it round-trips exactly; deleting the stock drops its series. Reads return the
+ * raw ticks of a range, or OHLC bars of a fixed step aligned to the epoch, built while the range is
+ * decoded. Either way a response holds at most {@code app.ticks.max-points} entries.
+ * <p>
+ * "What was the price at T" is not answered from the ticks, which are node-local, lost for the last
+ * open block on a crash and expire: every price also opens a {@code stock_price_period}, in the
+ * transaction that sets it, and the period in force at T is looked up there. Prices set before the
+ * periods were introduced are known from the migration on. The current-price reads never go through here.
+ */
+@Slf4j
+@Service
+public class PriceHistoryService {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(1);
+    // the scale of stock.current_price
+    private static final int PRICE_SCALE = 4;
+
+    private final TickStore tickStore;
+    private final StockRepository stockRepository;
+    private final StockPricePeriodRepository stockPricePeriodRepository;
+    private final StockMapper stockMapper;
+    private final int maxPoints;
+
+    public PriceHistoryService(TickStore tickStore,
+                               StockRepository stockRepository,
+                               StockPricePeriodRepository stockPricePeriodRepository,
+                               StockMapper stockMapper,
+                               @Value("${app.ticks.max-points:10000}") int maxPoints) {
+        this.tickStore = tickStore;
+        this.stockRepository = stockRepository;
+        this.stockPricePeriodRepository = stockPricePeriodRepository;
+        this.stockMapper = stockMapper;
+        this.maxPoints = maxPoints;
+    }
+
+    // called inside the transaction that sets the prices, keyed by stock id
+    public void onPricesSet(Map<Long, BigDecimal> prices) {
+        if (!prices.isEmpty()) {
+            stockPricePeriodRepository.openAll(prices, LocalDateTime.now());
+        }
+    }
+
+    // after commit, so a price the tick store can't hold never fails the update that set it
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPriceChange(StockPriceChangedEvent event) {
+        BigInteger units = event.price().setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue();
+        if (units.bitLength() >= Long.SIZE) {
+            log.warn("Price {} of stock {} is out of the tick store's range, not recorded",
+                    event.price(), event.stockId());
+            return;
+        }
+        tickStore.append(event.stockId(), System.currentTimeMillis(), units.longValue());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockDeleted(StockDeletedEvent event) {
+        tickStore.drop(event.stockId());
+    }
+
+    /**
+     * @param from defaults to one day before {@code to}
+     * @param to   defaults to now
+     * @param step bar width, null for raw ticks
+     */
+    @QueryBudget(1)
+    @WorkloadPool(Workload.READ)
+    public PriceHistoryDto getHistory(Long stockId, Instant from, Instant to, Duration step) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        if (step != null && (step.isNegative() || step.toMillis() == 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "step must be at least one millisecond");
+        }
+        if (step != null && Duration.between(start, end).toMillis() / step.toMillis() >= maxPoints) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "More than " + maxPoints + " bars between from and to, use a larger step");
+        }
+        if (!stockRepository.existsById(stockId)) {
+            throw new ResourceNotFoundException("Stock not found with id: " + stockId);
+        }
+
+        List<PriceBarDto> bars = step == null
+                ? readTicks(stockId, start.toEpochMilli(), end.toEpochMilli())
+                : readBars(stockId, start.toEpochMilli(), end.toEpochMilli(), step.toMillis());
+        return new PriceHistoryDto(stockId, start, end, step, bars);
+    }
+
+    /**
+     * The stock with the price it had at {@code asOf}; {@code updatedAt} is when that price was set.
+     */
+    // one more statement for the price, when it changed since the instant
+    @QueryBudget(2)
+    @WorkloadPool(Workload.READ)
+    public StockDto getStockAsOf(Long stockId, Instant asOf) {
+        StockDto current = stockRepository.findById(stockId)
+                .map(stockMapper::map)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock not found with id: " + stockId));
+        StockDto then = asOf(List.of(current), asOf).get(stockId);
+        if (then == null) {
+            throw new ResourceNotFoundException("No price recorded for stock " + stockId + " at " + asOf);
+        }
+        return then;
+    }
+
+    /**
+     * @return copies of the stocks priced as of the instant by stock id, none for a stock whose price
+     * is not known then; one query for all the stocks changed since
+     */
+    Map<Long, StockDto> asOf(Collection<StockDto> stocks, Instant asOf) {
+        LocalDateTime at = LocalDateTime.ofInstant(asOf, ZoneId.systemDefault());
+        Map<Long, StockDto> then = new HashMap<>();
+        Map<Long, StockDto> changedSince = new HashMap<>();
+        for (StockDto stock : stocks) {
+            // unchanged since before the instant: no need to look at the periods
+            LocalDateTime updatedAt = stock.getUpdatedAt();
+            if (updatedAt != null && !updatedAt.isAfter(at)) {
+                then.put(stock.getStockId(), stock);
+            } else {
+                changedSince.put(stock.getStockId(), stock);
+            }
+        }
+        if (changedSince.isEmpty()) {
+            return then;
+        }
+        List<StockPricePeriod> periods = new ArrayList<>(
+                stockPricePeriodRepository.findInForceAt(changedSince.keySet(), at));
+        // periods starting at the same instant: the one written last wins
+        periods.sort(Comparator.comparing(StockPricePeriod::getId));
+        for (StockPricePeriod period : periods) {
+            StockDto current = changedSince.get(period.getStockId());
+            then.put(period.getStockId(), new StockDto(current.getStockId(), current.getName(),
+                    current.getDescription(), period.getPrice(), period.getValidFrom()));
+        }
+        return then;
+    }
+
+    private List<PriceBarDto> readTicks(Long stockId, long fromMillis, long toMillis) {
+        List<PriceBarDto> ticks = new ArrayList<>();
+        tickStore.scan(stockId, fromMillis, toMillis, (timestamp, value) -> {
+            BigDecimal price = BigDecimal.valueOf(value, PRICE_SCALE);
+            ticks.add(new PriceBarDto(Instant.ofEpochMilli(timestamp), price, price, price, price, 1));
+            return ticks.size() <= maxPoints;
+        });
+        if (ticks.size() > maxPoints) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "More than " + maxPoints + " ticks between from and to, narrow the range or pass a step");
+        }
+        return ticks;
+    }
+
+    private List<PriceBarDto> readBars(Long stockId, long fromMillis, long toMillis, long stepMillis) {
+        List<PriceBarDto> bars = new ArrayList<>();
+        Bar[] current = {null};
+        tickStore.scan(stockId, fromMillis, toMillis, (timestamp, value) -> {
+            long bucket = Math.floorDiv(timestamp, stepMillis) * stepMillis;
+            if (current[0] == null || current[0].start != bucket) {
+                if (current[0] != null) {
+                    bars.add(current[0].toDto());
+                }
+                current[0] = new Bar(bucket, value);
+            } else {
+                current[0].add(value);
+            }
+            return true;
+        });
+        if (current[0] != null) {
+            bars.add(current[0].toDto());
+        }
+        return bars;
+    }
+
+    // price units while aggregating, converted once per bar
+    private static final class Bar {
+
+        private final long start;
+        private final long open;
+        private long high;
+        private long low;
+        private long close;
+        private int ticks = 1;
+
+        Bar(long start, long price) {
+            this.start = start;
+            this.open = price;
+            this.high = price;
+            this.low = price;
+            this.close = price;
+        }
+
+        void add(long price) {
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            close = price;
+            ticks++;
+        }
+
+        PriceBarDto toDto() {
+            return new PriceBarDto(Instant.ofEpochMilli(start), BigDecimal.valueOf(open, PRICE_SCALE),
+                    BigDecimal.valueOf(high, PRICE_SCALE), BigDecimal.valueOf(low, PRICE_SCALE),
+                    BigDecimal.valueOf(close, PRICE_SCALE), ticks);
+        }
+    }
+}
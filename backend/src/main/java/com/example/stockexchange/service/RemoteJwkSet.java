@@ -0,0 +1,123 @@
+package com.example.stockexchange.service;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Public keys fetched from the signing node's JWKS endpoint, used by verify-only nodes.
+ * <p>
+ * Lookups hit an immutable map, the key set is refetched when it gets older than the cache time
+ * or when a token shows up with a kid we don't know yet (at most once per {@code MIN_REFETCH_MILLIS},
+ * so garbage kids can't turn into a request storm against the signing node).
+ * <p>
+ * Fetches run one at a time on a thread of their own, with connect and read timeouts. A stale set
+ * is refetched in the background while the current one keeps being served; only a request with an
+ * unknown kid waits, for the fetch already in flight, and no longer than the timeouts.
+ */
+@Slf4j
+public class RemoteJwkSet {
+
+    private static final long MIN_REFETCH_MILLIS = 10000;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(3);
+
+    private final String jwksUri;
+    private final long cacheMillis;
+    private final RestClient restClient;
+    private final ExecutorService fetcher;
+
+    private volatile Map<String, Key> keys = Map.of();
+    private volatile long fetchedAt;
+    private CompletableFuture<Void> inFlight;
+
+    public RemoteJwkSet(String jwksUri, long cacheMillis) {
+        this.jwksUri = jwksUri;
+        this.cacheMillis = cacheMillis;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(CONNECT_TIMEOUT);
+        requestFactory.setReadTimeout(READ_TIMEOUT);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.fetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // warm up, so the first requests find the keys
+        refresh();
+    }
+
+    public Key get(String kid) {
+        Key key = keys.get(kid);
+        if (key == null && System.currentTimeMillis() - fetchedAt >= MIN_REFETCH_MILLIS) {
+            await(refresh());
+            key = keys.get(kid);
+        }
+        return key;
+    }
+
+    public void refreshIfStale() {
+        if (System.currentTimeMillis() - fetchedAt >= cacheMillis) {
+            refresh();
+        }
+    }
+
+    // starts a fetch unless one is running, and hands out the one running
+    private synchronized CompletableFuture<Void> refresh() {
+        if (inFlight == null) {
+            inFlight = CompletableFuture.runAsync(this::fetch, fetcher);
+        }
+        return inFlight;
+    }
+
+    private void fetch() {
+        try {
+            String json = restClient.get().uri(jwksUri).retrieve().body(String.class);
+            keys = parse(json);
+            log.debug("Fetched {} JWT verification keys from {}", keys.size(), jwksUri);
+        } catch (RuntimeException ex) {
+            // keep serving the keys we have, the signing node may just be restarting
+            log.warn("Unable to fetch JWKS from {}: {}", jwksUri, ex.getMessage());
+        } finally {
+            fetchedAt = System.currentTimeMillis();
+            synchronized (this) {
+                inFlight = null;
+            }
+        }
+    }
+
+    private static void await(CompletableFuture<Void> fetch) {
+        try {
+            fetch.get(CONNECT_TIMEOUT.plus(READ_TIMEOUT).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            // answered with the keys we have
+        }
+    }
+
+    static Map<String, Key> parse(String json) {
+        JwkSet jwkSet = Jwks.setParser().build().parse(json);
+        Map<String, Key> parsed = new HashMap<>();
+        for (Jwk<?> jwk : jwkSet) {
+            if (jwk.getId() != null) {
+                parsed.put(jwk.getId(), jwk.toKey());
+            }
+        }
+        return Map.copyOf(parsed);
+    }
+}
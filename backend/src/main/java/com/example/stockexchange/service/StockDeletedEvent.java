@@ -0,0 +1,8 @@
+package com.example.stockexchange.service;
+
+/**
+ * Published by {@link StockService} inside the transaction deleting a stock; listeners drop what
+ * they keep for it after commit.
+ */
+public record StockDeletedEvent(long stockId) {
+}
@@ -0,0 +1,8 @@
+package com.example.stockexchange.service;
+
+/**
+ * Published by {@link StockExchangeService} inside the transaction deleting an exchange; listeners
+ * drop what they keep for it after commit.
+ */
+public record StockExchangeDeletedEvent(long stockExchangeId) {
+}
@@ -1,8 +1,11 @@
 package com.example.stockexchange.service;
 
+import com.example.stockexchange.datasource.Workload;
+import com.example.stockexchange.datasource.WorkloadPool;
 import com.example.stockexchange.dto.StockDto;
 import com.example.stockexchange.dto.StockExchangeDto;
 import com.example.stockexchange.dto.StockListingDto;
+import com.example.stockexchange.entity.ChangeOperation;
 import com.example.stockexchange.entity.Stock;
 import com.example.stockexchange.entity.StockExchange;
 import com.example.stockexchange.entity.StockListing;
@@ -11,12 +14,14 @@ import com.example.stockexchange.exception.DuplicateResourceException;
 import com.example.stockexchange.exception.ResourceNotFoundException;
 import com.example.stockexchange.mapper.StockExchangeMapper;
 import com.example.stockexchange.mapper.StockMapper;
+import com.example.stockexchange.metrics.QueryBudget;
 import com.example.stockexchange.repository.StockExchangeRepository;
 import com.example.stockexchange.repository.StockListingRepository;
 import com.example.stockexchange.repository.StockRepository;
 import com.example.stockexchange.request.StockExchangeCreationRequest;
 import com.example.stockexchange.request.StockExchangeUpdateRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -24,8 +29,13 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -37,20 +47,26 @@ public class StockExchangeService {
     private final StockListingRepository stockListingRepository;
     private final StockExchangeMapper stockExchangeMapper;
     private final StockMapper stockMapper;
+    private final ChangeLogService changeLogService;
+    private final ListingHistoryService listingHistoryService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @QueryBudget(2)
+    @WorkloadPool(Workload.READ)
     public Page<StockExchangeDto> getAllStockExchanges(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<StockExchange> stockExchangePage = stockExchangeRepository.findAll(pageable);
-        return stockExchangePage.map(stockExchangeMapper::map);
+        return stockExchangeRepository.findAllAsDto(pageable);
     }
 
+    @QueryBudget(2)
+    @WorkloadPool(Workload.READ)
     public Page<StockExchangeDto> getAllStockExchangesLiveInMarket(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<StockExchange> stockExchangePage = stockExchangeRepository.findByLiveInMarketTrue(pageable);
-        return stockExchangePage.map(stockExchangeMapper::map);
+        return stockExchangeRepository.findLiveInMarketAsDto(pageable);
     }
     
     @Transactional(readOnly = true)
+    @WorkloadPool(Workload.READ)
     public Page<StockDto> findStocksNotInExchange(Long exchangeId, int page, int size) {
         // Verify the stock exchange exists
         if (!stockExchangeRepository.existsById(exchangeId)) {
@@ -58,47 +74,64 @@ public class StockExchangeService {
         }
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Stock> stocks = stockListingRepository.findStocksNotInExchange(exchangeId, pageable);
-        return stocks.map(stockMapper::map);
+        return stockListingRepository.findStocksNotInExchange(exchangeId, pageable);
     }
 
+    @QueryBudget(1)
+    @WorkloadPool(Workload.READ)
     public StockExchangeDto getStockExchangeById(Long id) {
         return stockExchangeRepository.findById(id)
                 .map(stockExchangeMapper::map)
                 .orElseThrow(() -> new ResourceNotFoundException("Stock Exchange not found with id: " + id));
     }
 
+    @QueryBudget(1)
+    @WorkloadPool(Workload.READ)
+    public boolean stockExchangeExists(Long id) {
+        return stockExchangeRepository.existsById(id);
+    }
+
     private Long getNumberOfStocks(long stockExchangeId) {
         return stockListingRepository.countByStockExchangeId(stockExchangeId);
     }
 
+    @Transactional
+    @WorkloadPool(Workload.WRITE)
     public StockExchangeDto createStockExchange(StockExchangeCreationRequest stockExchangeCreationRequest) {
         StockExchange stockExchange = stockExchangeMapper.map(stockExchangeCreationRequest);
         stockExchangeRepository.save(stockExchange);
+        changeLogService.recordStockExchangeChange(stockExchange.getStockExchangeId(), ChangeOperation.UPSERT);
         return stockExchangeMapper.map(stockExchange);
     }
 
     @Transactional
+    @WorkloadPool(Workload.WRITE)
     public StockExchangeDto updateStockExchange(Long stockExchangeId, StockExchangeUpdateRequest stockExchangeUpdateRequest) {
         StockExchange stockExchange = stockExchangeRepository.findById(stockExchangeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Stock Exchange not found with id: " + stockExchangeId));
 
         stockExchangeMapper.map(stockExchangeUpdateRequest, stockExchange);
         StockExchange updatedStockExchange = stockExchangeRepository.save(stockExchange);
+        changeLogService.recordStockExchangeChange(stockExchangeId, ChangeOperation.UPSERT);
         return stockExchangeMapper.map(updatedStockExchange);
 
     }
     @Transactional
+    @WorkloadPool(Workload.WRITE)
     public void deleteStockExchange(Long stockExchangeId) {
         StockExchange stockExchange = stockExchangeRepository.findById(stockExchangeId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Stock Exchange not found with id: " + stockExchangeId));
 
         stockExchangeRepository.delete(stockExchange);
+        changeLogService.recordStockExchangeChange(stockExchangeId, ChangeOperation.DELETE);
+        eventPublisher.publishEvent(new StockExchangeDeletedEvent(stockExchangeId));
         // StockListings are automatically deleted due to cascade
         // Stocks remain untouched
     }
 
+    @QueryBudget(3)
+    @WorkloadPool(Workload.READ)
     public Page<StockDto> getAllStocksByExchange(Long stockExchangeId, int page, int size, String sortBy) {
         if (!stockExchangeRepository.existsById(stockExchangeId)) {
             throw new ResourceNotFoundException("Stock Exchange not found with id: " + stockExchangeId);
@@ -108,24 +141,11 @@ public class StockExchangeService {
         String sortField = "name".equals(sortBy) ? "stock.name" : sortBy;
 //        Pageable pageable = PageRequest.of(page, size, Sort.by(sortField).ascending());
         Pageable pageable = PageRequest.of(page, size);
-        Page<Stock> stockPage = stockListingRepository.findStocksByStockExchangeId(stockExchangeId, pageable);
-        return stockPage.map(stockMapper::map);
-    }
-
-    @Transactional
-    public StockListingDto addStockToStockExchange(Long stockExchangeId, Long stockId) {
-        StockExchange stockExchange = stockExchangeRepository.findById(stockExchangeId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Stock Exchange not found with id: " + stockExchangeId));
-
-        Stock stock = stockRepository.findById(stockId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Stock not found with id: " + stockId));
-
-        return addStockToExchange(stockExchange, stock);
+        return stockListingRepository.findStocksByStockExchangeId(stockExchangeId, pageable);
     }
 
     @Transactional
+    @WorkloadPool(Workload.WRITE)
     public List<StockListingDto> addStocksToStockExchange(Long stockExchangeId, List<Long> stockIds) {
         if (stockIds == null || stockIds.isEmpty()) {
             throw new IllegalArgumentException("Stock IDs list cannot be null or empty");
@@ -171,6 +191,9 @@ public class StockExchangeService {
                 .collect(Collectors.toList());
         
         stockListingRepository.saveAll(listings);
+        stockIds.forEach(stockId ->
+                changeLogService.recordListingChange(stockExchangeId, stockId, ChangeOperation.UPSERT));
+        listingHistoryService.onListed(stockExchangeId, stockIds);
         updateLiveMarketStatus(stockExchange);
 
         // Convert to DTOs
@@ -180,81 +203,139 @@ public class StockExchangeService {
                         stockMapper.map(listing.getStock())))
                 .collect(Collectors.toList());
     }
-    
-    private StockListingDto addStockToExchange(StockExchange stockExchange, Stock stock) {
-        StockListingId listingId = new StockListingId(stockExchange.getStockExchangeId(), stock.getStockId());
-        if (stockListingRepository.existsById(listingId)) {
-            throw new DuplicateResourceException(
-                    "Stock with id " + stock.getStockId() + " is already listed on Stock Exchange with id " + stockExchange.getStockExchangeId());
-        }
-
-        StockListing stockListing = new StockListing(stockExchange, stock);
-        stockListingRepository.save(stockListing);
-
-        updateLiveMarketStatus(stockExchange);
-
-        return new StockListingDto(stockExchangeMapper.map(stockExchange), stockMapper.map(stock));
-    }
-
 
+    /**
+     * Applies a batch of queued listing mutations for one exchange in a single transaction. Each
+     * mutation is validated on its own against the listings as left by the mutations before it, so
+     * one bad request fails alone; the surviving ones are written with one batched insert, one
+     * batched delete and a single live-status check.
+     */
     @Transactional
-    public void removeStocksFromStockExchange(Long stockExchangeId, List<Long> stockIds) {
-        if (stockIds == null || stockIds.isEmpty()) {
-            throw new IllegalArgumentException("Stock IDs list cannot be null or empty");
+    @WorkloadPool(Workload.WRITE)
+    public void applyListingMutations(Long stockExchangeId, List<ListingMutation> mutations) {
+        StockExchange stockExchange = stockExchangeRepository.findById(stockExchangeId).orElse(null);
+        if (stockExchange == null) {
+            mutations.forEach(mutation -> mutation.fail(new ResourceNotFoundException(
+                    "Stock Exchange not found with id: " + stockExchangeId)));
+            return;
         }
 
-        // Get the stock exchange once
-        StockExchange stockExchange = stockExchangeRepository.findById(stockExchangeId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Stock Exchange not found with id: " + stockExchangeId));
-
-        // Get all stock listings at once
-        List<StockListingId> listingIds = stockIds.stream()
-                .map(stockId -> new StockListingId(stockExchangeId, stockId))
+        List<Long> allStockIds = mutations.stream()
+                .filter(mutation -> mutation.getStockIds() != null)
+                .flatMap(mutation -> mutation.getStockIds().stream())
+                .distinct()
                 .toList();
-                
-        List<StockListing> listings = stockListingRepository.findAllById(listingIds);
-        
-        // Check if all stocks were found in the exchange
-        if (listings.size() != stockIds.size()) {
-            Set<Long> foundStockIds = listings.stream()
-                    .map(listing -> listing.getStock().getStockId())
-                    .collect(Collectors.toSet());
-                    
-            List<Long> missingStockIds = stockIds.stream()
-                    .filter(id -> !foundStockIds.contains(id))
-                    .toList();
-                    
-            throw new ResourceNotFoundException(
-                    "The following stocks are not listed on this exchange: " + missingStockIds);
+        Map<Long, Stock> stocks = stockRepository.findAllById(allStockIds).stream()
+                .collect(Collectors.toMap(Stock::getStockId, Function.identity()));
+        Set<Long> listed = stockListingRepository.findExistingListings(stockExchangeId, allStockIds).stream()
+                .map(StockListingId::getStockId)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        // net effect of the batch: a remove followed by a re-add leaves the row untouched
+        Set<Long> toInsert = new LinkedHashSet<>();
+        Set<Long> toDelete = new LinkedHashSet<>();
+        for (ListingMutation mutation : mutations) {
+            List<Long> stockIds = mutation.getStockIds();
+            if (stockIds == null || stockIds.isEmpty()) {
+                mutation.fail(new IllegalArgumentException("Stock IDs list cannot be null or empty"));
+                continue;
+            }
+
+            if (mutation.getType() == ListingMutation.Type.ADD) {
+                List<Long> missingIds = stockIds.stream().filter(id -> !stocks.containsKey(id)).toList();
+                if (!missingIds.isEmpty()) {
+                    mutation.fail(new ResourceNotFoundException("Stocks not found with ids: " + missingIds));
+                    continue;
+                }
+                List<Long> duplicateIds = stockIds.stream().filter(listed::contains).toList();
+                if (!duplicateIds.isEmpty()) {
+                    mutation.fail(new DuplicateResourceException(
+                            "Some stocks are already listed on this exchange: " +
+                                    duplicateIds.stream().map(String::valueOf).collect(Collectors.joining(", "))));
+                    continue;
+                }
+                for (Long stockId : stockIds) {
+                    listed.add(stockId);
+                    if (!toDelete.remove(stockId)) {
+                        toInsert.add(stockId);
+                    }
+                }
+            } else {
+                List<Long> missingStockIds = stockIds.stream().filter(id -> !listed.contains(id)).toList();
+                if (!missingStockIds.isEmpty()) {
+                    mutation.fail(new ResourceNotFoundException(
+                            "The following stocks are not listed on this exchange: " + missingStockIds));
+                    continue;
+                }
+                for (Long stockId : stockIds) {
+                    listed.remove(stockId);
+                    if (!toInsert.remove(stockId)) {
+                        toDelete.add(stockId);
+                    }
+                }
+            }
         }
 
-        // Delete all listings in batch
-        stockListingRepository.deleteAllInBatch(listings);
-        updateLiveMarketStatus(stockExchange);
-    }
+        if (!toInsert.isEmpty()) {
+            stockListingRepository.saveAll(toInsert.stream()
+                    .map(stockId -> new StockListing(stockExchange, stocks.get(stockId)))
+                    .toList());
+            toInsert.forEach(stockId ->
+                    changeLogService.recordListingChange(stockExchangeId, stockId, ChangeOperation.UPSERT));
+            listingHistoryService.onListed(stockExchangeId, toInsert);
+        }
+        if (!toDelete.isEmpty()) {
+            stockListingRepository.deleteAllInBatch(stockListingRepository.findAllById(toDelete.stream()
+                    .map(stockId -> new StockListingId(stockExchangeId, stockId))
+                    .toList()));
+            toDelete.forEach(stockId ->
+                    changeLogService.recordListingChange(stockExchangeId, stockId, ChangeOperation.DELETE));
+            listingHistoryService.onDelisted(stockExchangeId, toDelete);
+        }
+        if (!toInsert.isEmpty() || !toDelete.isEmpty()) {
+            updateLiveMarketStatus(stockExchange);
+        }
 
-    @Transactional
-    public void removeStockFromStockExchange(Long stockExchangeId, Long stockId) {
-        StockExchange stockExchange = stockExchangeRepository.findById(stockExchangeId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Stock Exchange not found with id: " + stockExchangeId));
+        StockExchangeDto stockExchangeDto = stockExchangeMapper.map(stockExchange);
+        for (ListingMutation mutation : mutations) {
+            if (mutation.isFailed()) {
+                continue;
+            }
+            if (mutation.getType() == ListingMutation.Type.ADD) {
+                mutation.succeed(mutation.getStockIds().stream()
+                        .map(stockId -> new StockListingDto(stockExchangeDto, stockMapper.map(stocks.get(stockId))))
+                        .toList());
+            } else {
+                mutation.succeed(List.of());
+            }
+        }
+    }
 
-        StockListingId listingId = new StockListingId(stockExchangeId, stockId);
-        StockListing stockListing = stockListingRepository.findById(listingId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Stock with id " + stockId + " is not listed on this Stock Exchange"));
+    public void updateLiveMarketStatus(StockExchange stockExchange) {
+        applyLiveMarketStatus(stockExchange, getNumberOfStocks(stockExchange.getStockExchangeId()));
+    }
 
-        stockListingRepository.delete(stockListing);
-        updateLiveMarketStatus(stockExchange);
+    // one grouped count for all exchanges instead of a count per exchange
+    public void updateLiveMarketStatus(Collection<StockExchange> stockExchanges) {
+        if (stockExchanges.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> listingCounts = stockListingRepository.countByStockExchangeIds(stockExchanges.stream()
+                        .map(StockExchange::getStockExchangeId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+
+        stockExchanges.forEach(stockExchange -> applyLiveMarketStatus(stockExchange,
+                listingCounts.getOrDefault(stockExchange.getStockExchangeId(), 0L)));
     }
 
-    public void updateLiveMarketStatus(StockExchange stockExchange) {
-        long remainingStocks = getNumberOfStocks(stockExchange.getStockExchangeId());
+    private void applyLiveMarketStatus(StockExchange stockExchange, long remainingStocks) {
         boolean shouldBeLive = remainingStocks >= 10;
 
         if (stockExchange.isLiveInMarket() != shouldBeLive) {
             stockExchange.setLiveInMarket(shouldBeLive);
+            changeLogService.recordStockExchangeChange(stockExchange.getStockExchangeId(), ChangeOperation.UPSERT);
             // No need to call save() if using @Transactional - changes are auto-detected
         }
     }
@@ -0,0 +1,10 @@
+package com.example.stockexchange.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by {@link StockService} inside the transaction that set a stock's price, at creation or
+ * on an update. Listeners react after commit, so a rolled back price is never seen.
+ */
+public record StockPriceChangedEvent(long stockId, BigDecimal price) {
+}
@@ -1,19 +1,22 @@
 package com.example.stockexchange.service;
 
+import com.example.stockexchange.datasource.Workload;
+import com.example.stockexchange.datasource.WorkloadPool;
 import com.example.stockexchange.dto.StockDto;
 import com.example.stockexchange.dto.StockExchangeDto;
+import com.example.stockexchange.entity.ChangeOperation;
 import com.example.stockexchange.entity.Stock;
 import com.example.stockexchange.entity.StockExchange;
-import com.example.stockexchange.entity.StockListing;
 import com.example.stockexchange.exception.DuplicateResourceException;
 import com.example.stockexchange.exception.ResourceNotFoundException;
-import com.example.stockexchange.mapper.StockExchangeMapper;
 import com.example.stockexchange.mapper.StockMapper;
+import com.example.stockexchange.metrics.QueryBudget;
 import com.example.stockexchange.repository.StockListingRepository;
 import com.example.stockexchange.repository.StockRepository;
 import com.example.stockexchange.request.StockCreationRequest;
 import com.example.stockexchange.request.StockPriceUpdateRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,8 +25,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -34,10 +41,15 @@ public class StockService {
     private final StockRepository stockRepository;
     private final StockListingRepository stockListingRepository;
     private final StockMapper stockMapper;
-    private final StockExchangeMapper stockExchangeMapper;
     private final StockExchangeService stockExchangeService;
+    private final ChangeLogService changeLogService;
+    private final TradingSessionService tradingSessionService;
+    private final PriceHistoryService priceHistoryService;
+    private final ApplicationEventPublisher eventPublisher;
 
 
+    @QueryBudget(2)
+    @WorkloadPool(Workload.READ)
     public Page<StockDto> getAllStocks(
             int page,
             int size,
@@ -49,22 +61,23 @@ public class StockService {
                 : Sort.Direction.ASC;
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        Page<Stock> stockPage = stockRepository.findAll(pageable);
-        return stockPage.map(stockMapper::map);
+        return stockRepository.findAllAsDto(pageable);
     }
 
+    @WorkloadPool(Workload.READ)
     public Page<StockExchangeDto> getAllStockExchangesByStock(Long stockId, int page, int size) {
         if (!stockRepository.existsById(stockId)) {
             throw new ResourceNotFoundException("Stock not found with id: " + stockId);
         }
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<StockExchange> stockExchangePage = stockListingRepository.findStockExchangesByStockId(stockId, pageable);
-
-        return stockExchangePage.map(stockExchangeMapper::map);
+        return stockListingRepository.findStockExchangesByStockId(stockId, pageable);
     }
 
+    // one more statement for the id sequence, once every allocation block (50 inserts)
     @Transactional
+    @QueryBudget(5)
+    @WorkloadPool(Workload.WRITE)
     public StockDto createStock(StockCreationRequest stockCreationRequest) {
         // Check if stock with same symbol already exists
         if (stockRepository.existsByName(stockCreationRequest.getName())) {
@@ -73,40 +86,99 @@ public class StockService {
         }
 
         Stock stock = stockMapper.map(stockCreationRequest);
-        Stock savedStock = stockRepository.save(stock);
+        // inserted before its price period, which references it
+        Stock savedStock = stockRepository.saveAndFlush(stock);
+        priceHistoryService.onPricesSet(Map.of(savedStock.getStockId(), savedStock.getCurrentPrice()));
+        changeLogService.recordStockChange(savedStock.getStockId(), ChangeOperation.UPSERT);
+        eventPublisher.publishEvent(new StockPriceChangedEvent(savedStock.getStockId(), savedStock.getCurrentPrice()));
         return stockMapper.map(savedStock);
     }
 
+    // ids are taken from the pooled sequence, so the inserts go out as JDBC batches,
+    // flushed ahead of the price periods that reference them
+    @Transactional
+    @WorkloadPool(Workload.WRITE)
+    public List<StockDto> createStocks(List<StockCreationRequest> stockCreationRequests) {
+        if (stockCreationRequests == null || stockCreationRequests.isEmpty()) {
+            throw new IllegalArgumentException("Stock list cannot be null or empty");
+        }
+
+        Set<String> names = new HashSet<>();
+        List<String> repeatedNames = stockCreationRequests.stream()
+                .map(StockCreationRequest::getName)
+                .filter(name -> !names.add(name))
+                .toList();
+        if (!repeatedNames.isEmpty()) {
+            throw new DuplicateResourceException("Stock names repeated in the request: " + repeatedNames);
+        }
+
+        List<String> existingNames = stockRepository.findExistingNames(names);
+        if (!existingNames.isEmpty()) {
+            throw new DuplicateResourceException("Stocks with names already exist: " + existingNames);
+        }
+
+        List<Stock> stocks = stockCreationRequests.stream()
+                .map(stockMapper::map)
+                .toList();
+        List<Stock> savedStocks = stockRepository.saveAllAndFlush(stocks);
+        priceHistoryService.onPricesSet(savedStocks.stream()
+                .collect(Collectors.toMap(Stock::getStockId, Stock::getCurrentPrice)));
+        savedStocks.forEach(savedStock -> {
+            changeLogService.recordStockChange(savedStock.getStockId(), ChangeOperation.UPSERT);
+            eventPublisher.publishEvent(new StockPriceChangedEvent(savedStock.getStockId(), savedStock.getCurrentPrice()));
+        });
+        return savedStocks.stream()
+                .map(stockMapper::map)
+                .toList();
+    }
+
+    // one more statement for the listed exchanges while some exchange is out of session
     @Transactional
+    @QueryBudget(5)
+    @WorkloadPool(Workload.WRITE)
     public StockDto updatePrice(Long stockId, StockPriceUpdateRequest stockPriceUpdateRequest) {
         Stock stock = stockRepository.findById(stockId)
                 .orElseThrow(() -> new ResourceNotFoundException("Stock not found with id: " + stockId));
+        tradingSessionService.requireTradingOpen(stockId);
 
         // Update only the price field
         stock.setCurrentPrice(stockPriceUpdateRequest.getCurrentPrice());
         // No need to call save() - @Transactional handles it with dirty checking
+        priceHistoryService.onPricesSet(Map.of(stockId, stock.getCurrentPrice()));
+        changeLogService.recordStockChange(stockId, ChangeOperation.UPSERT);
+        // alerts, valuations and the price history react once the price is committed
+        eventPublisher.publishEvent(new StockPriceChangedEvent(stockId, stock.getCurrentPrice()));
         return stockMapper.map(stock);
     }
 
     @Transactional(readOnly = true)
+    @QueryBudget(1)
+    @WorkloadPool(Workload.READ)
     public StockDto getStockById(Long stockId) {
         return stockRepository.findById(stockId)
                 .map(stockMapper::map)
                 .orElseThrow(() -> new ResourceNotFoundException("Stock not found with id: " + stockId));
     }
 
+    // constant in the number of listings; each exchange that flips live status adds a change-log row
     @Transactional
+    @QueryBudget(8)
+    @WorkloadPool(Workload.WRITE)
     public void deleteStock(Long stockId) {
-        Stock stock = stockRepository.findById(stockId)
+        Stock stock = stockRepository.findByIdWithListings(stockId)
                 .orElseThrow(() -> new ResourceNotFoundException("Stock not found with id: " + stockId));
 
-        List<StockExchange> affectedExchanges = stock.getStockListings().stream()
-                .map(StockListing::getStockExchange)
-                .distinct()
-                .toList();
+        // keyed by id: the listings' exchanges are already loaded, nothing is initialized one by one
+        Map<Long, StockExchange> affectedExchanges = new LinkedHashMap<>();
+        stock.getStockListings().forEach(listing -> affectedExchanges.putIfAbsent(
+                listing.getStockExchange().getStockExchangeId(), listing.getStockExchange()));
 
         stockRepository.delete(stock);
+        changeLogService.recordStockChange(stockId, ChangeOperation.DELETE);
+        eventPublisher.publishEvent(new StockDeletedEvent(stockId));
 
-        affectedExchanges.forEach(stockExchangeService::updateLiveMarketStatus);
+        if (!affectedExchanges.isEmpty()) {
+            stockExchangeService.updateLiveMarketStatus(affectedExchanges.values());
+        }
     }
 }
@@ -0,0 +1,111 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.entity.SessionPhase;
+import com.example.stockexchange.entity.TradingCalendar;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An exchange's trading calendar as session arithmetic: the phase at an instant and the next
+ * instant the phase changes. Sessions run within one local day (pre-open, open, close); days off
+ * and holidays stay closed. Immutable, built once per calendar change.
+ */
+public final class TradingSchedule {
+
+    // far enough to step over any run of holidays and weekends
+    private static final int MAX_DAYS_AHEAD = 366;
+
+    private final ZoneId zone;
+    private final LocalTime preOpen;
+    private final LocalTime open;
+    private final LocalTime close;
+    private final Set<DayOfWeek> tradingDays;
+    private final Set<LocalDate> holidays;
+
+    public TradingSchedule(ZoneId zone, LocalTime preOpen, LocalTime open, LocalTime close,
+                           Set<DayOfWeek> tradingDays, Set<LocalDate> holidays) {
+        if (preOpen.isAfter(open) || !open.isBefore(close)) {
+            throw new IllegalArgumentException("Sessions must run pre-open <= open < close within one day");
+        }
+        this.zone = zone;
+        this.preOpen = preOpen;
+        this.open = open;
+        this.close = close;
+        this.tradingDays = tradingDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(tradingDays);
+        this.holidays = Set.copyOf(holidays);
+    }
+
+    public static TradingSchedule of(TradingCalendar calendar) {
+        return new TradingSchedule(ZoneId.of(calendar.getTimeZone()), calendar.getPreOpenTime(),
+                calendar.getOpenTime(), calendar.getCloseTime(), parseDays(calendar.getTradingDays()),
+                calendar.getHolidays());
+    }
+
+    public static Set<DayOfWeek> parseDays(String days) {
+        if (days == null || days.isBlank()) {
+            return EnumSet.noneOf(DayOfWeek.class);
+        }
+        return Arrays.stream(days.split(","))
+                .map(String::trim)
+                .map(DayOfWeek::valueOf)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(DayOfWeek.class)));
+    }
+
+    public static String formatDays(Set<DayOfWeek> days) {
+        return days.stream().sorted().map(DayOfWeek::name).collect(Collectors.joining(","));
+    }
+
+    public SessionPhase phaseAt(Instant instant) {
+        LocalDate date = instant.atZone(zone).toLocalDate();
+        if (!isTradingDay(date)) {
+            return SessionPhase.CLOSED;
+        }
+        if (instant.isBefore(at(date, preOpen))) {
+            return SessionPhase.CLOSED;
+        }
+        if (instant.isBefore(at(date, open))) {
+            return SessionPhase.PRE_OPEN;
+        }
+        if (instant.isBefore(at(date, close))) {
+            return SessionPhase.OPEN;
+        }
+        return SessionPhase.CLOSED;
+    }
+
+    /**
+     * @return the first phase change strictly after {@code instant}, null if the exchange never trades
+     */
+    public Instant nextTransition(Instant instant) {
+        LocalDate date = instant.atZone(zone).toLocalDate();
+        for (int i = 0; i <= MAX_DAYS_AHEAD; i++, date = date.plusDays(1)) {
+            if (!isTradingDay(date)) {
+                continue;
+            }
+            for (LocalTime boundary : new LocalTime[]{preOpen, open, close}) {
+                Instant candidate = at(date, boundary);
+                if (candidate.isAfter(instant)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isTradingDay(LocalDate date) {
+        return tradingDays.contains(date.getDayOfWeek()) && !holidays.contains(date);
+    }
+
+    // a local time skipped by a DST change falls to the first instant after the gap
+    private Instant at(LocalDate date, LocalTime time) {
+        return ZonedDateTime.of(date, time, zone).toInstant();
+    }
+}
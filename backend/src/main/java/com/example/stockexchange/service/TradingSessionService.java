@@ -0,0 +1,230 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.datasource.Workload;
+import com.example.stockexchange.datasource.WorkloadPool;
+import com.example.stockexchange.dto.TradingSessionDto;
+import com.example.stockexchange.entity.SessionPhase;
+import com.example.stockexchange.entity.TradingCalendar;
+import com.example.stockexchange.exception.ResourceNotFoundException;
+import com.example.stockexchange.repository.StockExchangeRepository;
+import com.example.stockexchange.repository.StockListingRepository;
+import com.example.stockexchange.repository.TradingCalendarRepository;
+import com.example.stockexchange.request.TradingCalendarRequest;
+import com.example.stockexchange.scheduling.TimerWheel;
+import com.example.stockexchange.snapshot.RestoreAware;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trading sessions per stock exchange, driven by the shared {@link TimerWheel}.
+ * <p>
+ * Each exchange with a calendar holds its current phase in memory and exactly one pending timeout,
+ * for its next transition; the timeout recomputes the phase and schedules the one after. Exchanges
+ * without a calendar are always open. Price updates are only accepted while at least one exchange
+ * listing the stock is open; while every exchange is open (no calendars, or all in session) the
+ * check costs no query at all.
+ */
+@Slf4j
+@Service
+public class TradingSessionService implements SmartInitializingSingleton, RestoreAware {
+
+    private final TradingCalendarRepository tradingCalendarRepository;
+    private final StockExchangeRepository stockExchangeRepository;
+    private final StockListingRepository stockListingRepository;
+    private final TimerWheel timerWheel;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger notOpen = new AtomicInteger();
+
+    public TradingSessionService(TradingCalendarRepository tradingCalendarRepository,
+                                 StockExchangeRepository stockExchangeRepository,
+                                 StockListingRepository stockListingRepository,
+                                 TimerWheel timerWheel,
+                                 PlatformTransactionManager transactionManager) {
+        this.tradingCalendarRepository = tradingCalendarRepository;
+        this.stockExchangeRepository = stockExchangeRepository;
+        this.stockListingRepository = stockListingRepository;
+        this.timerWheel = timerWheel;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public TradingSessionDto getSession(Long stockExchangeId) {
+        if (!stockExchangeRepository.existsById(stockExchangeId)) {
+            throw new ResourceNotFoundException("Stock Exchange not found with id: " + stockExchangeId);
+        }
+        Session session = sessions.get(stockExchangeId);
+        if (session == null) {
+            return new TradingSessionDto(stockExchangeId, SessionPhase.OPEN, false, null);
+        }
+        return session.toDto(stockExchangeId);
+    }
+
+    public SessionPhase getPhase(Long stockExchangeId) {
+        Session session = sessions.get(stockExchangeId);
+        return session == null ? SessionPhase.OPEN : session.phase;
+    }
+
+    @Transactional
+    @WorkloadPool(Workload.WRITE)
+    public TradingSessionDto setCalendar(Long stockExchangeId, TradingCalendarRequest request) {
+        if (!stockExchangeRepository.existsById(stockExchangeId)) {
+            throw new ResourceNotFoundException("Stock Exchange not found with id: " + stockExchangeId);
+        }
+
+        TradingCalendar calendar = tradingCalendarRepository.findById(stockExchangeId).orElseGet(TradingCalendar::new);
+        calendar.setStockExchangeId(stockExchangeId);
+        calendar.setTimeZone(request.getTimeZone());
+        calendar.setPreOpenTime(request.getPreOpenTime() != null ? request.getPreOpenTime() : request.getOpenTime());
+        calendar.setOpenTime(request.getOpenTime());
+        calendar.setCloseTime(request.getCloseTime());
+        calendar.setTradingDays(TradingSchedule.formatDays(request.getTradingDays()));
+        calendar.setHolidays(request.getHolidays() != null ? new HashSet<>(request.getHolidays()) : new HashSet<>());
+
+        TradingSchedule schedule = toSchedule(calendar);
+        tradingCalendarRepository.save(calendar);
+        AfterCommit.run(() -> install(stockExchangeId, schedule));
+
+        Instant now = Instant.now();
+        return new TradingSessionDto(stockExchangeId, schedule.phaseAt(now), true, schedule.nextTransition(now));
+    }
+
+    @Transactional
+    @WorkloadPool(Workload.WRITE)
+    public void deleteCalendar(Long stockExchangeId) {
+        TradingCalendar calendar = tradingCalendarRepository.findById(stockExchangeId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Trading calendar not found for stock exchange id: " + stockExchangeId));
+        tradingCalendarRepository.delete(calendar);
+        AfterCommit.run(() -> uninstall(stockExchangeId));
+    }
+
+    // the calendar row goes with the exchange
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockExchangeDeleted(StockExchangeDeletedEvent event) {
+        uninstall(event.stockExchangeId());
+    }
+
+    /**
+     * Fails unless the stock can trade now: unlisted, or listed on at least one open exchange.
+     */
+    public void requireTradingOpen(Long stockId) {
+        if (notOpen.get() == 0) {
+            return;
+        }
+        List<Long> stockExchangeIds = stockListingRepository.findStockExchangeIdsByStockId(stockId);
+        if (stockExchangeIds.isEmpty()
+                || stockExchangeIds.stream().anyMatch(id -> getPhase(id) == SessionPhase.OPEN)) {
+            return;
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "Stock " + stockId + " is not trading: every exchange listing it is closed");
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<TradingCalendar> calendars = transactionTemplate.execute(status ->
+                tradingCalendarRepository.findAllWithHolidays());
+        for (TradingCalendar calendar : calendars) {
+            try {
+                install(calendar.getStockExchangeId(), TradingSchedule.of(calendar));
+            } catch (RuntimeException ex) {
+                log.warn("Skipping the trading calendar of stock exchange {}: {}",
+                        calendar.getStockExchangeId(), ex.getMessage());
+            }
+        }
+        log.info("Scheduled trading sessions for {} stock exchanges, {} not open", sessions.size(), notOpen.get());
+    }
+
+    // calendars may have changed, and every pending transition is overdue
+    @Override
+    public void afterRestore(long checkpointedAtMillis) {
+        List.copyOf(sessions.keySet()).forEach(this::uninstall);
+        afterSingletonsInstantiated();
+    }
+
+    private TradingSchedule toSchedule(TradingCalendar calendar) {
+        try {
+            return TradingSchedule.of(calendar);
+        } catch (DateTimeException | IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid trading calendar: " + ex.getMessage());
+        }
+    }
+
+    private void install(Long stockExchangeId, TradingSchedule schedule) {
+        Session session = new Session(schedule);
+        Session previous = sessions.put(stockExchangeId, session);
+        if (previous != null) {
+            previous.retire();
+        }
+        session.advance();
+    }
+
+    private void uninstall(Long stockExchangeId) {
+        Session session = sessions.remove(stockExchangeId);
+        if (session != null) {
+            session.retire();
+        }
+    }
+
+    private final class Session {
+
+        private final TradingSchedule schedule;
+        private volatile SessionPhase phase = SessionPhase.OPEN;
+        private TimerWheel.Timeout next;
+        private boolean retired;
+
+        Session(TradingSchedule schedule) {
+            this.schedule = schedule;
+        }
+
+        // runs on the wheel's thread at each transition, and once when installed
+        synchronized void advance() {
+            if (retired) {
+                return;
+            }
+            Instant now = Instant.now();
+            setPhase(schedule.phaseAt(now));
+            Instant transition = schedule.nextTransition(now);
+            next = transition == null ? null : timerWheel.scheduleAt(this::advance, transition.toEpochMilli());
+        }
+
+        // back to always open, so the closed count stays right
+        synchronized void retire() {
+            retired = true;
+            if (next != null) {
+                next.cancel();
+            }
+            setPhase(SessionPhase.OPEN);
+        }
+
+        synchronized TradingSessionDto toDto(Long stockExchangeId) {
+            return new TradingSessionDto(stockExchangeId, phase, true,
+                    next == null ? null : Instant.ofEpochMilli(next.deadlineMillis()));
+        }
+
+        private void setPhase(SessionPhase newPhase) {
+            if (phase == SessionPhase.OPEN && newPhase != SessionPhase.OPEN) {
+                notOpen.incrementAndGet();
+            } else if (phase != SessionPhase.OPEN && newPhase == SessionPhase.OPEN) {
+                notOpen.decrementAndGet();
+            }
+            phase = newPhase;
+        }
+    }
+}
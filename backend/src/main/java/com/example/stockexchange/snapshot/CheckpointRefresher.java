@@ -0,0 +1,87 @@
+package com.example.stockexchange.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.crac.Context;
+import org.crac.Resource;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Brings in-memory state back in line with the database after a CRaC restore.
+ * <p>
+ * Registered with the CRaC global context: {@link #beforeCheckpoint} records when the image is taken
+ * and {@link #afterRestore} refreshes the stores from that time. With
+ * {@code -Dspring.context.checkpoint=onRefresh} the checkpoint comes before the lifecycle beans are
+ * started, so the refresh runs right away, ahead of the web server. An on-demand checkpoint
+ * ({@code jcmd <pid> JDK.checkpoint}) has Spring stop the running beans first, the connection pools
+ * included; the refresh then waits for {@link #start}, which comes after the pools resume and before
+ * the web server starts. At a normal startup there was no checkpoint and it does nothing.
+ */
+@Slf4j
+public class CheckpointRefresher implements Resource, SmartLifecycle {
+
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final List<RestoreAware> owners;
+    private boolean started;
+    private boolean running;
+    private long checkpointedAtMillis = -1;
+    private long pendingRestoreMillis = -1;
+
+    public CheckpointRefresher(List<RestoreAware> owners) {
+        this.owners = owners;
+    }
+
+    @Override
+    public synchronized void beforeCheckpoint(Context<? extends Resource> context) {
+        checkpointedAtMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void afterRestore(Context<? extends Resource> context) {
+        long checkpointedAt = checkpointedAtMillis;
+        checkpointedAtMillis = -1;
+        if (checkpointedAt < 0) {
+            return;
+        }
+        if (running || !started) {
+            refresh(checkpointedAt);
+        } else {
+            // stopped for the checkpoint, the pools are still suspended
+            pendingRestoreMillis = checkpointedAt;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        started = true;
+        running = true;
+        if (pendingRestoreMillis >= 0) {
+            refresh(pendingRestoreMillis);
+            pendingRestoreMillis = -1;
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void refresh(long checkpointedAt) {
+        log.info("Restored from a checkpoint taken at {}, refreshing {} in-memory stores",
+                Instant.ofEpochMilli(checkpointedAt), owners.size());
+        owners.forEach(owner -> owner.afterRestore(checkpointedAt));
+    }
+}
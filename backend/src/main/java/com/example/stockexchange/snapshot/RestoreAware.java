@@ -0,0 +1,13 @@
+package com.example.stockexchange.snapshot;
+
+/**
+ * In-memory state loaded from the database that goes stale while the JVM sits in a CRaC checkpoint
+ * image. {@link CheckpointRefresher} calls it after a restore, before requests are served again.
+ */
+public interface RestoreAware {
+
+    /**
+     * @param checkpointedAtMillis when the checkpoint was taken
+     */
+    void afterRestore(long checkpointedAtMillis);
+}
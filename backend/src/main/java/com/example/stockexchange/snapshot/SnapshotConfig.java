@@ -0,0 +1,41 @@
+package com.example.stockexchange.snapshot;
+
+import com.example.stockexchange.scheduling.TimerWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.crac.Core;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@Configuration
+public class SnapshotConfig {
+
+    @Bean
+    public SnapshotStore snapshotStore(@Value("${app.snapshots.directory:data/snapshots}") String directory) {
+        return new SnapshotStore(Path.of(directory));
+    }
+
+    // depends on the owners, so it is closed (and writes the last snapshots) before they are
+    @Bean(destroyMethod = "close")
+    public SnapshotScheduler snapshotScheduler(SnapshotStore snapshotStore,
+                                               List<Snapshottable> owners,
+                                               TimerWheel timerWheel,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${app.snapshots.interval-millis:300000}") long intervalMillis) {
+        SnapshotScheduler scheduler = new SnapshotScheduler(snapshotStore, owners, timerWheel, intervalMillis, meterRegistry);
+        scheduler.start();
+        return scheduler;
+    }
+
+    // the global context holds its resources weakly, the bean keeps this one reachable;
+    // on a JVM without CRaC the context is a no-op
+    @Bean
+    public CheckpointRefresher checkpointRefresher(List<RestoreAware> owners) {
+        CheckpointRefresher refresher = new CheckpointRefresher(owners);
+        Core.getGlobalContext().register(refresher);
+        return refresher;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.stockexchange.snapshot;
+
+import com.example.stockexchange.scheduling.TimerWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes every {@link Snapshottable} once per interval on its own thread, and a last time at
+ * shutdown so the next start has little to replay. The timer wheel only hands the work over.
+ */
+@Slf4j
+public class SnapshotScheduler implements AutoCloseable {
+
+    private final SnapshotStore store;
+    private final List<Snapshottable> owners;
+    private final TimerWheel timerWheel;
+    private final long intervalMillis;
+    private final ExecutorService writer;
+    private final MeterRegistry meterRegistry;
+    private volatile TimerWheel.Timeout next;
+    private volatile boolean closed;
+
+    public SnapshotScheduler(SnapshotStore store, List<Snapshottable> owners, TimerWheel timerWheel,
+                             long intervalMillis, MeterRegistry meterRegistry) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("intervalMillis must be positive");
+        }
+        this.store = store;
+        this.owners = owners;
+        this.timerWheel = timerWheel;
+        this.intervalMillis = intervalMillis;
+        this.meterRegistry = meterRegistry;
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        if (!owners.isEmpty()) {
+            scheduleNext();
+        }
+    }
+
+    public void writeAll() {
+        owners.forEach(this::write);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        TimerWheel.Timeout pending = next;
+        if (pending != null) {
+            pending.cancel();
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Snapshot writer did not finish in time");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        writeAll();
+    }
+
+    private void scheduleNext() {
+        next = timerWheel.schedule(() -> {
+            try {
+                writer.execute(() -> {
+                    writeAll();
+                    if (!closed) {
+                        scheduleNext();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                // shutting down, close() writes the last ones
+            }
+        }, intervalMillis);
+    }
+
+    private void write(Snapshottable owner) {
+        String name = owner.snapshotName();
+        try {
+            if (!owner.canSnapshot()) {
+                store.delete(name);
+                log.warn("Snapshot {} is not consistent with the database any more, deleted it", name);
+                return;
+            }
+            // taken before the first entry is read, the owner replays from a margin before this
+            long takenAtMillis = System.currentTimeMillis();
+            long started = System.nanoTime();
+            long bytes = store.save(name, takenAtMillis, owner::writeSnapshot);
+            long elapsed = System.nanoTime() - started;
+            Timer.builder("stockexchange.snapshot.write")
+                    .tag("name", name)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Wrote snapshot {}: {} bytes in {} ms", name, bytes, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not write snapshot {}: {}", name, ex.getMessage());
+        }
+    }
+}
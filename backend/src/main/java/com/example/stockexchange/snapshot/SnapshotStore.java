@@ -0,0 +1,154 @@
+package com.example.stockexchange.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.OptionalLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Named binary snapshots of in-memory state, one file per name in a local directory.
+ * <p>
+ * A file holds a magic number, the format version, when the snapshot was taken, the owner's payload
+ * and a CRC32 of everything before it. It is written to a temporary file, forced to disk and moved
+ * over the previous one, so a crash mid-write leaves the previous snapshot in place. A file that
+ * does not check out is ignored, and its owner falls back to loading from the database.
+ */
+@Slf4j
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x534E4150;
+    private static final int FORMAT = 1;
+    private static final String SUFFIX = ".snap";
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final Path directory;
+
+    @FunctionalInterface
+    public interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Reader {
+        void read(DataInputStream in) throws IOException;
+    }
+
+    public SnapshotStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open the snapshot directory " + directory, ex);
+        }
+    }
+
+    /**
+     * @return the size of the snapshot in bytes
+     */
+    public long save(String name, long takenAtMillis, Writer writer) throws IOException {
+        Path target = file(name);
+        Path temporary = directory.resolve(name + SUFFIX + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream buffered = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES);
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeLong(takenAtMillis);
+            writer.write(out);
+            out.flush();
+            // the checksum itself stays out of the checksum
+            DataOutputStream trailer = new DataOutputStream(buffered);
+            trailer.writeLong(crc.getValue());
+            trailer.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(target);
+    }
+
+    /**
+     * Checks a snapshot end to end, then hands its payload to the reader.
+     *
+     * @return when the snapshot was taken; empty when there is none or it could not be read, in which
+     * case the reader may have seen part of it
+     */
+    public OptionalLong load(String name, Reader reader) {
+        Path file = file(name);
+        if (!Files.exists(file)) {
+            return OptionalLong.empty();
+        }
+        try {
+            if (!checksumMatches(file)) {
+                log.warn("Ignoring snapshot {}: checksum mismatch", file);
+                return OptionalLong.empty();
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_BYTES))) {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                    log.warn("Ignoring snapshot {}: unknown format", file);
+                    return OptionalLong.empty();
+                }
+                long takenAtMillis = in.readLong();
+                reader.read(in);
+                return OptionalLong.of(takenAtMillis);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ignoring snapshot {}: {}", file, ex.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    public void delete(String name) throws IOException {
+        Files.deleteIfExists(file(name));
+    }
+
+    private Path file(String name) {
+        return directory.resolve(name + SUFFIX);
+    }
+
+    private static boolean checksumMatches(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long checked = channel.size() - Long.BYTES;
+            if (checked < HEADER_BYTES) {
+                return false;
+            }
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            long position = 0;
+            while (position < checked) {
+                buffer.clear().limit((int) Math.min(BUFFER_BYTES, checked - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    return false;
+                }
+                buffer.flip();
+                crc.update(buffer);
+                position += read;
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, checked + trailer.position()) < 0) {
+                    return false;
+                }
+            }
+            return trailer.flip().getLong() == crc.getValue();
+        }
+    }
+}
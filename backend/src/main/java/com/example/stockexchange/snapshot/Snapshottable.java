@@ -0,0 +1,28 @@
+package com.example.stockexchange.snapshot;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * In-memory state that {@link SnapshotScheduler} writes to the {@link SnapshotStore} periodically
+ * and at shutdown. The owner loads it back itself at startup, then replays whatever changed from a
+ * little before the snapshot was taken.
+ */
+public interface Snapshottable {
+
+    String snapshotName();
+
+    /**
+     * Writes the current state. Runs on the snapshot thread while updates keep coming, so it only
+     * needs to be consistent per entry; the replay covers the rest.
+     */
+    void writeSnapshot(DataOutputStream out) throws IOException;
+
+    /**
+     * @return false when the state has lost track of the database and only a full load can repair
+     * it; the snapshot on disk is then deleted instead of replaced
+     */
+    default boolean canSnapshot() {
+        return true;
+    }
+}
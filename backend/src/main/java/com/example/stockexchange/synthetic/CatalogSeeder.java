@@ -0,0 +1,161 @@
+package com.example.stockexchange.synthetic;
+
+import com.example.stockexchange.dto.StockDto;
+import com.example.stockexchange.request.StockCreationRequest;
+import com.example.stockexchange.request.StockExchangeCreationRequest;
+import com.example.stockexchange.service.StockExchangeService;
+import com.example.stockexchange.service.StockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes a {@link SyntheticCatalog} through the services, so the change log, listing periods, live
+ * status and price history come out as for any other client: exchanges one by one, stocks a batch at
+ * a time, listings gathered per exchange and added a batch at a time.
+ * <p>
+ * A catalog already in the database is reused as it is, which lets a soak run restart on the same
+ * data. It counts as complete when all its exchanges, stocks and listings are there; one that is only
+ * partly there (an interrupted seeding) is refused: pick another prefix.
+ */
+@Slf4j
+public class CatalogSeeder {
+
+    private static final String FIND_STOCKS = "SELECT stock_id, name FROM stock WHERE name LIKE ?";
+    private static final String FIND_EXCHANGES = "SELECT name FROM stock_exchange WHERE name LIKE ?";
+    private static final String COUNT_LISTINGS = "SELECT COUNT(*) FROM stock_exchange_stock sl "
+            + "JOIN stock_exchange se ON se.stock_exchange_id = sl.stock_exchange_id "
+            + "JOIN stock s ON s.stock_id = sl.stock_id WHERE se.name LIKE ? AND s.name LIKE ?";
+
+    private final StockService stockService;
+    private final StockExchangeService stockExchangeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int fetchSize;
+
+    public CatalogSeeder(StockService stockService, StockExchangeService stockExchangeService,
+                         JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                         int batchSize, int fetchSize) {
+        if (batchSize <= 0 || batchSize > 1000) {
+            throw new IllegalArgumentException("batchSize must be between 1 and 1000");
+        }
+        this.stockService = stockService;
+        this.stockExchangeService = stockExchangeService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @return the stock ids, by stock index
+     */
+    public long[] seed(SyntheticCatalog catalog) {
+        long[] existing = findStocks(catalog);
+        long found = Arrays.stream(existing).filter(id -> id != 0).count();
+        int foundExchanges = countExchanges(catalog);
+        if (found > 0 || foundExchanges > 0) {
+            long expectedListings = catalog.listings();
+            long foundListings = countListings(catalog);
+            if (found == catalog.stocks() && foundExchanges == catalog.exchanges() && foundListings == expectedListings) {
+                log.info("Reusing the synthetic catalog {}: {} exchanges, {} stocks, {} listings", catalog.prefix(),
+                        foundExchanges, found, foundListings);
+                return existing;
+            }
+            throw new IllegalStateException("Synthetic catalog " + catalog.prefix() + " is incomplete ("
+                    + foundExchanges + " of " + catalog.exchanges() + " exchanges, "
+                    + found + " of " + catalog.stocks() + " stocks, "
+                    + foundListings + " of " + expectedListings + " listings), seed it under another prefix");
+        }
+
+        long started = System.nanoTime();
+        long[] exchangeIds = new long[catalog.exchanges()];
+        for (int exchange = 0; exchange < exchangeIds.length; exchange++) {
+            exchangeIds[exchange] = stockExchangeService.createStockExchange(new StockExchangeCreationRequest(
+                    catalog.exchangeName(exchange), catalog.exchangeDescription(exchange))).getStockExchangeId();
+        }
+
+        long[] stockIds = new long[catalog.stocks()];
+        List<List<Long>> pending = new ArrayList<>(exchangeIds.length);
+        for (int exchange = 0; exchange < exchangeIds.length; exchange++) {
+            pending.add(new ArrayList<>());
+        }
+        long listings = 0;
+        for (int from = 0; from < stockIds.length; from += batchSize) {
+            int to = Math.min(from + batchSize, stockIds.length);
+            List<StockCreationRequest> requests = new ArrayList<>(to - from);
+            for (int stock = from; stock < to; stock++) {
+                requests.add(new StockCreationRequest(catalog.stockName(stock), catalog.stockDescription(stock),
+                        catalog.stockPrice(stock)));
+            }
+            List<StockDto> created = stockService.createStocks(requests);
+            for (int stock = from; stock < to; stock++) {
+                stockIds[stock] = created.get(stock - from).getStockId();
+                for (int exchange : catalog.exchangesOf(stock)) {
+                    List<Long> listed = pending.get(exchange);
+                    listed.add(stockIds[stock]);
+                    listings++;
+                    if (listed.size() == batchSize) {
+                        stockExchangeService.addStocksToStockExchange(exchangeIds[exchange], listed);
+                        pending.set(exchange, new ArrayList<>());
+                    }
+                }
+            }
+            if (to % (batchSize * 100) == 0) {
+                log.info("Seeded {} of {} synthetic stocks", to, stockIds.length);
+            }
+        }
+        for (int exchange = 0; exchange < exchangeIds.length; exchange++) {
+            if (!pending.get(exchange).isEmpty()) {
+                stockExchangeService.addStocksToStockExchange(exchangeIds[exchange], pending.get(exchange));
+            }
+        }
+        log.info("Seeded the synthetic catalog {}: {} exchanges, {} stocks, {} listings in {} s", catalog.prefix(),
+                exchangeIds.length, stockIds.length, listings, (System.nanoTime() - started) / 1_000_000_000);
+        return stockIds;
+    }
+
+    // streamed like the startup loads; names of the prefix that are not the catalog's are left out
+    private long[] findStocks(SyntheticCatalog catalog) {
+        long[] ids = new long[catalog.stocks()];
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(FIND_STOCKS);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, catalog.prefix() + "-%");
+            return statement;
+        }, row -> {
+            int index = catalog.stockIndex(row.getString(2));
+            if (index >= 0) {
+                ids[index] = row.getLong(1);
+            }
+        }));
+        return ids;
+    }
+
+    private int countExchanges(SyntheticCatalog catalog) {
+        boolean[] found = new boolean[catalog.exchanges()];
+        jdbcTemplate.query(FIND_EXCHANGES, row -> {
+            int index = catalog.exchangeIndex(row.getString(1));
+            if (index >= 0) {
+                found[index] = true;
+            }
+        }, catalog.prefix() + "-X%");
+        int count = 0;
+        for (boolean exchange : found) {
+            count += exchange ? 1 : 0;
+        }
+        return count;
+    }
+
+    // listings between the prefix's exchanges and stocks
+    private long countListings(SyntheticCatalog catalog) {
+        Long count = jdbcTemplate.queryForObject(COUNT_LISTINGS, Long.class,
+                catalog.prefix() + "-X%", catalog.prefix() + "-%");
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.stockexchange.synthetic;
+
+import com.example.stockexchange.exception.ResourceNotFoundException;
+import com.example.stockexchange.request.StockPriceUpdateRequest;
+import com.example.stockexchange.service.StockService;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+
+/**
+ * Straight into {@link StockService#updatePrice}: the transaction, the change log, alerts,
+ * portfolios and price history, without HTTP, security or JSON in front.
+ */
+public class InProcessTickSink implements TickSink {
+
+    private final StockService stockService;
+
+    public InProcessTickSink(StockService stockService) {
+        this.stockService = stockService;
+    }
+
+    @Override
+    public boolean send(long stockId, BigDecimal price) {
+        try {
+            stockService.updatePrice(stockId, new StockPriceUpdateRequest(price));
+            return true;
+        } catch (ResourceNotFoundException | ResponseStatusException ex) {
+            return false;
+        }
+    }
+}
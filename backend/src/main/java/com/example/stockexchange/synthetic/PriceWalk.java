@@ -0,0 +1,101 @@
+package com.example.stockexchange.synthetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Correlated random-walk prices, one tick at a time.
+ * <p>
+ * Each tick moves one stock, picked uniformly. Log prices follow a market factor, a factor per
+ * sector (stock index modulo the sector count) and a stock's own noise, all Brownian in "steps"
+ * (one per tick). A factor is only advanced when a stock that depends on it ticks, with the
+ * variance of every step since, so a tick costs the same for a thousand stocks or a million. A
+ * stock's return since its last tick is the change of its factors over that time plus its own
+ * noise, which gives two stocks of a sector a correlation of {@code market + sector}, and of
+ * different sectors {@code market}.
+ * <p>
+ * The sequence of ticks depends only on the seed and the starting prices. Not thread-safe.
+ */
+public class PriceWalk {
+
+    private static final double MIN_PRICE = 0.01;
+
+    private final SplittableRandom random;
+    private final int sectors;
+    // per step, as standard deviations of log price
+    private final double marketSigma;
+    private final double sectorSigma;
+    private final double ownSigma;
+    private final double drift;
+
+    private final double[] prices;
+    private final double[] marketSeen;
+    private final double[] sectorSeen;
+    private final long[] lastStep;
+    private final double[] sectorLevels;
+    private final long[] sectorSteps;
+    private double market;
+    private long step;
+
+    /**
+     * @param volatility         standard deviation of a stock's log return over as many ticks as
+     *                           there are stocks, i.e. between two of its ticks on average
+     * @param marketCorrelation  share of the variance every stock has in common
+     * @param sectorCorrelation  share of the variance the stocks of a sector have in common
+     */
+    public PriceWalk(long seed, double[] startPrices, int sectors, double volatility,
+                     double marketCorrelation, double sectorCorrelation) {
+        if (startPrices.length == 0 || sectors <= 0 || volatility < 0) {
+            throw new IllegalArgumentException("needs stocks, sectors and a non-negative volatility");
+        }
+        if (marketCorrelation < 0 || sectorCorrelation < 0 || marketCorrelation + sectorCorrelation > 1) {
+            throw new IllegalArgumentException("correlations must be non-negative and add up to at most 1");
+        }
+        this.random = new SplittableRandom(seed);
+        this.sectors = sectors;
+        double stepVariance = volatility * volatility / startPrices.length;
+        this.marketSigma = Math.sqrt(stepVariance * marketCorrelation);
+        this.sectorSigma = Math.sqrt(stepVariance * sectorCorrelation);
+        this.ownSigma = Math.sqrt(stepVariance * (1 - marketCorrelation - sectorCorrelation));
+        // keeps the expected price flat: E[exp(x)] = exp(variance / 2)
+        this.drift = -stepVariance / 2;
+        this.prices = startPrices.clone();
+        this.marketSeen = new double[startPrices.length];
+        this.sectorSeen = new double[startPrices.length];
+        this.lastStep = new long[startPrices.length];
+        this.sectorLevels = new double[sectors];
+        this.sectorSteps = new long[sectors];
+    }
+
+    /**
+     * Moves one stock.
+     *
+     * @return the index of the stock that moved, its new price is {@link #price(int)}
+     */
+    public int next() {
+        step++;
+        market += marketSigma * random.nextGaussian();
+        int index = random.nextInt(prices.length);
+        int sector = index % sectors;
+        sectorLevels[sector] += sectorSigma * Math.sqrt(step - sectorSteps[sector]) * random.nextGaussian();
+        sectorSteps[sector] = step;
+
+        long elapsed = step - lastStep[index];
+        double logReturn = (market - marketSeen[index])
+                + (sectorLevels[sector] - sectorSeen[index])
+                + ownSigma * Math.sqrt(elapsed) * random.nextGaussian()
+                + drift * elapsed;
+        prices[index] = Math.max(prices[index] * StrictMath.exp(logReturn), MIN_PRICE);
+        marketSeen[index] = market;
+        sectorSeen[index] = sectorLevels[sector];
+        lastStep[index] = step;
+        return index;
+    }
+
+    public double price(int index) {
+        return prices[index];
+    }
+
+    public long steps() {
+        return step;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.stockexchange.synthetic;
+
+import com.example.stockexchange.request.RegisterRequest;
+import com.example.stockexchange.request.StockPriceUpdateRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.math.BigDecimal;
+import java.net.HttpCookie;
+import java.util.Map;
+
+/**
+ * Through {@code PUT /stock/{id}/price}, like any client: filters, authentication, validation and
+ * JSON included. Registers the feed's account if it does not exist yet, logs in, and logs in again
+ * when the token is turned down (it expires during a soak run).
+ */
+@Slf4j
+public class RestTickSink implements TickSink {
+
+    private final RestClient restClient;
+    private final String authPath;
+    private final String email;
+    private final String password;
+    private volatile String token;
+
+    public RestTickSink(String baseUrl, String apiPath, String authPath, String email, String password) {
+        this.restClient = RestClient.builder().baseUrl(baseUrl + apiPath).build();
+        this.authPath = authPath;
+        this.email = email;
+        this.password = password;
+    }
+
+    @Override
+    public boolean send(long stockId, BigDecimal price) {
+        String current = token;
+        if (current == null) {
+            current = authenticate(null);
+        }
+        try {
+            put(stockId, price, current);
+            return true;
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden ex) {
+            put(stockId, price, authenticate(current));
+            return true;
+        } catch (HttpClientErrorException ex) {
+            return false;
+        }
+    }
+
+    private void put(long stockId, BigDecimal price, String bearer) {
+        restClient.put()
+                .uri("/stock/{id}/price", stockId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + bearer)
+                .body(new StockPriceUpdateRequest(price))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    // one login for all feed threads: whoever finds the rejected token still current renews it
+    private synchronized String authenticate(String rejected) {
+        if (token != null && !token.equals(rejected)) {
+            return token;
+        }
+        try {
+            restClient.post()
+                    .uri(authPath + "/register")
+                    .body(new RegisterRequest("Synthetic", "Feed", email, password))
+                    .retrieve()
+                    .toBodilessEntity();
+            log.info("Registered the synthetic feed account {}", email);
+        } catch (RestClientResponseException ex) {
+            // already registered by an earlier run; the login below says whether it is usable
+            log.debug("Registering {} answered {}", email, ex.getStatusCode());
+        }
+        ResponseEntity<Void> login = restClient.post()
+                .uri(authPath + "/login")
+                .body(Map.of("email", email, "password", password))
+                .retrieve()
+                .toBodilessEntity();
+        token = login.getHeaders().getOrEmpty(HttpHeaders.SET_COOKIE).stream()
+                .flatMap(header -> HttpCookie.parse(header).stream())
+                .filter(cookie -> "jwt".equals(cookie.getName()))
+                .map(HttpCookie::getValue)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Login of " + email + " set no jwt cookie"));
+        return token;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.stockexchange.synthetic;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+/**
+ * A generated market: stocks, exchanges and which exchanges list which stock.
+ * <p>
+ * Every entry is a pure function of the seed and its index, so the catalog is the same whatever
+ * order or batch size it is written in, and any part of it can be recomputed without the rest.
+ * Names are {@code <prefix>-<index>} for stocks and {@code <prefix>-X<index>} for exchanges.
+ */
+public class SyntheticCatalog {
+
+    private static final long STOCK_PRICE = 0x5354_4f43_4bL;
+    private static final long LISTINGS = 0x4c49_5354L;
+    private static final double MEDIAN_PRICE = 50;
+    private static final double PRICE_SPREAD = 1.0;
+
+    private final long seed;
+    private final String prefix;
+    private final int stocks;
+    private final int exchanges;
+    private final double listingsPerStock;
+
+    /**
+     * @param listingsPerStock average number of exchanges a stock is listed on; the fraction is the
+     *                         share of stocks listed on one more
+     */
+    public SyntheticCatalog(long seed, String prefix, int stocks, int exchanges, double listingsPerStock) {
+        if (!prefix.matches("[A-Za-z0-9]{1,16}")) {
+            throw new IllegalArgumentException("prefix must be 1 to 16 letters or digits");
+        }
+        if (stocks <= 0 || exchanges <= 0) {
+            throw new IllegalArgumentException("stocks and exchanges must be positive");
+        }
+        if (listingsPerStock < 0 || listingsPerStock > exchanges) {
+            throw new IllegalArgumentException("listingsPerStock must be between 0 and the number of exchanges");
+        }
+        this.seed = seed;
+        this.prefix = prefix;
+        this.stocks = stocks;
+        this.exchanges = exchanges;
+        this.listingsPerStock = listingsPerStock;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public String prefix() {
+        return prefix;
+    }
+
+    public int stocks() {
+        return stocks;
+    }
+
+    public int exchanges() {
+        return exchanges;
+    }
+
+    public String stockName(int index) {
+        return prefix + "-" + index;
+    }
+
+    public String stockDescription(int index) {
+        return "Synthetic stock " + index + " of seed " + seed;
+    }
+
+    /**
+     * @return the stock index a name of this catalog stands for, -1 for any other name
+     */
+    public int stockIndex(String name) {
+        if (!name.startsWith(prefix + "-")) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(name.substring(prefix.length() + 1));
+            return index >= 0 && index < stocks ? index : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    // log-normal around the median, cents
+    public BigDecimal stockPrice(int index) {
+        double price = MEDIAN_PRICE * StrictMath.exp(PRICE_SPREAD * random(STOCK_PRICE, index).nextGaussian());
+        return BigDecimal.valueOf(Math.max(price, 1)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public String exchangeName(int index) {
+        return prefix + "-X" + index;
+    }
+
+    /**
+     * @return the exchange index a name of this catalog stands for, -1 for any other name
+     */
+    public int exchangeIndex(String name) {
+        if (!name.startsWith(prefix + "-X")) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(name.substring(prefix.length() + 2));
+            return index >= 0 && index < exchanges ? index : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the number of listings over all stocks
+     */
+    public long listings() {
+        long listings = 0;
+        for (int stock = 0; stock < stocks; stock++) {
+            listings += exchangesOf(stock).length;
+        }
+        return listings;
+    }
+
+    public String exchangeDescription(int index) {
+        return "Synthetic exchange " + index + " of seed " + seed;
+    }
+
+    /**
+     * @return the distinct exchange indexes the stock is listed on
+     */
+    public int[] exchangesOf(int index) {
+        SplittableRandom random = random(LISTINGS, index);
+        int whole = (int) listingsPerStock;
+        int count = whole + (random.nextDouble() < listingsPerStock - whole ? 1 : 0);
+        int[] listed = new int[Math.min(count, exchanges)];
+        for (int i = 0; i < listed.length; i++) {
+            int candidate;
+            do {
+                candidate = random.nextInt(exchanges);
+            } while (contains(listed, i, candidate));
+            listed[i] = candidate;
+        }
+        return listed;
+    }
+
+    private SplittableRandom random(long salt, int index) {
+        return new SplittableRandom(mix(mix(seed ^ salt) + index));
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // MurmurHash3's finalizer: neighbouring indexes get unrelated streams
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.stockexchange.synthetic;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeds the synthetic catalog, then feeds it ticks, on its own thread once the application is ready
+ * (the REST sink needs the web server). Seeding only, without a feed, at 0 ticks per second.
+ */
+@Slf4j
+public class SyntheticMarket implements AutoCloseable {
+
+    private final SyntheticCatalog catalog;
+    private final CatalogSeeder seeder;
+    private final PriceWalk walk;
+    private final TickSink sink;
+    private final String sinkName;
+    private final MeterRegistry meterRegistry;
+    private final double ticksPerSecond;
+    private final int threads;
+    private final long durationMillis;
+    private volatile Thread runner;
+    private volatile TickFeed feed;
+    private volatile boolean closed;
+
+    public SyntheticMarket(SyntheticCatalog catalog, CatalogSeeder seeder, PriceWalk walk, TickSink sink,
+                           String sinkName, MeterRegistry meterRegistry, double ticksPerSecond, int threads,
+                           long durationMillis) {
+        this.catalog = catalog;
+        this.seeder = seeder;
+        this.walk = walk;
+        this.sink = sink;
+        this.sinkName = sinkName;
+        this.meterRegistry = meterRegistry;
+        this.ticksPerSecond = ticksPerSecond;
+        this.threads = threads;
+        this.durationMillis = durationMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::run, "synthetic-market");
+        thread.setDaemon(true);
+        runner = thread;
+        thread.start();
+    }
+
+    // lets the feed drain before the services it calls are destroyed; seeding is not interrupted
+    @Override
+    public void close() {
+        closed = true;
+        TickFeed current = feed;
+        if (current != null) {
+            current.close();
+        }
+        Thread thread = runner;
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            long[] stockIds = seeder.seed(catalog);
+            if (ticksPerSecond == 0 || closed) {
+                return;
+            }
+            TickFeed current = new TickFeed(walk, stockIds, sink, sinkName, ticksPerSecond, threads, meterRegistry);
+            feed = current;
+            if (closed) {
+                return;
+            }
+            log.info("Feeding {} synthetic stocks at {} ticks/s through the {} sink, seed {}",
+                    stockIds.length, ticksPerSecond, sinkName, catalog.seed());
+            long started = System.nanoTime();
+            long ticks = current.run(durationMillis);
+            log.info("Synthetic feed stopped after {} ticks in {} s", ticks,
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.error("Synthetic market stopped", ex);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.stockexchange.synthetic;
+
+import com.example.stockexchange.service.StockExchangeService;
+import com.example.stockexchange.service.StockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Synthetic market data for load and soak runs, off unless {@code app.synthetic.enabled} (the
+ * synthetic profile).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.synthetic", name = "enabled", havingValue = "true")
+public class SyntheticMarketConfig {
+
+    @Bean
+    public SyntheticCatalog syntheticCatalog(@Value("${app.synthetic.seed:42}") long seed,
+                                             @Value("${app.synthetic.prefix:SYN}") String prefix,
+                                             @Value("${app.synthetic.stocks:100000}") int stocks,
+                                             @Value("${app.synthetic.exchanges:1000}") int exchanges,
+                                             @Value("${app.synthetic.listings-per-stock:1.5}") double listingsPerStock) {
+        return new SyntheticCatalog(seed, prefix, stocks, exchanges, listingsPerStock);
+    }
+
+    @Bean
+    public TickSink syntheticTickSink(StockService stockService,
+                                      @Value("${app.synthetic.feed.sink:in-process}") String sink,
+                                      @Value("${app.synthetic.feed.base-url:http://localhost:8080}") String baseUrl,
+                                      @Value("${app.paths.api-base}${app.paths.api-version}") String apiPath,
+                                      @Value("${app.paths.auth-base}") String authPath,
+                                      @Value("${app.synthetic.feed.email:synthetic-feed@example.com}") String email,
+                                      @Value("${app.synthetic.feed.password:}") String password) {
+        return switch (sink) {
+            case "in-process" -> new InProcessTickSink(stockService);
+            case "rest" -> {
+                if (password.isBlank()) {
+                    throw new IllegalArgumentException(
+                            "app.synthetic.feed.password (SYNTHETIC_FEED_PASSWORD) is required by the rest sink");
+                }
+                yield new RestTickSink(baseUrl, apiPath, authPath, email, password);
+            }
+            default -> throw new IllegalArgumentException("Unknown app.synthetic.feed.sink: " + sink);
+        };
+    }
+
+    // the feed thread is stopped and drained before the services the sink calls are destroyed
+    @Bean(destroyMethod = "close")
+    public SyntheticMarket syntheticMarket(SyntheticCatalog syntheticCatalog,
+                                           TickSink syntheticTickSink,
+                                           StockService stockService,
+                                           StockExchangeService stockExchangeService,
+                                           JdbcTemplate jdbcTemplate,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${app.synthetic.seed-batch-size:1000}") int seedBatchSize,
+                                           @Value("${app.synthetic.load-fetch-size:10000}") int loadFetchSize,
+                                           @Value("${app.synthetic.feed.sink:in-process}") String sink,
+                                           @Value("${app.synthetic.feed.ticks-per-second:1000}") double ticksPerSecond,
+                                           @Value("${app.synthetic.feed.threads:4}") int threads,
+                                           @Value("${app.synthetic.feed.duration-seconds:0}") long durationSeconds,
+                                           @Value("${app.synthetic.feed.sectors:11}") int sectors,
+                                           @Value("${app.synthetic.feed.volatility:0.02}") double volatility,
+                                           @Value("${app.synthetic.feed.market-correlation:0.3}") double marketCorrelation,
+                                           @Value("${app.synthetic.feed.sector-correlation:0.2}") double sectorCorrelation) {
+        CatalogSeeder seeder = new CatalogSeeder(stockService, stockExchangeService, jdbcTemplate,
+                new TransactionTemplate(transactionManager), seedBatchSize, loadFetchSize);
+        double[] startPrices = new double[syntheticCatalog.stocks()];
+        for (int i = 0; i < startPrices.length; i++) {
+            startPrices[i] = syntheticCatalog.stockPrice(i).doubleValue();
+        }
+        // its own stream, so the ticks do not depend on how the catalog was drawn
+        PriceWalk walk = new PriceWalk(SyntheticCatalog.mix(syntheticCatalog.seed()), startPrices, sectors,
+                volatility, marketCorrelation, sectorCorrelation);
+        return new SyntheticMarket(syntheticCatalog, seeder, walk, syntheticTickSink, sink, meterRegistry,
+                ticksPerSecond, threads, durationSeconds * 1000);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.stockexchange.synthetic;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link PriceWalk} into a {@link TickSink} at a target rate.
+ * <p>
+ * The walk runs on the calling thread, which is the only one touching it, so the ticks are the same
+ * sequence for the same seed however fast they are delivered. Delivery is spread over worker
+ * threads by stock, each with a bounded queue, so a stock's prices arrive in order. When the sink
+ * cannot keep up the queues fill and the walk waits; once it is more than a second behind the
+ * schedule it starts over from the current time rather than bursting to catch up, so the delivered
+ * rate is then the sink's and not the target.
+ */
+@Slf4j
+public class TickFeed implements AutoCloseable {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final Tick END = new Tick(-1, null);
+
+    private final PriceWalk walk;
+    private final long[] stockIds;
+    private final TickSink sink;
+    private final double ticksPerSecond;
+    private final List<BlockingQueue<Tick>> queues;
+    private final List<Thread> workers;
+    private final Counter sent;
+    private final Counter rejected;
+    private final Counter failed;
+    private volatile boolean closed;
+
+    /**
+     * @param stockIds the stock id of each index of the walk
+     */
+    public TickFeed(PriceWalk walk, long[] stockIds, TickSink sink, String sinkName, double ticksPerSecond,
+                    int threads, MeterRegistry meterRegistry) {
+        if (ticksPerSecond <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond and threads must be positive");
+        }
+        this.walk = walk;
+        this.stockIds = stockIds;
+        this.sink = sink;
+        this.ticksPerSecond = ticksPerSecond;
+        this.sent = counter(meterRegistry, sinkName, "sent");
+        this.rejected = counter(meterRegistry, sinkName, "rejected");
+        this.failed = counter(meterRegistry, sinkName, "failed");
+        this.queues = new ArrayList<>(threads);
+        this.workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            BlockingQueue<Tick> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            Thread worker = new Thread(() -> deliver(queue), "synthetic-feed-" + i);
+            worker.setDaemon(true);
+            queues.add(queue);
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Feeds until the duration is over or the feed is closed, then waits for the queued ticks.
+     *
+     * @param durationMillis 0 for no limit
+     * @return the number of ticks generated
+     */
+    public long run(long durationMillis) throws InterruptedException {
+        workers.forEach(Thread::start);
+        long started = System.nanoTime();
+        long scheduleStart = started;
+        long scheduled = 0;
+        long generated = 0;
+        boolean behind = false;
+        try {
+            while (!closed && (durationMillis == 0
+                    || System.nanoTime() - started < TimeUnit.MILLISECONDS.toNanos(durationMillis))) {
+                long due = (long) ((System.nanoTime() - scheduleStart) * ticksPerSecond / 1e9);
+                if (due - scheduled > ticksPerSecond) {
+                    if (!behind) {
+                        log.warn("Synthetic feed is more than a second behind {} ticks/s, the sink sets the pace",
+                                ticksPerSecond);
+                        behind = true;
+                    }
+                    scheduleStart = System.nanoTime();
+                    scheduled = 0;
+                    continue;
+                }
+                if (scheduled >= due) {
+                    TimeUnit.MILLISECONDS.sleep(1);
+                    continue;
+                }
+                for (; scheduled < due && !closed; scheduled++, generated++) {
+                    int index = walk.next();
+                    BigDecimal price = BigDecimal.valueOf(walk.price(index)).setScale(4, RoundingMode.HALF_UP);
+                    queues.get(index % queues.size()).put(new Tick(stockIds[index], price));
+                }
+            }
+        } finally {
+            for (BlockingQueue<Tick> queue : queues) {
+                queue.put(END);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+        return generated;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private void deliver(BlockingQueue<Tick> queue) {
+        try {
+            for (Tick tick = queue.take(); tick != END; tick = queue.take()) {
+                try {
+                    (sink.send(tick.stockId(), tick.price()) ? sent : rejected).increment();
+                } catch (RuntimeException ex) {
+                    failed.increment();
+                    log.debug("Synthetic tick for stock {} failed: {}", tick.stockId(), ex.getMessage());
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String sink, String outcome) {
+        return Counter.builder("stockexchange.synthetic.ticks")
+                .tag("sink", sink)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Tick(long stockId, BigDecimal price) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.stockexchange.synthetic;
+
+import java.math.BigDecimal;
+
+/**
+ * Where the generated ticks go. Called from several feed threads at once, each stock from one only.
+ */
+public interface TickSink {
+
+    /**
+     * @return false when the application refused the price (no such stock, trading closed)
+     * @throws RuntimeException when it could not be delivered at all
+     */
+    boolean send(long stockId, BigDecimal price);
+}
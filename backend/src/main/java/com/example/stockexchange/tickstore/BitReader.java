@@ -0,0 +1,32 @@
+package com.example.stockexchange.tickstore;
+
+/**
+ * Reads back what {@link BitWriter} wrote.
+ */
+final class BitReader {
+
+    private final byte[] bytes;
+    private long position;
+
+    BitReader(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    long read(int count) {
+        long value = 0;
+        for (int remaining = count; remaining > 0; ) {
+            int index = (int) (position >>> 3);
+            int offset = (int) (position & 7);
+            int take = Math.min(8 - offset, remaining);
+            int chunk = ((bytes[index] & 0xFF) >>> (8 - offset - take)) & ((1 << take) - 1);
+            value = (value << take) | chunk;
+            position += take;
+            remaining -= take;
+        }
+        return value;
+    }
+
+    boolean readBit() {
+        return read(1) == 1;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.stockexchange.tickstore;
+
+import java.util.Arrays;
+
+/**
+ * Append-only bit buffer, most significant bit first.
+ */
+final class BitWriter {
+
+    private long[] words = new long[16];
+    private long bits;
+
+    void write(long value, int count) {
+        if (count == 0) {
+            return;
+        }
+        int index = (int) (bits >>> 6);
+        int used = (int) (bits & 63);
+        if (index + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        long masked = count == 64 ? value : value & ((1L << count) - 1);
+        int free = 64 - used;
+        if (count <= free) {
+            words[index] |= masked << (free - count);
+        } else {
+            words[index] |= masked >>> (count - free);
+            words[index + 1] |= masked << (64 - (count - free));
+        }
+        bits += count;
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    long bits() {
+        return bits;
+    }
+
+    byte[] toBytes() {
+        byte[] bytes = new byte[(int) ((bits + 7) >>> 3)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> (56 - 8 * (i & 7)));
+        }
+        return bytes;
+    }
+}
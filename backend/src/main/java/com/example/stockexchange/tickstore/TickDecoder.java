@@ -0,0 +1,74 @@
+package com.example.stockexchange.tickstore;
+
+/**
+ * Walks the points of a block written by {@link TickEncoder}, oldest first.
+ */
+final class TickDecoder {
+
+    private final BitReader in;
+    private final int count;
+    private int read;
+    private long timestamp;
+    private long delta;
+    private long value;
+    private int leading;
+    private int trailing;
+
+    TickDecoder(byte[] bytes, int count) {
+        this.in = new BitReader(bytes);
+        this.count = count;
+    }
+
+    boolean next() {
+        if (read == count) {
+            return false;
+        }
+        if (read == 0) {
+            timestamp = in.read(64);
+            value = in.read(64);
+        } else {
+            delta += readDeltaOfDelta();
+            timestamp += delta;
+            value ^= readXor();
+        }
+        read++;
+        return true;
+    }
+
+    long timestamp() {
+        return timestamp;
+    }
+
+    long value() {
+        return value;
+    }
+
+    private long readDeltaOfDelta() {
+        int bucket = 0;
+        while (bucket <= TickEncoder.DOD_BITS.length && in.readBit()) {
+            bucket++;
+        }
+        if (bucket == 0) {
+            return 0;
+        }
+        if (bucket > TickEncoder.DOD_BITS.length) {
+            return in.read(64);
+        }
+        int width = TickEncoder.DOD_BITS[bucket - 1];
+        long raw = in.read(width);
+        // sign-extend
+        return raw << (64 - width) >> (64 - width);
+    }
+
+    private long readXor() {
+        if (!in.readBit()) {
+            return 0;
+        }
+        if (in.readBit()) {
+            leading = (int) in.read(6);
+            int meaningful = (int) in.read(6) + 1;
+            trailing = 64 - leading - meaningful;
+        }
+        return in.read(64 - leading - trailing) << trailing;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.stockexchange.tickstore;
+
+/**
+ * Compresses a run of (timestamp, value) points the way Facebook's Gorilla does.
+ * <p>
+ * Timestamps are stored as the change in the gap between points (delta-of-delta): ticks arriving at
+ * a steady rate cost one bit, jittery ones a few bits. Values are XORed with the previous one and
+ * only the bits that differ are kept; an unchanged value costs one bit. Values are fixed-point
+ * longs rather than Gorilla's doubles: decimal prices as doubles differ in nearly every mantissa
+ * bit from one tick to the next, while as scaled integers a small move only flips the low bits.
+ * The leading-zero count therefore takes 6 bits instead of 5. The first point is stored raw.
+ * Timestamps must not go backwards.
+ */
+final class TickEncoder {
+
+    // delta-of-delta buckets: '0', then '10', '110', '1110' with this many bits, '1111' with all 64
+    static final int[] DOD_BITS = {7, 12, 20};
+
+    private final BitWriter out = new BitWriter();
+    private int count;
+    private long firstTimestamp;
+    private long previousTimestamp;
+    private long previousDelta;
+    private long previousValue;
+    private int previousLeading = Integer.MAX_VALUE;
+    private int previousTrailing;
+
+    void append(long timestamp, long value) {
+        if (count == 0) {
+            out.write(timestamp, 64);
+            out.write(value, 64);
+            firstTimestamp = timestamp;
+        } else {
+            if (timestamp < previousTimestamp) {
+                throw new IllegalArgumentException("Timestamps must not go backwards");
+            }
+            long delta = timestamp - previousTimestamp;
+            writeDeltaOfDelta(delta - previousDelta);
+            previousDelta = delta;
+            writeXor(value ^ previousValue);
+        }
+        previousTimestamp = timestamp;
+        previousValue = value;
+        count++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    long lastTimestamp() {
+        return previousTimestamp;
+    }
+
+    long sizeInBits() {
+        return out.bits();
+    }
+
+    byte[] toBytes() {
+        return out.toBytes();
+    }
+
+    private void writeDeltaOfDelta(long dod) {
+        if (dod == 0) {
+            out.writeBit(false);
+            return;
+        }
+        for (int bucket = 0; bucket < DOD_BITS.length; bucket++) {
+            int width = DOD_BITS[bucket];
+            if (dod >= -(1L << (width - 1)) && dod < 1L << (width - 1)) {
+                // bucket + 1 ones, then a zero
+                out.write(((1L << (bucket + 1)) - 1) << 1, bucket + 2);
+                out.write(dod, width);
+                return;
+            }
+        }
+        out.write(0b1111, 4);
+        out.write(dod, 64);
+    }
+
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            out.writeBit(false);
+            return;
+        }
+        out.writeBit(true);
+        int leading = Long.numberOfLeadingZeros(xor);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (leading >= previousLeading && trailing >= previousTrailing) {
+            // the differing bits fit the previous window: reuse it
+            out.writeBit(false);
+            out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            return;
+        }
+        int meaningful = 64 - leading - trailing;
+        out.writeBit(true);
+        out.write(leading, 6);
+        out.write(meaningful - 1, 6);
+        out.write(xor >>> trailing, meaningful);
+        previousLeading = leading;
+        previousTrailing = trailing;
+    }
+}
@@ -0,0 +1,548 @@
+package com.example.stockexchange.tickstore;
+
+import com.example.stockexchange.scheduling.TimerWheel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Embedded time-series store: one series of (timestamp, fixed-point value) points per id,
+ * compressed with {@link TickEncoder} to two or three bytes per point for steady price ticks.
+ * <p>
+ * New points go into an open in-memory block per series. A block is sealed once it holds
+ * {@code blockPoints} points or has been open for {@code blockMillis}, then appended to the current
+ * segment file as an immutable record: payload length, series id, first and last timestamp, point
+ * count, payload. Every series shares the segment being written, a new one is started every
+ * {@code segmentMillis}, named after the start of its window ({@code segment-<millis>.ticks}). Only
+ * the record headers are kept in memory (read at startup), so range scans skip straight to the
+ * blocks they need and decode nothing outside the range.
+ * <p>
+ * Data is kept for {@code retentionMillis}: when a segment is started, the ones whose window ended
+ * longer ago than that are deleted whole, with their headers. Dropping a series forgets it at once
+ * and writes a tombstone record, so it stays gone after a restart; its bytes go with their segments.
+ * <p>
+ * Files are written by a single background thread, which keeps only the current segment open; a scan
+ * opens one segment at a time. A sealed block stays readable from memory until it is on disk. Points
+ * in open blocks are lost on a crash, at most {@code blockMillis} of them; {@link #close()} seals
+ * and writes everything.
+ */
+@Slf4j
+public class TickStore implements AutoCloseable {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".ticks";
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+    // a record with no points: the series was dropped
+    private static final int TOMBSTONE = 0;
+
+    private final Path directory;
+    private final int blockPoints;
+    private final long blockMillis;
+    private final long segmentMillis;
+    private final long retentionMillis;
+    private final TimerWheel timerWheel;
+    private final LongSupplier clock;
+    private final ExecutorService writer;
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong points = new AtomicLong();
+    private final AtomicLong bytesOnDisk = new AtomicLong();
+
+    // writer thread only
+    private Segment active;
+    private FileChannel activeChannel;
+
+    /**
+     * Receives points in time order; returning false ends the scan.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        boolean visit(long timestampMillis, long value);
+    }
+
+    public TickStore(Path directory, int blockPoints, long blockMillis, long segmentMillis, long retentionMillis,
+                     TimerWheel timerWheel, LongSupplier clock) {
+        if (blockPoints <= 0 || blockMillis <= 0 || segmentMillis <= 0) {
+            throw new IllegalArgumentException("blockPoints, blockMillis and segmentMillis must be positive");
+        }
+        if (retentionMillis < segmentMillis) {
+            throw new IllegalArgumentException("retentionMillis must be at least one segment long");
+        }
+        this.directory = directory;
+        this.blockPoints = blockPoints;
+        this.blockMillis = blockMillis;
+        this.segmentMillis = segmentMillis;
+        this.retentionMillis = retentionMillis;
+        this.timerWheel = timerWheel;
+        this.clock = clock;
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "tick-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        load();
+    }
+
+    public void append(long seriesId, long timestampMillis, long value) {
+        // a series emptied by retention leaves the map; the point then goes to a fresh one
+        while (!series.computeIfAbsent(seriesId, Series::new).append(timestampMillis, value)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Visits the points of a series with {@code fromMillis <= timestamp <= toMillis}, oldest first.
+     */
+    public void scan(long seriesId, long fromMillis, long toMillis, Visitor visitor) {
+        Series target = series.get(seriesId);
+        if (target == null || fromMillis > toMillis) {
+            return;
+        }
+        List<Block> blocks = new ArrayList<>();
+        Block head = target.snapshot(fromMillis, blocks);
+        if (head != null) {
+            blocks.add(head);
+        }
+
+        SegmentReader reader = new SegmentReader();
+        try {
+            for (Block block : blocks) {
+                if (block.firstTimestamp > toMillis) {
+                    return;
+                }
+                byte[] payload = reader.payload(block);
+                if (payload == null) {
+                    continue;
+                }
+                TickDecoder decoder = new TickDecoder(payload, block.count);
+                while (decoder.next()) {
+                    long timestamp = decoder.timestamp();
+                    if (timestamp < fromMillis) {
+                        continue;
+                    }
+                    if (timestamp > toMillis || !visitor.visit(timestamp, decoder.value())) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read ticks of series " + seriesId, ex);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Forgets a series; its points on disk are skipped from now on, restarts included.
+     */
+    public void drop(long seriesId) {
+        Series dropped = series.remove(seriesId);
+        if (dropped == null) {
+            return;
+        }
+        points.addAndGet(-dropped.drop());
+        // queued behind any pending write of the series, so a restart sees its blocks, then this
+        long droppedAt = clock.getAsLong();
+        writer.execute(() -> writeRecord(droppedAt, seriesId, 0, 0, TOMBSTONE, new byte[0]));
+    }
+
+    public int seriesCount() {
+        return series.size();
+    }
+
+    public long pointCount() {
+        return points.get();
+    }
+
+    public long bytesOnDisk() {
+        return bytesOnDisk.get();
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() {
+        series.values().forEach(Series::seal);
+        writer.execute(this::closeActive);
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Tick writer did not finish in time, recent ticks may be lost");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void load() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(this::registerSegment);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open the tick store at " + directory, ex);
+        }
+        // oldest first, so tombstones come after the blocks they cancel
+        segments.values().forEach(this::loadSegment);
+        log.info("Tick store at {}: {} series, {} points in {} segments, {} bytes", directory, series.size(),
+                points.get(), segments.size(), bytesOnDisk.get());
+    }
+
+    private void registerSegment(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            log.warn("Ignoring unexpected file {} in the tick store", file);
+            return;
+        }
+        try {
+            long start = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+            segments.put(start, new Segment(start, file));
+        } catch (NumberFormatException ex) {
+            log.warn("Ignoring unexpected file {} in the tick store", file);
+        }
+    }
+
+    private void loadSegment(Segment segment) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long offset = 0;
+            while (offset + HEADER_BYTES <= size) {
+                header.clear();
+                channel.read(header, offset);
+                header.flip();
+                int length = header.getInt();
+                long seriesId = header.getLong();
+                Block block = new Block(header.getLong(), header.getLong(), header.getInt(), null);
+                if (length < 0 || block.count < 0 || offset + HEADER_BYTES + length > size) {
+                    break;
+                }
+                if (block.count == TOMBSTONE) {
+                    Series removed = series.remove(seriesId);
+                    if (removed != null) {
+                        points.addAndGet(-removed.drop());
+                    }
+                } else {
+                    block.segment = segment;
+                    block.offset = offset;
+                    block.length = length;
+                    Series loaded = series.computeIfAbsent(seriesId, Series::new);
+                    loaded.blocks.add(block);
+                    loaded.lastTimestamp = block.lastTimestamp;
+                    points.addAndGet(block.count);
+                }
+                offset += HEADER_BYTES + length;
+            }
+            if (offset < size) {
+                // a record cut short by a crash mid-write
+                log.warn("Truncating {} torn bytes at the end of {}", size - offset, segment.path);
+                channel.truncate(offset);
+            }
+            segment.size = offset;
+            bytesOnDisk.addAndGet(offset);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read tick file " + segment.path, ex);
+        }
+    }
+
+    // on the writer thread, so records never interleave
+    private void write(long sealedAt, Series owner, Block block) {
+        long offset = writeRecord(sealedAt, owner.id, block.firstTimestamp, block.lastTimestamp, block.count, block.payload);
+        if (offset < 0) {
+            log.error("Could not write a tick block of series {}, it stays in memory", owner.id);
+            return;
+        }
+        block.length = block.payload.length;
+        block.offset = offset;
+        block.segment = active;
+        // from here on it is read from the file
+        block.payload = null;
+    }
+
+    // the record's offset in the segment of writtenAt, or -1 when it could not be written
+    private long writeRecord(long writtenAt, long seriesId, long firstTimestamp, long lastTimestamp, int count, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length)
+                .putLong(seriesId)
+                .putLong(firstTimestamp)
+                .putLong(lastTimestamp)
+                .putInt(count)
+                .put(payload)
+                .flip();
+        try {
+            FileChannel channel = activeChannel(writtenAt);
+            long offset = active.size;
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+            channel.force(false);
+            active.size += buffer.limit();
+            bytesOnDisk.addAndGet(buffer.limit());
+            return offset;
+        } catch (IOException ex) {
+            log.error("Could not write to tick segment {}: {}", active == null ? directory : active.path,
+                    ex.getMessage());
+            return -1;
+        }
+    }
+
+    // the segment of now's window, rolling over (and expiring old ones) when the window moved on
+    private FileChannel activeChannel(long now) throws IOException {
+        long start = Math.floorDiv(now, segmentMillis) * segmentMillis;
+        if (activeChannel == null || active.start != start) {
+            closeActive();
+            active = segments.computeIfAbsent(start,
+                    ignored -> new Segment(start, directory.resolve(PREFIX + start + SUFFIX)));
+            activeChannel = FileChannel.open(active.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            expire(now);
+        }
+        return activeChannel;
+    }
+
+    private void closeActive() {
+        if (activeChannel != null) {
+            try {
+                activeChannel.close();
+            } catch (IOException ex) {
+                log.warn("Could not close tick segment {}: {}", active.path, ex.getMessage());
+            }
+            activeChannel = null;
+        }
+    }
+
+    // on the writer thread: deletes the segments entirely past retention, oldest first
+    private void expire(long now) {
+        Iterator<Segment> oldest = segments.values().iterator();
+        while (oldest.hasNext()) {
+            Segment segment = oldest.next();
+            if (segment == active || segment.start + segmentMillis > now - retentionMillis) {
+                return;
+            }
+            oldest.remove();
+            segment.expired = true;
+            for (Series each : series.values()) {
+                points.addAndGet(-each.expire(segment));
+                series.computeIfPresent(each.id, (id, current) -> current.retireIfEmpty() ? null : current);
+            }
+            try {
+                Files.deleteIfExists(segment.path);
+                bytesOnDisk.addAndGet(-segment.size);
+                log.info("Deleted tick segment {}, past the {} ms retention", segment.path, retentionMillis);
+            } catch (IOException ex) {
+                log.warn("Could not delete tick segment {}: {}", segment.path, ex.getMessage());
+            }
+        }
+    }
+
+    private static byte[] readPayload(FileChannel channel, Block block) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(block.length);
+        long position = block.offset + HEADER_BYTES;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of tick file at " + position);
+            }
+        }
+        return buffer.array();
+    }
+
+    // one segment open at a time: blocks are visited in time order, so segments only move forward
+    private static final class SegmentReader {
+
+        private Segment segment;
+        private FileChannel channel;
+
+        // null when the block's segment expired in the meantime
+        byte[] payload(Block block) throws IOException {
+            byte[] payload = block.payload;
+            if (payload != null) {
+                return payload;
+            }
+            Segment owner = block.segment;
+            if (owner.expired) {
+                return null;
+            }
+            if (owner != segment) {
+                close();
+                try {
+                    channel = FileChannel.open(owner.path, StandardOpenOption.READ);
+                } catch (NoSuchFileException ex) {
+                    return null;
+                }
+                segment = owner;
+            }
+            return readPayload(channel, block);
+        }
+
+        void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // read-only, nothing to lose
+                }
+                channel = null;
+                segment = null;
+            }
+        }
+    }
+
+    private static final class Segment {
+
+        private final long start;
+        private final Path path;
+        // bytes of complete records; written on the writer thread only
+        private long size;
+        private volatile boolean expired;
+
+        Segment(long start, Path path) {
+            this.start = start;
+            this.path = path;
+        }
+    }
+
+    private static final class Block {
+
+        private final long firstTimestamp;
+        private final long lastTimestamp;
+        private final int count;
+        // set until the block is on disk, then segment, offset and length locate it
+        private volatile byte[] payload;
+        private volatile Segment segment;
+        private volatile long offset = -1;
+        private volatile int length;
+
+        Block(long firstTimestamp, long lastTimestamp, int count, byte[] payload) {
+            this.firstTimestamp = firstTimestamp;
+            this.lastTimestamp = lastTimestamp;
+            this.count = count;
+            this.payload = payload;
+        }
+    }
+
+    private final class Series {
+
+        private final long id;
+        // sealed, oldest first, never overlapping
+        private final List<Block> blocks = new ArrayList<>();
+        private TickEncoder head;
+        private TimerWheel.Timeout sealTimeout;
+        private long lastTimestamp = Long.MIN_VALUE;
+        private boolean dropped;
+        private boolean retired;
+
+        Series(long id) {
+            this.id = id;
+        }
+
+        // false when retention retired this series, the caller appends to a new one
+        synchronized boolean append(long timestampMillis, long value) {
+            if (retired) {
+                return false;
+            }
+            if (dropped) {
+                return true;
+            }
+            // a wall clock stepping back must not reorder the series
+            long timestamp = Math.max(timestampMillis, lastTimestamp);
+            if (head == null) {
+                head = new TickEncoder();
+                sealTimeout = timerWheel.schedule(this::seal, blockMillis);
+            }
+            head.append(timestamp, value);
+            lastTimestamp = timestamp;
+            points.incrementAndGet();
+            if (head.count() >= blockPoints) {
+                seal();
+            }
+            return true;
+        }
+
+        synchronized void seal() {
+            if (head == null) {
+                return;
+            }
+            sealTimeout.cancel();
+            Block block = new Block(head.firstTimestamp(), head.lastTimestamp(), head.count(), head.toBytes());
+            blocks.add(block);
+            head = null;
+            long sealedAt = clock.getAsLong();
+            writer.execute(() -> write(sealedAt, this, block));
+        }
+
+        /**
+         * Adds the sealed blocks that may hold points at or after {@code fromMillis} to {@code out}
+         * and returns the open block as one more, or null.
+         */
+        synchronized Block snapshot(long fromMillis, List<Block> out) {
+            int low = 0;
+            int high = blocks.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (blocks.get(middle).lastTimestamp < fromMillis) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            out.addAll(blocks.subList(low, blocks.size()));
+            return head == null ? null
+                    : new Block(head.firstTimestamp(), head.lastTimestamp(), head.count(), head.toBytes());
+        }
+
+        // forgets the blocks stored in an expired segment, the oldest ones; returns their points
+        synchronized long expire(Segment segment) {
+            long count = 0;
+            Iterator<Block> oldest = blocks.iterator();
+            while (oldest.hasNext()) {
+                Block block = oldest.next();
+                if (block.segment != segment) {
+                    break;
+                }
+                count += block.count;
+                oldest.remove();
+            }
+            return count;
+        }
+
+        synchronized boolean retireIfEmpty() {
+            retired = blocks.isEmpty() && head == null;
+            return retired;
+        }
+
+        synchronized long drop() {
+            dropped = true;
+            if (head != null) {
+                sealTimeout.cancel();
+            }
+            long count = head == null ? 0 : head.count();
+            for (Block block : blocks) {
+                count += block.count;
+            }
+            head = null;
+            return count;
+        }
+    }
+}
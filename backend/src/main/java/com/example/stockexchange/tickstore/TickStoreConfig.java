@@ -0,0 +1,34 @@
+package com.example.stockexchange.tickstore;
+
+import com.example.stockexchange.scheduling.TimerWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class TickStoreConfig {
+
+    // closed before the timer wheel it depends on, so the last open blocks are written
+    @Bean(destroyMethod = "close")
+    public TickStore tickStore(@Value("${app.ticks.directory:data/ticks}") String directory,
+                               @Value("${app.ticks.block-points:4096}") int blockPoints,
+                               @Value("${app.ticks.block-millis:7200000}") long blockMillis,
+                               @Value("${app.ticks.segment-millis:86400000}") long segmentMillis,
+                               @Value("${app.ticks.retention-millis:2592000000}") long retentionMillis,
+                               TimerWheel timerWheel,
+                               MeterRegistry meterRegistry) {
+        TickStore tickStore = new TickStore(Path.of(directory), blockPoints, blockMillis, segmentMillis,
+                retentionMillis, timerWheel, System::currentTimeMillis);
+        Gauge.builder("stockexchange.ticks.series", tickStore, TickStore::seriesCount).register(meterRegistry);
+        Gauge.builder("stockexchange.ticks.points", tickStore, TickStore::pointCount).register(meterRegistry);
+        Gauge.builder("stockexchange.ticks.segments", tickStore, TickStore::segmentCount).register(meterRegistry);
+        Gauge.builder("stockexchange.ticks.disk", tickStore, TickStore::bytesOnDisk)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return tickStore;
+    }
+}
@@ -0,0 +1,67 @@
+#!/bin/sh
+# Entrypoint of the cds and crac images (see those profiles in pom.xml).
+#
+#   STARTUP_MODE=cds   the first start trains an application class-data archive, later starts map it
+#   STARTUP_MODE=crac  the first start checkpoints the refreshed JVM, later starts restore it
+#   STARTUP_MODE=jvm   a plain start
+#
+# The artifact is kept under STARTUP_CACHE (mount a volume) and keyed by the class path and the
+# application jar, so a new build never picks up the one of an older build. A failed training or
+# checkpoint falls back to a plain start. JVM flags come from JAVA_OPTS, arguments go to the
+# application; a restored JVM keeps the flags, arguments and environment of the checkpoint.
+set -eu
+
+MODE=${STARTUP_MODE:-jvm}
+CACHE=${STARTUP_CACHE:-/var/cache/stock-exchange}
+JAVA_OPTS=${JAVA_OPTS:--Xms256m -Xmx512m}
+CLASSPATH=$(cat /app/jib-classpath-file)
+MAIN=$(cat /app/jib-main-class-file)
+KEY=$(cat /app/jib-classpath-file /app/classpath/*.jar | sha1sum | cut -c1-16)
+
+mkdir -p "$CACHE"
+
+case "$MODE" in
+  cds)
+    ARCHIVE="$CACHE/app-$KEY.jsa"
+    if [ ! -f "$ARCHIVE" ]; then
+      echo "start.sh: no class-data archive for this build, training one"
+      # exits once the context is refreshed: startup, Hibernate, Flyway and the in-memory loads are in it;
+      # written under a private name first, another container may be training on the same volume
+      if java $JAVA_OPTS -XX:ArchiveClassesAtExit="$ARCHIVE.$$" -Dspring.context.exit=onRefresh \
+          -cp "$CLASSPATH" "$MAIN" "$@"; then
+        mv -f "$ARCHIVE.$$" "$ARCHIVE"
+      else
+        echo "start.sh: training failed, starting without an archive"
+        rm -f "$ARCHIVE.$$"
+      fi
+    fi
+    # -Xshare:auto: an archive that does not match is ignored, not fatal
+    exec java $JAVA_OPTS -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -cp "$CLASSPATH" "$MAIN" "$@"
+    ;;
+  crac)
+    CHECKPOINT="$CACHE/checkpoint-$KEY"
+    if [ ! -f "$CHECKPOINT/complete" ]; then
+      echo "start.sh: no checkpoint for this build, taking one"
+      rm -rf "$CHECKPOINT"
+      mkdir -p "$CHECKPOINT"
+      # the JVM is stopped once the image is written, so its status says nothing
+      java $JAVA_OPTS -XX:CRaCCheckpointTo="$CHECKPOINT" -Dspring.context.checkpoint=onRefresh \
+          -cp "$CLASSPATH" "$MAIN" "$@" || true
+      if ls "$CHECKPOINT"/*.img > /dev/null 2>&1; then
+        touch "$CHECKPOINT/complete"
+      else
+        echo "start.sh: checkpoint failed, starting without one"
+        rm -rf "$CHECKPOINT"
+        exec java $JAVA_OPTS -cp "$CLASSPATH" "$MAIN" "$@"
+      fi
+    fi
+    exec java -XX:CRaCRestoreFrom="$CHECKPOINT"
+    ;;
+  jvm)
+    exec java $JAVA_OPTS -cp "$CLASSPATH" "$MAIN" "$@"
+    ;;
+  *)
+    echo "start.sh: unknown STARTUP_MODE $MODE" >&2
+    exit 2
+    ;;
+esac
@@ -0,0 +1,7 @@
+-- One row, locked by every transaction appending to change_log from its sequence draw to its commit,
+-- so change_seq values become visible in the order they were taken.
+CREATE TABLE IF NOT EXISTS change_log_lock (
+    lock_id INT PRIMARY KEY
+);
+
+INSERT INTO change_log_lock (lock_id) VALUES (1);
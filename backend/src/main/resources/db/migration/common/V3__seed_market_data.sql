@@ -1,23 +1,26 @@
+-- Seed catalog, shared by every storage backend
+
 -- Insert Stock Exchanges
-INSERT INTO stock_exchange (name, description, live_in_market) VALUES
-                                                                   ('New York Stock Exchange', 'The world''s largest stock exchange by market capitalization', FALSE),
-                                                                   ('NASDAQ', 'American stock exchange focused on technology stocks', FALSE),
-                                                                   ('London Stock Exchange', 'One of the oldest stock exchanges in the world', FALSE),
-                                                                   ('Tokyo Stock Exchange', 'The largest stock exchange in Asia', FALSE),
-                                                                   ('Shanghai Stock Exchange', 'Major stock exchange in mainland China', FALSE);
+-- ids are explicit, the listings below refer to them; the id sequences start past them
+INSERT INTO stock_exchange (stock_exchange_id, name, description, live_in_market) VALUES
+                                                                   (1, 'New York Stock Exchange', 'The world''s largest stock exchange by market capitalization', FALSE),
+                                                                   (2, 'NASDAQ', 'American stock exchange focused on technology stocks', FALSE),
+                                                                   (3, 'London Stock Exchange', 'One of the oldest stock exchanges in the world', FALSE),
+                                                                   (4, 'Tokyo Stock Exchange', 'The largest stock exchange in Asia', FALSE),
+                                                                   (5, 'Shanghai Stock Exchange', 'Major stock exchange in mainland China', FALSE);
 
 -- Insert Stocks
-INSERT INTO stock (name, description, current_price) VALUES
-                                                         ('Apple Inc.', 'Technology company specializing in consumer electronics', 178.50),
-                                                         ('Microsoft Corporation', 'Technology company developing computer software and services', 412.30),
-                                                         ('Amazon.com Inc.', 'E-commerce and cloud computing company', 185.75),
-                                                         ('Tesla Inc.', 'Electric vehicle and clean energy company', 248.90),
-                                                         ('Alphabet Inc.', 'Technology company specializing in internet services', 142.65),
-                                                         ('NVIDIA Corporation', 'Technology company designing graphics processing units', 495.20),
-                                                         ('Meta Platforms Inc.', 'Social media and technology conglomerate', 512.85),
-                                                         ('Berkshire Hathaway', 'Multinational conglomerate holding company', 622000.00),
-                                                         ('Johnson & Johnson', 'Pharmaceutical and consumer goods company', 156.40),
-                                                         ('JPMorgan Chase', 'Multinational investment bank and financial services company', 218.95);
+INSERT INTO stock (stock_id, name, description, current_price) VALUES
+                                                         (1, 'Apple Inc.', 'Technology company specializing in consumer electronics', 178.50),
+                                                         (2, 'Microsoft Corporation', 'Technology company developing computer software and services', 412.30),
+                                                         (3, 'Amazon.com Inc.', 'E-commerce and cloud computing company', 185.75),
+                                                         (4, 'Tesla Inc.', 'Electric vehicle and clean energy company', 248.90),
+                                                         (5, 'Alphabet Inc.', 'Technology company specializing in internet services', 142.65),
+                                                         (6, 'NVIDIA Corporation', 'Technology company designing graphics processing units', 495.20),
+                                                         (7, 'Meta Platforms Inc.', 'Social media and technology conglomerate', 512.85),
+                                                         (8, 'Berkshire Hathaway', 'Multinational conglomerate holding company', 622000.00),
+                                                         (9, 'Johnson & Johnson', 'Pharmaceutical and consumer goods company', 156.40),
+                                                         (10, 'JPMorgan Chase', 'Multinational investment bank and financial services company', 218.95);
 
 -- Create Stock Listings (Associate stocks with exchanges)
 -- NYSE listings
@@ -45,4 +48,4 @@ INSERT INTO stock_exchange_stock (stock_exchange_id, stock_id) VALUES
 -- Tokyo Stock Exchange listings
 INSERT INTO stock_exchange_stock (stock_exchange_id, stock_id) VALUES
                                                                    (4, 1),  -- Apple on TSE
-                                                                   (4, 2);  -- Microsoft on TSE
\ No newline at end of file
+                                                                   (4, 2);  -- Microsoft on TSE
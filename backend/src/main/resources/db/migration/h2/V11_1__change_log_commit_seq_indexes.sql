@@ -0,0 +1,3 @@
+-- Readers range-scan the commit order, the sequencer reads the rows it has not numbered yet (see V11).
+-- H2 has no partial index, the nulls sit at the start of the commit_seq index.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_change_log_commit_seq ON change_log(commit_seq);
@@ -0,0 +1,6 @@
+-- The sync cursor becomes the commit order: change_seq stays the insert order, drawn without waiting
+-- for other appends, and commit_seq is set by the sequencer once the row is committed. Only the
+-- sequencer still takes the change_log_lock row of V10. Rows already in the table keep their
+-- change_seq as cursor, clients may hold it.
+ALTER TABLE change_log ADD COLUMN IF NOT EXISTS commit_seq BIGINT;
+UPDATE change_log SET commit_seq = change_seq;
@@ -0,0 +1,20 @@
+-- Prices over time: one row per price a stock had, in force from valid_from until the stock's next
+-- row. Written in the transaction that sets the price, so "the price at T" does not depend on the
+-- node-local tick store and its retention. History goes with the stock.
+CREATE TABLE IF NOT EXISTS stock_price_period (
+    price_period_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    stock_id BIGINT NOT NULL,
+    price DECIMAL(19, 4) NOT NULL,
+    valid_from TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_price_period_stock
+        FOREIGN KEY (stock_id)
+        REFERENCES stock(stock_id)
+        ON DELETE CASCADE
+);
+
+-- as-of lookups
+CREATE INDEX IF NOT EXISTS idx_price_period_stock ON stock_price_period(stock_id, valid_from);
+
+-- prices from before versioning are known from their last update on
+INSERT INTO stock_price_period (stock_id, price, valid_from)
+SELECT stock_id, current_price, COALESCE(updated_at, CURRENT_TIMESTAMP) FROM stock;
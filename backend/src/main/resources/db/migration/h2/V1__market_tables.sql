@@ -0,0 +1,62 @@
+-- Market tables. Before migrations these were dropped and reloaded at every start, so an existing
+-- database is baselined at version 0 and this script replaces them one last time.
+DROP TABLE IF EXISTS change_log;
+DROP TABLE IF EXISTS stock_exchange_stock;
+DROP TABLE IF EXISTS stock;
+DROP TABLE IF EXISTS stock_exchange;
+DROP SEQUENCE IF EXISTS stock_seq;
+DROP SEQUENCE IF EXISTS stock_exchange_seq;
+
+-- Id sequences, INCREMENT BY matches the entities' allocationSize (Hibernate hands out blocks of 50
+-- from memory). They start past the ids seeded by V3: the first block is 51..100.
+CREATE SEQUENCE stock_exchange_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE stock_seq START WITH 100 INCREMENT BY 50;
+
+-- Create Stock Exchange table
+CREATE TABLE stock_exchange (
+    stock_exchange_id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR(500),
+    live_in_market BOOLEAN DEFAULT FALSE,
+    version INT DEFAULT 0
+);
+
+-- Create Stock table
+CREATE TABLE stock (
+    stock_id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR(500),
+    current_price DECIMAL(19, 4) NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version INT DEFAULT 0
+);
+
+-- Create Stock Listing (junction table)
+CREATE TABLE stock_exchange_stock (
+    stock_exchange_id BIGINT NOT NULL,
+    stock_id BIGINT NOT NULL,
+    PRIMARY KEY (stock_exchange_id, stock_id),
+    CONSTRAINT fk_stock_exchange
+        FOREIGN KEY (stock_exchange_id)
+        REFERENCES stock_exchange(stock_exchange_id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_stock
+        FOREIGN KEY (stock_id)
+        REFERENCES stock(stock_id)
+        ON DELETE CASCADE
+);
+
+-- Create Change Log table (cursor for incremental sync)
+CREATE TABLE change_log (
+    change_seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entity_type VARCHAR(32) NOT NULL,
+    operation VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    related_id BIGINT,
+    changed_at TIMESTAMP NOT NULL
+);
+
+-- Create indexes for better query performance
+-- the names are covered by their UNIQUE constraints and exchange -> stocks by the primary key,
+-- only stock -> exchanges needs its own index
+CREATE INDEX idx_listing_stock ON stock_exchange_stock(stock_id, stock_exchange_id);
@@ -0,0 +1,30 @@
+-- Create account tables, unless Hibernate (ddl-auto: update, before migrations) already did
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version INT
+);
+
+CREATE TABLE IF NOT EXISTS user_authorities (
+    user_id BIGINT NOT NULL,
+    authority VARCHAR(255),
+    CONSTRAINT fk_user_authorities_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+);
+
+-- users ids used to come from IDENTITY: move the sequence past them so the next block is free,
+-- never backwards (another instance may still be handing out ids from its current block)
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (
+    SELECT GREATEST(s.BASE_VALUE, (SELECT COALESCE(MAX(id), 0) + 50 FROM users))
+    FROM INFORMATION_SCHEMA.SEQUENCES s
+    WHERE UPPER(s.SEQUENCE_NAME) = 'USERS_SEQ'
+);
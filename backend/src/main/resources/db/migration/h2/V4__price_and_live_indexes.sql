@@ -0,0 +1,4 @@
+-- Indexes for the pages sorted by price and for the live exchanges page.
+-- H2 has no concurrent index build, the table is locked while the index is created.
+CREATE INDEX IF NOT EXISTS idx_stock_current_price ON stock(current_price, stock_id);
+CREATE INDEX IF NOT EXISTS idx_stock_exchange_live ON stock_exchange(live_in_market, stock_exchange_id);
@@ -0,0 +1,23 @@
+-- Price alerts: a user's threshold on a stock, fired once when the price crosses it.
+-- INCREMENT BY matches the entity's allocationSize.
+CREATE SEQUENCE IF NOT EXISTS price_alert_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS price_alert (
+    id BIGINT PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    stock_id BIGINT NOT NULL,
+    direction VARCHAR(8) NOT NULL,
+    threshold DECIMAL(19, 4) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    triggered_at TIMESTAMP(6),
+    triggered_price DECIMAL(19, 4),
+    CONSTRAINT fk_price_alert_stock
+        FOREIGN KEY (stock_id)
+        REFERENCES stock(stock_id)
+        ON DELETE CASCADE
+);
+
+-- a user's own alerts, and the active ones loaded into memory at startup
+CREATE INDEX IF NOT EXISTS idx_price_alert_owner ON price_alert(owner, id);
+CREATE INDEX IF NOT EXISTS idx_price_alert_status ON price_alert(status, stock_id);
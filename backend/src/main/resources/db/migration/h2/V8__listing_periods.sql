@@ -0,0 +1,24 @@
+-- Listing membership over time: one row per continuous listing of a stock on an exchange,
+-- listed_until stays null while it is current. History goes with the stock or the exchange.
+CREATE TABLE IF NOT EXISTS stock_listing_period (
+    stock_exchange_id BIGINT NOT NULL,
+    stock_id BIGINT NOT NULL,
+    listed_from TIMESTAMP(6) NOT NULL,
+    listed_until TIMESTAMP(6),
+    PRIMARY KEY (stock_exchange_id, stock_id, listed_from),
+    CONSTRAINT fk_listing_period_exchange
+        FOREIGN KEY (stock_exchange_id)
+        REFERENCES stock_exchange(stock_exchange_id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_listing_period_stock
+        FOREIGN KEY (stock_id)
+        REFERENCES stock(stock_id)
+        ON DELETE CASCADE
+);
+
+-- as-of lookups by stock; by exchange they use the primary key
+CREATE INDEX IF NOT EXISTS idx_listing_period_stock ON stock_listing_period(stock_id, listed_from);
+
+-- listings from before versioning are known from now on only
+INSERT INTO stock_listing_period (stock_exchange_id, stock_id, listed_from)
+SELECT stock_exchange_id, stock_id, CURRENT_TIMESTAMP FROM stock_exchange_stock;
@@ -0,0 +1,4 @@
+-- The range scans of the snapshot replay (see V9): alerts and stock changes since a given time.
+-- H2 has no concurrent index build, the table is locked while the index is created.
+CREATE INDEX IF NOT EXISTS idx_price_alert_updated ON price_alert(updated_at);
+CREATE INDEX IF NOT EXISTS idx_change_log_changed ON change_log(changed_at);
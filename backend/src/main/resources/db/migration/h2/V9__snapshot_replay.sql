@@ -0,0 +1,4 @@
+-- What a restart from an in-memory snapshot replays: alert status changes since a given time.
+ALTER TABLE price_alert ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+UPDATE price_alert SET updated_at = COALESCE(triggered_at, created_at);
+ALTER TABLE price_alert ALTER COLUMN updated_at SET NOT NULL;
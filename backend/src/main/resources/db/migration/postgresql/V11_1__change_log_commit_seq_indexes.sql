@@ -0,0 +1,6 @@
+-- Readers range-scan the commit order, the sequencer reads the rows it has not numbered yet (see V11).
+-- Built CONCURRENTLY so appends continue during the build; Flyway runs this script outside a
+-- transaction. A failed build leaves an INVALID index behind: drop it and repair before migrating again.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_change_log_commit_seq ON change_log(commit_seq);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_change_log_unsequenced ON change_log(change_seq)
+    WHERE commit_seq IS NULL;
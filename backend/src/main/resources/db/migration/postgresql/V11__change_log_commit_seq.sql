@@ -0,0 +1,22 @@
+-- The sync cursor becomes the commit order: change_seq stays the insert order, drawn without waiting
+-- for other appends, and commit_seq is set by the sequencer once the row is committed. Only the
+-- sequencer still takes the change_log_lock row of V10. A nullable column without a default is a
+-- catalog change only. Rows already in the table keep their change_seq as cursor, clients may hold
+-- it; backfilled a batch at a time as in V9, Flyway runs this script outside a transaction for those
+-- commits.
+ALTER TABLE change_log ADD COLUMN IF NOT EXISTS commit_seq BIGINT;
+
+DO $$
+DECLARE
+    last_seq BIGINT := 0;
+    max_seq BIGINT;
+BEGIN
+    SELECT COALESCE(MAX(change_seq), 0) INTO max_seq FROM change_log;
+    WHILE last_seq < max_seq LOOP
+        UPDATE change_log SET commit_seq = change_seq
+        WHERE change_seq > last_seq AND change_seq <= last_seq + 10000
+          AND commit_seq IS NULL;
+        last_seq := last_seq + 10000;
+        COMMIT;
+    END LOOP;
+END $$;
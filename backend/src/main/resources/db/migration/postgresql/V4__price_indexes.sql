@@ -0,0 +1,5 @@
+-- Index for the stock pages sorted by price (the live exchanges index is already partial, see V1).
+-- Built CONCURRENTLY so writes continue during the build; Flyway runs this script outside a
+-- transaction, which is why it holds nothing else. A failed build leaves an INVALID index behind:
+-- drop it and repair before migrating again.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_stock_current_price ON stock(current_price, stock_id);
@@ -0,0 +1,17 @@
+-- Portfolio holdings: one row per user and stock held, gone with the stock like its listings
+CREATE TABLE IF NOT EXISTS holding (
+    owner VARCHAR(100) NOT NULL,
+    stock_id BIGINT NOT NULL,
+    quantity BIGINT NOT NULL,
+    average_cost NUMERIC(19, 4) NOT NULL,
+    updated_at TIMESTAMP(6),
+    version INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (owner, stock_id),
+    CONSTRAINT fk_holding_stock
+        FOREIGN KEY (stock_id)
+        REFERENCES stock(stock_id)
+        ON DELETE CASCADE
+);
+
+-- the cascade on stock deletes looks holdings up by stock
+CREATE INDEX IF NOT EXISTS idx_holding_stock ON holding(stock_id);
@@ -0,0 +1,25 @@
+-- Trading calendars: an exchange without one trades around the clock.
+-- Times are local to time_zone; pre_open_time = open_time means no pre-open phase.
+CREATE TABLE IF NOT EXISTS trading_calendar (
+    stock_exchange_id BIGINT PRIMARY KEY,
+    time_zone VARCHAR(64) NOT NULL,
+    pre_open_time TIME NOT NULL,
+    open_time TIME NOT NULL,
+    close_time TIME NOT NULL,
+    -- comma-separated java.time.DayOfWeek names
+    trading_days VARCHAR(64) NOT NULL,
+    CONSTRAINT fk_trading_calendar_exchange
+        FOREIGN KEY (stock_exchange_id)
+        REFERENCES stock_exchange(stock_exchange_id)
+        ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS trading_holiday (
+    stock_exchange_id BIGINT NOT NULL,
+    holiday DATE NOT NULL,
+    PRIMARY KEY (stock_exchange_id, holiday),
+    CONSTRAINT fk_trading_holiday_calendar
+        FOREIGN KEY (stock_exchange_id)
+        REFERENCES trading_calendar(stock_exchange_id)
+        ON DELETE CASCADE
+);
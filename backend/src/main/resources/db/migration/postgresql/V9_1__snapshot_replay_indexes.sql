@@ -0,0 +1,6 @@
+-- The range scans of the snapshot replay (see V9): alerts and stock changes since a given time.
+-- Built CONCURRENTLY so writes to these append-heavy tables continue during the build; Flyway runs
+-- this script outside a transaction, which is why it holds nothing else. A failed build leaves an
+-- INVALID index behind: drop it and repair before migrating again.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_price_alert_updated ON price_alert(updated_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_change_log_changed ON change_log(changed_at);
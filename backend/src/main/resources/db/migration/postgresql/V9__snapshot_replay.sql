@@ -0,0 +1,25 @@
+-- What a restart from an in-memory snapshot replays: alert status changes since a given time.
+-- The column comes with a constant default, which PostgreSQL stores once instead of rewriting the
+-- table, and the default is dropped right away: the application always sets it. Existing rows are
+-- then backfilled a batch at a time, each batch committed on its own so no lock is held for long.
+-- Flyway runs this script outside a transaction for those commits. Rows still at the epoch only
+-- look older than any snapshot, which is what they are.
+ALTER TABLE price_alert ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) NOT NULL
+    DEFAULT TIMESTAMP '1970-01-01 00:00:00';
+ALTER TABLE price_alert ALTER COLUMN updated_at DROP DEFAULT;
+
+DO $$
+DECLARE
+    last_id BIGINT := 0;
+    max_id BIGINT;
+BEGIN
+    -- by primary key range, every batch an index scan; later rows are written by the application
+    SELECT COALESCE(MAX(id), 0) INTO max_id FROM price_alert;
+    WHILE last_id < max_id LOOP
+        UPDATE price_alert SET updated_at = COALESCE(triggered_at, created_at)
+        WHERE id > last_id AND id <= last_id + 10000
+          AND updated_at = TIMESTAMP '1970-01-01 00:00:00';
+        last_id := last_id + 10000;
+        COMMIT;
+    END LOOP;
+END $$;
@@ -0,0 +1,31 @@
+package com.example.stockexchange.config;
+
+import com.example.stockexchange.dto.StockDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NativeRuntimeHints Tests")
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    @DisplayName("Should cover the jjwt classes, the migrations and the Object-typed payloads")
+    void registerHints_CoversDynamicAccess() {
+        // Act
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder")).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/h2/V1__market_tables.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/common/V3__seed_market_data.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/postgresql/V4__price_indexes.sql.conf").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(StockDto.class).test(hints));
+    }
+}
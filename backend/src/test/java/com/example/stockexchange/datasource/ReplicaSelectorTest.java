@@ -0,0 +1,135 @@
+package com.example.stockexchange.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes through the same proxy as {@link DataSourceConfig}, with two in-memory H2 databases standing
+ * in for the primary and a replica; each one answers {@code SELECT name FROM node} with its own name.
+ */
+@DisplayName("ReplicaSelector Tests")
+class ReplicaSelectorTest {
+
+    private static final String LAG_QUERY = "SELECT lag_millis FROM lag";
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private ReplicaSelector selector;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE lag (lag_millis BIGINT)");
+        new JdbcTemplate(replica).update("INSERT INTO lag VALUES (0)");
+
+        selector = new ReplicaSelector(primary, List.of(replica), LAG_QUERY, 1000, new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(selector);
+        jdbcTemplate = new JdbcTemplate(proxy);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.unpin();
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to the replica and the rest to the primary")
+    void getConnection_RoutesByTransaction() {
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+    }
+
+    @Test
+    @DisplayName("Should read from the primary while the thread is pinned")
+    void getConnection_Pinned() {
+        // Arrange
+        ReadYourWrites.pinToPrimary();
+
+        // Act & Assert
+        assertEquals("primary", readOnly.execute(status -> node()));
+        ReadYourWrites.unpin();
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    @DisplayName("Should take a lagging replica out of rotation until it catches up")
+    void probe_LaggingReplica() {
+        // Arrange
+        new JdbcTemplate(replica).update("UPDATE lag SET lag_millis = 5000");
+
+        // Act
+        selector.probe();
+
+        // Assert
+        assertEquals("primary", readOnly.execute(status -> node()));
+        new JdbcTemplate(replica).update("UPDATE lag SET lag_millis = 200");
+        selector.probe();
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the replica cannot answer the probe")
+    void probe_FailingReplica() {
+        // Arrange
+        new JdbcTemplate(replica).execute("DROP TABLE lag");
+
+        // Act
+        selector.probe();
+
+        // Assert
+        assertEquals("primary", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    @DisplayName("Should remember who wrote recently")
+    void readYourWrites_Sticky() {
+        // Arrange
+        ReadYourWrites sticky = new ReadYourWrites(60000);
+        ReadYourWrites expired = new ReadYourWrites(0);
+
+        // Act
+        sticky.recordWrite("john.doe@example.com");
+        expired.recordWrite("john.doe@example.com");
+
+        // Assert
+        assertTrue(sticky.wroteRecently("john.doe@example.com"));
+        assertFalse(sticky.wroteRecently("jane.doe@example.com"));
+        assertFalse(expired.wroteRecently("john.doe@example.com"));
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-routing;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
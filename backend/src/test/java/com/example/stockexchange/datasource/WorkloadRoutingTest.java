@@ -0,0 +1,126 @@
+package com.example.stockexchange.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.AopContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One in-memory H2 database per workload stands in for its pool; each answers
+ * {@code SELECT name FROM node} with the workload's name.
+ */
+@DisplayName("Workload Routing Tests")
+class WorkloadRoutingTest {
+
+    private final Map<Workload, JdbcDataSource> pools = new EnumMap<>(Workload.class);
+    private Service service;
+
+    @BeforeEach
+    void setUp() {
+        for (Workload workload : Workload.values()) {
+            pools.put(workload, database(workload.poolName()));
+        }
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Service(new JdbcTemplate(new WorkloadRoutingDataSource(pools))));
+        factory.addAspect(new WorkloadPoolAspect());
+        factory.setProxyTargetClass(true);
+        factory.setExposeProxy(true);
+        service = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pools.values().forEach(pool -> new JdbcTemplate(pool).execute("DROP ALL OBJECTS"));
+    }
+
+    @Test
+    @DisplayName("Should take connections from the pool of the annotated workload")
+    void workloadPool_MethodAnnotation() {
+        assertEquals("read", service.read());
+        assertEquals("write", service.write());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the class annotation, and to the read pool outside any workload")
+    void workloadPool_Defaults() {
+        assertEquals("auth", service.login());
+        assertEquals("read", new JdbcTemplate(new WorkloadRoutingDataSource(pools))
+                .queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    @DisplayName("Should restore the outer workload after a nested call")
+    void workloadPool_Nested() {
+        assertEquals("read|auth", service.readThenLogin());
+    }
+
+    @Test
+    @DisplayName("Should carry the workload over to another thread")
+    void propagate_OtherThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals("read", service.readOnOtherThread(executor));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-workload;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    @WorkloadPool(Workload.AUTH)
+    static class Service {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        Service(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        public String login() {
+            return node();
+        }
+
+        @WorkloadPool(Workload.READ)
+        public String read() {
+            return node();
+        }
+
+        @WorkloadPool(Workload.WRITE)
+        public String write() {
+            return node();
+        }
+
+        @WorkloadPool(Workload.READ)
+        public String readThenLogin() {
+            Service self = (Service) AopContext.currentProxy();
+            String login = self.login();
+            return node() + "|" + login;
+        }
+
+        @WorkloadPool(Workload.READ)
+        public String readOnOtherThread(ExecutorService executor) throws Exception {
+            return executor.submit(Workload.propagate(this::node)).get();
+        }
+
+        private String node() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+    }
+}
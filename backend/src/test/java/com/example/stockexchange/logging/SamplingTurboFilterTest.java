@@ -0,0 +1,97 @@
+package com.example.stockexchange.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SamplingTurboFilter Tests")
+class SamplingTurboFilterTest {
+
+    private LoggerContext loggerContext;
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+        filter = new SamplingTurboFilter();
+        filter.setContext(loggerContext);
+        filter.setRate("com.example.chatty", 10);
+        filter.setRate("com.example.chatty.Important", 1);
+        filter.start();
+    }
+
+    @Test
+    @DisplayName("Should keep one event in N for a sampled package")
+    void sampledLogger_KeepsOneInN() {
+        // Arrange
+        Logger logger = loggerContext.getLogger("com.example.chatty.Filter");
+
+        // Act
+        int kept = countKept(logger, Level.DEBUG, 100);
+
+        // Assert
+        assertEquals(10, kept);
+    }
+
+    @Test
+    @DisplayName("Should use the most specific rate")
+    void longestPrefix_Wins() {
+        // Arrange
+        Logger logger = loggerContext.getLogger("com.example.chatty.Important");
+
+        // Act
+        int kept = countKept(logger, Level.DEBUG, 50);
+
+        // Assert
+        assertEquals(50, kept);
+    }
+
+    @Test
+    @DisplayName("Should never sample errors or unconfigured loggers")
+    void errorsAndOtherLoggers_NotSampled() {
+        // Arrange
+        Logger chatty = loggerContext.getLogger("com.example.chatty.Filter");
+        Logger other = loggerContext.getLogger("com.example.quiet.Service");
+
+        // Act & Assert
+        assertEquals(20, countKept(chatty, Level.ERROR, 20));
+        assertEquals(20, countKept(other, Level.INFO, 20));
+    }
+
+    @Test
+    @DisplayName("Should not count level guard checks against the rate")
+    void guardChecks_NotSampled() {
+        // Arrange
+        Logger logger = loggerContext.getLogger("com.example.chatty.Filter");
+
+        // Act
+        FilterReply reply = filter.decide(null, logger, Level.DEBUG, null, null, null);
+
+        // Assert
+        assertEquals(FilterReply.NEUTRAL, reply);
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.DEBUG, "first", null, null));
+    }
+
+    @Test
+    @DisplayName("Should reject a rate below one")
+    void invalidRate_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> filter.setRate("com.example", 0));
+    }
+
+    private int countKept(Logger logger, Level level, int events) {
+        int kept = 0;
+        for (int i = 0; i < events; i++) {
+            if (filter.decide(null, logger, level, "event {}", new Object[]{i}, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        return kept;
+    }
+}
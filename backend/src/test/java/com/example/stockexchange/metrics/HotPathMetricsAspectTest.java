@@ -0,0 +1,116 @@
+package com.example.stockexchange.metrics;
+
+import com.example.stockexchange.dto.StockDto;
+import com.example.stockexchange.entity.Stock;
+import com.example.stockexchange.exception.QueryBudgetExceededException;
+import com.example.stockexchange.exception.ResourceNotFoundException;
+import com.example.stockexchange.mapper.StockMapper;
+import com.example.stockexchange.repository.StockListingRepository;
+import com.example.stockexchange.repository.StockRepository;
+import com.example.stockexchange.service.ChangeLogService;
+import com.example.stockexchange.service.PriceHistoryService;
+import com.example.stockexchange.service.StockExchangeService;
+import com.example.stockexchange.service.StockService;
+import com.example.stockexchange.service.TradingSessionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("HotPathMetricsAspect Tests")
+class HotPathMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StockRepository stockRepository;
+    private StockRepository timedStockRepository;
+    private StockMapper stockMapper;
+    private StockService stockService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        HotPathMetricsAspect aspect = new HotPathMetricsAspect(meterRegistry, true);
+
+        stockRepository = mock(StockRepository.class);
+        AspectJProxyFactory repositoryProxy = new AspectJProxyFactory(stockRepository);
+        repositoryProxy.setInterfaces(StockRepository.class);
+        repositoryProxy.addAspect(aspect);
+        timedStockRepository = repositoryProxy.getProxy();
+
+        stockMapper = mock(StockMapper.class);
+        StockService target = new StockService(timedStockRepository, mock(StockListingRepository.class),
+                stockMapper, mock(StockExchangeService.class), mock(ChangeLogService.class),
+                mock(TradingSessionService.class), mock(PriceHistoryService.class),
+                mock(ApplicationEventPublisher.class));
+        AspectJProxyFactory serviceProxy = new AspectJProxyFactory(target);
+        serviceProxy.setProxyTargetClass(true);
+        serviceProxy.addAspect(aspect);
+        stockService = serviceProxy.getProxy();
+    }
+
+    @Test
+    @DisplayName("Should attribute repository calls to the service operation that made them")
+    void repositoryCall_TaggedWithOperation() {
+        // Arrange
+        Stock stock = new Stock();
+        when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
+        when(stockMapper.map(stock)).thenReturn(new StockDto());
+
+        // Act
+        stockService.getStockById(1L);
+
+        // Assert
+        assertEquals(1, meterRegistry.get(HotPathMetricsAspect.REPOSITORY_TIMER)
+                .tag("operation", "StockService.getStockById(Long)")
+                .tag("repository", "StockRepository")
+                .tag("method", "findById")
+                .timer().count());
+        assertEquals(1, meterRegistry.get(HotPathMetricsAspect.SERVICE_TIMER)
+                .tag("outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("Should tag failed operations with the exception and skip calls outside a service operation")
+    void failedOperation_TaggedWithException() {
+        // Arrange
+        when(stockRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // Act
+        assertThrows(ResourceNotFoundException.class, () -> stockService.getStockById(2L));
+        timedStockRepository.findById(3L);
+
+        // Assert
+        assertEquals(1, meterRegistry.get(HotPathMetricsAspect.SERVICE_TIMER)
+                .tag("outcome", "ResourceNotFoundException")
+                .timer().count());
+        assertEquals(1, meterRegistry.get(HotPathMetricsAspect.REPOSITORY_TIMER).timer().count());
+    }
+
+    @Test
+    @DisplayName("Should fail an operation that goes over its query budget")
+    void overBudget_Fails() {
+        // Arrange
+        QueryCounter queryCounter = new QueryCounter();
+        Stock stock = new Stock();
+        when(stockRepository.findById(1L)).thenAnswer(invocation -> {
+            queryCounter.inspect("select stock");
+            queryCounter.inspect("select stock listings");
+            return Optional.of(stock);
+        });
+        when(stockMapper.map(stock)).thenReturn(new StockDto());
+
+        // Act & Assert
+        assertThrows(QueryBudgetExceededException.class, () -> stockService.getStockById(1L));
+        assertEquals(1, meterRegistry.get(HotPathMetricsAspect.QUERY_BUDGET_EXCEEDED_COUNTER).counter().count());
+        assertEquals(2, meterRegistry.get(HotPathMetricsAspect.QUERIES_SUMMARY).summary().totalAmount());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.stockexchange.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RouteMeterFilter Tests")
+class RouteMeterFilterTest {
+
+    private RouteMeterFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RouteMeterFilter(List.of("/actuator/**", "NOT_FOUND"));
+    }
+
+    private static Meter.Id requestId(String uri, String status) {
+        return new Meter.Id("http.server.requests",
+                Tags.of("method", "GET", "uri", uri, "status", status, "outcome", "SUCCESS", "exception", "none"),
+                null, null, Meter.Type.TIMER);
+    }
+
+    @Test
+    @DisplayName("Should collapse every status of a route into one series")
+    void map_RouteTagsOnly() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(filter);
+
+        // Act
+        Timer ok = Timer.builder("http.server.requests")
+                .tags("method", "GET", "uri", "/api/v1/stocks/{id}", "status", "200", "outcome", "SUCCESS")
+                .register(meterRegistry);
+        Timer notFound = Timer.builder("http.server.requests")
+                .tags("method", "GET", "uri", "/api/v1/stocks/{id}", "status", "404", "outcome", "CLIENT_ERROR")
+                .register(meterRegistry);
+
+        // Assert
+        assertSame(ok, notFound);
+        assertEquals(List.of(Tag.of("method", "GET"), Tag.of("uri", "/api/v1/stocks/{id}")), ok.getId().getTags());
+    }
+
+    @Test
+    @DisplayName("Should leave other meters' tags alone")
+    void map_OtherMeter() {
+        // Arrange
+        Meter.Id id = new Meter.Id("stockexchange.service", Tags.of("operation", "op", "outcome", "success"),
+                null, null, Meter.Type.TIMER);
+
+        // Act & Assert
+        assertSame(id, filter.map(id));
+    }
+
+    @Test
+    @DisplayName("Should drop the percentile histogram of low-value routes only")
+    void configure_LowValueRoutes() {
+        // Arrange: as Boot's property-based filter, which runs first, leaves it
+        DistributionStatisticConfig enabled = DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .build()
+                .merge(DistributionStatisticConfig.DEFAULT);
+
+        // Act
+        DistributionStatisticConfig actuator = filter.configure(requestId("/actuator/prometheus", "200"), enabled);
+        DistributionStatisticConfig unmatched = filter.configure(requestId("NOT_FOUND", "404"), enabled);
+        DistributionStatisticConfig stocks = filter.configure(requestId("/api/v1/stocks/{id}", "200"), enabled);
+
+        // Assert
+        assertFalse(actuator.isPercentileHistogram());
+        assertFalse(unmatched.isPercentileHistogram());
+        assertTrue(stocks.isPercentileHistogram());
+    }
+}
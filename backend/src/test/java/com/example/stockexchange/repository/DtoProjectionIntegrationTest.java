@@ -0,0 +1,93 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.audit.AuditAwareImpl;
+import com.example.stockexchange.dto.StockDto;
+import com.example.stockexchange.dto.StockExchangeDto;
+import com.example.stockexchange.entity.Stock;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The listing projections against the seeded catalog: same values as the entities, nothing left in
+ * the persistence context.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@Import(AuditAwareImpl.class)
+@DisplayName("DTO Projection Integration Tests")
+class DtoProjectionIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockExchangeRepository stockExchangeRepository;
+
+    @Autowired
+    private StockListingRepository stockListingRepository;
+
+    @Test
+    @DisplayName("Should page stocks sorted, without managed entities")
+    void findAllAsDto_SortedPage() {
+        // Act
+        Page<StockDto> page = stockRepository.findAllAsDto(PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "name")));
+
+        // Assert
+        assertEquals(10, page.getTotalElements());
+        assertEquals(4, page.getContent().size());
+        assertEquals(0, managedEntities());
+        StockDto first = page.getContent().get(0);
+        Stock entity = stockRepository.findById(first.getStockId()).orElseThrow();
+        assertEquals(entity.getName(), first.getName());
+        assertEquals(entity.getDescription(), first.getDescription());
+        assertEquals(0, entity.getCurrentPrice().compareTo(first.getCurrentPrice()));
+        assertTrue(page.getContent().get(0).getName().compareTo(page.getContent().get(3).getName()) > 0);
+    }
+
+    @Test
+    @DisplayName("Should project exchanges, live ones and the listings of a stock")
+    void stockExchangeProjections() {
+        // Act
+        Page<StockExchangeDto> all = stockExchangeRepository.findAllAsDto(PageRequest.of(0, 10));
+        Page<StockExchangeDto> live = stockExchangeRepository.findLiveInMarketAsDto(PageRequest.of(0, 10));
+        Page<StockExchangeDto> ofStock = stockListingRepository.findStockExchangesByStockId(1L, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(5, all.getTotalElements());
+        assertTrue(live.getContent().stream().allMatch(StockExchangeDto::isLiveInMarket));
+        assertEquals(3, ofStock.getTotalElements());
+        assertEquals(0, managedEntities());
+    }
+
+    @Test
+    @DisplayName("Should split the catalog into listed and not listed stocks of an exchange")
+    void stockProjections_ListedAndNotListed() {
+        // Act
+        Page<StockDto> listed = stockListingRepository.findStocksByStockExchangeId(2L, PageRequest.of(0, 20));
+        Page<StockDto> notListed = stockListingRepository.findStocksNotInExchange(2L, PageRequest.of(0, 20));
+
+        // Assert
+        assertEquals(7, listed.getTotalElements());
+        assertEquals(3, notListed.getTotalElements());
+        assertTrue(notListed.getContent().stream()
+                .noneMatch(stock -> listed.getContent().stream()
+                        .anyMatch(listedStock -> listedStock.getStockId().equals(stock.getStockId()))));
+        assertEquals(0, managedEntities());
+    }
+
+    private int managedEntities() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.audit.AuditAwareImpl;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Applies the h2 migrations to an empty in-memory database, the way a fresh dev or prod start does.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@Import(AuditAwareImpl.class)
+@DisplayName("H2 Migration Integration Tests")
+class H2MigrationIntegrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockListingRepository stockListingRepository;
+
+    @Test
+    @DisplayName("Should apply every migration in order with nothing pending")
+    void migrations_Applied() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9", "9.1", "10", "11", "11.1", "12"),
+                Arrays.stream(applied).map(info -> info.getVersion().getVersion()).toList());
+        assertTrue(Arrays.stream(applied).allMatch(info -> info.getState().isApplied()));
+        assertDoesNotThrow(() -> flyway.validate(), "checksums must match the applied scripts");
+    }
+
+    @Test
+    @DisplayName("Should seed the catalog once")
+    void seedData_Loaded() {
+        assertEquals(10, stockRepository.count());
+        assertEquals(7, stockListingRepository.countByStockExchangeId(2L));
+    }
+
+    @Test
+    @DisplayName("Should create the performance indexes")
+    void indexes_Created() {
+        Integer indexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE UPPER(INDEX_NAME) IN ('IDX_STOCK_CURRENT_PRICE', 'IDX_STOCK_EXCHANGE_LIVE')",
+                Integer.class);
+
+        assertEquals(2, indexes);
+    }
+
+    @Test
+    @DisplayName("Should open a listing period for every seeded listing")
+    void listingPeriods_Backfilled() {
+        Integer open = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_listing_period WHERE listed_until IS NULL", Integer.class);
+        Integer listings = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_exchange_stock", Integer.class);
+
+        assertEquals(listings, open);
+    }
+}
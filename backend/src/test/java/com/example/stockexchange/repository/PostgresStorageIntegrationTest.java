@@ -0,0 +1,157 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.audit.AuditAwareImpl;
+import com.example.stockexchange.entity.ChangeEntityType;
+import com.example.stockexchange.entity.ChangeLogEntry;
+import com.example.stockexchange.entity.ChangeOperation;
+import com.example.stockexchange.entity.Stock;
+import com.example.stockexchange.entity.StockExchange;
+import com.example.stockexchange.entity.StockListing;
+import com.example.stockexchange.entity.StockPricePeriod;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the postgres storage backend against an embedded PostgreSQL: Flyway applies the profile's
+ * migrations, and Hibernate validates its mappings (sequence increments included) against the result.
+ */
+@DataJpaTest(properties = {
+        "app.storage.backend=postgresql",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+@Import(AuditAwareImpl.class)
+@DisplayName("PostgreSQL Storage Integration Tests")
+class PostgresStorageIntegrationTest {
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockExchangeRepository stockExchangeRepository;
+
+    @Autowired
+    private StockListingRepository stockListingRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private StockPricePeriodRepository stockPricePeriodRepository;
+
+    @Test
+    @DisplayName("Should load the seeded catalog")
+    void seedData_Loaded() {
+        assertEquals(10, stockRepository.count());
+        assertEquals(5, stockExchangeRepository.count());
+        assertEquals(7, stockListingRepository.countByStockExchangeId(2L));
+        assertEquals(3, stockListingRepository.findStockExchangesByStockId(1L, PageRequest.of(0, 10))
+                .getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Should hand out sequence ids past the seeded rows")
+    void saveAll_SequenceIds() {
+        // Arrange
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Stock stock = new Stock();
+            stock.setName("PG " + i);
+            stock.setDescription("storage");
+            stock.setCurrentPrice(BigDecimal.ONE);
+            stocks.add(stock);
+        }
+
+        // Act, 60 rows span two allocation blocks
+        List<Stock> saved = stockRepository.saveAllAndFlush(stocks);
+
+        // Assert
+        assertTrue(saved.stream().allMatch(stock -> stock.getStockId() > 10));
+        assertEquals(60, saved.stream().map(Stock::getStockId).distinct().count());
+        assertEquals(70, stockRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should list and unlist a new stock on a new exchange")
+    void listing_RoundTrip() {
+        // Arrange
+        StockExchange stockExchange = new StockExchange();
+        stockExchange.setName("PG exchange");
+        stockExchange.setDescription("storage");
+        stockExchangeRepository.save(stockExchange);
+        Stock stock = new Stock();
+        stock.setName("PG listed");
+        stock.setDescription("storage");
+        stock.setCurrentPrice(new BigDecimal("12.3456"));
+        stockRepository.save(stock);
+
+        // Act
+        stockListingRepository.saveAndFlush(new StockListing(stockExchange, stock));
+
+        // Assert
+        assertEquals(1, stockListingRepository.countByStockExchangeId(stockExchange.getStockExchangeId()));
+        stockListingRepository.deleteByStockExchangeId(stockExchange.getStockExchangeId());
+        assertEquals(0, stockListingRepository.countByStockExchangeId(stockExchange.getStockExchangeId()));
+    }
+
+    @Test
+    @DisplayName("Should number change log rows in insert order past the current head")
+    void changeLog_Sequenced() {
+        // Arrange
+        long head = changeLogRepository.findHeadSequence();
+        changeLogRepository.insertAll(List.of(
+                new ChangeLogEntry(ChangeEntityType.STOCK, ChangeOperation.UPSERT, 1L, null),
+                new ChangeLogEntry(ChangeEntityType.STOCK_LISTING, ChangeOperation.DELETE, 2L, 1L)));
+        assertTrue(changeLogRepository.findChangesSince(head, PageRequest.of(0, 10)).isEmpty());
+
+        // Act
+        int numbered = changeLogRepository.sequencePending(10);
+
+        // Assert
+        List<ChangeLogEntry> changes = changeLogRepository.findChangesSince(head, PageRequest.of(0, 10));
+        assertEquals(2, numbered);
+        assertEquals(List.of(1L, 2L), changes.stream().map(ChangeLogEntry::getEntityId).toList());
+        assertTrue(changes.get(0).getSequence() > head);
+        assertTrue(changes.get(0).getSequence() < changes.get(1).getSequence());
+        assertEquals(0, changeLogRepository.sequencePending(10));
+    }
+
+    @Test
+    @DisplayName("Should find the price period in force at an instant")
+    void pricePeriods_InForceAt() {
+        // Arrange: the seeded stocks got a period each from the migration
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 9, 0);
+        stockPricePeriodRepository.openAll(
+                Map.of(1L, new BigDecimal("10.0000"), 2L, new BigDecimal("20.0000")), start);
+        stockPricePeriodRepository.openAll(Map.of(1L, new BigDecimal("11.0000")), start.plusHours(1));
+
+        // Act
+        List<StockPricePeriod> before = stockPricePeriodRepository.findInForceAt(
+                List.of(1L, 2L), start.minusSeconds(1));
+        List<StockPricePeriod> between = stockPricePeriodRepository.findInForceAt(
+                List.of(1L, 2L), start.plusMinutes(30));
+        List<StockPricePeriod> after = stockPricePeriodRepository.findInForceAt(List.of(1L), start.plusHours(2));
+
+        // Assert
+        assertTrue(before.stream().allMatch(period -> period.getValidFrom().isBefore(start)));
+        assertEquals(2, between.size());
+        assertTrue(between.stream().allMatch(period -> period.getValidFrom().equals(start)));
+        assertEquals(new BigDecimal("11.0000"), after.get(0).getPrice());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.stockexchange.repository;
+
+import com.example.stockexchange.audit.AuditAwareImpl;
+import com.example.stockexchange.dto.StockExchangeDto;
+import com.example.stockexchange.entity.Stock;
+import com.example.stockexchange.entity.StockExchange;
+import com.example.stockexchange.entity.StockListing;
+import com.example.stockexchange.entity.StockListingId;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every repository call runs in its own transaction and session here, so anything answered without
+ * a statement came from the second-level or query cache.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(AuditAwareImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Second-Level Cache Integration Tests")
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockExchangeRepository stockExchangeRepository;
+
+    @Autowired
+    private StockListingRepository stockListingRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should answer exchange lookups from the cache once loaded, and never cache stocks")
+    void findById_Cached() {
+        // Arrange
+        stockRepository.findById(1L);
+        stockExchangeRepository.findById(2L);
+        statistics.clear();
+
+        // Act
+        StockExchange stockExchange = stockExchangeRepository.findById(2L).orElseThrow();
+        boolean exists = stockExchangeRepository.existsById(2L);
+
+        // Assert
+        assertEquals(2L, stockExchange.getStockExchangeId());
+        assertTrue(exists);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertFalse(entityManagerFactory.getCache().contains(Stock.class, 1L));
+    }
+
+    @Test
+    @DisplayName("Should cache listing pages until the listing table changes")
+    void listingQuery_CachedUntilChange() {
+        // Arrange
+        Listed listed = listOneStock("cached page");
+        PageRequest page = PageRequest.of(0, 10);
+        stockListingRepository.findStockExchangesByStockId(listed.stockId, page);
+        statistics.clear();
+
+        // Act
+        List<StockExchangeDto> cached = stockListingRepository.findStockExchangesByStockId(listed.stockId, page).getContent();
+        long statementsWhileCached = statistics.getPrepareStatementCount();
+        stockListingRepository.deleteByStockExchangeId(listed.exchangeId);
+        List<StockExchangeDto> afterDelete = stockListingRepository.findStockExchangesByStockId(listed.stockId, page).getContent();
+
+        // Assert
+        assertEquals(1, cached.size());
+        assertEquals(0, statementsWhileCached);
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+        assertTrue(afterDelete.isEmpty(), "the JPQL bulk delete must invalidate the cached page");
+    }
+
+    @Test
+    @DisplayName("Should evict cached listings removed by deleteAllInBatch")
+    void deleteAllInBatch_EvictsListing() {
+        // Arrange
+        Listed listed = listOneStock("batch delete");
+        StockListingId id = new StockListingId(listed.exchangeId, listed.stockId);
+        StockListing listing = stockListingRepository.findById(id).orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(StockListing.class, id));
+
+        // Act
+        stockListingRepository.deleteAllInBatch(List.of(listing));
+
+        // Assert
+        assertFalse(entityManagerFactory.getCache().contains(StockListing.class, id));
+        assertTrue(stockListingRepository.findById(id).isEmpty());
+        assertEquals(0, stockListingRepository.findStockExchangesByStockId(listed.stockId, PageRequest.of(0, 10))
+                .getTotalElements());
+    }
+
+    private Listed listOneStock(String name) {
+        StockExchange stockExchange = new StockExchange();
+        stockExchange.setName(name);
+        stockExchange.setDescription("cache");
+        stockExchangeRepository.saveAndFlush(stockExchange);
+        Stock stock = new Stock();
+        stock.setName(name);
+        stock.setDescription("cache");
+        stock.setCurrentPrice(BigDecimal.TEN);
+        stockRepository.saveAndFlush(stock);
+        stockListingRepository.saveAndFlush(new StockListing(stockExchange, stock));
+        return new Listed(stockExchange.getStockExchangeId(), stock.getStockId());
+    }
+
+    private record Listed(Long exchangeId, Long stockId) {
+    }
+}
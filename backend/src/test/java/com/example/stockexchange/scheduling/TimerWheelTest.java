@@ -0,0 +1,91 @@
+package com.example.stockexchange.scheduling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimerWheel Tests")
+class TimerWheelTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final TimerWheel wheel = new TimerWheel(100, now::get);
+
+    @Test
+    @DisplayName("Should run a timeout on the first tick at or after its deadline, never early")
+    void advanceTo_RunsDueTimeouts() {
+        // Arrange
+        List<String> ran = new ArrayList<>();
+        wheel.schedule(() -> ran.add("a"), 250);
+        wheel.schedule(() -> ran.add("b"), 1_000);
+
+        // Act
+        int early = wheel.advanceTo(now.get() + 200);
+        int due = wheel.advanceTo(now.get() + 300);
+
+        // Assert
+        assertEquals(0, early);
+        assertEquals(1, due);
+        assertEquals(List.of("a"), ran);
+        assertEquals(1, wheel.pending());
+    }
+
+    @Test
+    @DisplayName("Should not run a cancelled timeout")
+    void cancel_RemovesTimeout() {
+        // Arrange
+        List<String> ran = new ArrayList<>();
+        TimerWheel.Timeout timeout = wheel.schedule(() -> ran.add("a"), 500);
+
+        // Act
+        boolean cancelled = timeout.cancel();
+        wheel.advanceTo(now.get() + 1_000);
+
+        // Assert
+        assertTrue(cancelled);
+        assertFalse(timeout.cancel(), "a second cancel is a no-op");
+        assertTrue(ran.isEmpty());
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    @DisplayName("Should cascade far timeouts down the wheels and run them on time")
+    void advanceTo_CascadesFarTimeouts() {
+        // Arrange
+        long start = now.get();
+        List<Long> ranAt = new ArrayList<>();
+        long[] deadlines = {start + 30_000, start + 7_000_000, start + 2_000_000_000L};
+        for (long deadline : deadlines) {
+            wheel.scheduleAt(() -> ranAt.add(deadline), deadline);
+        }
+
+        // Act
+        for (long deadline : deadlines) {
+            assertEquals(0, wheel.advanceTo(deadline - 100), "not before " + deadline);
+            assertEquals(1, wheel.advanceTo(deadline), "at " + deadline);
+        }
+
+        // Assert
+        assertEquals(List.of(deadlines[0], deadlines[1], deadlines[2]), ranAt);
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    @DisplayName("Should run a timeout scheduled in the past on the next tick")
+    void scheduleAt_PastDeadline() {
+        // Arrange
+        List<String> ran = new ArrayList<>();
+        wheel.scheduleAt(() -> ran.add("late"), now.get() - 5_000);
+
+        // Act
+        int run = wheel.advanceTo(now.get());
+
+        // Assert
+        assertEquals(1, run);
+        assertEquals(List.of("late"), ran);
+    }
+}
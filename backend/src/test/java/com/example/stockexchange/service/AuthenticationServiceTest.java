@@ -4,6 +4,7 @@ import com.example.stockexchange.entity.Authority;
 import com.example.stockexchange.entity.User;
 import com.example.stockexchange.entity.UserCredintials;
 import com.example.stockexchange.exception.InvalidCredentialException;
+import com.example.stockexchange.exception.TooManyRequestsException;
 import com.example.stockexchange.repository.UserRepository;
 import com.example.stockexchange.request.AuthenticationRequest;
 import com.example.stockexchange.request.RegisterRequest;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -45,6 +47,9 @@ class AuthenticationServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Spy
+    private PasswordVerificationExecutor passwordVerificationExecutor = new PasswordVerificationExecutor(1, 4, 5000);
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -286,6 +291,21 @@ class AuthenticationServiceTest {
             verify(jwtService, never()).generateToken(any(), any());
         }
 
+        @Test
+        @DisplayName("Should surface a full verification pool instead of reporting bad credentials")
+        void login_VerificationPoolSaturated() {
+            // Arrange
+            doThrow(new TooManyRequestsException("Too many login attempts in progress, please retry shortly", 1))
+                    .when(passwordVerificationExecutor).verify(any());
+
+            // Act & Assert
+            assertThrows(TooManyRequestsException.class,
+                    () -> authenticationService.login(authenticationRequest));
+
+            verify(authenticationManager, never()).authenticate(any());
+            verify(jwtService, never()).generateToken(any(), any());
+        }
+
         @Test
         @DisplayName("Should throw exception when password is incorrect")
         void login_IncorrectPassword() {
@@ -0,0 +1,107 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.audit.AuditAwareImpl;
+import com.example.stockexchange.dto.ChangeDto;
+import com.example.stockexchange.dto.ChangeSetDto;
+import com.example.stockexchange.entity.ChangeOperation;
+import com.example.stockexchange.mapper.StockExchangeMapperImpl;
+import com.example.stockexchange.mapper.StockMapperImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two transactions append to the change log, the first one stalls between its insert and its
+ * commit. The second must commit without waiting for it, and a reader must not see past the first
+ * one's entry before it is committed: once it is, it comes after the cursor the reader holds.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@Import({ChangeLogService.class, ChangeLogSequencer.class,
+        StockMapperImpl.class, StockExchangeMapperImpl.class, AuditAwareImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Change Log Ordering Integration Tests")
+class ChangeLogOrderingIntegrationTest {
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private ChangeLogSequencer sequencer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService committers = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        committers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should commit appends independently and serve them in commit order")
+    void concurrentCommits_ServedInCommitOrder() throws Exception {
+        // Arrange
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch firstAppended = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        sequencer.sequencePending();
+        long head = changeLogService.getHeadSequence();
+
+        Future<?> first = committers.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            changeLogService.recordStockChange(1L, ChangeOperation.UPSERT);
+            // runs after the change log's own beforeCommit, with the entry inserted but not committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    firstAppended.countDown();
+                    awaitQuietly(releaseFirst);
+                }
+            });
+        }));
+        assertTrue(firstAppended.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Future<?> second = committers.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                changeLogService.recordStockChange(2L, ChangeOperation.UPSERT)));
+        second.get(5, TimeUnit.SECONDS);
+        sequencer.sequencePending();
+        ChangeSetDto whileFirstPending = changeLogService.getChangesSince(head, 100);
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        sequencer.sequencePending();
+        ChangeSetDto afterFirst = changeLogService.getChangesSince(whileFirstPending.getCursor(), 100);
+
+        // Assert
+        assertEquals(List.of(2L), whileFirstPending.getChanges().stream().map(ChangeDto::getEntityId).toList());
+        assertEquals(List.of(1L), afterFirst.getChanges().stream().map(ChangeDto::getEntityId).toList());
+        assertTrue(afterFirst.getCursor() > whileFirstPending.getCursor());
+        assertEquals(afterFirst.getCursor(), changeLogService.getHeadSequence());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
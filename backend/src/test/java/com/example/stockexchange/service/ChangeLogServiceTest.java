@@ -0,0 +1,181 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.dto.ChangeDto;
+import com.example.stockexchange.dto.ChangeSetDto;
+import com.example.stockexchange.dto.StockDto;
+import com.example.stockexchange.entity.ChangeEntityType;
+import com.example.stockexchange.entity.ChangeLogEntry;
+import com.example.stockexchange.entity.ChangeOperation;
+import com.example.stockexchange.entity.Stock;
+import com.example.stockexchange.mapper.StockExchangeMapper;
+import com.example.stockexchange.mapper.StockMapper;
+import com.example.stockexchange.repository.ChangeLogRepository;
+import com.example.stockexchange.repository.StockExchangeRepository;
+import com.example.stockexchange.repository.StockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChangeLogService Tests")
+class ChangeLogServiceTest {
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private StockExchangeRepository stockExchangeRepository;
+
+    @Mock
+    private StockMapper stockMapper;
+
+    @Mock
+    private StockExchangeMapper stockExchangeMapper;
+
+    @Mock
+    private ChangeLogSequencer sequencer;
+
+    private ChangeLogService changeLogService;
+
+    @BeforeEach
+    void setUp() {
+        changeLogService = new ChangeLogService(changeLogRepository, stockRepository, stockExchangeRepository,
+                stockMapper, stockExchangeMapper, sequencer);
+    }
+
+    private ChangeLogEntry entry(long sequence, ChangeEntityType type, ChangeOperation operation, Long entityId, Long relatedId) {
+        return new ChangeLogEntry(sequence, sequence, type, operation, entityId, relatedId, LocalDateTime.now());
+    }
+
+    @Nested
+    @DisplayName("Get Changes Since Tests")
+    class GetChangesSinceTests {
+
+        @Test
+        @DisplayName("Should return the since cursor when there are no changes")
+        void getChangesSince_NoChanges() {
+            // Arrange
+            when(changeLogRepository.findChangesSince(eq(42L), any(Pageable.class)))
+                    .thenReturn(new ArrayList<>());
+
+            // Act
+            ChangeSetDto result = changeLogService.getChangesSince(42L, 100);
+
+            // Assert
+            assertEquals(42L, result.getCursor());
+            assertFalse(result.isHasMore());
+            assertTrue(result.getChanges().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should keep only the latest change per row and attach the current stock")
+        void getChangesSince_CollapsesAndResolvesRows() {
+            // Arrange
+            Stock stock = new Stock();
+            stock.setStockId(1L);
+            stock.setCurrentPrice(new BigDecimal("10.00"));
+            StockDto stockDto = new StockDto(1L, "AAPL", "Apple", new BigDecimal("10.00"), null);
+
+            when(changeLogRepository.findChangesSince(eq(0L), any(Pageable.class)))
+                    .thenReturn(new ArrayList<>(List.of(
+                            entry(1, ChangeEntityType.STOCK, ChangeOperation.UPSERT, 1L, null),
+                            entry(2, ChangeEntityType.STOCK_LISTING, ChangeOperation.UPSERT, 5L, 1L),
+                            entry(3, ChangeEntityType.STOCK, ChangeOperation.UPSERT, 1L, null))));
+            when(stockRepository.findAllById(anySet())).thenReturn(List.of(stock));
+            when(stockMapper.map(stock)).thenReturn(stockDto);
+
+            // Act
+            ChangeSetDto result = changeLogService.getChangesSince(0L, 100);
+
+            // Assert
+            assertEquals(3L, result.getCursor());
+            assertEquals(2, result.getChanges().size());
+            ChangeDto listingChange = result.getChanges().get(0);
+            ChangeDto stockChange = result.getChanges().get(1);
+            assertEquals(ChangeEntityType.STOCK_LISTING, listingChange.getEntityType());
+            assertNull(listingChange.getData());
+            assertEquals(3L, stockChange.getSequence());
+            assertEquals(stockDto, stockChange.getData());
+            verifyNoInteractions(stockExchangeRepository);
+        }
+
+        @Test
+        @DisplayName("Should report more pages and advance the cursor to the last returned change")
+        void getChangesSince_HasMore() {
+            // Arrange
+            when(changeLogRepository.findChangesSince(eq(0L), any(Pageable.class)))
+                    .thenReturn(new ArrayList<>(List.of(
+                            entry(1, ChangeEntityType.STOCK, ChangeOperation.DELETE, 1L, null),
+                            entry(2, ChangeEntityType.STOCK, ChangeOperation.DELETE, 2L, null),
+                            entry(3, ChangeEntityType.STOCK, ChangeOperation.DELETE, 3L, null))));
+
+            // Act
+            ChangeSetDto result = changeLogService.getChangesSince(0L, 2);
+
+            // Assert
+            assertTrue(result.isHasMore());
+            assertEquals(2L, result.getCursor());
+            assertEquals(2, result.getChanges().size());
+            verifyNoInteractions(stockRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Record Change Tests")
+    class RecordChangeTests {
+
+        @AfterEach
+        void tearDown() {
+            TransactionSynchronizationManager.clear();
+            TransactionSynchronizationManager.unbindResourceIfPossible(changeLogService);
+        }
+
+        @Test
+        @DisplayName("Should append once per row at commit and wake the sequencer once committed")
+        void recordStockChange_AppendsAtCommit() {
+            // Arrange
+            TransactionSynchronizationManager.initSynchronization();
+            changeLogService.recordStockChange(7L, ChangeOperation.UPSERT);
+            changeLogService.recordStockChange(7L, ChangeOperation.DELETE);
+            verifyNoInteractions(changeLogRepository);
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+            verifyNoInteractions(sequencer);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            verify(changeLogRepository).insertAll(argThat(entries -> {
+                ChangeLogEntry entry = entries.iterator().next();
+                return entries.size() == 1
+                        && entry.getEntityId() == 7L
+                        && entry.getOperation() == ChangeOperation.DELETE
+                        && entry.getChangedAt() != null;
+            }));
+            verifyNoMoreInteractions(changeLogRepository);
+            verify(sequencer).wake();
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.example.stockexchange.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,9 +20,17 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.net.InetSocketAddress;
+import java.security.Key;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,14 +43,15 @@ class JwtServiceTest {
 
     private static final String TEST_SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
     private static final long TEST_EXPIRATION = 3600000;
+    private static final long TEST_ROTATION_PERIOD = 86400000;
+
+    private static JwtService newJwtService(String secret, long expiration) {
+        return new JwtService(new JwtKeyRing(secret, expiration, TEST_ROTATION_PERIOD), expiration);
+    }
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService();
-
-
-        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", TEST_SECRET);
-        ReflectionTestUtils.setField(jwtService, "JWT_EXPIRATION", TEST_EXPIRATION);
+        jwtService = newJwtService(TEST_SECRET, TEST_EXPIRATION);
 
         Collection<GrantedAuthority> authorities = List.of(
                 new SimpleGrantedAuthority("ROLE_USER"),
@@ -217,10 +234,8 @@ class JwtServiceTest {
         @DisplayName("Should throw exception for token with invalid signature")
         void extractUsername_InvalidSignature() {
             // Arrange
-            JwtService anotherJwtService = new JwtService();
-            ReflectionTestUtils.setField(anotherJwtService, "SECRET_KEY",
-                    "differentSecretKey123456789012345678901234567890123456789012");
-            ReflectionTestUtils.setField(anotherJwtService, "JWT_EXPIRATION", TEST_EXPIRATION);
+            JwtService anotherJwtService = newJwtService(
+                    "differentSecretKey123456789012345678901234567890123456789012", TEST_EXPIRATION);
 
             String tokenWithDifferentKey = anotherJwtService.generateToken(new HashMap<>(), userDetails);
 
@@ -245,6 +260,18 @@ class JwtServiceTest {
             assertTrue(isValid);
         }
 
+        @Test
+        @DisplayName("Should validate claims parsed once for the username and the check")
+        void isTokenValid_ParsedClaims() {
+            // Act
+            Claims claims = jwtService.extractAllClaims(validToken);
+            boolean isValid = jwtService.isTokenValid(claims, userDetails);
+
+            // Assert
+            assertEquals(userDetails.getUsername(), claims.getSubject());
+            assertTrue(isValid);
+        }
+
         @Test
         @DisplayName("Should invalidate token for wrong user")
         void isTokenValid_WrongUser() {
@@ -266,9 +293,7 @@ class JwtServiceTest {
         @DisplayName("Should throw exception when extracting from expired token")
         void isTokenValid_ExpiredTokenThrowsException() {
             // Arrange
-            JwtService shortExpirationService = new JwtService();
-            ReflectionTestUtils.setField(shortExpirationService, "SECRET_KEY", TEST_SECRET);
-            ReflectionTestUtils.setField(shortExpirationService, "JWT_EXPIRATION", 1L); // 1ms expiration
+            JwtService shortExpirationService = newJwtService(TEST_SECRET, 1L); // 1ms expiration
 
             String expiredToken = shortExpirationService.generateToken(new HashMap<>(), userDetails);
 
@@ -444,4 +469,235 @@ class JwtServiceTest {
             assertFalse(isValid);
         }
     }
+
+    @Nested
+    @DisplayName("Key Ring Tests")
+    class KeyRingTests {
+
+        @Test
+        @DisplayName("Should put the signing key id in the token header")
+        void generateToken_IncludesKeyId() {
+            // Act
+            String header = new String(Base64.getUrlDecoder().decode(validToken.split("\\.")[0]));
+
+            // Assert
+            assertTrue(header.contains("\"kid\":\"hs-"));
+        }
+
+        @Test
+        @DisplayName("Should still accept tokens issued without a key id")
+        void extractUsername_LegacyTokenWithoutKeyId() {
+            // Arrange
+            String legacyToken = Jwts.builder()
+                    .subject(userDetails.getUsername())
+                    .issuedAt(new Date())
+                    .expiration(new Date(System.currentTimeMillis() + TEST_EXPIRATION))
+                    .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(TEST_SECRET)), Jwts.SIG.HS256)
+                    .compact();
+
+            // Act & Assert
+            assertEquals(userDetails.getUsername(), jwtService.extractUsername(legacyToken));
+        }
+
+        @Test
+        @DisplayName("Should verify tokens signed before a key rotation")
+        void isTokenValid_AfterRotation() throws InterruptedException {
+            // Arrange
+            JwtService rotatingService = new JwtService(new JwtKeyRing(TEST_SECRET, TEST_EXPIRATION, 20), TEST_EXPIRATION);
+            String oldToken = rotatingService.generateToken(new HashMap<>(), userDetails);
+
+            // Act
+            Thread.sleep(60);
+            String newToken = rotatingService.generateToken(new HashMap<>(), userDetails);
+
+            // Assert
+            assertNotEquals(oldToken.split("\\.")[0], newToken.split("\\.")[0]);
+            assertTrue(rotatingService.isTokenValid(oldToken, userDetails));
+            assertTrue(rotatingService.isTokenValid(newToken, userDetails));
+        }
+
+        @Test
+        @DisplayName("Should reject tokens whose key id is not in the ring")
+        void extractUsername_UnknownKeyId() {
+            // Arrange
+            String foreignToken = Jwts.builder()
+                    .header().keyId("hs-1").and()
+                    .subject(userDetails.getUsername())
+                    .expiration(new Date(System.currentTimeMillis() + TEST_EXPIRATION))
+                    .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(TEST_SECRET)), Jwts.SIG.HS256)
+                    .compact();
+
+            // Act & Assert
+            assertThrows(SignatureException.class, () -> jwtService.extractUsername(foreignToken));
+        }
+    }
+
+    @Nested
+    @DisplayName("Asymmetric Signing Tests")
+    class AsymmetricSigningTests {
+
+        private JwtKeyRing asymmetricKeyRing(String algorithm) {
+            return new JwtKeyRing("", TEST_EXPIRATION, TEST_ROTATION_PERIOD, algorithm, "", "", "", 300000, true);
+        }
+
+        @Test
+        @DisplayName("Should sign and verify tokens with ES256 and EdDSA")
+        void generateToken_AsymmetricAlgorithms() throws Exception {
+            for (String algorithm : List.of("ES256", "EdDSA")) {
+                // Arrange
+                JwtKeyRing keyRing = asymmetricKeyRing(algorithm);
+                JwtService asymmetricService = new JwtService(keyRing, TEST_EXPIRATION);
+
+                // Act
+                String token = asymmetricService.generateToken(new HashMap<>(), userDetails);
+                String header = new String(Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+
+                // Assert: the kid is the published key's RFC 7638 thumbprint, not a rotation epoch
+                assertTrue(header.contains("\"alg\":\"" + algorithm + "\""));
+                assertTrue(asymmetricService.isTokenValid(token, userDetails));
+                Object kid = new ObjectMapper().readValue(header, Map.class).get("kid");
+                Map<?, ?> published = ((List<?>) keyRing.publicJwks().get("keys")).stream()
+                        .map(key -> (Map<?, ?>) key)
+                        .filter(key -> kid.equals(key.get("kid")))
+                        .findFirst()
+                        .orElseThrow();
+                @SuppressWarnings("unchecked")
+                Jwk<?> jwk = Jwks.builder().add((Map<String, Object>) published).build();
+                assertEquals(jwk.thumbprint().toString(), kid);
+            }
+        }
+
+        @Test
+        @DisplayName("Should publish public keys as JWKS only in asymmetric mode")
+        void publicJwks_OnlyForAsymmetricKeys() {
+            // Act
+            Map<String, Object> hmacJwks = new JwtKeyRing(TEST_SECRET, TEST_EXPIRATION, TEST_ROTATION_PERIOD).publicJwks();
+            Map<String, Object> ecJwks = asymmetricKeyRing("ES256").publicJwks();
+
+            // Assert
+            assertEquals(List.of(), hmacJwks.get("keys"));
+            List<?> keys = (List<?>) ecJwks.get("keys");
+            assertFalse(keys.isEmpty());
+            keys.forEach(key -> assertFalse(((Map<?, ?>) key).containsKey("d"))); // no private part
+        }
+
+        @Test
+        @DisplayName("Should verify tokens with keys read from a published JWKS")
+        void remoteJwkSet_VerifiesSignerTokens() throws Exception {
+            // Arrange
+            JwtKeyRing signerRing = asymmetricKeyRing("EdDSA");
+            JwtService signer = new JwtService(signerRing, TEST_EXPIRATION);
+            String token = signer.generateToken(new HashMap<>(), userDetails);
+            String json = new ObjectMapper().writeValueAsString(signerRing.publicJwks());
+
+            // Act
+            Map<String, Key> keys = RemoteJwkSet.parse(json);
+            String username = Jwts.parser()
+                    .keyLocator(header -> keys.get(((JwsHeader) header).getKeyId()))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload()
+                    .getSubject();
+
+            // Assert
+            assertEquals(userDetails.getUsername(), username);
+        }
+
+        @Test
+        @DisplayName("Should fetch the JWKS once for concurrent unknown kids, and refresh without blocking")
+        void remoteJwkSet_SingleFlightFetch() throws Exception {
+            // Arrange: a signing node that answers slowly and counts its fetches
+            JwtKeyRing signerRing = asymmetricKeyRing("ES256");
+            String token = new JwtService(signerRing, TEST_EXPIRATION).generateToken(new HashMap<>(), userDetails);
+            byte[] json = new ObjectMapper().writeValueAsBytes(signerRing.publicJwks());
+            AtomicInteger fetches = new AtomicInteger();
+            CountDownLatch release = new CountDownLatch(1);
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/.well-known/jwks.json", exchange -> {
+                fetches.incrementAndGet();
+                try {
+                    release.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.sendResponseHeaders(200, json.length);
+                exchange.getResponseBody().write(json);
+                exchange.close();
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            ExecutorService requests = Executors.newFixedThreadPool(8);
+            try {
+                String uri = "http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json";
+                String kid = signerRing.signingKey().kid();
+
+                // Act: the constructor's fetch is in flight, eight requests with its kid arrive
+                RemoteJwkSet remote = new RemoteJwkSet(uri, 0);
+                List<Future<Key>> lookups = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    lookups.add(requests.submit(() -> remote.get(kid)));
+                }
+                long started = System.nanoTime();
+                remote.refreshIfStale();
+                long refreshMillis = (System.nanoTime() - started) / 1_000_000;
+                release.countDown();
+
+                // Assert
+                for (Future<Key> lookup : lookups) {
+                    assertNotNull(lookup.get(5, TimeUnit.SECONDS));
+                }
+                assertEquals(1, fetches.get());
+                assertTrue(refreshMillis < 500, "a stale refresh must not wait for the fetch");
+                assertEquals(userDetails.getUsername(), Jwts.parser()
+                        .keyLocator(header -> remote.get(((JwsHeader) header).getKeyId()))
+                        .build()
+                        .parseSignedClaims(token)
+                        .getPayload()
+                        .getSubject());
+            } finally {
+                requests.shutdownNow();
+                server.stop(0);
+            }
+        }
+
+        @Test
+        @DisplayName("Should refuse to sign on verify-only nodes")
+        void generateToken_VerifyOnlyNode() {
+            // Arrange
+            JwtService verifier = new JwtService(new JwtKeyRing("", TEST_EXPIRATION, TEST_ROTATION_PERIOD,
+                    "ES256", "", "", "http://localhost:1/.well-known/jwks.json", 300000, false), TEST_EXPIRATION);
+
+            // Act & Assert
+            assertThrows(IllegalStateException.class, () -> verifier.generateToken(new HashMap<>(), userDetails));
+        }
+
+        @Test
+        @DisplayName("Should refuse to sign ES256 without a configured key pair unless generated keys are allowed")
+        void keyRing_RequiresConfiguredKeyPair() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> new JwtKeyRing("", TEST_EXPIRATION,
+                    TEST_ROTATION_PERIOD, "ES256", "", "", "", 300000, false));
+            assertDoesNotThrow(() -> asymmetricKeyRing("ES256"));
+        }
+
+        @Test
+        @DisplayName("Should describe the principal from the token alone on verify-only nodes")
+        void userDetailsFrom_Claims() {
+            // Arrange
+            JwtService verifier = new JwtService(new JwtKeyRing("", TEST_EXPIRATION, TEST_ROTATION_PERIOD,
+                    "ES256", "", "", "http://localhost:1/.well-known/jwks.json", 300000, false), TEST_EXPIRATION);
+            Claims claims = jwtService.extractAllClaims(validToken);
+
+            // Act
+            UserDetails principal = verifier.userDetailsFrom(claims);
+
+            // Assert
+            assertTrue(verifier.isVerifyOnly());
+            assertFalse(jwtService.isVerifyOnly());
+            assertEquals("testuser@example.com", principal.getUsername());
+            assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), principal.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toSet()));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.datasource.ReadYourWrites;
+import com.example.stockexchange.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ListingMutationScheduler Tests")
+class ListingMutationSchedulerTest {
+
+    private final StockExchangeService stockExchangeService = mock(StockExchangeService.class);
+    private ListingMutationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(stockExchangeService.stockExchangeExists(1L)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should merge mutations queued behind a running batch into one batch")
+    void submit_MergesQueuedMutations() throws Exception {
+        // Arrange
+        scheduler = new ListingMutationScheduler(stockExchangeService, 2, 100, 1000, 5000);
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<ListingMutation> batch = invocation.getArgument(1);
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            if (batchSizes.size() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await(5, TimeUnit.SECONDS);
+            }
+            batch.forEach(mutation -> mutation.succeed(List.of()));
+            return null;
+        }).when(stockExchangeService).applyListingMutations(eq(1L), anyList());
+
+        // Act
+        CompletableFuture<?> first = scheduler.submit(1L, new ListingMutation(ListingMutation.Type.ADD, List.of(1L)));
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<?>> queued = new ArrayList<>();
+        for (long stockId = 2; stockId <= 4; stockId++) {
+            queued.add(scheduler.submit(1L, new ListingMutation(ListingMutation.Type.ADD, List.of(stockId))));
+        }
+        releaseFirstBatch.countDown();
+
+        // Assert
+        first.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<?> future : queued) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of(1, 3), batchSizes);
+    }
+
+    @Test
+    @DisplayName("Should rethrow the mutation's own exception to the caller")
+    void removeStocks_RethrowsFailure() {
+        // Arrange
+        scheduler = new ListingMutationScheduler(stockExchangeService, 1, 100, 1000, 5000);
+        doAnswer(invocation -> {
+            List<ListingMutation> batch = invocation.getArgument(1);
+            batch.forEach(mutation -> mutation.fail(new ResourceNotFoundException("not listed")));
+            return null;
+        }).when(stockExchangeService).applyListingMutations(eq(1L), anyList());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> scheduler.removeStocks(1L, List.of(5L)));
+    }
+
+    @Test
+    @DisplayName("Should refuse mutations of an unknown exchange without opening a lane for it")
+    void submit_UnknownExchange() {
+        // Arrange
+        scheduler = new ListingMutationScheduler(stockExchangeService, 1, 100, 1000, 5000);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> scheduler.addStocks(99L, List.of(1L)));
+        assertEquals(0, scheduler.activeLanes());
+        verify(stockExchangeService, never()).applyListingMutations(eq(99L), anyList());
+    }
+
+    @Test
+    @DisplayName("Should retire a lane once it is drained")
+    void drain_RetiresIdleLane() throws Exception {
+        // Arrange
+        scheduler = new ListingMutationScheduler(stockExchangeService, 1, 100, 1000, 5000);
+        doAnswer(invocation -> {
+            List<ListingMutation> batch = invocation.getArgument(1);
+            batch.forEach(mutation -> mutation.succeed(List.of()));
+            return null;
+        }).when(stockExchangeService).applyListingMutations(eq(1L), anyList());
+
+        // Act
+        scheduler.addStocks(1L, List.of(1L));
+
+        // Assert: the worker retires the lane right after completing the batch
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.activeLanes() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, scheduler.activeLanes());
+    }
+
+    @Test
+    @DisplayName("Should answer 503 when the batch does not complete in time")
+    void addStocks_Timeout() {
+        // Arrange
+        scheduler = new ListingMutationScheduler(stockExchangeService, 1, 100, 1000, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            List<ListingMutation> batch = invocation.getArgument(1);
+            batch.forEach(mutation -> mutation.succeed(List.of()));
+            return null;
+        }).when(stockExchangeService).applyListingMutations(eq(1L), anyList());
+
+        // Act
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> scheduler.addStocks(1L, List.of(1L)));
+        release.countDown();
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should apply each batch as its submitter, pinned like the request that queued it")
+    void drain_RunsAsSubmitter() throws Exception {
+        // Arrange: a first batch holds the lane while changes of two users queue up behind it
+        scheduler = new ListingMutationScheduler(stockExchangeService, 1, 100, 1000, 5000);
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<String> batches = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<ListingMutation> batch = invocation.getArgument(1);
+            var authentication = SecurityContextHolder.getContext().getAuthentication();
+            synchronized (batches) {
+                batches.add((authentication == null ? "anonymous" : authentication.getName())
+                        + " x" + batch.size() + (ReadYourWrites.isPinnedToPrimary() ? " pinned" : ""));
+            }
+            if (batches.size() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await(5, TimeUnit.SECONDS);
+            }
+            batch.forEach(mutation -> mutation.succeed(List.of()));
+            return null;
+        }).when(stockExchangeService).applyListingMutations(eq(1L), anyList());
+
+        // Act
+        CompletableFuture<?> first = scheduler.submit(1L, new ListingMutation(ListingMutation.Type.ADD, List.of(1L)));
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<?>> queued = new ArrayList<>();
+        try {
+            SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null));
+            ReadYourWrites.pinToPrimary();
+            queued.add(scheduler.submit(1L, new ListingMutation(ListingMutation.Type.ADD, List.of(2L))));
+            queued.add(scheduler.submit(1L, new ListingMutation(ListingMutation.Type.ADD, List.of(3L))));
+            ReadYourWrites.unpin();
+            SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("bob", null));
+            queued.add(scheduler.submit(1L, new ListingMutation(ListingMutation.Type.ADD, List.of(4L))));
+        } finally {
+            ReadYourWrites.unpin();
+            SecurityContextHolder.clearContext();
+        }
+        releaseFirstBatch.countDown();
+
+        // Assert
+        first.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<?> future : queued) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of("anonymous x1", "alice x2 pinned", "bob x1"), batches);
+    }
+
+    @Test
+    @DisplayName("Should fail the batch and retire the lane when applying it throws an Error")
+    void drain_ErrorRetiresLane() throws Exception {
+        // Arrange
+        scheduler = new ListingMutationScheduler(stockExchangeService, 1, 100, 1000, 5000);
+        doThrow(new NoClassDefFoundError("broken"))
+                .doAnswer(invocation -> {
+                    List<ListingMutation> batch = invocation.getArgument(1);
+                    batch.forEach(mutation -> mutation.succeed(List.of()));
+                    return null;
+                })
+                .when(stockExchangeService).applyListingMutations(eq(1L), anyList());
+
+        // Act
+        CompletableFuture<?> failed = scheduler.submit(1L, new ListingMutation(ListingMutation.Type.ADD, List.of(1L)));
+
+        // Assert: the caller is released at once, and the next change gets a working lane
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(NoClassDefFoundError.class, exception.getCause());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.activeLanes() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, scheduler.activeLanes());
+        assertDoesNotThrow(() -> scheduler.addStocks(1L, List.of(2L)));
+    }
+}
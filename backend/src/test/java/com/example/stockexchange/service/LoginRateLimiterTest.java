@@ -0,0 +1,54 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.exception.TooManyRequestsException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LoginRateLimiter Tests")
+class LoginRateLimiterTest {
+
+    @Test
+    @DisplayName("Should reject an account once its bucket is empty, whatever the source IP")
+    void acquire_AccountBucketExhausted() {
+        // Arrange
+        LoginRateLimiter limiter = new LoginRateLimiter(100, 100, 2, 1, 1000);
+        limiter.acquire("john.doe@example.com", "10.0.0.1");
+        limiter.acquire("John.Doe@example.com ", "10.0.0.2");
+
+        // Act & Assert
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire("john.doe@example.com", "10.0.0.3"));
+        assertTrue(exception.getRetryAfterSeconds() >= 1);
+        assertDoesNotThrow(() -> limiter.acquire("jane.doe@example.com", "10.0.0.3"));
+    }
+
+    @Test
+    @DisplayName("Should reject an IP once its bucket is empty, whatever the account")
+    void acquire_IpBucketExhausted() {
+        // Arrange
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 1, 100, 100, 1000);
+        limiter.acquire("a@example.com", "10.0.0.1");
+        limiter.acquire("b@example.com", "10.0.0.1");
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("c@example.com", "10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.acquire("c@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Should give new keys a bucket of their own once the tracked keys are at the cap")
+    void acquire_NewKeysPastCap() {
+        // Arrange: a sprayer empties its bucket, the cap is one key
+        LoginRateLimiter limiter = new LoginRateLimiter(1, 1, 100, 100, 1);
+        limiter.acquire("a@example.com", "10.0.0.1");
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("a@example.com", "10.0.0.1"));
+
+        // Act & Assert
+        for (int i = 2; i < 50; i++) {
+            String ip = "10.0.0." + i;
+            assertDoesNotThrow(() -> limiter.acquire("a" + ip + "@example.com", ip));
+        }
+    }
+}
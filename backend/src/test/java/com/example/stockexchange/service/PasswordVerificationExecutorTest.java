@@ -0,0 +1,71 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PasswordVerificationExecutor Tests")
+class PasswordVerificationExecutorTest {
+
+    private final PasswordVerificationExecutor executor = new PasswordVerificationExecutor(1, 1, 200);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        executor.shutdown();
+    }
+
+    // occupies the only hashing thread until released, its own caller times out meanwhile
+    private void blockThePool() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        callers.submit(() -> executor.verify(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should refuse a login at once when every thread is busy and the queue is full")
+    void verify_Saturated() throws Exception {
+        // Arrange
+        blockThePool();
+        callers.submit(() -> executor.verify(() -> true));
+        Thread.sleep(50);
+
+        // Act
+        long started = System.nanoTime();
+        assertThrows(TooManyRequestsException.class, () -> executor.verify(() -> true));
+
+        // Assert: rejected without waiting for the timeout
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 100);
+    }
+
+    @Test
+    @DisplayName("Should skip a queued verification whose caller already gave up")
+    void verify_TimedOutWhileQueued() throws Exception {
+        // Arrange
+        blockThePool();
+        AtomicBoolean hashed = new AtomicBoolean();
+
+        // Act
+        assertThrows(TooManyRequestsException.class, () -> executor.verify(() -> hashed.getAndSet(true)));
+        release.countDown();
+
+        // Assert: the pool is free again and never ran the abandoned verification
+        assertTrue(executor.verify(() -> true));
+        assertFalse(hashed.get());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.dto.PortfolioDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PortfolioValuations Tests")
+class PortfolioValuationsTest {
+
+    @Test
+    @DisplayName("Should move market value and P&L by quantity times the price change")
+    void tick_RevaluesIncrementally() {
+        // Arrange
+        PortfolioValuations valuations = new PortfolioValuations();
+        valuations.put("alice@example.com", 1, 10, new BigDecimal("100"), new BigDecimal("100"));
+        valuations.put("alice@example.com", 2, 5, new BigDecimal("20"), new BigDecimal("25"));
+
+        // Act
+        List<String> changed = valuations.tick(1, new BigDecimal("103.5"));
+
+        // Assert
+        PortfolioDto portfolio = valuations.valuation("alice@example.com");
+        assertEquals(List.of("alice@example.com"), changed);
+        assertEquals(0, new BigDecimal("1160").compareTo(portfolio.getMarketValue()));
+        assertEquals(0, new BigDecimal("1100").compareTo(portfolio.getCostBasis()));
+        assertEquals(0, new BigDecimal("60").compareTo(portfolio.getProfitAndLoss()));
+        assertEquals(0, new BigDecimal("35").compareTo(portfolio.getHoldings().get(0).getProfitAndLoss()));
+    }
+
+    @Test
+    @DisplayName("Should only revalue the portfolios holding the ticked stock")
+    void tick_HoldersOnly() {
+        // Arrange
+        PortfolioValuations valuations = new PortfolioValuations();
+        valuations.put("alice@example.com", 1, 10, BigDecimal.ONE, BigDecimal.ONE);
+        valuations.put("bob@example.com", 2, 10, BigDecimal.ONE, BigDecimal.ONE);
+        long bobRevision = valuations.valuation("bob@example.com").getRevision();
+
+        // Act
+        List<String> changed = valuations.tick(1, BigDecimal.TEN);
+        List<String> unchanged = valuations.tick(1, BigDecimal.TEN);
+
+        // Assert
+        assertEquals(List.of("alice@example.com"), changed);
+        assertTrue(unchanged.isEmpty(), "the same price again changes nothing");
+        assertEquals(bobRevision, valuations.valuation("bob@example.com").getRevision());
+    }
+
+    @Test
+    @DisplayName("Should value a new position at the last ticked price, not the one the caller read")
+    void put_UsesLastTickedPrice() {
+        // Arrange
+        PortfolioValuations valuations = new PortfolioValuations();
+        valuations.tick(1, new BigDecimal("50"));
+
+        // Act
+        valuations.put("alice@example.com", 1, 2, new BigDecimal("40"), new BigDecimal("45"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("100").compareTo(valuations.valuation("alice@example.com").getMarketValue()));
+    }
+
+    @Test
+    @DisplayName("Should drop closed positions and deleted stocks from the totals")
+    void remove_UpdatesTotals() {
+        // Arrange
+        PortfolioValuations valuations = new PortfolioValuations();
+        valuations.put("alice@example.com", 1, 10, BigDecimal.ONE, new BigDecimal("2"));
+        valuations.put("alice@example.com", 2, 10, BigDecimal.ONE, new BigDecimal("3"));
+        valuations.put("bob@example.com", 2, 1, BigDecimal.ONE, new BigDecimal("3"));
+
+        // Act
+        valuations.put("alice@example.com", 1, 0, BigDecimal.ZERO, new BigDecimal("2"));
+        List<String> affected = valuations.removeStock(2);
+
+        // Assert
+        assertEquals(2, affected.size());
+        assertEquals(0, BigDecimal.ZERO.compareTo(valuations.valuation("alice@example.com").getMarketValue()));
+        assertTrue(valuations.valuation("bob@example.com").getHoldings().isEmpty());
+        assertTrue(valuations.tick(1, BigDecimal.TEN).isEmpty(), "a closed position is out of the reverse index");
+    }
+}
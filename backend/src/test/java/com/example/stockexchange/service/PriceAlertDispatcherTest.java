@@ -0,0 +1,100 @@
+package com.example.stockexchange.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceAlertDispatcher Tests")
+class PriceAlertDispatcherTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PriceAlertDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new PriceAlertDispatcher(jdbcTemplate, transactionManager, eventPublisher, meterRegistry,
+                100, 500, 10, 3, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ParameterizedPreparedStatementSetter<Object> anySetter() {
+        return any(ParameterizedPreparedStatementSetter.class);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch and announce its alerts once it commits")
+    void dispatch_RetriesFailedBatch() {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), anySetter()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(new int[][]{{1, 1}});
+
+        // Act
+        dispatcher.dispatch(7L, new BigDecimal("101.00"), new long[]{1L, 2L});
+
+        // Assert
+        verify(eventPublisher, timeout(5_000).times(2)).publishEvent(any(PriceAlertTriggeredEvent.class));
+        verify(transactionManager).rollback(any());
+        assertEquals(0, dispatcher.lostCount());
+        assertEquals(2, meterRegistry.counter("stockexchange.alerts.fired").count());
+    }
+
+    @Test
+    @DisplayName("Should count a batch as dropped once every attempt failed")
+    void dispatch_GivesUpAfterRetries() {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), anySetter()))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+
+        // Act
+        dispatcher.dispatch(7L, new BigDecimal("101.00"), new long[]{1L, 2L, 3L});
+
+        // Assert
+        verify(transactionManager, timeout(5_000).times(3)).rollback(any());
+        verify(eventPublisher, never()).publishEvent(any());
+        await(() -> dispatcher.lostCount() == 3);
+        assertEquals(3, meterRegistry.counter("stockexchange.alerts.dropped").count());
+    }
+
+    // the drop is counted right after the last rollback, on the worker thread
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.entity.AlertDirection;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PriceAlertIndex Tests")
+class PriceAlertIndexTest {
+
+    @Test
+    @DisplayName("Should fire exactly the alerts a price move crosses, once")
+    void cross_FiresCrossedOnly() {
+        // Arrange
+        PriceAlertIndex index = new PriceAlertIndex();
+        index.add(1, 7, AlertDirection.ABOVE, new BigDecimal("110"), new BigDecimal("100"));
+        index.add(2, 7, AlertDirection.ABOVE, new BigDecimal("105"), new BigDecimal("100"));
+        index.add(3, 7, AlertDirection.ABOVE, new BigDecimal("120"), new BigDecimal("100"));
+        index.add(4, 7, AlertDirection.BELOW, new BigDecimal("95"), new BigDecimal("100"));
+        index.add(5, 7, AlertDirection.BELOW, new BigDecimal("90"), new BigDecimal("100"));
+
+        // Act
+        long[] up = index.cross(7, new BigDecimal("110.0000"));
+        long[] again = index.cross(7, new BigDecimal("111"));
+        long[] down = index.cross(7, new BigDecimal("94.9999"));
+
+        // Assert, a threshold the price lands on counts as crossed
+        assertArrayEquals(new long[]{1, 2}, sorted(up));
+        assertEquals(0, again.length);
+        assertArrayEquals(new long[]{4}, down);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should refuse an alert the last seen price has already crossed")
+    void add_AlreadyCrossed() {
+        // Arrange
+        PriceAlertIndex index = new PriceAlertIndex();
+        index.add(1, 7, AlertDirection.BELOW, new BigDecimal("50"), new BigDecimal("100"));
+        index.cross(7, new BigDecimal("80"));
+
+        // Act & Assert, the book's price wins over the one the caller read
+        assertFalse(index.add(2, 7, AlertDirection.ABOVE, new BigDecimal("75"), new BigDecimal("70")));
+        assertTrue(index.add(3, 7, AlertDirection.ABOVE, new BigDecimal("85"), new BigDecimal("70")));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should cancel one alert among several on the same threshold")
+    void remove_SameThreshold() {
+        // Arrange
+        PriceAlertIndex index = new PriceAlertIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.add(id, 7, AlertDirection.ABOVE, new BigDecimal("110"), new BigDecimal("100"));
+        }
+
+        // Act
+        boolean removed = index.remove(3, 7, AlertDirection.ABOVE, new BigDecimal("110"));
+        boolean removedTwice = index.remove(3, 7, AlertDirection.ABOVE, new BigDecimal("110"));
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(removedTwice);
+        assertArrayEquals(new long[]{1, 2, 4, 5}, sorted(index.cross(7, new BigDecimal("110"))));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("Should match a large book the same way a linear scan does")
+    void cross_MatchesLinearScan() {
+        // Arrange
+        PriceAlertIndex index = new PriceAlertIndex();
+        int alerts = 10_000;
+        for (int i = 0; i < alerts; i++) {
+            // thresholds 50.00 .. 149.99, above and below the starting price of 100
+            BigDecimal threshold = BigDecimal.valueOf(5000 + (i * 7919L) % 10_000, 2);
+            AlertDirection direction = threshold.compareTo(BigDecimal.valueOf(100)) > 0
+                    ? AlertDirection.ABOVE : AlertDirection.BELOW;
+            assertTrue(index.add(i, 7, direction, threshold, BigDecimal.valueOf(100.005)));
+        }
+
+        // Act
+        long[] up = index.cross(7, new BigDecimal("125.50"));
+        long[] down = index.cross(7, new BigDecimal("60.25"));
+
+        // Assert
+        long expectedUp = 0;
+        long expectedDown = 0;
+        for (int i = 0; i < alerts; i++) {
+            long cents = 5000 + (i * 7919L) % 10_000;
+            if (cents > 10_000 && cents <= 12_550) {
+                expectedUp++;
+            } else if (cents <= 10_000 && cents >= 6025) {
+                expectedDown++;
+            }
+        }
+        assertEquals(expectedUp, up.length);
+        assertEquals(expectedDown, down.length);
+        assertEquals(alerts - expectedUp - expectedDown, index.size());
+    }
+
+    @Test
+    @DisplayName("Should forget every alert of a deleted stock")
+    void removeStock_DropsBook() {
+        // Arrange
+        PriceAlertIndex index = new PriceAlertIndex();
+        index.add(1, 7, AlertDirection.ABOVE, new BigDecimal("110"), new BigDecimal("100"));
+        index.add(2, 8, AlertDirection.ABOVE, new BigDecimal("110"), new BigDecimal("100"));
+
+        // Act
+        index.removeStock(7);
+
+        // Assert
+        assertEquals(1, index.size());
+        assertEquals(0, index.cross(7, new BigDecimal("200")).length);
+        assertArrayEquals(new long[]{2}, index.cross(8, new BigDecimal("200")));
+    }
+
+    @Test
+    @DisplayName("Should behave the same after a round trip through a snapshot")
+    void writeTo_ReadFrom_RoundTrip() throws Exception {
+        // Arrange
+        PriceAlertIndex index = new PriceAlertIndex();
+        index.add(1, 7, AlertDirection.ABOVE, new BigDecimal("110"), new BigDecimal("100"));
+        index.add(2, 7, AlertDirection.BELOW, new BigDecimal("90"), new BigDecimal("100"));
+        index.add(3, 8, AlertDirection.ABOVE, new BigDecimal("12.5"), new BigDecimal("10"));
+        index.cross(7, new BigDecimal("105"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // Act
+        index.writeTo(new DataOutputStream(bytes));
+        PriceAlertIndex restored = new PriceAlertIndex();
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Assert, the last seen price (105) comes along and wins over the one the caller read
+        assertEquals(3, restored.size());
+        assertFalse(restored.add(4, 7, AlertDirection.BELOW, new BigDecimal("106"), new BigDecimal("110")));
+        assertArrayEquals(new long[]{1}, restored.cross(7, new BigDecimal("110")));
+        assertArrayEquals(new long[]{3}, restored.cross(8, new BigDecimal("13")));
+        assertEquals(1, restored.size());
+    }
+
+    private static long[] sorted(long[] ids) {
+        long[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
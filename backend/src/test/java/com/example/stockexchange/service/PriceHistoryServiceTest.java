@@ -0,0 +1,109 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.dto.StockDto;
+import com.example.stockexchange.entity.StockPricePeriod;
+import com.example.stockexchange.mapper.StockMapper;
+import com.example.stockexchange.repository.StockPricePeriodRepository;
+import com.example.stockexchange.repository.StockRepository;
+import com.example.stockexchange.tickstore.TickStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceHistoryService Tests")
+class PriceHistoryServiceTest {
+
+    @Mock
+    private TickStore tickStore;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private StockPricePeriodRepository stockPricePeriodRepository;
+
+    @Mock
+    private StockMapper stockMapper;
+
+    private PriceHistoryService priceHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        priceHistoryService = new PriceHistoryService(tickStore, stockRepository, stockPricePeriodRepository,
+                stockMapper, 100);
+    }
+
+    @Test
+    @DisplayName("Should append the price in units of the column scale")
+    void onPriceChange_AppendsUnits() {
+        // Act
+        priceHistoryService.onPriceChange(new StockPriceChangedEvent(7L, new BigDecimal("12.34567")));
+
+        // Assert
+        verify(tickStore).append(eq(7L), anyLong(), eq(123457L));
+    }
+
+    @Test
+    @DisplayName("Should skip a price too large for the tick store instead of throwing")
+    void onPriceChange_OutOfRange() {
+        // Arrange: DECIMAL(19, 4) allows more than a long holds at scale 4
+        BigDecimal price = new BigDecimal("999999999999999.9999");
+
+        // Act & Assert
+        assertDoesNotThrow(() -> priceHistoryService.onPriceChange(new StockPriceChangedEvent(7L, price)));
+        verifyNoInteractions(tickStore);
+    }
+
+    @Test
+    @DisplayName("Should open a price period for each price set")
+    void onPricesSet_OpensPeriods() {
+        // Act
+        priceHistoryService.onPricesSet(Map.of(7L, new BigDecimal("12.3400")));
+        priceHistoryService.onPricesSet(Map.of());
+
+        // Assert
+        verify(stockPricePeriodRepository)
+                .openAll(eq(Map.of(7L, new BigDecimal("12.3400"))), any(LocalDateTime.class));
+        verifyNoMoreInteractions(stockPricePeriodRepository);
+    }
+
+    @Test
+    @DisplayName("Should price stocks changed since the instant from the period then in force")
+    void asOf_FromPeriods() {
+        // Arrange
+        Instant asOf = Instant.parse("2026-01-05T10:00:00Z");
+        LocalDateTime at = LocalDateTime.ofInstant(asOf, ZoneId.systemDefault());
+        StockDto unchanged = new StockDto(1L, "Unchanged", "steady", new BigDecimal("10.0000"), at.minusDays(1));
+        StockDto changed = new StockDto(2L, "Changed", "moving", new BigDecimal("30.0000"), at.plusHours(1));
+        StockDto unknown = new StockDto(3L, "Unknown", "new", new BigDecimal("5.0000"), at.plusHours(1));
+        when(stockPricePeriodRepository.findInForceAt(Set.of(2L, 3L), at)).thenReturn(List.of(
+                new StockPricePeriod(12L, 2L, new BigDecimal("21.0000"), at.minusHours(1)),
+                new StockPricePeriod(11L, 2L, new BigDecimal("20.0000"), at.minusHours(1))));
+
+        // Act
+        Map<Long, StockDto> then = priceHistoryService.asOf(List.of(unchanged, changed, unknown), asOf);
+
+        // Assert: tied periods resolve to the one written last, the ticks are never read
+        assertSame(unchanged, then.get(1L));
+        assertEquals(new BigDecimal("21.0000"), then.get(2L).getCurrentPrice());
+        assertEquals(at.minusHours(1), then.get(2L).getUpdatedAt());
+        assertFalse(then.containsKey(3L));
+        verifyNoInteractions(tickStore);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.audit.AuditAwareImpl;
+import com.example.stockexchange.config.MetricsConfig;
+import com.example.stockexchange.entity.Stock;
+import com.example.stockexchange.entity.StockExchange;
+import com.example.stockexchange.entity.StockListing;
+import com.example.stockexchange.mapper.StockExchangeMapperImpl;
+import com.example.stockexchange.mapper.StockMapperImpl;
+import com.example.stockexchange.metrics.HotPathMetricsAspect;
+import com.example.stockexchange.metrics.QueryCounter;
+import com.example.stockexchange.repository.StockExchangeRepository;
+import com.example.stockexchange.repository.StockListingRepository;
+import com.example.stockexchange.repository.StockRepository;
+import com.example.stockexchange.request.StockCreationRequest;
+import com.example.stockexchange.request.StockPriceUpdateRequest;
+import com.example.stockexchange.scheduling.SchedulingConfig;
+import com.example.stockexchange.snapshot.SnapshotConfig;
+import com.example.stockexchange.tickstore.TickStoreConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the service flows against real Hibernate with {@code app.query-budget.enforce=true}, so any
+ * flow going over its {@code @QueryBudget} fails here instead of shipping.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // no entity for the change log sequencer's lock, its migration creates it next to Hibernate's tables
+        "spring.sql.init.schema-locations=classpath:db/migration/common/V10__change_log_lock.sql",
+        "app.query-budget.enforce=true"
+})
+@ImportAutoConfiguration({AopAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import({StockService.class, StockExchangeService.class, ChangeLogService.class, ChangeLogSequencer.class,
+        PriceAlertService.class, PriceAlertDispatcher.class,
+        PortfolioService.class, PortfolioValuations.class, PortfolioPublisher.class,
+        TradingSessionService.class, SchedulingConfig.class, PriceHistoryService.class, TickStoreConfig.class,
+        ListingHistoryService.class, SnapshotConfig.class,
+        StockMapperImpl.class, StockExchangeMapperImpl.class, AuditAwareImpl.class,
+        MetricsConfig.class, HotPathMetricsAspect.class, QueryBudgetIntegrationTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+// closed before the temporary directory goes, so the tick store writes its last blocks into it
+@DirtiesContext
+@DisplayName("Query Budget Integration Tests")
+class QueryBudgetIntegrationTest {
+
+    // the schema is recreated every run and ids repeat: ticks and snapshots must not outlive it
+    @TempDir
+    static Path dataDirectory;
+
+    @DynamicPropertySource
+    static void dataDirectories(DynamicPropertyRegistry registry) {
+        registry.add("app.ticks.directory", () -> dataDirectory.resolve("ticks").toString());
+        registry.add("app.snapshots.directory", () -> dataDirectory.resolve("snapshots").toString());
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockExchangeService stockExchangeService;
+
+    @Autowired
+    private ListingHistoryService listingHistoryService;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockExchangeRepository stockExchangeRepository;
+
+    @Autowired
+    private StockListingRepository stockListingRepository;
+
+    @Test
+    @DisplayName("Should delete a stock without a query per listed exchange")
+    void deleteStock_ConstantQueries() {
+        // Arrange
+        Stock listedOnce = listedStock(1);
+        Stock listedOften = listedStock(5);
+
+        // Act
+        long once = queriesOf(() -> stockService.deleteStock(listedOnce.getStockId()));
+        long often = queriesOf(() -> stockService.deleteStock(listedOften.getStockId()));
+
+        // Assert
+        assertFalse(stockRepository.existsById(listedOften.getStockId()));
+        assertEquals(once, often, "statements must not grow with the number of exchanges");
+    }
+
+    @Test
+    @DisplayName("Should keep the stock flows within their budgets")
+    void stockFlows_WithinBudget() {
+        // Arrange
+        String name = "QB " + UUID.randomUUID().toString().substring(0, 8);
+        Long listedStockId = listedStock(1).getStockId();
+        Long stockExchangeId = stockListingRepository.findAll().stream()
+                .filter(listing -> listing.getStockListingId().getStockId().equals(listedStockId))
+                .findFirst().orElseThrow()
+                .getStockListingId().getStockExchangeId();
+
+        // Act & Assert, each call throws QueryBudgetExceededException when over budget
+        Long stockId = stockService.createStock(
+                new StockCreationRequest(name, "budget", BigDecimal.TEN)).getStockId();
+        assertDoesNotThrow(() -> stockService.getStockById(stockId));
+        assertDoesNotThrow(() -> stockService.updatePrice(stockId, new StockPriceUpdateRequest(BigDecimal.ONE)));
+        assertDoesNotThrow(() -> stockService.getAllStocks(0, 10, "name", "asc"));
+        assertDoesNotThrow(() -> stockExchangeService.getAllStockExchanges(0, 10));
+        assertDoesNotThrow(() -> stockExchangeService.getStockExchangeById(stockExchangeId));
+        assertDoesNotThrow(() -> stockExchangeService.getAllStocksByExchange(stockExchangeId, 0, 10, "name"));
+        assertDoesNotThrow(() -> priceHistoryService.getStockAsOf(stockId, Instant.now()));
+        assertDoesNotThrow(() -> listingHistoryService.getStocksByExchangeAsOf(stockExchangeId, Instant.now(), 0, 10));
+        assertDoesNotThrow(() -> listingHistoryService.getStockExchangesByStockAsOf(listedStockId, Instant.now(), 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should insert a bulk of stocks in JDBC batches")
+    void createStocks_Batched() {
+        // Arrange
+        List<StockCreationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(new StockCreationRequest(
+                    "QB " + UUID.randomUUID().toString().substring(0, 8), "bulk", BigDecimal.TEN));
+        }
+
+        // Act
+        long statements = queriesOf(() -> stockService.createStocks(requests));
+
+        // Assert, one by one this would be 100 stock and 100 change-log inserts
+        assertTrue(statements < 10, "inserts must go out in batches, got " + statements + " statements");
+        assertEquals(100, stockRepository.findExistingNames(
+                requests.stream().map(StockCreationRequest::getName).toList()).size());
+    }
+
+    private Stock listedStock(int exchanges) {
+        Stock stock = new Stock();
+        stock.setName("QB " + UUID.randomUUID().toString().substring(0, 8));
+        stock.setDescription("budget");
+        stock.setCurrentPrice(BigDecimal.TEN);
+        stockRepository.save(stock);
+        for (int i = 0; i < exchanges; i++) {
+            StockExchange stockExchange = new StockExchange();
+            stockExchange.setName("QB exchange " + i);
+            stockExchange.setDescription("budget");
+            stockExchangeRepository.save(stockExchange);
+            stockListingRepository.save(new StockListing(stockExchange, stock));
+        }
+        return stock;
+    }
+
+    private static long queriesOf(Runnable flow) {
+        long before = QueryCounter.current();
+        flow.run();
+        return QueryCounter.current() - before;
+    }
+}
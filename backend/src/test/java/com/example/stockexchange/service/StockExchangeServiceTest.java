@@ -2,6 +2,7 @@ package com.example.stockexchange.service;
 
 import com.example.stockexchange.dto.StockDto;
 import com.example.stockexchange.dto.StockExchangeDto;
+import com.example.stockexchange.entity.ChangeOperation;
 import com.example.stockexchange.entity.Stock;
 import com.example.stockexchange.entity.StockExchange;
 import com.example.stockexchange.entity.StockListing;
@@ -21,15 +22,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -52,6 +58,18 @@ class StockServiceTest {
     @Mock
     private StockExchangeService stockExchangeService;
 
+    @Mock
+    private ChangeLogService changeLogService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TradingSessionService tradingSessionService;
+
+    @Mock
+    private PriceHistoryService priceHistoryService;
+
     @InjectMocks
     private StockService stockService;
 
@@ -109,11 +127,10 @@ class StockServiceTest {
         @DisplayName("Should return paginated stocks with ascending sort")
         void shouldReturnPaginatedStocksSuccessfully() {
             // Arrange
-            List<Stock> stocks = List.of(stock);
-            Page<Stock> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 1);
+            List<StockDto> stocks = List.of(stockDto);
+            Page<StockDto> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 1);
 
-            when(stockRepository.findAll(any(Pageable.class))).thenReturn(stockPage);
-            when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
+            when(stockRepository.findAllAsDto(any(Pageable.class))).thenReturn(stockPage);
 
             // Act
             Page<StockDto> result = stockService.getAllStocks(0, 10, "name", "asc");
@@ -124,19 +141,18 @@ class StockServiceTest {
             assertEquals(1, result.getContent().size());
             assertEquals("Apple Inc.", result.getContent().get(0).getName());
 
-            verify(stockRepository, times(1)).findAll(any(Pageable.class));
-            verify(stockMapper, times(1)).map(any(Stock.class));
+            verify(stockRepository, times(1)).findAllAsDto(any(Pageable.class));
+            verifyNoInteractions(stockMapper);
         }
 
         @Test
         @DisplayName("Should return paginated stocks when no specific sort field is given")
         void shouldReturnPaginatedStocksWithDefaultSort() {
             // Arrange
-            List<Stock> stocks = List.of(stock);
-            Page<Stock> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 1);
+            List<StockDto> stocks = List.of(stockDto);
+            Page<StockDto> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 1);
 
-            when(stockRepository.findAll(any(Pageable.class))).thenReturn(stockPage);
-            when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
+            when(stockRepository.findAllAsDto(any(Pageable.class))).thenReturn(stockPage);
 
             // Act
             Page<StockDto> result = stockService.getAllStocks(0, 10, "stockName", "asc");
@@ -147,16 +163,16 @@ class StockServiceTest {
             assertEquals(1, result.getContent().size());
             assertEquals("Apple Inc.", result.getContent().get(0).getName());
 
-            verify(stockRepository, times(1)).findAll(any(Pageable.class));
-            verify(stockMapper, times(1)).map(any(Stock.class));
+            verify(stockRepository, times(1)).findAllAsDto(any(Pageable.class));
+            verifyNoInteractions(stockMapper);
         }
 
         @Test
         @DisplayName("Should return empty page when no stocks exist")
         void shouldReturnEmptyPageWhenNoStocks() {
             // Arrange
-            Page<Stock> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
-            when(stockRepository.findAll(any(Pageable.class))).thenReturn(emptyPage);
+            Page<StockDto> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+            when(stockRepository.findAllAsDto(any(Pageable.class))).thenReturn(emptyPage);
 
             // Act
             Page<StockDto> result = stockService.getAllStocks(0, 10, "name", "asc");
@@ -166,19 +182,18 @@ class StockServiceTest {
             assertEquals(0, result.getTotalElements());
             assertTrue(result.getContent().isEmpty());
 
-            verify(stockRepository, times(1)).findAll(any(Pageable.class));
-            verify(stockMapper, never()).map(any(Stock.class));
+            verify(stockRepository, times(1)).findAllAsDto(any(Pageable.class));
+            verifyNoInteractions(stockMapper);
         }
 
         @Test
         @DisplayName("Should sort stocks in descending order")
         void shouldSortStocksInDescendingOrder() {
             // Arrange
-            List<Stock> stocks = List.of(stock);
-            Page<Stock> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 1);
+            List<StockDto> stocks = List.of(stockDto);
+            Page<StockDto> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 1);
 
-            when(stockRepository.findAll(any(Pageable.class))).thenReturn(stockPage);
-            when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
+            when(stockRepository.findAllAsDto(any(Pageable.class))).thenReturn(stockPage);
 
             // Act
             Page<StockDto> result = stockService.getAllStocks(0, 10, "currentPrice", "desc");
@@ -187,7 +202,7 @@ class StockServiceTest {
             assertNotNull(result);
             assertEquals(1, result.getTotalElements());
 
-            verify(stockRepository, times(1)).findAll(any(Pageable.class));
+            verify(stockRepository, times(1)).findAllAsDto(any(Pageable.class));
         }
     }
 
@@ -199,13 +214,12 @@ class StockServiceTest {
         @DisplayName("Should return stock exchanges for valid stock")
         void shouldReturnStockExchangesForValidStock() {
             // Arrange
-            List<StockExchange> exchanges = List.of(stockExchange);
-            Page<StockExchange> exchangePage = new PageImpl<>(exchanges, PageRequest.of(0, 10), 1);
+            List<StockExchangeDto> exchanges = List.of(stockExchangeDto);
+            Page<StockExchangeDto> exchangePage = new PageImpl<>(exchanges, PageRequest.of(0, 10), 1);
 
             when(stockRepository.existsById(1L)).thenReturn(true);
             when(stockListingRepository.findStockExchangesByStockId(anyLong(), any(Pageable.class)))
                     .thenReturn(exchangePage);
-            when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
 
             // Act
             Page<StockExchangeDto> result = stockService.getAllStockExchangesByStock(1L, 0, 10);
@@ -218,7 +232,7 @@ class StockServiceTest {
             verify(stockRepository, times(1)).existsById(1L);
             verify(stockListingRepository, times(1))
                     .findStockExchangesByStockId(anyLong(), any(Pageable.class));
-            verify(stockExchangeMapper, times(1)).map(any(StockExchange.class));
+            verifyNoInteractions(stockExchangeMapper);
         }
 
         @Test
@@ -244,7 +258,7 @@ class StockServiceTest {
         @DisplayName("Should return empty page when stock has no listings")
         void shouldReturnEmptyPageWhenNoListings() {
             // Arrange
-            Page<StockExchange> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+            Page<StockExchangeDto> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
 
             when(stockRepository.existsById(1L)).thenReturn(true);
             when(stockListingRepository.findStockExchangesByStockId(anyLong(), any(Pageable.class)))
@@ -274,7 +288,7 @@ class StockServiceTest {
             // Arrange
             when(stockRepository.existsByName("Apple Inc.")).thenReturn(false);
             when(stockMapper.map(any(StockCreationRequest.class))).thenReturn(stock);
-            when(stockRepository.save(any(Stock.class))).thenReturn(stock);
+            when(stockRepository.saveAndFlush(any(Stock.class))).thenReturn(stock);
             when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
 
             // Act
@@ -286,9 +300,10 @@ class StockServiceTest {
             assertEquals(BigDecimal.valueOf(150.00), result.getCurrentPrice());
 
             verify(stockRepository, times(1)).existsByName("Apple Inc.");
-            verify(stockRepository, times(1)).save(any(Stock.class));
+            verify(stockRepository, times(1)).saveAndFlush(any(Stock.class));
             verify(stockMapper, times(1)).map(any(StockCreationRequest.class));
             verify(stockMapper, times(1)).map(any(Stock.class));
+            verify(priceHistoryService).onPricesSet(Map.of(1L, BigDecimal.valueOf(150.00)));
         }
 
         @Test
@@ -306,7 +321,7 @@ class StockServiceTest {
             assertEquals("Stock with name Apple Inc. already exists", exception.getMessage());
 
             verify(stockRepository, times(1)).existsByName("Apple Inc.");
-            verify(stockRepository, never()).save(any(Stock.class));
+            verify(stockRepository, never()).saveAndFlush(any(Stock.class));
         }
 
         @Test
@@ -319,7 +334,7 @@ class StockServiceTest {
 
             when(stockRepository.existsByName("Apple Inc.")).thenReturn(false);
             when(stockMapper.map(any(StockCreationRequest.class))).thenReturn(stock);
-            when(stockRepository.save(any(Stock.class))).thenReturn(stock);
+            when(stockRepository.saveAndFlush(any(Stock.class))).thenReturn(stock);
             when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
 
             // Act
@@ -329,7 +344,71 @@ class StockServiceTest {
             assertNotNull(result);
             assertEquals(BigDecimal.valueOf(200.00), result.getCurrentPrice());
 
-            verify(stockRepository, times(1)).save(any(Stock.class));
+            verify(stockRepository, times(1)).saveAndFlush(any(Stock.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("createStocks Tests")
+    class CreateStocksTests {
+
+        @Test
+        @DisplayName("Should save all stocks in one call and log each")
+        void shouldCreateStocksInOneSaveAll() {
+            // Arrange
+            Stock other = new Stock();
+            other.setStockId(2L);
+            other.setName("Microsoft Corporation");
+            other.setCurrentPrice(BigDecimal.valueOf(400.00));
+            StockCreationRequest otherRequest = new StockCreationRequest(
+                    "Microsoft Corporation", "Technology company", BigDecimal.valueOf(400.00));
+
+            when(stockRepository.findExistingNames(anyCollection())).thenReturn(List.of());
+            when(stockMapper.map(stockCreationRequest)).thenReturn(stock);
+            when(stockMapper.map(otherRequest)).thenReturn(other);
+            when(stockRepository.saveAllAndFlush(anyList())).thenReturn(List.of(stock, other));
+            when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
+
+            // Act
+            List<StockDto> result = stockService.createStocks(List.of(stockCreationRequest, otherRequest));
+
+            // Assert
+            assertEquals(2, result.size());
+            verify(stockRepository, times(1)).saveAllAndFlush(anyList());
+            verify(stockRepository, never()).saveAndFlush(any(Stock.class));
+            verify(changeLogService).recordStockChange(1L, ChangeOperation.UPSERT);
+            verify(changeLogService).recordStockChange(2L, ChangeOperation.UPSERT);
+            verify(priceHistoryService).onPricesSet(
+                    Map.of(1L, BigDecimal.valueOf(150.00), 2L, BigDecimal.valueOf(400.00)));
+        }
+
+        @Test
+        @DisplayName("Should reject names that already exist")
+        void shouldRejectExistingNames() {
+            // Arrange
+            when(stockRepository.findExistingNames(anyCollection())).thenReturn(List.of("Apple Inc."));
+
+            // Act & Assert
+            DuplicateResourceException exception = assertThrows(
+                    DuplicateResourceException.class,
+                    () -> stockService.createStocks(List.of(stockCreationRequest))
+            );
+
+            assertEquals("Stocks with names already exist: [Apple Inc.]", exception.getMessage());
+            verify(stockRepository, never()).saveAllAndFlush(anyList());
+        }
+
+        @Test
+        @DisplayName("Should reject a name repeated within the request")
+        void shouldRejectRepeatedNames() {
+            // Act & Assert
+            assertThrows(
+                    DuplicateResourceException.class,
+                    () -> stockService.createStocks(List.of(stockCreationRequest, stockCreationRequest))
+            );
+
+            verify(stockRepository, never()).findExistingNames(anyCollection());
+            verify(stockRepository, never()).saveAllAndFlush(anyList());
         }
     }
 
@@ -353,6 +432,8 @@ class StockServiceTest {
 
             verify(stockRepository, times(1)).findById(1L);
             verify(stockMapper, times(1)).map(any(Stock.class));
+            verify(eventPublisher).publishEvent(new StockPriceChangedEvent(1L, BigDecimal.valueOf(160.00)));
+            verify(priceHistoryService).onPricesSet(Map.of(1L, BigDecimal.valueOf(160.00)));
         }
 
         @Test
@@ -371,6 +452,7 @@ class StockServiceTest {
 
             verify(stockRepository, times(1)).findById(999L);
             verify(stockMapper, never()).map(any(Stock.class));
+            verifyNoInteractions(eventPublisher);
         }
 
         @Test
@@ -420,22 +502,23 @@ class StockServiceTest {
         @DisplayName("Should delete stock successfully")
         void shouldDeleteStockSuccessfully() {
             // Arrange
-            when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
+            when(stockRepository.findByIdWithListings(1L)).thenReturn(Optional.of(stock));
             doNothing().when(stockRepository).delete(any(Stock.class));
 
             // Act
             stockService.deleteStock(1L);
 
             // Assert
-            verify(stockRepository, times(1)).findById(1L);
+            verify(stockRepository, times(1)).findByIdWithListings(1L);
             verify(stockRepository, times(1)).delete(stock);
+            verify(eventPublisher).publishEvent(new StockDeletedEvent(1L));
         }
 
         @Test
         @DisplayName("Should throw exception when deleting non-existent stock")
         void shouldThrowExceptionWhenStockNotFound() {
             // Arrange
-            when(stockRepository.findById(999L)).thenReturn(Optional.empty());
+            when(stockRepository.findByIdWithListings(999L)).thenReturn(Optional.empty());
 
             // Act & Assert
             ResourceNotFoundException exception = assertThrows(
@@ -445,7 +528,7 @@ class StockServiceTest {
 
             assertEquals("Stock not found with id: 999", exception.getMessage());
 
-            verify(stockRepository, times(1)).findById(999L);
+            verify(stockRepository, times(1)).findByIdWithListings(999L);
             verify(stockRepository, never()).delete(any(Stock.class));
         }
 
@@ -467,17 +550,17 @@ class StockServiceTest {
 
             stock.setStockListings(List.of(listing1, listing2));
 
-            when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
+            when(stockRepository.findByIdWithListings(1L)).thenReturn(Optional.of(stock));
             doNothing().when(stockRepository).delete(any(Stock.class));
-            doNothing().when(stockExchangeService).updateLiveMarketStatus(any(StockExchange.class));
 
             // Act
             stockService.deleteStock(1L);
 
             // Assert
-            verify(stockRepository, times(1)).findById(1L);
+            verify(stockRepository, times(1)).findByIdWithListings(1L);
             verify(stockRepository, times(1)).delete(stock);
-            verify(stockExchangeService, times(2)).updateLiveMarketStatus(any(StockExchange.class));
+            verify(stockExchangeService, times(1)).updateLiveMarketStatus(
+                    argThat((Collection<StockExchange> exchanges) -> exchanges.size() == 2));
         }
 
         @Test
@@ -486,16 +569,17 @@ class StockServiceTest {
             // Arrange
             stock.setStockListings(List.of());
 
-            when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
+            when(stockRepository.findByIdWithListings(1L)).thenReturn(Optional.of(stock));
             doNothing().when(stockRepository).delete(any(Stock.class));
 
             // Act
             stockService.deleteStock(1L);
 
             // Assert
-            verify(stockRepository, times(1)).findById(1L);
+            verify(stockRepository, times(1)).findByIdWithListings(1L);
             verify(stockRepository, times(1)).delete(stock);
             verify(stockExchangeService, never()).updateLiveMarketStatus(any(StockExchange.class));
+            verify(stockExchangeService, never()).updateLiveMarketStatus(anyCollection());
         }
 
         @Test
@@ -512,18 +596,18 @@ class StockServiceTest {
 
             stock.setStockListings(List.of(listing1, listing2));
 
-            when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
+            when(stockRepository.findByIdWithListings(1L)).thenReturn(Optional.of(stock));
             doNothing().when(stockRepository).delete(any(Stock.class));
-            doNothing().when(stockExchangeService).updateLiveMarketStatus(any(StockExchange.class));
 
             // Act
             stockService.deleteStock(1L);
 
             // Assert
-            verify(stockRepository, times(1)).findById(1L);
+            verify(stockRepository, times(1)).findByIdWithListings(1L);
             verify(stockRepository, times(1)).delete(stock);
-            // Should only update once due to distinct()
-            verify(stockExchangeService, times(1)).updateLiveMarketStatus(any(StockExchange.class));
+            // Should only update the exchange once, listings are deduplicated by exchange id
+            verify(stockExchangeService, times(1)).updateLiveMarketStatus(
+                    argThat((Collection<StockExchange> exchanges) -> exchanges.size() == 1));
         }
     }
 }
\ No newline at end of file
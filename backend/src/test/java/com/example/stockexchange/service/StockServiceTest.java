@@ -3,6 +3,7 @@ package com.example.stockexchange.service;
 import com.example.stockexchange.dto.StockDto;
 import com.example.stockexchange.dto.StockExchangeDto;
 import com.example.stockexchange.dto.StockListingDto;
+import com.example.stockexchange.entity.ChangeOperation;
 import com.example.stockexchange.entity.Stock;
 import com.example.stockexchange.entity.StockExchange;
 import com.example.stockexchange.entity.StockListing;
@@ -24,15 +25,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -55,6 +59,15 @@ class StockExchangeServiceTest {
     @Mock
     private StockMapper stockMapper;
 
+    @Mock
+    private ChangeLogService changeLogService;
+
+    @Mock
+    private ListingHistoryService listingHistoryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private StockExchangeService stockExchangeService;
 
@@ -106,11 +119,10 @@ class StockExchangeServiceTest {
         @DisplayName("Should return all stock exchanges with pagination")
         void getAllStockExchanges_Success() {
             // Arrange
-            List<StockExchange> exchanges = List.of(stockExchange);
-            Page<StockExchange> exchangePage = new PageImpl<>(exchanges, PageRequest.of(0, 10), 1);
+            List<StockExchangeDto> exchanges = List.of(stockExchangeDto);
+            Page<StockExchangeDto> exchangePage = new PageImpl<>(exchanges, PageRequest.of(0, 10), 1);
 
-            when(stockExchangeRepository.findAll(any(Pageable.class))).thenReturn(exchangePage);
-            when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
+            when(stockExchangeRepository.findAllAsDto(any(Pageable.class))).thenReturn(exchangePage);
 
             // Act
             Page<StockExchangeDto> result = stockExchangeService.getAllStockExchanges(0, 10);
@@ -120,17 +132,17 @@ class StockExchangeServiceTest {
             assertEquals(1, result.getTotalElements());
             assertEquals("NYSE", result.getContent().get(0).getName());
 
-            verify(stockExchangeRepository).findAll(any(Pageable.class));
-            verify(stockExchangeMapper).map(any(StockExchange.class));
+            verify(stockExchangeRepository).findAllAsDto(any(Pageable.class));
+            verifyNoInteractions(stockExchangeMapper);
         }
 
         @Test
         @DisplayName("Should return empty page when no exchanges exist")
         void getAllStockExchanges_EmptyPage() {
             // Arrange
-            Page<StockExchange> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+            Page<StockExchangeDto> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
 
-            when(stockExchangeRepository.findAll(any(Pageable.class))).thenReturn(emptyPage);
+            when(stockExchangeRepository.findAllAsDto(any(Pageable.class))).thenReturn(emptyPage);
 
             // Act
             Page<StockExchangeDto> result = stockExchangeService.getAllStockExchanges(0, 10);
@@ -140,19 +152,18 @@ class StockExchangeServiceTest {
             assertEquals(0, result.getTotalElements());
             assertTrue(result.getContent().isEmpty());
 
-            verify(stockExchangeRepository).findAll(any(Pageable.class));
-            verify(stockExchangeMapper, never()).map(any(StockExchange.class));
+            verify(stockExchangeRepository).findAllAsDto(any(Pageable.class));
+            verifyNoInteractions(stockExchangeMapper);
         }
 
         @Test
         @DisplayName("Should handle pagination correctly")
         void getAllStockExchanges_Pagination() {
             // Arrange
-            List<StockExchange> exchanges = List.of(stockExchange);
-            Page<StockExchange> exchangePage = new PageImpl<>(exchanges, PageRequest.of(2, 5), 20);
+            List<StockExchangeDto> exchanges = List.of(stockExchangeDto);
+            Page<StockExchangeDto> exchangePage = new PageImpl<>(exchanges, PageRequest.of(2, 5), 20);
 
-            when(stockExchangeRepository.findAll(any(Pageable.class))).thenReturn(exchangePage);
-            when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
+            when(stockExchangeRepository.findAllAsDto(any(Pageable.class))).thenReturn(exchangePage);
 
             // Act
             Page<StockExchangeDto> result = stockExchangeService.getAllStockExchanges(2, 5);
@@ -164,28 +175,21 @@ class StockExchangeServiceTest {
             assertEquals(2, result.getNumber());
             assertEquals(5, result.getSize());
 
-            verify(stockExchangeRepository).findAll(any(Pageable.class));
+            verify(stockExchangeRepository).findAllAsDto(any(Pageable.class));
         }
 
         @Test
         @DisplayName("Should return multiple stock exchanges")
         void getAllStockExchanges_MultipleExchanges() {
             // Arrange
-            StockExchange nasdaq = new StockExchange();
-            nasdaq.setStockExchangeId(2L);
-            nasdaq.setName("NASDAQ");
-
             StockExchangeDto nasdaqDto = new StockExchangeDto();
             nasdaqDto.setStockExchangeId(2L);
             nasdaqDto.setName("NASDAQ");
 
-            List<StockExchange> exchanges = List.of(stockExchange, nasdaq);
-            Page<StockExchange> exchangePage = new PageImpl<>(exchanges, PageRequest.of(0, 10), 2);
+            List<StockExchangeDto> exchanges = List.of(stockExchangeDto, nasdaqDto);
+            Page<StockExchangeDto> exchangePage = new PageImpl<>(exchanges, PageRequest.of(0, 10), 2);
 
-            when(stockExchangeRepository.findAll(any(Pageable.class))).thenReturn(exchangePage);
-            when(stockExchangeMapper.map(any(StockExchange.class)))
-                    .thenReturn(stockExchangeDto)
-                    .thenReturn(nasdaqDto);
+            when(stockExchangeRepository.findAllAsDto(any(Pageable.class))).thenReturn(exchangePage);
 
             // Act
             Page<StockExchangeDto> result = stockExchangeService.getAllStockExchanges(0, 10);
@@ -195,7 +199,7 @@ class StockExchangeServiceTest {
             assertEquals(2, result.getTotalElements());
             assertEquals(2, result.getContent().size());
 
-            verify(stockExchangeMapper, times(2)).map(any(StockExchange.class));
+            verifyNoInteractions(stockExchangeMapper);
         }
     }
 
@@ -208,11 +212,10 @@ class StockExchangeServiceTest {
         void getAllStockExchangesLiveInMarket_Success() {
             // Arrange
             stockExchange.setLiveInMarket(true);
-            List<StockExchange> liveExchanges = List.of(stockExchange);
-            Page<StockExchange> exchangePage = new PageImpl<>(liveExchanges, PageRequest.of(0, 10), 1);
+            List<StockExchangeDto> liveExchanges = List.of(stockExchangeDto);
+            Page<StockExchangeDto> exchangePage = new PageImpl<>(liveExchanges, PageRequest.of(0, 10), 1);
 
-            when(stockExchangeRepository.findByLiveInMarketTrue(any(Pageable.class))).thenReturn(exchangePage);
-            when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
+            when(stockExchangeRepository.findLiveInMarketAsDto(any(Pageable.class))).thenReturn(exchangePage);
 
             // Act
             Page<StockExchangeDto> result = stockExchangeService.getAllStockExchangesLiveInMarket(0, 10);
@@ -222,17 +225,17 @@ class StockExchangeServiceTest {
             assertEquals(1, result.getTotalElements());
             assertTrue(result.getContent().get(0).isLiveInMarket());
 
-            verify(stockExchangeRepository).findByLiveInMarketTrue(any(Pageable.class));
-            verify(stockExchangeMapper).map(any(StockExchange.class));
+            verify(stockExchangeRepository).findLiveInMarketAsDto(any(Pageable.class));
+            verifyNoInteractions(stockExchangeMapper);
         }
 
         @Test
         @DisplayName("Should return empty page when no live exchanges exist")
         void getAllStockExchangesLiveInMarket_EmptyPage() {
             // Arrange
-            Page<StockExchange> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+            Page<StockExchangeDto> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
 
-            when(stockExchangeRepository.findByLiveInMarketTrue(any(Pageable.class))).thenReturn(emptyPage);
+            when(stockExchangeRepository.findLiveInMarketAsDto(any(Pageable.class))).thenReturn(emptyPage);
 
             // Act
             Page<StockExchangeDto> result = stockExchangeService.getAllStockExchangesLiveInMarket(0, 10);
@@ -242,18 +245,17 @@ class StockExchangeServiceTest {
             assertEquals(0, result.getTotalElements());
             assertTrue(result.getContent().isEmpty());
 
-            verify(stockExchangeRepository).findByLiveInMarketTrue(any(Pageable.class));
+            verify(stockExchangeRepository).findLiveInMarketAsDto(any(Pageable.class));
         }
 
         @Test
         @DisplayName("Should handle pagination for live exchanges")
         void getAllStockExchangesLiveInMarket_Pagination() {
             // Arrange
-            List<StockExchange> liveExchanges = List.of(stockExchange);
-            Page<StockExchange> exchangePage = new PageImpl<>(liveExchanges, PageRequest.of(1, 5), 15);
+            List<StockExchangeDto> liveExchanges = List.of(stockExchangeDto);
+            Page<StockExchangeDto> exchangePage = new PageImpl<>(liveExchanges, PageRequest.of(1, 5), 15);
 
-            when(stockExchangeRepository.findByLiveInMarketTrue(any(Pageable.class))).thenReturn(exchangePage);
-            when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
+            when(stockExchangeRepository.findLiveInMarketAsDto(any(Pageable.class))).thenReturn(exchangePage);
 
             // Act
             Page<StockExchangeDto> result = stockExchangeService.getAllStockExchangesLiveInMarket(1, 5);
@@ -263,30 +265,22 @@ class StockExchangeServiceTest {
             assertEquals(15, result.getTotalElements());
             assertEquals(3, result.getTotalPages());
 
-            verify(stockExchangeRepository).findByLiveInMarketTrue(any(Pageable.class));
+            verify(stockExchangeRepository).findLiveInMarketAsDto(any(Pageable.class));
         }
 
         @Test
         @DisplayName("Should return multiple live exchanges")
         void getAllStockExchangesLiveInMarket_MultipleLiveExchanges() {
             // Arrange
-            StockExchange nasdaq = new StockExchange();
-            nasdaq.setStockExchangeId(2L);
-            nasdaq.setName("NASDAQ");
-            nasdaq.setLiveInMarket(true);
-
             StockExchangeDto nasdaqDto = new StockExchangeDto();
             nasdaqDto.setStockExchangeId(2L);
             nasdaqDto.setName("NASDAQ");
             nasdaqDto.setLiveInMarket(true);
 
-            List<StockExchange> liveExchanges = List.of(stockExchange, nasdaq);
-            Page<StockExchange> exchangePage = new PageImpl<>(liveExchanges, PageRequest.of(0, 10), 2);
+            List<StockExchangeDto> liveExchanges = List.of(stockExchangeDto, nasdaqDto);
+            Page<StockExchangeDto> exchangePage = new PageImpl<>(liveExchanges, PageRequest.of(0, 10), 2);
 
-            when(stockExchangeRepository.findByLiveInMarketTrue(any(Pageable.class))).thenReturn(exchangePage);
-            when(stockExchangeMapper.map(any(StockExchange.class)))
-                    .thenReturn(stockExchangeDto)
-                    .thenReturn(nasdaqDto);
+            when(stockExchangeRepository.findLiveInMarketAsDto(any(Pageable.class))).thenReturn(exchangePage);
 
             // Act
             Page<StockExchangeDto> result = stockExchangeService.getAllStockExchangesLiveInMarket(0, 10);
@@ -296,7 +290,7 @@ class StockExchangeServiceTest {
             assertEquals(2, result.getTotalElements());
             assertTrue(result.getContent().stream().allMatch(StockExchangeDto::isLiveInMarket));
 
-            verify(stockExchangeMapper, times(2)).map(any(StockExchange.class));
+            verifyNoInteractions(stockExchangeMapper);
         }
     }
 
@@ -434,6 +428,7 @@ class StockExchangeServiceTest {
             // Assert
             verify(stockExchangeRepository).findById(1L);
             verify(stockExchangeRepository).delete(stockExchange);
+            verify(eventPublisher).publishEvent(new StockExchangeDeletedEvent(1L));
         }
 
         @Test
@@ -494,13 +489,12 @@ class StockExchangeServiceTest {
         @DisplayName("Should return stocks for valid stock exchange")
         void getAllStocksByExchange_Success() {
             // Arrange
-            List<Stock> stocks = List.of(stock);
-            Page<Stock> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 1);
+            List<StockDto> stocks = List.of(stockDto);
+            Page<StockDto> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 1);
 
             when(stockExchangeRepository.existsById(1L)).thenReturn(true);
             when(stockListingRepository.findStocksByStockExchangeId(anyLong(), any(Pageable.class)))
                     .thenReturn(stockPage);
-            when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
 
             // Act
             Page<StockDto> result = stockExchangeService.getAllStocksByExchange(1L, 0, 10, "name");
@@ -512,7 +506,7 @@ class StockExchangeServiceTest {
 
             verify(stockExchangeRepository).existsById(1L);
             verify(stockListingRepository).findStocksByStockExchangeId(anyLong(), any(Pageable.class));
-            verify(stockMapper).map(any(Stock.class));
+            verifyNoInteractions(stockMapper);
         }
 
         @Test
@@ -537,7 +531,7 @@ class StockExchangeServiceTest {
         @DisplayName("Should return empty page when exchange has no stocks")
         void getAllStocksByExchange_NoStocks() {
             // Arrange
-            Page<Stock> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+            Page<StockDto> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
 
             when(stockExchangeRepository.existsById(1L)).thenReturn(true);
             when(stockListingRepository.findStocksByStockExchangeId(anyLong(), any(Pageable.class)))
@@ -559,23 +553,16 @@ class StockExchangeServiceTest {
         @DisplayName("Should return stocks sorted by specified field")
         void getAllStocksByExchange_WithSorting() {
             // Arrange
-            Stock stock2 = new Stock();
-            stock2.setStockId(2L);
-            stock2.setName("Microsoft Corp.");
-
             StockDto stockDto2 = new StockDto();
             stockDto2.setStockId(2L);
             stockDto2.setName("Microsoft Corp.");
 
-            List<Stock> stocks = List.of(stock, stock2);
-            Page<Stock> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 2);
+            List<StockDto> stocks = List.of(stockDto, stockDto2);
+            Page<StockDto> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 2);
 
             when(stockExchangeRepository.existsById(1L)).thenReturn(true);
             when(stockListingRepository.findStocksByStockExchangeId(anyLong(), any(Pageable.class)))
                     .thenReturn(stockPage);
-            when(stockMapper.map(any(Stock.class)))
-                    .thenReturn(stockDto)
-                    .thenReturn(stockDto2);
 
             // Act
             Page<StockDto> result = stockExchangeService.getAllStocksByExchange(1L, 0, 10, "name");
@@ -587,20 +574,19 @@ class StockExchangeServiceTest {
 
             verify(stockExchangeRepository).existsById(1L);
             verify(stockListingRepository).findStocksByStockExchangeId(anyLong(), any(Pageable.class));
-            verify(stockMapper, times(2)).map(any(Stock.class));
+            verifyNoInteractions(stockMapper);
         }
 
         @Test
         @DisplayName("Should handle pagination correctly")
         void getAllStocksByExchange_Pagination() {
             // Arrange
-            List<Stock> stocks = List.of(stock);
-            Page<Stock> stockPage = new PageImpl<>(stocks, PageRequest.of(1, 5), 20);
+            List<StockDto> stocks = List.of(stockDto);
+            Page<StockDto> stockPage = new PageImpl<>(stocks, PageRequest.of(1, 5), 20);
 
             when(stockExchangeRepository.existsById(1L)).thenReturn(true);
             when(stockListingRepository.findStocksByStockExchangeId(anyLong(), any(Pageable.class)))
                     .thenReturn(stockPage);
-            when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
 
             // Act
             Page<StockDto> result = stockExchangeService.getAllStocksByExchange(1L, 1, 5, "name");
@@ -619,13 +605,12 @@ class StockExchangeServiceTest {
         @DisplayName("Should sort by price when specified")
         void getAllStocksByExchange_SortByPrice() {
             // Arrange
-            List<Stock> stocks = List.of(stock);
-            Page<Stock> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 1);
+            List<StockDto> stocks = List.of(stockDto);
+            Page<StockDto> stockPage = new PageImpl<>(stocks, PageRequest.of(0, 10), 1);
 
             when(stockExchangeRepository.existsById(1L)).thenReturn(true);
             when(stockListingRepository.findStocksByStockExchangeId(anyLong(), any(Pageable.class)))
                     .thenReturn(stockPage);
-            when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
 
             // Act
             Page<StockDto> result = stockExchangeService.getAllStocksByExchange(1L, 0, 10, "currentPrice");
@@ -638,237 +623,6 @@ class StockExchangeServiceTest {
         }
     }
 
-    @Nested
-    @DisplayName("Add Stock To Stock Exchange Tests")
-    class AddStockToStockExchangeTests {
-
-        @Nested
-        @DisplayName("Live Market Status Update Tests")
-        class LiveMarketStatusTests {
-
-            @Test
-            @DisplayName("Should update live market status when adding 10th stock")
-            void addStockToStockExchange_UpdateLiveStatusToTrue() {
-                // Arrange
-                stockExchange.setLiveInMarket(false);
-
-                when(stockListingRepository.existsById(any(StockListingId.class))).thenReturn(false);
-                when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
-                when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
-                when(stockListingRepository.save(any(StockListing.class))).thenReturn(stockListing);
-                when(stockListingRepository.countByStockExchangeId(1L)).thenReturn(10L);
-                when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
-                when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
-
-                // Act
-                StockListingDto result = stockExchangeService.addStockToStockExchange(1L, 1L);
-
-                // Assert
-                assertNotNull(result);
-                assertTrue(stockExchange.isLiveInMarket());
-                verify(stockListingRepository).countByStockExchangeId(1L);
-            }
-
-            @Test
-            @DisplayName("Should not change live status when adding stock but count still below 10")
-            void addStockToStockExchange_NoLiveStatusChange() {
-                // Arrange
-                stockExchange.setLiveInMarket(false);
-
-                when(stockListingRepository.existsById(any(StockListingId.class))).thenReturn(false);
-                when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
-                when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
-                when(stockListingRepository.save(any(StockListing.class))).thenReturn(stockListing);
-                when(stockListingRepository.countByStockExchangeId(1L)).thenReturn(5L);
-                when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
-                when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
-
-                // Act
-                StockListingDto result = stockExchangeService.addStockToStockExchange(1L, 1L);
-
-                // Assert
-                assertNotNull(result);
-                assertFalse(stockExchange.isLiveInMarket());
-                verify(stockListingRepository).countByStockExchangeId(1L);
-            }
-
-            @Test
-            @DisplayName("Should maintain live status when already live and adding more stocks")
-            void addStockToStockExchange_MaintainLiveStatus() {
-                // Arrange
-                stockExchange.setLiveInMarket(true);
-
-                when(stockListingRepository.existsById(any(StockListingId.class))).thenReturn(false);
-                when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
-                when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
-                when(stockListingRepository.save(any(StockListing.class))).thenReturn(stockListing);
-                when(stockListingRepository.countByStockExchangeId(1L)).thenReturn(15L);
-                when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
-                when(stockMapper.map(any(Stock.class))).thenReturn(stockDto);
-
-                // Act
-                StockListingDto result = stockExchangeService.addStockToStockExchange(1L, 1L);
-
-                // Assert
-                assertNotNull(result);
-                assertTrue(stockExchange.isLiveInMarket());
-                verify(stockListingRepository).countByStockExchangeId(1L);
-            }
-        }
-    }
-
-    @Nested
-    @DisplayName("Remove Stock From Stock Exchange Tests")
-    class RemoveStockFromStockExchangeTests {
-
-        @Test
-        @DisplayName("Should remove stock from stock exchange successfully")
-        void removeStockFromStockExchange_Success() {
-            // Arrange
-            when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
-            when(stockListingRepository.findById(any(StockListingId.class)))
-                    .thenReturn(Optional.of(stockListing));
-            doNothing().when(stockListingRepository).delete(any(StockListing.class));
-            when(stockListingRepository.countByStockExchangeId(1L)).thenReturn(15L);
-
-            // Act
-            stockExchangeService.removeStockFromStockExchange(1L, 1L);
-
-            // Assert
-            verify(stockExchangeRepository).findById(1L);
-            verify(stockListingRepository).findById(any(StockListingId.class));
-            verify(stockListingRepository).delete(stockListing);
-            verify(stockListingRepository).countByStockExchangeId(1L);
-        }
-
-        @Test
-        @DisplayName("Should throw exception when stock exchange not found")
-        void removeStockFromStockExchange_ExchangeNotFound() {
-            // Arrange
-            when(stockExchangeRepository.findById(999L)).thenReturn(Optional.empty());
-
-            // Act & Assert
-            ResourceNotFoundException exception = assertThrows(
-                    ResourceNotFoundException.class,
-                    () -> stockExchangeService.removeStockFromStockExchange(999L, 1L)
-            );
-
-            assertEquals("Stock Exchange not found with id: 999", exception.getMessage());
-
-            verify(stockExchangeRepository).findById(999L);
-            verify(stockListingRepository, never()).findById(any(StockListingId.class));
-            verify(stockListingRepository, never()).delete(any(StockListing.class));
-        }
-
-        @Test
-        @DisplayName("Should throw exception when stock not listed on exchange")
-        void removeStockFromStockExchange_StockNotListed() {
-            // Arrange
-            when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
-            when(stockListingRepository.findById(any(StockListingId.class)))
-                    .thenReturn(Optional.empty());
-
-            // Act & Assert
-            ResourceNotFoundException exception = assertThrows(
-                    ResourceNotFoundException.class,
-                    () -> stockExchangeService.removeStockFromStockExchange(1L, 1L)
-            );
-
-            assertEquals("Stock with id 1 is not listed on this Stock Exchange",
-                    exception.getMessage());
-
-            verify(stockExchangeRepository).findById(1L);
-            verify(stockListingRepository).findById(any(StockListingId.class));
-            verify(stockListingRepository, never()).delete(any(StockListing.class));
-        }
-
-        @Nested
-        @DisplayName("Live Market Status Update Tests")
-        class LiveMarketStatusTests {
-
-            @Test
-            @DisplayName("Should update live status to false when stocks fall below 10")
-            void removeStockFromStockExchange_UpdateLiveStatusToFalse() {
-                // Arrange
-                stockExchange.setLiveInMarket(true);
-
-                when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
-                when(stockListingRepository.findById(any(StockListingId.class)))
-                        .thenReturn(Optional.of(stockListing));
-                doNothing().when(stockListingRepository).delete(any(StockListing.class));
-                when(stockListingRepository.countByStockExchangeId(1L)).thenReturn(9L);
-
-                // Act
-                stockExchangeService.removeStockFromStockExchange(1L, 1L);
-
-                // Assert
-                assertFalse(stockExchange.isLiveInMarket());
-                verify(stockListingRepository).countByStockExchangeId(1L);
-                verify(stockListingRepository).delete(stockListing);
-            }
-
-            @Test
-            @DisplayName("Should not change live status when removing stock but count still >= 10")
-            void removeStockFromStockExchange_NoLiveStatusChange() {
-                // Arrange
-                stockExchange.setLiveInMarket(true);
-
-                when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
-                when(stockListingRepository.findById(any(StockListingId.class)))
-                        .thenReturn(Optional.of(stockListing));
-                doNothing().when(stockListingRepository).delete(any(StockListing.class));
-                when(stockListingRepository.countByStockExchangeId(1L)).thenReturn(10L);
-
-                // Act
-                stockExchangeService.removeStockFromStockExchange(1L, 1L);
-
-                // Assert
-                assertTrue(stockExchange.isLiveInMarket());
-                verify(stockListingRepository).countByStockExchangeId(1L);
-            }
-
-            @Test
-            @DisplayName("Should handle removing last stock from exchange")
-            void removeStockFromStockExchange_LastStock() {
-                // Arrange
-                stockExchange.setLiveInMarket(false);
-
-                when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
-                when(stockListingRepository.findById(any(StockListingId.class)))
-                        .thenReturn(Optional.of(stockListing));
-                doNothing().when(stockListingRepository).delete(any(StockListing.class));
-                when(stockListingRepository.countByStockExchangeId(1L)).thenReturn(0L);
-
-                // Act
-                stockExchangeService.removeStockFromStockExchange(1L, 1L);
-
-                // Assert
-                assertFalse(stockExchange.isLiveInMarket());
-                verify(stockListingRepository).delete(stockListing);
-            }
-
-            @Test
-            @DisplayName("Should maintain not live status when removing from already not live exchange")
-            void removeStockFromStockExchange_MaintainNotLiveStatus() {
-                // Arrange
-                stockExchange.setLiveInMarket(false);
-
-                when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
-                when(stockListingRepository.findById(any(StockListingId.class)))
-                        .thenReturn(Optional.of(stockListing));
-                doNothing().when(stockListingRepository).delete(any(StockListing.class));
-                when(stockListingRepository.countByStockExchangeId(1L)).thenReturn(5L);
-
-                // Act
-                stockExchangeService.removeStockFromStockExchange(1L, 1L);
-
-                // Assert
-                assertFalse(stockExchange.isLiveInMarket());
-                verify(stockListingRepository).countByStockExchangeId(1L);
-            }
-        }
-    }
-
     @Nested
     @DisplayName("Update Live Market Status Tests")
     class UpdateLiveMarketStatusTests {
@@ -1043,4 +797,120 @@ class StockExchangeServiceTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Apply Listing Mutations Tests")
+    class ApplyListingMutationsTests {
+
+        private Stock secondStock;
+
+        @BeforeEach
+        void setUp() {
+            secondStock = new Stock();
+            secondStock.setStockId(2L);
+            secondStock.setName("Microsoft");
+            secondStock.setCurrentPrice(BigDecimal.valueOf(300.00));
+        }
+
+        @Test
+        @DisplayName("Should merge queued adds and removes into one insert and one delete")
+        void applyListingMutations_MergesBatch() {
+            // Arrange
+            StockListing listedSecond = new StockListing(stockExchange, secondStock);
+            ListingMutation add = new ListingMutation(ListingMutation.Type.ADD, List.of(1L));
+            ListingMutation remove = new ListingMutation(ListingMutation.Type.REMOVE, List.of(2L));
+
+            when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
+            when(stockRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(stock, secondStock));
+            when(stockListingRepository.findExistingListings(1L, List.of(1L, 2L)))
+                    .thenReturn(List.of(new StockListingId(1L, 2L)));
+            when(stockListingRepository.findAllById(List.of(new StockListingId(1L, 2L))))
+                    .thenReturn(List.of(listedSecond));
+            when(stockListingRepository.countByStockExchangeId(1L)).thenReturn(12L);
+            when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
+            when(stockMapper.map(stock)).thenReturn(stockDto);
+
+            // Act
+            stockExchangeService.applyListingMutations(1L, List.of(add, remove));
+            add.complete(null);
+            remove.complete(null);
+
+            // Assert
+            assertEquals(1, add.getResult().join().size());
+            assertTrue(remove.getResult().join().isEmpty());
+            verify(stockListingRepository).saveAll(anyList());
+            verify(stockListingRepository).deleteAllInBatch(List.of(listedSecond));
+            verify(stockListingRepository, times(1)).countByStockExchangeId(1L);
+            verify(changeLogService).recordListingChange(1L, 1L, ChangeOperation.UPSERT);
+            verify(changeLogService).recordListingChange(1L, 2L, ChangeOperation.DELETE);
+        }
+
+        @Test
+        @DisplayName("Should fail only the conflicting mutation of a batch")
+        void applyListingMutations_FailsConflictAlone() {
+            // Arrange
+            ListingMutation first = new ListingMutation(ListingMutation.Type.ADD, List.of(1L));
+            ListingMutation duplicate = new ListingMutation(ListingMutation.Type.ADD, List.of(1L));
+
+            when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
+            when(stockRepository.findAllById(List.of(1L))).thenReturn(List.of(stock));
+            when(stockListingRepository.findExistingListings(1L, List.of(1L))).thenReturn(List.of());
+            when(stockListingRepository.countByStockExchangeId(1L)).thenReturn(1L);
+            when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
+            when(stockMapper.map(stock)).thenReturn(stockDto);
+
+            // Act
+            stockExchangeService.applyListingMutations(1L, List.of(first, duplicate));
+            first.complete(null);
+            duplicate.complete(null);
+
+            // Assert
+            assertEquals(1, first.getResult().join().size());
+            CompletionException exception = assertThrows(CompletionException.class,
+                    () -> duplicate.getResult().join());
+            assertInstanceOf(DuplicateResourceException.class, exception.getCause());
+            verify(stockListingRepository).saveAll(anyList());
+        }
+
+        @Test
+        @DisplayName("Should not touch the table when a remove is undone by a re-add in the same batch")
+        void applyListingMutations_RemoveThenReAdd() {
+            // Arrange
+            ListingMutation remove = new ListingMutation(ListingMutation.Type.REMOVE, List.of(1L));
+            ListingMutation reAdd = new ListingMutation(ListingMutation.Type.ADD, List.of(1L));
+
+            when(stockExchangeRepository.findById(1L)).thenReturn(Optional.of(stockExchange));
+            when(stockRepository.findAllById(List.of(1L))).thenReturn(List.of(stock));
+            when(stockListingRepository.findExistingListings(1L, List.of(1L)))
+                    .thenReturn(List.of(new StockListingId(1L, 1L)));
+            when(stockExchangeMapper.map(any(StockExchange.class))).thenReturn(stockExchangeDto);
+            when(stockMapper.map(stock)).thenReturn(stockDto);
+
+            // Act
+            stockExchangeService.applyListingMutations(1L, List.of(remove, reAdd));
+
+            // Assert
+            verify(stockListingRepository, never()).saveAll(anyList());
+            verify(stockListingRepository, never()).deleteAllInBatch(anyList());
+            verify(stockListingRepository, never()).countByStockExchangeId(anyLong());
+            verifyNoInteractions(changeLogService);
+        }
+
+        @Test
+        @DisplayName("Should fail every mutation when the stock exchange does not exist")
+        void applyListingMutations_ExchangeNotFound() {
+            // Arrange
+            ListingMutation add = new ListingMutation(ListingMutation.Type.ADD, List.of(1L));
+            when(stockExchangeRepository.findById(99L)).thenReturn(Optional.empty());
+
+            // Act
+            stockExchangeService.applyListingMutations(99L, List.of(add));
+            add.complete(null);
+
+            // Assert
+            CompletionException exception = assertThrows(CompletionException.class, () -> add.getResult().join());
+            assertInstanceOf(ResourceNotFoundException.class, exception.getCause());
+            verifyNoInteractions(stockListingRepository);
+        }
+    }
+}
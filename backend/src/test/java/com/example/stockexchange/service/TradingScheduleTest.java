@@ -0,0 +1,80 @@
+package com.example.stockexchange.service;
+
+import com.example.stockexchange.entity.SessionPhase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TradingSchedule Tests")
+class TradingScheduleTest {
+
+    // 2026-03-06 is a Friday
+    private final TradingSchedule schedule = new TradingSchedule(ZoneId.of("America/New_York"),
+            LocalTime.of(9, 0), LocalTime.of(9, 30), LocalTime.of(16, 0),
+            EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), Set.of(LocalDate.of(2026, 3, 9)));
+
+    @Test
+    @DisplayName("Should follow pre-open, open and close within a trading day")
+    void phaseAt_TradingDay() {
+        // Act & Assert
+        assertEquals(SessionPhase.CLOSED, schedule.phaseAt(Instant.parse("2026-03-06T13:59:59Z")));
+        assertEquals(SessionPhase.PRE_OPEN, schedule.phaseAt(Instant.parse("2026-03-06T14:00:00Z")));
+        assertEquals(SessionPhase.OPEN, schedule.phaseAt(Instant.parse("2026-03-06T14:30:00Z")));
+        assertEquals(SessionPhase.CLOSED, schedule.phaseAt(Instant.parse("2026-03-06T21:00:00Z")));
+    }
+
+    @Test
+    @DisplayName("Should step over the weekend and holidays to the next pre-open")
+    void nextTransition_SkipsDaysOff() {
+        // Act
+        Instant next = schedule.nextTransition(Instant.parse("2026-03-06T21:00:00Z"));
+
+        // Assert: Monday the 9th is a holiday and New York is on daylight time from the 8th
+        assertEquals(Instant.parse("2026-03-10T13:00:00Z"), next);
+        assertEquals(SessionPhase.CLOSED, schedule.phaseAt(Instant.parse("2026-03-09T15:00:00Z")));
+    }
+
+    @Test
+    @DisplayName("Should have no transition when the exchange never trades")
+    void nextTransition_NoTradingDays() {
+        // Arrange
+        TradingSchedule never = new TradingSchedule(ZoneId.of("UTC"), LocalTime.of(9, 0), LocalTime.of(9, 0),
+                LocalTime.of(17, 0), EnumSet.noneOf(DayOfWeek.class), Set.of());
+
+        // Act & Assert
+        assertNull(never.nextTransition(Instant.parse("2026-03-06T12:00:00Z")));
+        assertEquals(SessionPhase.CLOSED, never.phaseAt(Instant.parse("2026-03-06T12:00:00Z")));
+    }
+
+    @Test
+    @DisplayName("Should reject a session closing before it opens")
+    void constructor_RejectsInvertedHours() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TradingSchedule(ZoneId.of("UTC"),
+                LocalTime.of(9, 0), LocalTime.of(17, 0), LocalTime.of(9, 0),
+                EnumSet.of(DayOfWeek.MONDAY), Set.of()));
+    }
+
+    @Test
+    @DisplayName("Should round-trip trading days through their column format")
+    void formatDays_ParseDays() {
+        // Arrange
+        Set<DayOfWeek> days = EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.MONDAY);
+
+        // Act
+        String column = TradingSchedule.formatDays(days);
+
+        // Assert
+        assertEquals("MONDAY,FRIDAY", column);
+        assertEquals(days, TradingSchedule.parseDays(column));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.stockexchange.snapshot;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CheckpointRefresher Tests")
+class CheckpointRefresherTest {
+
+    @Test
+    @DisplayName("Should leave the stores alone at a start without a checkpoint")
+    void start_NoCheckpoint() {
+        // Arrange
+        List<Long> refreshed = new ArrayList<>();
+        CheckpointRefresher refresher = new CheckpointRefresher(List.of(refreshed::add));
+
+        // Act
+        refresher.start();
+
+        // Assert
+        assertTrue(refresher.isRunning());
+        assertTrue(refreshed.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should refresh every store once on restore from a checkpoint taken on refresh")
+    void afterRestore_CheckpointOnRefresh() throws Exception {
+        // Arrange: the lifecycle beans are not started yet when Spring checkpoints on refresh
+        List<Long> first = new ArrayList<>();
+        List<Long> second = new ArrayList<>();
+        CheckpointRefresher refresher = new CheckpointRefresher(List.of(first::add, second::add));
+        RecordingContext context = new RecordingContext();
+        context.register(refresher);
+        long before = System.currentTimeMillis();
+
+        // Act
+        context.checkpointRestore();
+        long after = System.currentTimeMillis();
+        refresher.start();
+
+        // Assert
+        assertEquals(1, first.size());
+        assertEquals(first, second);
+        assertTrue(first.get(0) >= before && first.get(0) <= after);
+    }
+
+    @Test
+    @DisplayName("Should refresh after the lifecycle restart when Spring stopped the beans for the checkpoint")
+    void afterRestore_OnDemandCheckpoint() throws Exception {
+        // Arrange: registered after the refresher, as Spring's lifecycle processor is
+        List<Boolean> runningWhenRefreshed = new ArrayList<>();
+        CheckpointRefresher[] holder = new CheckpointRefresher[1];
+        CheckpointRefresher refresher = new CheckpointRefresher(
+                List.of(checkpointedAt -> runningWhenRefreshed.add(holder[0].isRunning())));
+        holder[0] = refresher;
+        RecordingContext context = new RecordingContext();
+        context.register(refresher);
+        context.register(new LifecycleStopper(refresher));
+        refresher.start();
+
+        // Act
+        context.checkpointRestore();
+
+        // Assert
+        assertEquals(List.of(true), runningWhenRefreshed);
+    }
+
+    @Test
+    @DisplayName("Should start before and stop after the web server")
+    void getPhase_BeforeWebServer() {
+        // Act
+        int phase = new CheckpointRefresher(List.of()).getPhase();
+
+        // Assert: the web server's start/stop lifecycle runs at DEFAULT_PHASE - 2048
+        assertTrue(phase < SmartLifecycle.DEFAULT_PHASE - 2048);
+    }
+
+    // orders the callbacks like the CRaC global context: reverse registration before, registration after
+    private static class RecordingContext extends Context<Resource> {
+
+        private final List<Resource> resources = new ArrayList<>();
+
+        void checkpointRestore() throws Exception {
+            beforeCheckpoint(null);
+            afterRestore(null);
+        }
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+            for (int i = resources.size() - 1; i >= 0; i--) {
+                try {
+                    resources.get(i).beforeCheckpoint(this);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            for (Resource resource : resources) {
+                try {
+                    resource.afterRestore(this);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        @Override
+        public void register(Resource resource) {
+            resources.add(resource);
+        }
+    }
+
+    // what Spring's lifecycle processor does for an on-demand checkpoint
+    private record LifecycleStopper(SmartLifecycle lifecycle) implements Resource {
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+            lifecycle.stop();
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            lifecycle.start();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.stockexchange.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SnapshotStore Tests")
+class SnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read back what was saved, with the time it was taken")
+    void save_ThenLoad() throws Exception {
+        // Arrange
+        SnapshotStore store = new SnapshotStore(directory);
+        store.save("book", 1234, out -> {
+            out.writeInt(100_000);
+            for (long i = 0; i < 100_000; i++) {
+                out.writeLong(i * 3);
+            }
+        });
+
+        // Act
+        List<Long> values = new ArrayList<>();
+        OptionalLong takenAt = store.load("book", in -> {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                values.add(in.readLong());
+            }
+        });
+
+        // Assert
+        assertEquals(OptionalLong.of(1234), takenAt);
+        assertEquals(100_000, values.size());
+        assertEquals(299_997L, values.get(99_999));
+        assertFalse(Files.exists(directory.resolve("book.snap.tmp")));
+    }
+
+    @Test
+    @DisplayName("Should ignore a snapshot with a flipped byte without reading it")
+    void load_CorruptedIgnored() throws Exception {
+        // Arrange
+        SnapshotStore store = new SnapshotStore(directory);
+        store.save("book", 1234, out -> out.writeLong(42));
+        Path file = directory.resolve("book.snap");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - Long.BYTES - 1] ^= 1;
+        Files.write(file, bytes);
+
+        // Act
+        boolean[] read = {false};
+        OptionalLong takenAt = store.load("book", in -> read[0] = true);
+
+        // Assert
+        assertTrue(takenAt.isEmpty());
+        assertFalse(read[0]);
+    }
+
+    @Test
+    @DisplayName("Should keep the previous snapshot when writing a new one fails")
+    void save_FailureKeepsPrevious() throws Exception {
+        // Arrange
+        SnapshotStore store = new SnapshotStore(directory);
+        store.save("book", 1, out -> out.writeLong(1));
+
+        // Act
+        assertThrows(IOException.class, () -> store.save("book", 2, out -> {
+            out.writeLong(2);
+            throw new IOException("disk full");
+        }));
+
+        // Assert
+        long[] value = {0};
+        assertEquals(OptionalLong.of(1), store.load("book", in -> value[0] = in.readLong()));
+        assertEquals(1, value[0]);
+    }
+
+    @Test
+    @DisplayName("Should report a missing or deleted snapshot as absent")
+    void load_Missing() throws Exception {
+        // Arrange
+        SnapshotStore store = new SnapshotStore(directory);
+        store.save("book", 1, out -> out.writeLong(1));
+
+        // Act
+        store.delete("book");
+
+        // Assert
+        assertTrue(store.load("book", in -> fail("nothing to read")).isEmpty());
+        assertTrue(store.load("other", in -> fail("nothing to read")).isEmpty());
+    }
+}
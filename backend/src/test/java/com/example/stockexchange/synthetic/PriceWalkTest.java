@@ -0,0 +1,131 @@
+package com.example.stockexchange.synthetic;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PriceWalk Tests")
+class PriceWalkTest {
+
+    @Test
+    @DisplayName("Should produce the same ticks for the same seed")
+    void sameSeed_SameTicks() {
+        // Arrange
+        double[] start = startPrices(500);
+        PriceWalk first = new PriceWalk(3, start, 11, 0.02, 0.3, 0.2);
+        PriceWalk second = new PriceWalk(3, start, 11, 0.02, 0.3, 0.2);
+
+        // Act & Assert
+        for (int tick = 0; tick < 100_000; tick++) {
+            int index = first.next();
+            assertEquals(index, second.next());
+            assertEquals(first.price(index), second.price(index));
+        }
+        assertEquals(100_000, first.steps());
+    }
+
+    @Test
+    @DisplayName("Should produce other ticks for another seed")
+    void otherSeed_OtherTicks() {
+        // Arrange
+        double[] start = startPrices(500);
+        PriceWalk first = new PriceWalk(3, start, 11, 0.02, 0.3, 0.2);
+        PriceWalk second = new PriceWalk(4, start, 11, 0.02, 0.3, 0.2);
+
+        // Act
+        int sameStock = 0;
+        for (int tick = 0; tick < 1000; tick++) {
+            if (first.next() == second.next()) {
+                sameStock++;
+            }
+        }
+
+        // Assert
+        assertTrue(sameStock < 20);
+    }
+
+    @Test
+    @DisplayName("Should move stocks of a sector together more than stocks of different sectors")
+    void correlation_BySector() {
+        // Arrange: 20 stocks in 2 sectors, sampled every 50 rounds of ticks
+        int stocks = 20;
+        int samples = 2000;
+        PriceWalk walk = new PriceWalk(11, startPrices(stocks), 2, 0.02, 0.3, 0.3);
+        double[][] returns = new double[stocks][samples];
+        double[] previous = new double[stocks];
+        Arrays.setAll(previous, walk::price);
+
+        // Act
+        for (int sample = 0; sample < samples; sample++) {
+            for (int tick = 0; tick < stocks * 50; tick++) {
+                walk.next();
+            }
+            for (int i = 0; i < stocks; i++) {
+                returns[i][sample] = Math.log(walk.price(i) / previous[i]);
+                previous[i] = walk.price(i);
+            }
+        }
+        double sameSector = 0;
+        double otherSector = 0;
+        int samePairs = 0;
+        int otherPairs = 0;
+        for (int i = 0; i < stocks; i++) {
+            for (int j = i + 1; j < stocks; j++) {
+                if (i % 2 == j % 2) {
+                    sameSector += correlation(returns[i], returns[j]);
+                    samePairs++;
+                } else {
+                    otherSector += correlation(returns[i], returns[j]);
+                    otherPairs++;
+                }
+            }
+        }
+
+        // Assert: about 0.6 and 0.3
+        assertEquals(0.6, sameSector / samePairs, 0.1);
+        assertEquals(0.3, otherSector / otherPairs, 0.1);
+    }
+
+    @Test
+    @DisplayName("Should keep prices positive")
+    void prices_StayPositive() {
+        // Arrange
+        PriceWalk walk = new PriceWalk(5, new double[]{0.02, 0.02, 0.02}, 1, 2.0, 0, 0);
+
+        // Act & Assert
+        for (int tick = 0; tick < 10_000; tick++) {
+            int index = walk.next();
+            assertTrue(walk.price(index) >= 0.01);
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse correlations that add up to more than 1")
+    void constructor_InvalidCorrelations() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new PriceWalk(1, startPrices(3), 1, 0.02, 0.6, 0.5));
+    }
+
+    private static double[] startPrices(int stocks) {
+        double[] prices = new double[stocks];
+        Arrays.fill(prices, 50);
+        return prices;
+    }
+
+    private static double correlation(double[] x, double[] y) {
+        double meanX = Arrays.stream(x).average().orElse(0);
+        double meanY = Arrays.stream(y).average().orElse(0);
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            varianceX += (x[i] - meanX) * (x[i] - meanX);
+            varianceY += (y[i] - meanY) * (y[i] - meanY);
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.stockexchange.synthetic;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SyntheticCatalog Tests")
+class SyntheticCatalogTest {
+
+    @Test
+    @DisplayName("Should generate the same catalog for the same seed, whatever the order")
+    void sameSeed_SameCatalog() {
+        // Arrange
+        SyntheticCatalog first = new SyntheticCatalog(7, "SYN", 1000, 50, 2.5);
+        SyntheticCatalog second = new SyntheticCatalog(7, "SYN", 1000, 50, 2.5);
+
+        // Act & Assert
+        for (int i = 999; i >= 0; i--) {
+            assertEquals(first.stockName(i), second.stockName(i));
+            assertEquals(first.stockPrice(i), second.stockPrice(i));
+            assertArrayEquals(first.exchangesOf(i), second.exchangesOf(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should change prices and listings with the seed")
+    void otherSeed_OtherCatalog() {
+        // Arrange
+        SyntheticCatalog first = new SyntheticCatalog(7, "SYN", 1000, 50, 2.5);
+        SyntheticCatalog second = new SyntheticCatalog(8, "SYN", 1000, 50, 2.5);
+
+        // Act
+        long samePrices = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (first.stockPrice(i).equals(second.stockPrice(i))) {
+                samePrices++;
+            }
+        }
+
+        // Assert
+        assertTrue(samePrices < 50);
+    }
+
+    @Test
+    @DisplayName("Should list each stock on distinct exchanges, as many as the density asks on average")
+    void exchangesOf_Density() {
+        // Arrange
+        SyntheticCatalog catalog = new SyntheticCatalog(1, "SYN", 20_000, 40, 1.5);
+
+        // Act
+        long listings = 0;
+        for (int i = 0; i < catalog.stocks(); i++) {
+            int[] exchanges = catalog.exchangesOf(i);
+            listings += exchanges.length;
+
+            // Assert
+            assertTrue(exchanges.length == 1 || exchanges.length == 2);
+            assertEquals(exchanges.length, Arrays.stream(exchanges).distinct().count());
+            assertTrue(Arrays.stream(exchanges).allMatch(e -> e >= 0 && e < 40));
+        }
+        assertEquals(1.5, listings / 20_000.0, 0.02);
+    }
+
+    @Test
+    @DisplayName("Should map its own names back to indexes and no others")
+    void stockIndex() {
+        // Arrange
+        SyntheticCatalog catalog = new SyntheticCatalog(1, "SYN", 100, 5, 1);
+
+        // Act & Assert
+        assertEquals(42, catalog.stockIndex(catalog.stockName(42)));
+        assertEquals(-1, catalog.stockIndex("SYN-100"));
+        assertEquals(-1, catalog.stockIndex("SYN-abc"));
+        assertEquals(-1, catalog.stockIndex("SYNX-1"));
+        assertEquals(-1, catalog.stockIndex("AAPL"));
+        assertEquals(-1, catalog.stockIndex(catalog.exchangeName(1)));
+        assertEquals(3, catalog.exchangeIndex(catalog.exchangeName(3)));
+        assertEquals(-1, catalog.exchangeIndex("SYN-X5"));
+        assertEquals(-1, catalog.exchangeIndex(catalog.stockName(3)));
+    }
+
+    @Test
+    @DisplayName("Should count the listings of all stocks")
+    void listings() {
+        // Arrange
+        SyntheticCatalog catalog = new SyntheticCatalog(9, "SYN", 1_000, 10, 1.5);
+
+        // Act
+        long listings = catalog.listings();
+
+        // Assert
+        long expected = 0;
+        for (int stock = 0; stock < catalog.stocks(); stock++) {
+            expected += catalog.exchangesOf(stock).length;
+        }
+        assertEquals(expected, listings);
+    }
+
+    @Test
+    @DisplayName("Should refuse prefixes that would not make valid or distinct names")
+    void constructor_InvalidPrefix() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticCatalog(1, "SY_N", 10, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticCatalog(1, "", 10, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticCatalog(1, "SYN", 10, 2, 3));
+    }
+}
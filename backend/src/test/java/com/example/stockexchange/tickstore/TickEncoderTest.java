@@ -0,0 +1,80 @@
+package com.example.stockexchange.tickstore;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TickEncoder Tests")
+class TickEncoderTest {
+
+    @Test
+    @DisplayName("Should decode exactly what was encoded")
+    void roundTrip_ExtremeValues() {
+        // Arrange
+        long[] timestamps = {0, 0, 1, 100_000, 100_001, 1L << 40, (1L << 40) + 5};
+        long[] values = {0, Long.MAX_VALUE, Long.MIN_VALUE, -1, 1, 1_013_700, 1_013_700};
+        TickEncoder encoder = new TickEncoder();
+
+        // Act
+        for (int i = 0; i < timestamps.length; i++) {
+            encoder.append(timestamps[i], values[i]);
+        }
+        TickDecoder decoder = new TickDecoder(encoder.toBytes(), encoder.count());
+
+        // Assert
+        for (int i = 0; i < timestamps.length; i++) {
+            assertTrue(decoder.next());
+            assertEquals(timestamps[i], decoder.timestamp(), "timestamp " + i);
+            assertEquals(values[i], decoder.value(), "value " + i);
+        }
+        assertFalse(decoder.next());
+    }
+
+    @Test
+    @DisplayName("Should store about-a-second price ticks in under three bytes each")
+    void append_CompressesPriceTicks() {
+        // Arrange: a random walk in cents at scale 4, ticks one second apart give or take 25 ms
+        Random random = new Random(7);
+        TickEncoder encoder = new TickEncoder();
+        long timestamp = 1_700_000_000_000L;
+        long price = 1_013_700;
+        int points = 4096;
+        long[] timestamps = new long[points];
+        long[] prices = new long[points];
+
+        // Act
+        for (int i = 0; i < points; i++) {
+            timestamp += 1000 + random.nextInt(51) - 25;
+            if (random.nextInt(5) > 0) {
+                price += (random.nextInt(21) - 10) * 100L;
+            }
+            timestamps[i] = timestamp;
+            prices[i] = price;
+            encoder.append(timestamp, price);
+        }
+        byte[] bytes = encoder.toBytes();
+
+        // Assert
+        assertTrue(bytes.length < 3 * points, "bytes per point: " + (double) bytes.length / points);
+        TickDecoder decoder = new TickDecoder(bytes, points);
+        for (int i = 0; i < points; i++) {
+            assertTrue(decoder.next());
+            assertEquals(timestamps[i], decoder.timestamp());
+            assertEquals(prices[i], decoder.value());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject timestamps going backwards")
+    void append_RejectsOutOfOrder() {
+        // Arrange
+        TickEncoder encoder = new TickEncoder();
+        encoder.append(1000, 1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> encoder.append(999, 1));
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.stockexchange.tickstore;
+
+import com.example.stockexchange.scheduling.TimerWheel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TickStore Tests")
+class TickStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final TimerWheel timerWheel = new TimerWheel(100, now::get);
+
+    private static final long HOUR = 3_600_000;
+
+    // hourly segments kept for two hours; the clock starts in the segment of hour 0
+    private TickStore open(int blockPoints, long blockMillis) {
+        return new TickStore(directory, blockPoints, blockMillis, HOUR, 2 * HOUR, timerWheel, now::get);
+    }
+
+    @Test
+    @DisplayName("Should scan a range across sealed blocks and the open one")
+    void scan_AcrossBlocks() {
+        // Arrange
+        TickStore store = open(10, 60_000);
+        for (int i = 0; i < 35; i++) {
+            store.append(1, 1000L * i, 100 + i);
+        }
+
+        // Act
+        List<Long> values = new ArrayList<>();
+        store.scan(1, 8_000, 31_000, (timestamp, value) -> values.add(value));
+
+        // Assert
+        assertEquals(24, values.size());
+        assertEquals(108, values.get(0));
+        assertEquals(131, values.get(values.size() - 1));
+        assertEquals(35, store.pointCount());
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Should stop scanning when the visitor returns false")
+    void scan_StopsEarly() {
+        // Arrange
+        TickStore store = open(10, 60_000);
+        for (int i = 0; i < 30; i++) {
+            store.append(1, 1000L * i, i);
+        }
+
+        // Act
+        List<Long> values = new ArrayList<>();
+        store.scan(1, 0, Long.MAX_VALUE, (timestamp, value) -> values.add(value) && values.size() < 3);
+
+        // Assert
+        assertEquals(List.of(0L, 1L, 2L), values);
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Should read every closed block back after a restart")
+    void close_ThenReopen() {
+        // Arrange
+        TickStore store = open(10, 60_000);
+        for (int i = 0; i < 25; i++) {
+            store.append(7, 1000L * i, 5000 + i);
+        }
+        store.close();
+
+        // Act
+        TickStore reopened = open(10, 60_000);
+        List<Long> values = new ArrayList<>();
+        reopened.scan(7, 0, Long.MAX_VALUE, (timestamp, value) -> values.add(value));
+
+        // Assert
+        assertEquals(25, values.size());
+        assertEquals(5024, values.get(24));
+        assertEquals(1, reopened.seriesCount());
+        assertTrue(reopened.bytesOnDisk() > 0);
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should seal an open block once it is old enough")
+    void append_SealsOnAge() throws Exception {
+        // Arrange
+        TickStore store = open(1000, 5_000);
+        store.append(3, now.get(), 42);
+
+        // Act
+        now.addAndGet(5_000);
+        timerWheel.advanceTo(now.get());
+        store.close();
+
+        // Assert
+        assertTrue(Files.size(directory.resolve("segment-0.ticks")) > 0);
+    }
+
+    @Test
+    @DisplayName("Should drop a record torn by a crash and keep the ones before it")
+    void reopen_TruncatesTornRecord() throws Exception {
+        // Arrange
+        TickStore store = open(5, 60_000);
+        for (int i = 0; i < 10; i++) {
+            store.append(2, 1000L * i, i);
+        }
+        store.close();
+        Path file = directory.resolve("segment-0.ticks");
+        long complete = Files.size(file);
+        Files.write(file, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // Act
+        TickStore reopened = open(5, 60_000);
+
+        // Assert
+        assertEquals(complete, Files.size(file));
+        assertEquals(10, reopened.pointCount());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should forget a dropped series, restarts included")
+    void drop_ForgetsSeries() {
+        // Arrange
+        TickStore store = open(5, 60_000);
+        for (int i = 0; i < 10; i++) {
+            store.append(4, 1000L * i, i);
+        }
+
+        // Act
+        store.drop(4);
+        store.close();
+
+        // Assert
+        List<Long> values = new ArrayList<>();
+        store.scan(4, 0, Long.MAX_VALUE, (timestamp, value) -> values.add(value));
+        assertTrue(values.isEmpty());
+        assertEquals(0, store.pointCount());
+        TickStore reopened = open(5, 60_000);
+        assertEquals(0, reopened.seriesCount());
+        assertEquals(0, reopened.pointCount());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should share one segment between series and start a new one each window")
+    void append_RollsSegments() throws Exception {
+        // Arrange
+        TickStore store = open(5, 60_000);
+        for (int i = 0; i < 5; i++) {
+            store.append(1, now.get(), i);
+            store.append(2, now.get(), i);
+        }
+
+        // Act
+        now.addAndGet(HOUR);
+        for (int i = 0; i < 5; i++) {
+            store.append(1, now.get(), 10 + i);
+        }
+        store.close();
+
+        // Assert
+        assertTrue(Files.exists(directory.resolve("segment-0.ticks")));
+        assertTrue(Files.exists(directory.resolve("segment-" + HOUR + ".ticks")));
+        assertEquals(2, store.segmentCount());
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+        List<Long> values = new ArrayList<>();
+        store.scan(1, 0, Long.MAX_VALUE, (timestamp, value) -> values.add(value));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 10L, 11L, 12L, 13L, 14L), values);
+    }
+
+    @Test
+    @DisplayName("Should delete segments past the retention along with their points")
+    void append_ExpiresOldSegments() throws Exception {
+        // Arrange: series 1 only has points in the first segment
+        TickStore store = open(5, 60_000);
+        for (int i = 0; i < 5; i++) {
+            store.append(1, now.get() + i, i);
+            store.append(2, now.get() + i, i);
+        }
+        now.addAndGet(HOUR);
+        for (int i = 0; i < 5; i++) {
+            store.append(2, now.get() + i, 10 + i);
+        }
+
+        // Act: the first segment ended more than two hours ago
+        now.addAndGet(2 * HOUR);
+        for (int i = 0; i < 5; i++) {
+            store.append(2, now.get() + i, 20 + i);
+        }
+        store.close();
+
+        // Assert
+        assertFalse(Files.exists(directory.resolve("segment-0.ticks")));
+        assertEquals(2, store.segmentCount());
+        assertEquals(1, store.seriesCount());
+        assertEquals(10, store.pointCount());
+        List<Long> values = new ArrayList<>();
+        store.scan(2, 0, Long.MAX_VALUE, (timestamp, value) -> values.add(value));
+        assertEquals(10, values.size());
+        assertEquals(10, values.get(0));
+        List<Long> expired = new ArrayList<>();
+        store.scan(1, 0, Long.MAX_VALUE, (timestamp, value) -> expired.add(value));
+        assertTrue(expired.isEmpty());
+
+        TickStore reopened = open(5, 60_000);
+        assertEquals(10, reopened.pointCount());
+        assertEquals(store.bytesOnDisk(), reopened.bytesOnDisk());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should reject a retention shorter than one segment")
+    void constructor_RetentionTooShort() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new TickStore(directory, 5, 60_000, HOUR, HOUR - 1, timerWheel, now::get));
+    }
+}